@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+/**
+ * Benchmarks for {@link DefaultListableBeanFactory}, covering singleton lookups
+ * by name and by type as well as prototype creation.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@BenchmarkMode(Mode.Throughput)
+public class DefaultListableBeanFactoryBenchmark {
+
+	@Benchmark
+	public Object getSingletonByName(BeanFactoryData data) {
+		return data.beanFactory.getBean("service0");
+	}
+
+	@Benchmark
+	public Object getSingletonByType(BeanFactoryData data) {
+		return data.beanFactory.getBean(Repository.class);
+	}
+
+	@Benchmark
+	public Object getBeanNamesForType(BeanFactoryData data) {
+		return data.beanFactory.getBeanNamesForType(Service.class, true, false);
+	}
+
+	@Benchmark
+	public Object getBeanNamesForTypeUncached(BeanFactoryData data) {
+		data.beanFactory.clearMetadataCache();
+		return data.beanFactory.getBeanNamesForType(Repository.class, true, false);
+	}
+
+	@Benchmark
+	public Object getPrototype(BeanFactoryData data) {
+		return data.beanFactory.getBean("prototype");
+	}
+
+	@Benchmark
+	public Object getPrototypeWithAutowiring(BeanFactoryData data) {
+		return data.beanFactory.getBean("autowiredPrototype");
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class BeanFactoryData {
+
+		@Param({"10", "1000"})
+		public int beanCount;
+
+		public DefaultListableBeanFactory beanFactory;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.beanFactory = new DefaultListableBeanFactory();
+			for (int i = 0; i < this.beanCount; i++) {
+				this.beanFactory.registerBeanDefinition("service" + i, new RootBeanDefinition(Service.class));
+			}
+			this.beanFactory.registerBeanDefinition("repository", new RootBeanDefinition(Repository.class));
+			RootBeanDefinition prototype = new RootBeanDefinition(Service.class);
+			prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			this.beanFactory.registerBeanDefinition("prototype", prototype);
+			RootBeanDefinition autowiredPrototype = new RootBeanDefinition(Service.class);
+			autowiredPrototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+			autowiredPrototype.setAutowireMode(RootBeanDefinition.AUTOWIRE_BY_TYPE);
+			this.beanFactory.registerBeanDefinition("autowiredPrototype", autowiredPrototype);
+			this.beanFactory.preInstantiateSingletons();
+		}
+	}
+
+
+	public static class Service {
+
+		private Repository repository;
+
+		public void setRepository(Repository repository) {
+			this.repository = repository;
+		}
+
+		public Repository getRepository() {
+			return this.repository;
+		}
+	}
+
+
+	public static class Repository {
+	}
+
+}
@@ -17,12 +17,15 @@
 package org.springframework.beans;
 
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import org.springframework.core.ResolvableType;
 import org.springframework.core.convert.Property;
@@ -304,6 +307,17 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				PropertyMethodInvoker invoker = getCachedIntrospectionResults().getPropertyMethodInvoker(this.pd);
+				Function<Object, Object> getter = (invoker != null ? invoker.getGetter() : null);
+				if (getter != null) {
+					try {
+						return getter.apply(getWrappedInstance());
+					}
+					catch (Throwable ex) {
+						// Same exception exposure as for reflective invocation
+						throw new InvocationTargetException(ex);
+					}
+				}
 				ReflectionUtils.makeAccessible(readMethod);
 				return readMethod.invoke(getWrappedInstance(), (Object[]) null);
 			}
@@ -328,6 +342,17 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
 				}
 			}
 			else {
+				PropertyMethodInvoker invoker = getCachedIntrospectionResults().getPropertyMethodInvoker(this.pd);
+				BiConsumer<Object, Object> setter = (invoker != null ? invoker.getSetter(value) : null);
+				if (setter != null) {
+					try {
+						setter.accept(getWrappedInstance(), value);
+					}
+					catch (Throwable ex) {
+						throw new InvocationTargetException(ex);
+					}
+					return;
+				}
 				ReflectionUtils.makeAccessible(writeMethod);
 				writeMethod.invoke(getWrappedInstance(), value);
 			}
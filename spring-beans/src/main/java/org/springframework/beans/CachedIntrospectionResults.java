@@ -92,12 +92,26 @@ public final class CachedIntrospectionResults {
 	 */
 	public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+	/**
+	 * System property that instructs Spring to invoke bean property accessor methods
+	 * through reflection only: "spring.beaninfo.generatedAccessors.ignore", with a value
+	 * of "true" switching off the generation of accessor invokers for frequently accessed
+	 * properties in {@link BeanWrapperImpl}.
+	 * <p>The default is "false", letting {@code BeanWrapperImpl} bind hot getter and setter
+	 * methods through {@link java.lang.invoke.LambdaMetafactory} where possible.
+	 * @since 5.2.10
+	 */
+	public static final String IGNORE_GENERATED_ACCESSORS_PROPERTY_NAME = "spring.beaninfo.generatedAccessors.ignore";
+
 	private static final PropertyDescriptor[] EMPTY_PROPERTY_DESCRIPTOR_ARRAY = {};
 
 
 	private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
 			SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+	private static final boolean shouldIgnoreGeneratedAccessors =
+			SpringProperties.getFlag(IGNORE_GENERATED_ACCESSORS_PROPERTY_NAME);
+
 	/** Stores the BeanInfoFactory instances. */
 	private static final List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
 			BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -260,6 +274,9 @@ public final class CachedIntrospectionResults {
 	/** TypeDescriptor objects keyed by PropertyDescriptor. */
 	private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
+	/** PropertyMethodInvoker objects keyed by PropertyDescriptor. */
+	private final ConcurrentMap<PropertyDescriptor, PropertyMethodInvoker> propertyMethodInvokerCache;
+
 
 	/**
 	 * Create a new CachedIntrospectionResults instance for the given class.
@@ -305,6 +322,7 @@ public final class CachedIntrospectionResults {
 			}
 
 			this.typeDescriptorCache = new ConcurrentReferenceHashMap<>();
+			this.propertyMethodInvokerCache = new ConcurrentHashMap<>();
 		}
 		catch (IntrospectionException ex) {
 			throw new FatalBeanException("Failed to obtain BeanInfo for class [" + beanClass.getName() + "]", ex);
@@ -375,4 +393,26 @@ public final class CachedIntrospectionResults {
 		return this.typeDescriptorCache.get(pd);
 	}
 
+	/**
+	 * Return the {@link PropertyMethodInvoker} for the given property of this class,
+	 * or {@code null} if generated accessors have been switched off.
+	 * @param pd a property descriptor obtained from this instance
+	 * @see #IGNORE_GENERATED_ACCESSORS_PROPERTY_NAME
+	 */
+	@Nullable
+	PropertyMethodInvoker getPropertyMethodInvoker(PropertyDescriptor pd) {
+		if (shouldIgnoreGeneratedAccessors) {
+			return null;
+		}
+		PropertyMethodInvoker invoker = this.propertyMethodInvokerCache.get(pd);
+		if (invoker == null) {
+			invoker = new PropertyMethodInvoker(pd.getReadMethod(), pd.getWriteMethod());
+			PropertyMethodInvoker existing = this.propertyMethodInvokerCache.putIfAbsent(pd, invoker);
+			if (existing != null) {
+				invoker = existing;
+			}
+		}
+		return invoker;
+	}
+
 }
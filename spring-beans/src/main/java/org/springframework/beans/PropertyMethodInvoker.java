@@ -0,0 +1,203 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Generated invokers for the read and write method of a bean property,
+ * bound through {@link LambdaMetafactory} so that property access does not
+ * have to go through {@link Method#invoke}.
+ *
+ * <p>Invokers are only generated once a method has been invoked reflectively
+ * {@link #GENERATION_THRESHOLD} times, since a one-off invocation (e.g. for
+ * property injection of a singleton) is cheaper through reflection than
+ * through a freshly generated class. Generation is skipped for non-public
+ * methods and for classes that are not visible from (or would be pinned by)
+ * the Spring class loader; callers fall back to reflection in those cases.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see CachedIntrospectionResults#getPropertyMethodInvoker
+ */
+final class PropertyMethodInvoker {
+
+	/**
+	 * Number of reflective invocations after which an invoker gets generated.
+	 */
+	static final int GENERATION_THRESHOLD = 16;
+
+	private static final Log logger = LogFactory.getLog(PropertyMethodInvoker.class);
+
+
+	@Nullable
+	private final Method readMethod;
+
+	@Nullable
+	private final Method writeMethod;
+
+	@Nullable
+	private final Class<?> writeParameterType;
+
+	private final AtomicInteger readInvocationCount = new AtomicInteger();
+
+	private final AtomicInteger writeInvocationCount = new AtomicInteger();
+
+	@Nullable
+	private volatile Function<Object, Object> getter;
+
+	@Nullable
+	private volatile BiConsumer<Object, Object> setter;
+
+
+	/**
+	 * Create a new PropertyMethodInvoker for the given accessor methods.
+	 * @param readMethod the read method of the property, if any
+	 * @param writeMethod the write method of the property, if any
+	 */
+	PropertyMethodInvoker(@Nullable Method readMethod, @Nullable Method writeMethod) {
+		this.readMethod = (readMethod != null && readMethod.getParameterCount() == 0 &&
+				isGenerationCandidate(readMethod) ? readMethod : null);
+		this.writeMethod = (writeMethod != null && writeMethod.getParameterCount() == 1 &&
+				isGenerationCandidate(writeMethod) ? writeMethod : null);
+		this.writeParameterType = (this.writeMethod != null ? this.writeMethod.getParameterTypes()[0] : null);
+	}
+
+
+	/**
+	 * Return the generated getter for the read method, or {@code null}
+	 * if the caller should use reflection for this invocation.
+	 */
+	@Nullable
+	Function<Object, Object> getGetter() {
+		Function<Object, Object> getter = this.getter;
+		if (getter == null && this.readMethod != null && reachesThreshold(this.readInvocationCount)) {
+			getter = generateGetter(this.readMethod);
+			this.getter = getter;
+		}
+		return getter;
+	}
+
+	/**
+	 * Return the generated setter for the write method, or {@code null}
+	 * if the caller should use reflection for this invocation.
+	 * <p>Values that the write method would not accept as-is (e.g. {@code null}
+	 * for a primitive parameter) are left to reflection, preserving its error
+	 * reporting for such cases.
+	 * @param value the value about to be set
+	 */
+	@Nullable
+	BiConsumer<Object, Object> getSetter(@Nullable Object value) {
+		if (this.writeParameterType == null || !isAssignableValue(this.writeParameterType, value)) {
+			return null;
+		}
+		BiConsumer<Object, Object> setter = this.setter;
+		if (setter == null && this.writeMethod != null && reachesThreshold(this.writeInvocationCount)) {
+			setter = generateSetter(this.writeMethod);
+			this.setter = setter;
+		}
+		return setter;
+	}
+
+
+	private static boolean reachesThreshold(AtomicInteger invocationCount) {
+		// Stop counting once the threshold has been reached, whether or not generation succeeded
+		return (invocationCount.get() < GENERATION_THRESHOLD &&
+				invocationCount.incrementAndGet() == GENERATION_THRESHOLD);
+	}
+
+	private static boolean isAssignableValue(Class<?> parameterType, @Nullable Object value) {
+		return (value != null ? ClassUtils.isAssignableValue(parameterType, value) : !parameterType.isPrimitive());
+	}
+
+	private static boolean isGenerationCandidate(Method method) {
+		Class<?> declaringClass = method.getDeclaringClass();
+		if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers()) ||
+				!Modifier.isPublic(declaringClass.getModifiers())) {
+			return false;
+		}
+		ClassLoader classLoader = PropertyMethodInvoker.class.getClassLoader();
+		if (!ClassUtils.isCacheSafe(declaringClass, classLoader) ||
+				!ClassUtils.isCacheSafe(method.getReturnType(), classLoader)) {
+			return false;
+		}
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if (!ClassUtils.isCacheSafe(parameterType, classLoader)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> generateGetter(Method readMethod) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle target = lookup.unreflect(readMethod);
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+					MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class), target,
+					MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(readMethod.getReturnType()),
+							readMethod.getDeclaringClass()));
+			return (Function<Object, Object>) callSite.getTarget().invoke();
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate getter for " + readMethod + " - using reflection", ex);
+			}
+			return null;
+		}
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> generateSetter(Method writeMethod) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle target = lookup.unreflect(writeMethod);
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+					MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class), target,
+					MethodType.methodType(void.class, writeMethod.getDeclaringClass(),
+							ClassUtils.resolvePrimitiveIfNecessary(writeMethod.getParameterTypes()[0])));
+			return (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate setter for " + writeMethod + " - using reflection", ex);
+			}
+			return null;
+		}
+	}
+
+}
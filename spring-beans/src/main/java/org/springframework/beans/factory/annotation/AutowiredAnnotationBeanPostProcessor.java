@@ -27,7 +27,6 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -728,6 +727,9 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		if (cachedArgument instanceof DependencyDescriptor) {
 			DependencyDescriptor descriptor = (DependencyDescriptor) cachedArgument;
 			Assert.state(this.beanFactory != null, "No BeanFactory available");
+			if (descriptor instanceof ShortcutDependencyDescriptor) {
+				return ((ShortcutDependencyDescriptor) descriptor).resolveCached(this.beanFactory, beanName);
+			}
 			return this.beanFactory.resolveDependency(descriptor, beanName, null, null);
 		}
 		else {
@@ -870,6 +872,7 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 				arguments = new Object[argumentCount];
 				DependencyDescriptor[] descriptors = new DependencyDescriptor[argumentCount];
 				Set<String> autowiredBeans = new LinkedHashSet<>(argumentCount);
+				String[] shortcuts = new String[argumentCount];
 				Assert.state(beanFactory != null, "No BeanFactory available");
 				TypeConverter typeConverter = beanFactory.getTypeConverter();
 				// 遍历参数从容器中获取
@@ -880,12 +883,17 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 					descriptors[i] = currDesc;
 					try {
 						// 根据类型从容器中获取
-						Object arg = beanFactory.resolveDependency(currDesc, beanName, autowiredBeans, typeConverter);
+						Set<String> argumentBeanNames = new LinkedHashSet<>(1);
+						Object arg = beanFactory.resolveDependency(currDesc, beanName, argumentBeanNames, typeConverter);
 						if (arg == null && !this.required) {
 							arguments = null;
 							break;
 						}
 						arguments[i] = arg;
+						autowiredBeans.addAll(argumentBeanNames);
+						if (argumentBeanNames.size() == 1) {
+							shortcuts[i] = argumentBeanNames.iterator().next();
+						}
 					}
 					catch (BeansException ex) {
 						throw new UnsatisfiedDependencyException(null, beanName, new InjectionPoint(methodParam), ex);
@@ -896,16 +904,13 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 						if (arguments != null) {
 							DependencyDescriptor[] cachedMethodArguments = Arrays.copyOf(descriptors, arguments.length);
 							registerDependentBeans(beanName, autowiredBeans);
-							if (autowiredBeans.size() == argumentCount) {
-								Iterator<String> it = autowiredBeans.iterator();
-								Class<?>[] paramTypes = method.getParameterTypes();
-								for (int i = 0; i < paramTypes.length; i++) {
-									String autowiredBeanName = it.next();
-									if (beanFactory.containsBean(autowiredBeanName) &&
-											beanFactory.isTypeMatch(autowiredBeanName, paramTypes[i])) {
-										cachedMethodArguments[i] = new ShortcutDependencyDescriptor(
-												descriptors[i], autowiredBeanName, paramTypes[i]);
-									}
+							Class<?>[] paramTypes = method.getParameterTypes();
+							for (int i = 0; i < paramTypes.length; i++) {
+								String autowiredBeanName = shortcuts[i];
+								if (autowiredBeanName != null && beanFactory.containsBean(autowiredBeanName) &&
+										beanFactory.isTypeMatch(autowiredBeanName, paramTypes[i])) {
+									cachedMethodArguments[i] = new ShortcutDependencyDescriptor(
+											descriptors[i], autowiredBeanName, paramTypes[i]);
 								}
 							}
 							this.cachedMethodArguments = cachedMethodArguments;
@@ -946,6 +951,8 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 
 	/**
 	 * DependencyDescriptor variant with a pre-resolved target bean name.
+	 * <p>Once the target has been resolved to a fully initialized singleton,
+	 * that instance gets reused directly for as long as it remains registered.
 	 */
 	@SuppressWarnings("serial")
 	private static class ShortcutDependencyDescriptor extends DependencyDescriptor {
@@ -954,6 +961,9 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 
 		private final Class<?> requiredType;
 
+		@Nullable
+		private transient volatile Object singletonInstance;
+
 		public ShortcutDependencyDescriptor(DependencyDescriptor original, String shortcut, Class<?> requiredType) {
 			super(original);
 			this.shortcut = shortcut;
@@ -964,6 +974,26 @@ public class AutowiredAnnotationBeanPostProcessor extends InstantiationAwareBean
 		public Object resolveShortcut(BeanFactory beanFactory) {
 			return beanFactory.getBean(this.shortcut, this.requiredType);
 		}
+
+		/**
+		 * Resolve this descriptor, short-circuiting dependency resolution
+		 * if the shortcut target is a singleton resolved before.
+		 * @param beanFactory the bean factory to resolve against
+		 * @param beanName the name of the bean being injected
+		 */
+		@Nullable
+		public Object resolveCached(ConfigurableListableBeanFactory beanFactory, @Nullable String beanName) {
+			Object singletonInstance = this.singletonInstance;
+			if (singletonInstance != null && beanFactory.getSingleton(this.shortcut) == singletonInstance) {
+				return singletonInstance;
+			}
+			Object resolved = beanFactory.resolveDependency(this, beanName, null, null);
+			// Only keep fully initialized singletons, not early references or FactoryBean products
+			this.singletonInstance = (resolved != null && beanFactory.containsSingleton(this.shortcut) &&
+					!beanFactory.isCurrentlyInCreation(this.shortcut) &&
+					beanFactory.getSingleton(this.shortcut) == resolved ? resolved : null);
+			return resolved;
+		}
 	}
 
 }
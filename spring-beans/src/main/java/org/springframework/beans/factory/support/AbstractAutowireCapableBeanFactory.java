@@ -125,6 +125,9 @@ import org.springframework.util.StringUtils;
 public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFactory
 		implements AutowireCapableBeanFactory {
 
+	private static final boolean flightRecorderPresent =
+			ClassUtils.isPresent("jdk.jfr.Event", AbstractAutowireCapableBeanFactory.class.getClassLoader());
+
 	/**
 	 * bean 的生成策略，默认是 cglib
 	 * Strategy for creating bean instances. */
@@ -607,6 +610,7 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 					"BeanPostProcessor before instantiation of bean failed", ex);
 		}
 
+		FlightRecorderBeanCreationEvent event = (flightRecorderPresent ? FlightRecorderBeanCreationEvent.start() : null);
 		try {
 			// 创建对象，返回一个完整的对象
 			Object beanInstance = doCreateBean(beanName, mbdToUse, args);
@@ -624,6 +628,11 @@ public abstract class AbstractAutowireCapableBeanFactory extends AbstractBeanFac
 			throw new BeanCreationException(
 					mbdToUse.getResourceDescription(), beanName, "Unexpected exception during bean creation", ex);
 		}
+		finally {
+			if (event != null) {
+				event.commit(beanName, mbdToUse);
+			}
+		}
 	}
 
 	/**
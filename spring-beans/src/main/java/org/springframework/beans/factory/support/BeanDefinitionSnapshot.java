@@ -0,0 +1,323 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Compact binary snapshot of the bean definitions in a bean factory, for
+ * restoring a registry without re-running the readers and scanners that
+ * originally populated it.
+ *
+ * <p>A snapshot holds the merged bean definitions in registration order along
+ * with their aliases, tagged with a fingerprint that callers use to decide
+ * whether the snapshot still applies &mdash; typically the result of
+ * {@link #computeClasspathFingerprint(ClassLoader)}. Definitions are encoded
+ * at capture time, so later modifications of the source factory (for example
+ * by placeholder resolution) do not leak into the snapshot.
+ *
+ * <p>Bean definitions with an {@linkplain AbstractBeanDefinition#setInstanceSupplier
+ * instance supplier} or with property values of arbitrary object types cannot be
+ * captured; manually registered singletons are not part of the snapshot either.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see #capture
+ * @see #registerBeanDefinitions
+ */
+public final class BeanDefinitionSnapshot {
+
+	private static final int MAGIC = 0x53424453;
+
+	private static final int VERSION = 1;
+
+
+	private final String fingerprint;
+
+	private final Map<String, String> attributes;
+
+	private final int beanDefinitionCount;
+
+	private final byte[] registryData;
+
+
+	private BeanDefinitionSnapshot(String fingerprint, Map<String, String> attributes,
+			int beanDefinitionCount, byte[] registryData) {
+
+		this.fingerprint = fingerprint;
+		this.attributes = attributes;
+		this.beanDefinitionCount = beanDefinitionCount;
+		this.registryData = registryData;
+	}
+
+
+	/**
+	 * Return the fingerprint that this snapshot was captured with.
+	 */
+	public String getFingerprint() {
+		return this.fingerprint;
+	}
+
+	/**
+	 * Return the number of bean definitions held by this snapshot.
+	 */
+	public int getBeanDefinitionCount() {
+		return this.beanDefinitionCount;
+	}
+
+	/**
+	 * Store an additional String attribute along with the bean definitions.
+	 * @param name the attribute name
+	 * @param value the attribute value, or {@code null} to remove it
+	 */
+	public void setAttribute(String name, @Nullable String value) {
+		Assert.notNull(name, "Attribute name must not be null");
+		if (value != null) {
+			this.attributes.put(name, value);
+		}
+		else {
+			this.attributes.remove(name);
+		}
+	}
+
+	/**
+	 * Return the attribute of the given name, if any.
+	 * @param name the attribute name
+	 */
+	@Nullable
+	public String getAttribute(String name) {
+		return this.attributes.get(name);
+	}
+
+	/**
+	 * Return the names of all attributes, in the order that they were set.
+	 */
+	public Set<String> attributeNames() {
+		return new LinkedHashSet<>(this.attributes.keySet());
+	}
+
+	/**
+	 * Register the bean definitions and aliases of this snapshot with the given
+	 * registry. Bean names that the registry already knows are skipped, which
+	 * leaves infrastructure beans registered by the target context untouched.
+	 * @param registry the registry to populate
+	 * @param classLoader the ClassLoader to resolve bean classes with
+	 * (or {@code null} for the default ClassLoader)
+	 * @return the number of bean definitions registered
+	 * @throws IllegalStateException if the snapshot cannot be read or refers
+	 * to classes that are not present
+	 */
+	public int registerBeanDefinitions(BeanDefinitionRegistry registry, @Nullable ClassLoader classLoader) {
+		Assert.notNull(registry, "BeanDefinitionRegistry must not be null");
+		int registered = 0;
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(this.registryData));
+			BeanDefinitionSnapshotCodec.Decoder decoder = new BeanDefinitionSnapshotCodec.Decoder(in, classLoader);
+			for (int i = 0; i < this.beanDefinitionCount; i++) {
+				String beanName = decoder.readString();
+				RootBeanDefinition bd = decoder.readRootBeanDefinition();
+				String[] aliases = decoder.readStringArray();
+				if (beanName == null || registry.containsBeanDefinition(beanName)) {
+					continue;
+				}
+				registry.registerBeanDefinition(beanName, bd);
+				if (aliases != null) {
+					for (String alias : aliases) {
+						if (!registry.isAlias(alias)) {
+							registry.registerAlias(beanName, alias);
+						}
+					}
+				}
+				registered++;
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Corrupt bean definition snapshot", ex);
+		}
+		return registered;
+	}
+
+	/**
+	 * Write this snapshot to the given stream. The stream is not closed.
+	 * @param outputStream the stream to write to
+	 * @throws IOException in case of I/O errors
+	 */
+	public void writeTo(OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeUTF(this.fingerprint);
+		out.writeInt(this.attributes.size());
+		for (Map.Entry<String, String> entry : this.attributes.entrySet()) {
+			out.writeUTF(entry.getKey());
+			out.writeUTF(entry.getValue());
+		}
+		out.writeInt(this.beanDefinitionCount);
+		out.writeInt(this.registryData.length);
+		out.write(this.registryData);
+		out.flush();
+	}
+
+
+	/**
+	 * Capture the bean definitions of the given bean factory.
+	 * @param beanFactory the bean factory to capture
+	 * @param fingerprint the fingerprint to tag the snapshot with
+	 * @return the snapshot
+	 * @throws IllegalArgumentException if one of the bean definitions
+	 * cannot be captured
+	 */
+	public static BeanDefinitionSnapshot capture(ConfigurableListableBeanFactory beanFactory, String fingerprint) {
+		Assert.notNull(beanFactory, "BeanFactory must not be null");
+		Assert.notNull(fingerprint, "Fingerprint must not be null");
+		String[] beanNames = beanFactory.getBeanDefinitionNames();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(beanNames.length * 256);
+		try {
+			DataOutputStream out = new DataOutputStream(bytes);
+			BeanDefinitionSnapshotCodec.Encoder encoder = new BeanDefinitionSnapshotCodec.Encoder(out);
+			for (String beanName : beanNames) {
+				BeanDefinition bd = beanFactory.getMergedBeanDefinition(beanName);
+				if (!(bd instanceof RootBeanDefinition)) {
+					throw new IllegalArgumentException("Cannot capture bean definition '" + beanName +
+							"' of type [" + bd.getClass().getName() + "]");
+				}
+				encoder.writeRootBeanDefinition(beanName, (RootBeanDefinition) bd);
+				encoder.writeStringArray(beanFactory.getAliases(beanName));
+			}
+			out.flush();
+		}
+		catch (IOException ex) {
+			// Cannot happen with an in-memory stream
+			throw new IllegalStateException(ex);
+		}
+		return new BeanDefinitionSnapshot(fingerprint, new LinkedHashMap<>(), beanNames.length, bytes.toByteArray());
+	}
+
+	/**
+	 * Read a snapshot previously written with {@link #writeTo}.
+	 * The stream is not closed.
+	 * @param inputStream the stream to read from
+	 * @return the snapshot
+	 * @throws IOException in case of I/O errors or if the stream does not
+	 * contain a snapshot of a supported format version
+	 */
+	public static BeanDefinitionSnapshot readFrom(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a bean definition snapshot");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported bean definition snapshot version " + version);
+		}
+		String fingerprint = in.readUTF();
+		int attributeCount = in.readInt();
+		Map<String, String> attributes = new LinkedHashMap<>(attributeCount * 2);
+		for (int i = 0; i < attributeCount; i++) {
+			attributes.put(in.readUTF(), in.readUTF());
+		}
+		int beanDefinitionCount = in.readInt();
+		byte[] registryData = new byte[in.readInt()];
+		in.readFully(registryData);
+		return new BeanDefinitionSnapshot(fingerprint, attributes, beanDefinitionCount, registryData);
+	}
+
+	/**
+	 * Compute a fingerprint of the application classpath: the entries of the
+	 * {@code java.class.path} system property and the file URLs of the given
+	 * ClassLoader hierarchy, along with the size and last-modified timestamp
+	 * of every file that they contain.
+	 * @param classLoader the ClassLoader to include (may be {@code null})
+	 * @return the fingerprint as a hex String
+	 */
+	public static String computeClasspathFingerprint(@Nullable ClassLoader classLoader) {
+		Set<String> entries = new LinkedHashSet<>();
+		String classPath = System.getProperty("java.class.path");
+		if (classPath != null) {
+			for (String entry : StringUtils.tokenizeToStringArray(classPath, File.pathSeparator)) {
+				entries.add(new File(entry).getAbsolutePath());
+			}
+		}
+		for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+			if (cl instanceof URLClassLoader) {
+				for (URL url : ((URLClassLoader) cl).getURLs()) {
+					if (ResourceUtils.URL_PROTOCOL_FILE.equals(url.getProtocol())) {
+						try {
+							entries.add(ResourceUtils.getFile(url).getAbsolutePath());
+							continue;
+						}
+						catch (IOException ex) {
+							// Fall back to the URL itself
+						}
+					}
+					entries.add(url.toString());
+				}
+			}
+		}
+		StringBuilder content = new StringBuilder(entries.size() * 128);
+		for (String entry : entries) {
+			File file = new File(entry);
+			if (file.exists()) {
+				appendFileState(file, content);
+			}
+			else {
+				content.append(entry).append('\n');
+			}
+		}
+		return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void appendFileState(File file, StringBuilder content) {
+		content.append(file.getPath()).append(':').append(file.length()).append(':')
+				.append(file.lastModified()).append('\n');
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				Arrays.sort(children);
+				for (File child : children) {
+					appendFileState(child, content);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,813 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.core.AttributeAccessor;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Binary encoding of bean definitions for {@link BeanDefinitionSnapshot}.
+ *
+ * <p>Covers the configuration state of {@link AbstractBeanDefinition} along with
+ * the value types that bean definition readers and annotation processing put into
+ * bean definitions: bean references, typed string values, inner beans, managed
+ * collections and simple values. Sources and resources are not retained, except
+ * for the resource description. Anything else is rejected with an
+ * {@link IllegalArgumentException} rather than silently dropped.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+final class BeanDefinitionSnapshotCodec {
+
+	private static final byte NULL = 0;
+
+	private static final byte STRING = 1;
+
+	private static final byte BOOLEAN = 2;
+
+	private static final byte INTEGER = 3;
+
+	private static final byte LONG = 4;
+
+	private static final byte DOUBLE = 5;
+
+	private static final byte FLOAT = 6;
+
+	private static final byte SHORT = 7;
+
+	private static final byte BYTE = 8;
+
+	private static final byte CHARACTER = 9;
+
+	private static final byte CLASS = 10;
+
+	private static final byte ENUM = 11;
+
+	private static final byte BEAN_REFERENCE = 12;
+
+	private static final byte BEAN_NAME_REFERENCE = 13;
+
+	private static final byte TYPED_STRING_VALUE = 14;
+
+	private static final byte BEAN_DEFINITION_HOLDER = 15;
+
+	private static final byte BEAN_DEFINITION = 16;
+
+	private static final byte MANAGED_LIST = 17;
+
+	private static final byte MANAGED_ARRAY = 18;
+
+	private static final byte MANAGED_SET = 19;
+
+	private static final byte MANAGED_MAP = 20;
+
+	private static final byte MANAGED_PROPERTIES = 21;
+
+	private static final byte LIST = 22;
+
+	private static final byte SET = 23;
+
+	private static final byte MAP = 24;
+
+	private static final byte PROPERTIES = 25;
+
+	private static final byte ARRAY = 26;
+
+	private static final byte LOOKUP_OVERRIDE = 0;
+
+	private static final byte REPLACE_OVERRIDE = 1;
+
+
+	private BeanDefinitionSnapshotCodec() {
+	}
+
+
+	/**
+	 * Writes bean definitions, sharing repeated strings within one stream.
+	 */
+	static final class Encoder {
+
+		private final DataOutputStream out;
+
+		private final Map<String, Integer> strings = new HashMap<>();
+
+		private String currentBeanName = "";
+
+		Encoder(DataOutputStream out) {
+			this.out = out;
+		}
+
+		void writeRootBeanDefinition(String beanName, RootBeanDefinition bd) throws IOException {
+			this.currentBeanName = beanName;
+			writeString(beanName);
+			writeBeanDefinition(bd, true);
+			this.out.writeBoolean(bd.isFactoryMethodUnique);
+			Class<?> targetType = bd.getTargetType();
+			writeString(targetType != null ? targetType.getName() : null);
+			BeanDefinitionHolder decoratedDefinition = bd.getDecoratedDefinition();
+			this.out.writeBoolean(decoratedDefinition != null);
+			if (decoratedDefinition != null) {
+				writeBeanDefinitionHolder(decoratedDefinition);
+			}
+			AnnotatedElement qualifiedElement = bd.getQualifiedElement();
+			if (qualifiedElement != null && !(qualifiedElement instanceof Class)) {
+				throw unsupported("qualified element", qualifiedElement);
+			}
+			writeString(qualifiedElement != null ? ((Class<?>) qualifiedElement).getName() : null);
+		}
+
+		void writeStringArray(@Nullable String[] values) throws IOException {
+			this.out.writeInt(values != null ? values.length : -1);
+			if (values != null) {
+				for (String value : values) {
+					writeString(value);
+				}
+			}
+		}
+
+		void writeString(@Nullable String value) throws IOException {
+			if (value == null) {
+				this.out.writeInt(-1);
+				return;
+			}
+			Integer index = this.strings.get(value);
+			if (index != null) {
+				this.out.writeInt(index);
+			}
+			else {
+				this.strings.put(value, this.strings.size());
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				this.out.writeInt(-2);
+				this.out.writeInt(bytes.length);
+				this.out.write(bytes);
+			}
+		}
+
+		private void writeBeanDefinition(BeanDefinition definition, boolean root) throws IOException {
+			if (!(definition instanceof AbstractBeanDefinition)) {
+				throw unsupported("bean definition", definition);
+			}
+			AbstractBeanDefinition bd = (AbstractBeanDefinition) definition;
+			if (bd.getInstanceSupplier() != null) {
+				throw new IllegalArgumentException("Cannot capture bean definition '" + this.currentBeanName +
+						"' with an instance supplier");
+			}
+			writeString(bd.getBeanClassName());
+			if (!root) {
+				writeString(bd.getParentName());
+			}
+			writeString(bd.getScope());
+			this.out.writeBoolean(bd.isAbstract());
+			Boolean lazyInit = bd.getLazyInit();
+			this.out.writeByte(lazyInit != null ? (lazyInit ? 1 : 0) : -1);
+			this.out.writeInt(bd.getAutowireMode());
+			this.out.writeInt(bd.getDependencyCheck());
+			writeStringArray(bd.getDependsOn());
+			this.out.writeBoolean(bd.isAutowireCandidate());
+			this.out.writeBoolean(bd.isPrimary());
+			Set<AutowireCandidateQualifier> qualifiers = bd.getQualifiers();
+			this.out.writeInt(qualifiers.size());
+			for (AutowireCandidateQualifier qualifier : qualifiers) {
+				writeString(qualifier.getTypeName());
+				writeAttributes(qualifier);
+			}
+			this.out.writeBoolean(bd.isNonPublicAccessAllowed());
+			this.out.writeBoolean(bd.isLenientConstructorResolution());
+			writeString(bd.getFactoryBeanName());
+			writeString(bd.getFactoryMethodName());
+			writeConstructorArgumentValues(bd.getConstructorArgumentValues());
+			writePropertyValues(bd.getPropertyValues());
+			writeMethodOverrides(bd.getMethodOverrides());
+			writeString(bd.getInitMethodName());
+			this.out.writeBoolean(bd.isEnforceInitMethod());
+			writeString(bd.getDestroyMethodName());
+			this.out.writeBoolean(bd.isEnforceDestroyMethod());
+			this.out.writeBoolean(bd.isSynthetic());
+			this.out.writeInt(bd.getRole());
+			writeString(bd.getDescription());
+			writeString(bd.getResourceDescription());
+			writeAttributes(bd);
+		}
+
+		private void writeConstructorArgumentValues(ConstructorArgumentValues cav) throws IOException {
+			Map<Integer, ConstructorArgumentValues.ValueHolder> indexed = cav.getIndexedArgumentValues();
+			this.out.writeInt(indexed.size());
+			for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry : indexed.entrySet()) {
+				this.out.writeInt(entry.getKey());
+				writeValueHolder(entry.getValue());
+			}
+			List<ConstructorArgumentValues.ValueHolder> generic = cav.getGenericArgumentValues();
+			this.out.writeInt(generic.size());
+			for (ConstructorArgumentValues.ValueHolder valueHolder : generic) {
+				writeValueHolder(valueHolder);
+			}
+		}
+
+		private void writeValueHolder(ConstructorArgumentValues.ValueHolder valueHolder) throws IOException {
+			writeValue(valueHolder.getValue());
+			writeString(valueHolder.getType());
+			writeString(valueHolder.getName());
+		}
+
+		private void writePropertyValues(MutablePropertyValues pvs) throws IOException {
+			List<PropertyValue> propertyValues = pvs.getPropertyValueList();
+			this.out.writeInt(propertyValues.size());
+			for (PropertyValue pv : propertyValues) {
+				writeString(pv.getName());
+				writeValue(pv.getValue());
+				this.out.writeBoolean(pv.isOptional());
+			}
+		}
+
+		private void writeMethodOverrides(MethodOverrides methodOverrides) throws IOException {
+			Set<MethodOverride> overrides = methodOverrides.getOverrides();
+			this.out.writeInt(overrides.size());
+			for (MethodOverride override : overrides) {
+				if (override instanceof LookupOverride) {
+					this.out.writeByte(LOOKUP_OVERRIDE);
+					writeString(override.getMethodName());
+					writeString(((LookupOverride) override).getBeanName());
+				}
+				else if (override instanceof ReplaceOverride) {
+					ReplaceOverride replaceOverride = (ReplaceOverride) override;
+					this.out.writeByte(REPLACE_OVERRIDE);
+					writeString(replaceOverride.getMethodName());
+					writeString(replaceOverride.getMethodReplacerBeanName());
+					writeStringArray(replaceOverride.getTypeIdentifiers().toArray(new String[0]));
+				}
+				else {
+					throw unsupported("method override", override);
+				}
+			}
+		}
+
+		private void writeAttributes(AttributeAccessor accessor) throws IOException {
+			String[] names = accessor.attributeNames();
+			this.out.writeInt(names.length);
+			for (String name : names) {
+				writeString(name);
+				writeValue(accessor.getAttribute(name));
+			}
+		}
+
+		private void writeBeanDefinitionHolder(BeanDefinitionHolder holder) throws IOException {
+			writeString(holder.getBeanName());
+			writeStringArray(holder.getAliases());
+			writeBeanDefinition(holder.getBeanDefinition(), false);
+		}
+
+		private void writeValue(@Nullable Object value) throws IOException {
+			if (value == null) {
+				this.out.writeByte(NULL);
+			}
+			else if (value instanceof String) {
+				this.out.writeByte(STRING);
+				writeString((String) value);
+			}
+			else if (value instanceof Boolean) {
+				this.out.writeByte(BOOLEAN);
+				this.out.writeBoolean((Boolean) value);
+			}
+			else if (value instanceof Integer) {
+				this.out.writeByte(INTEGER);
+				this.out.writeInt((Integer) value);
+			}
+			else if (value instanceof Long) {
+				this.out.writeByte(LONG);
+				this.out.writeLong((Long) value);
+			}
+			else if (value instanceof Double) {
+				this.out.writeByte(DOUBLE);
+				this.out.writeDouble((Double) value);
+			}
+			else if (value instanceof Float) {
+				this.out.writeByte(FLOAT);
+				this.out.writeFloat((Float) value);
+			}
+			else if (value instanceof Short) {
+				this.out.writeByte(SHORT);
+				this.out.writeShort((Short) value);
+			}
+			else if (value instanceof Byte) {
+				this.out.writeByte(BYTE);
+				this.out.writeByte((Byte) value);
+			}
+			else if (value instanceof Character) {
+				this.out.writeByte(CHARACTER);
+				this.out.writeChar((Character) value);
+			}
+			else if (value instanceof Class) {
+				this.out.writeByte(CLASS);
+				writeString(((Class<?>) value).getName());
+			}
+			else if (value instanceof Enum) {
+				Enum<?> enumValue = (Enum<?>) value;
+				this.out.writeByte(ENUM);
+				writeString(enumValue.getDeclaringClass().getName());
+				writeString(enumValue.name());
+			}
+			else if (value instanceof RuntimeBeanReference) {
+				RuntimeBeanReference reference = (RuntimeBeanReference) value;
+				Class<?> beanType = reference.getBeanType();
+				this.out.writeByte(BEAN_REFERENCE);
+				writeString(beanType != null ? beanType.getName() : null);
+				writeString(reference.getBeanName());
+				this.out.writeBoolean(reference.isToParent());
+			}
+			else if (value instanceof RuntimeBeanNameReference) {
+				this.out.writeByte(BEAN_NAME_REFERENCE);
+				writeString(((RuntimeBeanNameReference) value).getBeanName());
+			}
+			else if (value instanceof TypedStringValue) {
+				TypedStringValue typedStringValue = (TypedStringValue) value;
+				this.out.writeByte(TYPED_STRING_VALUE);
+				writeString(typedStringValue.getValue());
+				writeString(typedStringValue.getTargetTypeName());
+				this.out.writeBoolean(typedStringValue.hasTargetType());
+				writeString(typedStringValue.getSpecifiedTypeName());
+				this.out.writeBoolean(typedStringValue.isDynamic());
+			}
+			else if (value instanceof BeanDefinitionHolder) {
+				this.out.writeByte(BEAN_DEFINITION_HOLDER);
+				writeBeanDefinitionHolder((BeanDefinitionHolder) value);
+			}
+			else if (value instanceof BeanDefinition) {
+				this.out.writeByte(BEAN_DEFINITION);
+				writeBeanDefinition((BeanDefinition) value, false);
+			}
+			else if (value instanceof ManagedArray) {
+				ManagedArray array = (ManagedArray) value;
+				this.out.writeByte(MANAGED_ARRAY);
+				writeString(array.getElementTypeName());
+				this.out.writeBoolean(array.isMergeEnabled());
+				writeElements(array);
+			}
+			else if (value instanceof ManagedList) {
+				ManagedList<?> list = (ManagedList<?>) value;
+				this.out.writeByte(MANAGED_LIST);
+				writeString(list.getElementTypeName());
+				this.out.writeBoolean(list.isMergeEnabled());
+				writeElements(list);
+			}
+			else if (value instanceof ManagedSet) {
+				ManagedSet<?> set = (ManagedSet<?>) value;
+				this.out.writeByte(MANAGED_SET);
+				writeString(set.getElementTypeName());
+				this.out.writeBoolean(set.isMergeEnabled());
+				writeElements(set);
+			}
+			else if (value instanceof ManagedMap) {
+				ManagedMap<?, ?> map = (ManagedMap<?, ?>) value;
+				this.out.writeByte(MANAGED_MAP);
+				writeString(map.getKeyTypeName());
+				writeString(map.getValueTypeName());
+				this.out.writeBoolean(map.isMergeEnabled());
+				writeEntries(map);
+			}
+			else if (value instanceof ManagedProperties) {
+				ManagedProperties properties = (ManagedProperties) value;
+				this.out.writeByte(MANAGED_PROPERTIES);
+				this.out.writeBoolean(properties.isMergeEnabled());
+				writeEntries(properties);
+			}
+			else if (value instanceof Properties) {
+				this.out.writeByte(PROPERTIES);
+				writeEntries((Properties) value);
+			}
+			else if (value instanceof List) {
+				this.out.writeByte(LIST);
+				writeElements((List<?>) value);
+			}
+			else if (value instanceof Set) {
+				this.out.writeByte(SET);
+				writeElements((Set<?>) value);
+			}
+			else if (value instanceof Map) {
+				this.out.writeByte(MAP);
+				writeEntries((Map<?, ?>) value);
+			}
+			else if (value instanceof Object[]) {
+				Object[] array = (Object[]) value;
+				this.out.writeByte(ARRAY);
+				writeString(array.getClass().getComponentType().getName());
+				this.out.writeInt(array.length);
+				for (Object element : array) {
+					writeValue(element);
+				}
+			}
+			else {
+				throw unsupported("value", value);
+			}
+		}
+
+		private void writeElements(Collection<?> elements) throws IOException {
+			this.out.writeInt(elements.size());
+			for (Object element : elements) {
+				writeValue(element);
+			}
+		}
+
+		private void writeEntries(Map<?, ?> map) throws IOException {
+			this.out.writeInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(entry.getKey());
+				writeValue(entry.getValue());
+			}
+		}
+
+		private IllegalArgumentException unsupported(String kind, Object value) {
+			return new IllegalArgumentException("Cannot capture " + kind + " of type [" +
+					value.getClass().getName() + "] in bean definition '" + this.currentBeanName + "'");
+		}
+	}
+
+
+	/**
+	 * Reads bean definitions written by an {@link Encoder}.
+	 */
+	static final class Decoder {
+
+		private final DataInputStream in;
+
+		private final ClassLoader classLoader;
+
+		private final List<String> strings = new ArrayList<>();
+
+		Decoder(DataInputStream in, @Nullable ClassLoader classLoader) {
+			this.in = in;
+			this.classLoader = (classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader());
+		}
+
+		RootBeanDefinition readRootBeanDefinition() throws IOException {
+			RootBeanDefinition bd = new RootBeanDefinition();
+			readBeanDefinition(bd, true);
+			bd.isFactoryMethodUnique = this.in.readBoolean();
+			String targetTypeName = readString();
+			if (targetTypeName != null) {
+				bd.setTargetType(resolveClass(targetTypeName));
+			}
+			if (this.in.readBoolean()) {
+				bd.setDecoratedDefinition(readBeanDefinitionHolder());
+			}
+			String qualifiedElementName = readString();
+			if (qualifiedElementName != null) {
+				bd.setQualifiedElement(resolveClass(qualifiedElementName));
+			}
+			String beanClassName = bd.getBeanClassName();
+			if (beanClassName != null && this.classLoader != null) {
+				// Snapshots get validated against the classpath, so bean classes can be resolved upfront
+				bd.setBeanClass(resolveClass(beanClassName));
+			}
+			return bd;
+		}
+
+		@Nullable
+		String[] readStringArray() throws IOException {
+			int length = this.in.readInt();
+			if (length < 0) {
+				return null;
+			}
+			String[] values = new String[length];
+			for (int i = 0; i < length; i++) {
+				values[i] = readString();
+			}
+			return values;
+		}
+
+		@Nullable
+		String readString() throws IOException {
+			int index = this.in.readInt();
+			if (index == -1) {
+				return null;
+			}
+			if (index == -2) {
+				byte[] bytes = new byte[this.in.readInt()];
+				this.in.readFully(bytes);
+				String value = new String(bytes, StandardCharsets.UTF_8);
+				this.strings.add(value);
+				return value;
+			}
+			return this.strings.get(index);
+		}
+
+		private String readRequiredString() throws IOException {
+			String value = readString();
+			if (value == null) {
+				throw new IOException("Corrupt bean definition snapshot: unexpected null string");
+			}
+			return value;
+		}
+
+		private void readBeanDefinition(AbstractBeanDefinition bd, boolean root) throws IOException {
+			bd.setBeanClassName(readString());
+			if (!root) {
+				bd.setParentName(readString());
+			}
+			bd.setScope(readString());
+			bd.setAbstract(this.in.readBoolean());
+			byte lazyInit = this.in.readByte();
+			if (lazyInit >= 0) {
+				bd.setLazyInit(lazyInit == 1);
+			}
+			bd.setAutowireMode(this.in.readInt());
+			bd.setDependencyCheck(this.in.readInt());
+			bd.setDependsOn(readStringArray());
+			bd.setAutowireCandidate(this.in.readBoolean());
+			bd.setPrimary(this.in.readBoolean());
+			int qualifierCount = this.in.readInt();
+			for (int i = 0; i < qualifierCount; i++) {
+				AutowireCandidateQualifier qualifier = new AutowireCandidateQualifier(readRequiredString());
+				readAttributes(qualifier);
+				bd.addQualifier(qualifier);
+			}
+			bd.setNonPublicAccessAllowed(this.in.readBoolean());
+			bd.setLenientConstructorResolution(this.in.readBoolean());
+			bd.setFactoryBeanName(readString());
+			bd.setFactoryMethodName(readString());
+			readConstructorArgumentValues(bd.getConstructorArgumentValues());
+			readPropertyValues(bd.getPropertyValues());
+			readMethodOverrides(bd.getMethodOverrides());
+			bd.setInitMethodName(readString());
+			bd.setEnforceInitMethod(this.in.readBoolean());
+			bd.setDestroyMethodName(readString());
+			bd.setEnforceDestroyMethod(this.in.readBoolean());
+			bd.setSynthetic(this.in.readBoolean());
+			bd.setRole(this.in.readInt());
+			bd.setDescription(readString());
+			bd.setResourceDescription(readString());
+			readAttributes(bd);
+		}
+
+		private void readConstructorArgumentValues(ConstructorArgumentValues cav) throws IOException {
+			int indexedCount = this.in.readInt();
+			for (int i = 0; i < indexedCount; i++) {
+				int index = this.in.readInt();
+				cav.addIndexedArgumentValue(index, readValueHolder());
+			}
+			int genericCount = this.in.readInt();
+			for (int i = 0; i < genericCount; i++) {
+				cav.addGenericArgumentValue(readValueHolder());
+			}
+		}
+
+		private ConstructorArgumentValues.ValueHolder readValueHolder() throws IOException {
+			Object value = readValue();
+			return new ConstructorArgumentValues.ValueHolder(value, readString(), readString());
+		}
+
+		private void readPropertyValues(MutablePropertyValues pvs) throws IOException {
+			int count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				PropertyValue pv = new PropertyValue(readRequiredString(), readValue());
+				pv.setOptional(this.in.readBoolean());
+				pvs.addPropertyValue(pv);
+			}
+		}
+
+		private void readMethodOverrides(MethodOverrides methodOverrides) throws IOException {
+			int count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				byte kind = this.in.readByte();
+				String methodName = readRequiredString();
+				if (kind == LOOKUP_OVERRIDE) {
+					methodOverrides.addOverride(new LookupOverride(methodName, readString()));
+				}
+				else {
+					ReplaceOverride override = new ReplaceOverride(methodName, readRequiredString());
+					String[] typeIdentifiers = readStringArray();
+					if (typeIdentifiers != null) {
+						for (String typeIdentifier : typeIdentifiers) {
+							override.addTypeIdentifier(typeIdentifier);
+						}
+					}
+					methodOverrides.addOverride(override);
+				}
+			}
+		}
+
+		private void readAttributes(AttributeAccessor accessor) throws IOException {
+			int count = this.in.readInt();
+			for (int i = 0; i < count; i++) {
+				String name = readRequiredString();
+				accessor.setAttribute(name, readValue());
+			}
+		}
+
+		private BeanDefinitionHolder readBeanDefinitionHolder() throws IOException {
+			String beanName = readRequiredString();
+			String[] aliases = readStringArray();
+			return new BeanDefinitionHolder(readInnerBeanDefinition(), beanName, aliases);
+		}
+
+		private GenericBeanDefinition readInnerBeanDefinition() throws IOException {
+			GenericBeanDefinition bd = new GenericBeanDefinition();
+			readBeanDefinition(bd, false);
+			return bd;
+		}
+
+		@Nullable
+		private Object readValue() throws IOException {
+			byte tag = this.in.readByte();
+			switch (tag) {
+				case NULL:
+					return null;
+				case STRING:
+					return readString();
+				case BOOLEAN:
+					return this.in.readBoolean();
+				case INTEGER:
+					return this.in.readInt();
+				case LONG:
+					return this.in.readLong();
+				case DOUBLE:
+					return this.in.readDouble();
+				case FLOAT:
+					return this.in.readFloat();
+				case SHORT:
+					return this.in.readShort();
+				case BYTE:
+					return this.in.readByte();
+				case CHARACTER:
+					return this.in.readChar();
+				case CLASS:
+					return resolveClass(readRequiredString());
+				case ENUM:
+					return readEnum();
+				case BEAN_REFERENCE: {
+					String beanTypeName = readString();
+					String beanName = readRequiredString();
+					boolean toParent = this.in.readBoolean();
+					return (beanTypeName != null ? new RuntimeBeanReference(resolveClass(beanTypeName), toParent) :
+							new RuntimeBeanReference(beanName, toParent));
+				}
+				case BEAN_NAME_REFERENCE:
+					return new RuntimeBeanNameReference(readRequiredString());
+				case TYPED_STRING_VALUE: {
+					TypedStringValue typedStringValue = new TypedStringValue(readString());
+					String targetTypeName = readString();
+					if (this.in.readBoolean() && targetTypeName != null) {
+						typedStringValue.setTargetType(resolveClass(targetTypeName));
+					}
+					else {
+						typedStringValue.setTargetTypeName(targetTypeName);
+					}
+					typedStringValue.setSpecifiedTypeName(readString());
+					if (this.in.readBoolean()) {
+						typedStringValue.setDynamic();
+					}
+					return typedStringValue;
+				}
+				case BEAN_DEFINITION_HOLDER:
+					return readBeanDefinitionHolder();
+				case BEAN_DEFINITION:
+					return readInnerBeanDefinition();
+				case MANAGED_ARRAY: {
+					String elementTypeName = readRequiredString();
+					boolean mergeEnabled = this.in.readBoolean();
+					int size = this.in.readInt();
+					ManagedArray array = new ManagedArray(elementTypeName, size);
+					array.setMergeEnabled(mergeEnabled);
+					readElements(array, size);
+					return array;
+				}
+				case MANAGED_LIST: {
+					ManagedList<Object> list = new ManagedList<>();
+					String elementTypeName = readString();
+					if (elementTypeName != null) {
+						list.setElementTypeName(elementTypeName);
+					}
+					list.setMergeEnabled(this.in.readBoolean());
+					readElements(list, this.in.readInt());
+					return list;
+				}
+				case MANAGED_SET: {
+					ManagedSet<Object> set = new ManagedSet<>();
+					String elementTypeName = readString();
+					if (elementTypeName != null) {
+						set.setElementTypeName(elementTypeName);
+					}
+					set.setMergeEnabled(this.in.readBoolean());
+					readElements(set, this.in.readInt());
+					return set;
+				}
+				case MANAGED_MAP: {
+					ManagedMap<Object, Object> map = new ManagedMap<>();
+					map.setKeyTypeName(readString());
+					map.setValueTypeName(readString());
+					map.setMergeEnabled(this.in.readBoolean());
+					readEntries(map);
+					return map;
+				}
+				case MANAGED_PROPERTIES: {
+					ManagedProperties properties = new ManagedProperties();
+					properties.setMergeEnabled(this.in.readBoolean());
+					readEntries(properties);
+					return properties;
+				}
+				case PROPERTIES: {
+					Properties properties = new Properties();
+					readEntries(properties);
+					return properties;
+				}
+				case LIST: {
+					int size = this.in.readInt();
+					List<Object> list = new ArrayList<>(size);
+					readElements(list, size);
+					return list;
+				}
+				case SET: {
+					int size = this.in.readInt();
+					Set<Object> set = new LinkedHashSet<>(size);
+					readElements(set, size);
+					return set;
+				}
+				case MAP: {
+					Map<Object, Object> map = new LinkedHashMap<>();
+					readEntries(map);
+					return map;
+				}
+				case ARRAY: {
+					Class<?> componentType = resolveClass(readRequiredString());
+					Object[] array = (Object[]) Array.newInstance(componentType, this.in.readInt());
+					for (int i = 0; i < array.length; i++) {
+						array[i] = readValue();
+					}
+					return array;
+				}
+				default:
+					throw new IOException("Corrupt bean definition snapshot: unknown value tag " + tag);
+			}
+		}
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private Object readEnum() throws IOException {
+			Class enumType = resolveClass(readRequiredString());
+			return Enum.valueOf(enumType, readRequiredString());
+		}
+
+		private void readElements(Collection<Object> elements, int size) throws IOException {
+			for (int i = 0; i < size; i++) {
+				elements.add(readValue());
+			}
+		}
+
+		private void readEntries(Map<Object, Object> map) throws IOException {
+			int size = this.in.readInt();
+			for (int i = 0; i < size; i++) {
+				Object key = readValue();
+				map.put(key, readValue());
+			}
+		}
+
+		private Class<?> resolveClass(String className) {
+			try {
+				return ClassUtils.forName(className, this.classLoader);
+			}
+			catch (ClassNotFoundException | LinkageError ex) {
+				throw new IllegalStateException("Cannot resolve class [" + className +
+						"] from bean definition snapshot", ex);
+			}
+		}
+	}
+
+}
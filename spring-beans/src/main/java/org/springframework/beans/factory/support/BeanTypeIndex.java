@@ -0,0 +1,214 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Index of bean names by the raw type of their beans, including all
+ * superclasses and interfaces of that type.
+ *
+ * <p>Names are classified lazily: a newly added or invalidated name remains
+ * pending until the next lookup, which asks a resolver function for the
+ * definitive type of the bean. Names for which the resolver cannot commit to
+ * a type are kept as unindexed and returned as candidates for every lookup,
+ * so that callers still perform a full type check for them.
+ *
+ * <p>Candidate names are returned in the order in which they were first added.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see DefaultListableBeanFactory#getBeanNamesForType
+ */
+final class BeanTypeIndex {
+
+	private final Map<String, Long> registrationOrder = new HashMap<>(256);
+
+	private final Map<String, Object> pendingNames = new LinkedHashMap<>(256);
+
+	private final Set<String> unindexedNames = new HashSet<>(64);
+
+	private final Map<String, Class<?>> indexedTypes = new HashMap<>(256);
+
+	private final Map<Class<?>, Set<String>> namesByType = new HashMap<>(1024);
+
+	private long nextOrder;
+
+
+	/**
+	 * Add the given name, or reset it to pending if already present.
+	 * A name that is already present keeps its position.
+	 */
+	public synchronized void add(String name) {
+		if (!this.registrationOrder.containsKey(name)) {
+			this.registrationOrder.put(name, this.nextOrder++);
+		}
+		markPending(name);
+	}
+
+	/**
+	 * Remove the given name from the index.
+	 */
+	public synchronized void remove(String name) {
+		if (this.registrationOrder.remove(name) != null) {
+			removeFromIndex(name);
+			this.pendingNames.remove(name);
+		}
+	}
+
+	/**
+	 * Reset the given name to pending, if present.
+	 */
+	public synchronized void invalidate(String name) {
+		if (this.registrationOrder.containsKey(name)) {
+			markPending(name);
+		}
+	}
+
+	/**
+	 * Reset all names to pending.
+	 */
+	public synchronized void invalidateAll() {
+		this.unindexedNames.clear();
+		this.indexedTypes.clear();
+		this.namesByType.clear();
+		for (String name : this.registrationOrder.keySet()) {
+			this.pendingNames.put(name, new Object());
+		}
+	}
+
+	/**
+	 * Reset the given name to pending unless it is indexed with exactly the given type.
+	 */
+	public synchronized void verifyType(String name, Class<?> actualType) {
+		if (this.pendingNames.containsKey(name) ||
+				(this.indexedTypes.containsKey(name) && this.indexedTypes.get(name) != actualType)) {
+			markPending(name);
+		}
+	}
+
+	/**
+	 * Remove all names from the index.
+	 */
+	public synchronized void clear() {
+		this.registrationOrder.clear();
+		this.pendingNames.clear();
+		this.unindexedNames.clear();
+		this.indexedTypes.clear();
+		this.namesByType.clear();
+	}
+
+	/**
+	 * Return the names that may match the given type: all names indexed under
+	 * the type plus all names whose type could not be determined.
+	 * @param type the raw type to look up
+	 * @param typeResolver resolver for the type of pending names, returning
+	 * {@code null} if a name should remain unindexed
+	 * @return the candidate names, in registration order
+	 */
+	public List<String> getCandidateNames(Class<?> type, Function<String, Class<?>> typeResolver) {
+		resolvePendingNames(typeResolver);
+		synchronized (this) {
+			Set<String> indexedNames = this.namesByType.getOrDefault(type, Collections.emptySet());
+			List<String> candidates = new ArrayList<>(
+					indexedNames.size() + this.unindexedNames.size() + this.pendingNames.size());
+			candidates.addAll(indexedNames);
+			candidates.addAll(this.unindexedNames);
+			// Names invalidated while resolving, to be classified by the next lookup
+			candidates.addAll(this.pendingNames.keySet());
+			candidates.sort((name1, name2) ->
+					Long.compare(this.registrationOrder.get(name1), this.registrationOrder.get(name2)));
+			return candidates;
+		}
+	}
+
+	private void resolvePendingNames(Function<String, Class<?>> typeResolver) {
+		Map<String, Object> toResolve;
+		synchronized (this) {
+			if (this.pendingNames.isEmpty()) {
+				return;
+			}
+			toResolve = new LinkedHashMap<>(this.pendingNames);
+		}
+		// Resolve outside of the lock: the resolver may load classes or merge bean definitions
+		toResolve.forEach((name, token) -> {
+			Class<?> type = typeResolver.apply(name);
+			synchronized (this) {
+				if (this.pendingNames.get(name) == token) {
+					this.pendingNames.remove(name);
+					if (type != null) {
+						this.indexedTypes.put(name, type);
+						for (Class<?> candidateType : getAllTypes(type)) {
+							this.namesByType.computeIfAbsent(candidateType, key -> new HashSet<>()).add(name);
+						}
+					}
+					else {
+						this.unindexedNames.add(name);
+					}
+				}
+			}
+		});
+	}
+
+	private void markPending(String name) {
+		removeFromIndex(name);
+		this.pendingNames.put(name, new Object());
+	}
+
+	private void removeFromIndex(String name) {
+		this.unindexedNames.remove(name);
+		Class<?> type = this.indexedTypes.remove(name);
+		if (type != null) {
+			for (Class<?> candidateType : getAllTypes(type)) {
+				Set<String> names = this.namesByType.get(candidateType);
+				if (names != null) {
+					names.remove(name);
+					if (names.isEmpty()) {
+						this.namesByType.remove(candidateType);
+					}
+				}
+			}
+		}
+	}
+
+	private static Set<Class<?>> getAllTypes(Class<?> type) {
+		Set<Class<?>> types = new LinkedHashSet<>();
+		collectTypes(type, types);
+		return types;
+	}
+
+	private static void collectTypes(@Nullable Class<?> type, Set<Class<?>> types) {
+		if (type != null && types.add(type)) {
+			collectTypes(type.getSuperclass(), types);
+			for (Class<?> ifc : type.getInterfaces()) {
+				collectTypes(ifc, types);
+			}
+		}
+	}
+
+}
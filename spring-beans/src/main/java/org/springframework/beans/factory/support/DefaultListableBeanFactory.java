@@ -40,6 +40,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -71,17 +72,22 @@ import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.config.DependencyDescriptor;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
 import org.springframework.beans.factory.config.NamedBeanHolder;
+import org.springframework.beans.factory.config.SmartInstantiationAwareBeanPostProcessor;
+import org.springframework.core.Conventions;
 import org.springframework.core.OrderComparator;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.MergedAnnotation;
 import org.springframework.core.annotation.MergedAnnotations;
 import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
 import org.springframework.core.log.LogMessage;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.CompositeIterator;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
@@ -123,6 +129,18 @@ import org.springframework.util.StringUtils;
 public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFactory
 		implements ConfigurableListableBeanFactory, BeanDefinitionRegistry, Serializable {
 
+	/**
+	 * Bean definition attribute that marks a singleton as unsafe for parallel
+	 * pre-instantiation, with a value of {@code Boolean.TRUE}. Such singletons
+	 * are created one by one on the calling thread, before any singleton is
+	 * created in parallel.
+	 *
+	 * @since 5.2.10
+	 * @see #setPreInstantiationExecutor
+	 */
+	public static final String SEQUENTIAL_PRE_INSTANTIATION_ATTRIBUTE =
+			Conventions.getQualifiedAttributeName(DefaultListableBeanFactory.class, "sequentialPreInstantiation");
+
 	@Nullable
 	private static Class<?> javaxInjectProviderClass;
 
@@ -159,6 +177,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	 */
 	private boolean allowEagerClassLoading = true;
 
+	/**
+	 * Optional Executor for parallel pre-instantiation of singletons.
+	 */
+	@Nullable
+	private Executor preInstantiationExecutor;
+
 	/**
 	 * Optional OrderComparator for dependency Lists and arrays.
 	 */
@@ -195,6 +219,22 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	 */
 	private final Map<Class<?>, String[]> singletonBeanNamesByType = new ConcurrentHashMap<>(64);
 
+	/**
+	 * Whether post-processor types override {@code predictBeanType}, keyed by post-processor class.
+	 */
+	private static final Map<Class<?>, Boolean> typePredictingPostProcessorTypes =
+			new ConcurrentReferenceHashMap<>(16);
+
+	/**
+	 * Index of bean definition names, keyed by the bean class and its supertypes.
+	 */
+	private final BeanTypeIndex beanDefinitionTypeIndex = new BeanTypeIndex();
+
+	/**
+	 * Index of manually registered singleton names, keyed by the instance type and its supertypes.
+	 */
+	private final BeanTypeIndex manualSingletonTypeIndex = new BeanTypeIndex();
+
 	/**
 	 * List of bean definition names, in registration order.
 	 */
@@ -305,6 +345,38 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return this.allowEagerClassLoading;
 	}
 
+	/**
+	 * Specify an {@link Executor} for creating independent singletons in parallel
+	 * during {@link #preInstantiateSingletons()}.
+	 * <p>Default is none, creating all singletons one by one on the calling thread.
+	 * If specified, singletons are scheduled along the dependency graph derived from
+	 * their bean definitions and from already registered dependent beans, and each
+	 * singleton is created once all singletons it depends on have been created.
+	 * Dependencies that only surface during creation are coordinated between threads,
+	 * with circular references resolved through early singleton references as usual.
+	 * <p>{@link FactoryBean FactoryBeans} as well as singletons marked with the
+	 * {@link #SEQUENTIAL_PRE_INSTANTIATION_ATTRIBUTE} are still created one by one on
+	 * the calling thread, before any other singleton. Note that the calling thread
+	 * waits for all singletons to be created and must not hold locks that the
+	 * initialization of those singletons may require.
+	 *
+	 * @since 5.2.10
+	 * @see #preInstantiateSingletons()
+	 */
+	public void setPreInstantiationExecutor(@Nullable Executor preInstantiationExecutor) {
+		this.preInstantiationExecutor = preInstantiationExecutor;
+	}
+
+	/**
+	 * Return the {@link Executor} for parallel pre-instantiation of singletons, if any.
+	 *
+	 * @since 5.2.10
+	 */
+	@Nullable
+	public Executor getPreInstantiationExecutor() {
+		return this.preInstantiationExecutor;
+	}
+
 	/**
 	 * Set a {@link java.util.Comparator} for dependency Lists and arrays.
 	 *
@@ -361,6 +433,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 			DefaultListableBeanFactory otherListableFactory = (DefaultListableBeanFactory) otherFactory;
 			this.allowBeanDefinitionOverriding = otherListableFactory.allowBeanDefinitionOverriding;
 			this.allowEagerClassLoading = otherListableFactory.allowEagerClassLoading;
+			this.preInstantiationExecutor = otherListableFactory.preInstantiationExecutor;
 			this.dependencyComparator = otherListableFactory.dependencyComparator;
 			// A clone of the AutowireCandidateResolver since it is potentially BeanFactoryAware
 			setAutowireCandidateResolver(otherListableFactory.getAutowireCandidateResolver().cloneIfNecessary());
@@ -555,10 +628,11 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 	private String[] doGetBeanNamesForType(ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
 		List<String> result = new ArrayList<>();
+		Class<?> rawType = type.resolve();
 
 		// Check all bean definitions.
 		// 遍历 BeanDefinitionNames 集合
-		for (String beanName : this.beanDefinitionNames) {
+		for (String beanName : getBeanDefinitionNamesForTypeMatch(rawType)) {
 			// Only consider bean as eligible if the bean name is not defined as alias for some other bean.
 			// 如果是别名，直接跳过
 			if (!isAlias(beanName)) {
@@ -619,7 +693,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		}
 
 		// Check manually registered singletons too.
-		for (String beanName : this.manualSingletonNames) {
+		for (String beanName : getManualSingletonNamesForTypeMatch(rawType)) {
 			try {
 				// In case of FactoryBean, match object created by FactoryBean.
 				if (isFactoryBean(beanName)) {
@@ -645,6 +719,113 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return StringUtils.toStringArray(result);
 	}
 
+	/**
+	 * Return the bean definition names that need a full type check against the
+	 * given raw type, narrowed down through the type index where possible.
+	 * <p>The index cannot be consulted while post-processors are registered that
+	 * {@linkplain SmartInstantiationAwareBeanPostProcessor#predictBeanType predict}
+	 * bean types, since those may predict arbitrary types.
+	 */
+	private Collection<String> getBeanDefinitionNamesForTypeMatch(@Nullable Class<?> rawType) {
+		if (!isIndexableType(rawType) || hasTypePredictingPostProcessors()) {
+			return this.beanDefinitionNames;
+		}
+		return this.beanDefinitionTypeIndex.getCandidateNames(rawType,
+				beanName -> determineIndexedBeanType(beanName, rawType));
+	}
+
+	private boolean hasTypePredictingPostProcessors() {
+		if (!hasInstantiationAwareBeanPostProcessors()) {
+			return false;
+		}
+		for (BeanPostProcessor bp : getBeanPostProcessors()) {
+			if (bp instanceof SmartInstantiationAwareBeanPostProcessor &&
+					typePredictingPostProcessorTypes.computeIfAbsent(bp.getClass(), DefaultListableBeanFactory::overridesPredictBeanType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean overridesPredictBeanType(Class<?> postProcessorType) {
+		Class<?> declaringClass = ClassUtils.getMethod(
+				postProcessorType, "predictBeanType", Class.class, String.class).getDeclaringClass();
+		return (declaringClass != SmartInstantiationAwareBeanPostProcessor.class &&
+				declaringClass != InstantiationAwareBeanPostProcessorAdapter.class);
+	}
+
+	/**
+	 * Return the manually registered singleton names that need a full type check
+	 * against the given raw type, narrowed down through the type index where possible.
+	 */
+	private Collection<String> getManualSingletonNamesForTypeMatch(@Nullable Class<?> rawType) {
+		if (!isIndexableType(rawType)) {
+			return this.manualSingletonNames;
+		}
+		return this.manualSingletonTypeIndex.getCandidateNames(rawType, this::determineIndexedSingletonType);
+	}
+
+	private boolean isIndexableType(@Nullable Class<?> rawType) {
+		return (rawType != null && rawType != Object.class && !rawType.isPrimitive());
+	}
+
+	/**
+	 * Determine the type under which the given bean definition can be indexed:
+	 * only plain bean classes qualify, whose type is known without consulting a
+	 * factory method, an instance supplier or a {@link FactoryBean}.
+	 * @param beanName the name of the bean
+	 * @param typeToMatch the type being matched, for bean class resolution purposes
+	 * @return the bean class, or {@code null} if the bean always needs a full type check
+	 */
+	@Nullable
+	private Class<?> determineIndexedBeanType(String beanName, Class<?> typeToMatch) {
+		try {
+			RootBeanDefinition mbd = getMergedLocalBeanDefinition(beanName);
+			if (mbd.isAbstract() || mbd.getFactoryMethodName() != null || mbd.getInstanceSupplier() != null ||
+					mbd.getDecoratedDefinition() != null) {
+				return null;
+			}
+			if (!mbd.hasBeanClass() && mbd.isLazyInit() && !isAllowEagerClassLoading()) {
+				return null;
+			}
+			if (!mbd.hasBeanClass() && getTempClassLoader() != null) {
+				// A class loaded through the temporary ClassLoader must not end up in the index
+				return null;
+			}
+			Class<?> beanClass = resolveBeanClass(mbd, beanName, typeToMatch);
+			if (beanClass == null || FactoryBean.class.isAssignableFrom(beanClass)) {
+				return null;
+			}
+			Class<?> targetType = mbd.getTargetType();
+			if (targetType != null && targetType != beanClass) {
+				return null;
+			}
+			// An existing instance might be a proxy or subclass of the bean class
+			Object beanInstance = getSingleton(beanName, false);
+			if (beanInstance != null && beanInstance.getClass() != beanClass) {
+				return null;
+			}
+			return beanClass;
+		} catch (BeansException ex) {
+			// Let the regular type check report or ignore the problem.
+			return null;
+		}
+	}
+
+	/**
+	 * Determine the type under which the given manually registered singleton can be
+	 * indexed, i.e. the class of the singleton instance unless it is a {@link FactoryBean}.
+	 * @return the instance type, or {@code null} if the singleton always needs a full type check
+	 */
+	@Nullable
+	private Class<?> determineIndexedSingletonType(String beanName) {
+		Object beanInstance = getSingleton(beanName, false);
+		if (beanInstance == null || beanInstance instanceof FactoryBean || beanInstance instanceof NullBean) {
+			return null;
+		}
+		return beanInstance.getClass();
+	}
+
 	private boolean isSingleton(String beanName, RootBeanDefinition mbd, @Nullable BeanDefinitionHolder dbd) {
 		return (dbd != null ? mbd.isSingleton() : isSingleton(beanName));
 	}
@@ -878,16 +1059,25 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		return iterator;
 	}
 
+	@Override
+	public void setTempClassLoader(@Nullable ClassLoader tempClassLoader) {
+		super.setTempClassLoader(tempClassLoader);
+		// Bean classes left unresolved while a temporary ClassLoader was active may be indexed now
+		this.beanDefinitionTypeIndex.invalidateAll();
+	}
+
 	@Override
 	protected void clearMergedBeanDefinition(String beanName) {
 		super.clearMergedBeanDefinition(beanName);
 		this.mergedBeanDefinitionHolders.remove(beanName);
+		this.beanDefinitionTypeIndex.invalidate(beanName);
 	}
 
 	@Override
 	public void clearMetadataCache() {
 		super.clearMetadataCache();
 		this.mergedBeanDefinitionHolders.clear();
+		this.beanDefinitionTypeIndex.invalidateAll();
 		clearByTypeCache();
 	}
 
@@ -926,36 +1116,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 
 		// Trigger initialization of all non-lazy singleton beans...
 		// 2. 循环创建单例对象
-		for (String beanName : beanNames) {
-			// 2.1 合并父类 BeanDefinition
-			RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
-			// 2.2 条件判断：bean 不是抽象的 && 是单例 && 非懒加载的 继续后续操作
-			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
-				// 2.3 是否实现 FactoryBean 这个接口，实现 FactoryBean 使用 FactoryBean 创建实例
-				if (isFactoryBean(beanName)) {
-					// 2.4 根据 &+beanName 来获取具体的对象
-					Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
-					// 进行类型转换
-					if (bean instanceof FactoryBean) {
-						FactoryBean<?> factory = (FactoryBean<?>) bean;
-						// 判断这个 FactoryBean 是否希望急切的初始化
-						boolean isEagerInit;
-						if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
-							isEagerInit = AccessController.doPrivileged(
-									(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
-									getAccessControlContext());
-						} else {
-							isEagerInit = (factory instanceof SmartFactoryBean &&
-									((SmartFactoryBean<?>) factory).isEagerInit());
-						}
-						// 如果需要急切的初始化，通过 beanName 获取 bean 实例
-						if (isEagerInit) {
-							getBean(beanName);
-						}
-					}
-				} else {
-					getBean(beanName);
-				}
+		Executor executor = this.preInstantiationExecutor;
+		if (executor != null && !Thread.holdsLock(getSingletonMutex())) {
+			new ParallelSingletonPreInstantiator(this, executor).preInstantiateSingletons(beanNames);
+		} else {
+			for (String beanName : beanNames) {
+				preInstantiateSingleton(beanName);
 			}
 		}
 
@@ -963,6 +1129,8 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 		for (String beanName : beanNames) {
 			Object singletonInstance = getSingleton(beanName);
 			if (singletonInstance instanceof SmartInitializingSingleton) {
+				StartupStep smartInitialize = getApplicationStartup().start("spring.beans.smart-initialize")
+						.tag("beanName", beanName);
 				SmartInitializingSingleton smartSingleton = (SmartInitializingSingleton) singletonInstance;
 				if (System.getSecurityManager() != null) {
 					AccessController.doPrivileged((PrivilegedAction<Object>) () -> {
@@ -972,10 +1140,66 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				} else {
 					smartSingleton.afterSingletonsInstantiated();
 				}
+				smartInitialize.end();
 			}
 		}
 	}
 
+	/**
+	 * Pre-instantiate the given bean if it is a non-lazy singleton,
+	 * including the object of an eagerly initialized {@link SmartFactoryBean}.
+	 *
+	 * @param beanName the name of the bean
+	 * @since 5.2.10
+	 * @see #preInstantiateSingletons()
+	 */
+	void preInstantiateSingleton(String beanName) {
+		// 2.1 合并父类 BeanDefinition
+		RootBeanDefinition bd = getMergedLocalBeanDefinition(beanName);
+		// 2.2 条件判断：bean 不是抽象的 && 是单例 && 非懒加载的 继续后续操作
+		if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+			// 2.3 是否实现 FactoryBean 这个接口，实现 FactoryBean 使用 FactoryBean 创建实例
+			if (isFactoryBean(beanName)) {
+				// 2.4 根据 &+beanName 来获取具体的对象
+				Object bean = getBean(FACTORY_BEAN_PREFIX + beanName);
+				// 进行类型转换
+				if (bean instanceof FactoryBean) {
+					FactoryBean<?> factory = (FactoryBean<?>) bean;
+					// 判断这个 FactoryBean 是否希望急切的初始化
+					boolean isEagerInit;
+					if (System.getSecurityManager() != null && factory instanceof SmartFactoryBean) {
+						isEagerInit = AccessController.doPrivileged(
+								(PrivilegedAction<Boolean>) ((SmartFactoryBean<?>) factory)::isEagerInit,
+								getAccessControlContext());
+					} else {
+						isEagerInit = (factory instanceof SmartFactoryBean &&
+								((SmartFactoryBean<?>) factory).isEagerInit());
+					}
+					// 如果需要急切的初始化，通过 beanName 获取 bean 实例
+					if (isEagerInit) {
+						getBean(beanName);
+					}
+				}
+			} else {
+				getBean(beanName);
+			}
+		}
+	}
+
+	/**
+	 * Determine whether the given singleton needs to be created on the calling thread
+	 * before any parallel pre-instantiation: this is the case for {@link FactoryBean
+	 * FactoryBeans} and for beans marked with {@link #SEQUENTIAL_PRE_INSTANTIATION_ATTRIBUTE}.
+	 *
+	 * @param beanName the name of the bean
+	 * @param mbd the merged bean definition of the bean
+	 * @since 5.2.10
+	 */
+	boolean requiresSequentialPreInstantiation(String beanName, RootBeanDefinition mbd) {
+		return (Boolean.TRUE.equals(mbd.getAttribute(SEQUENTIAL_PRE_INSTANTIATION_ATTRIBUTE)) ||
+				isFactoryBean(beanName));
+	}
+
 
 	//---------------------------------------------------------------------
 	// Implementation of BeanDefinitionRegistry interface
@@ -1028,6 +1252,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				}
 			}
 			this.beanDefinitionMap.put(beanName, beanDefinition);
+			this.beanDefinitionTypeIndex.add(beanName);
 		} else {
 			if (hasBeanCreationStarted()) {
 				// Cannot modify startup-time collection elements anymore (for stable iteration)
@@ -1037,6 +1262,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 					updatedDefinitions.addAll(this.beanDefinitionNames);
 					updatedDefinitions.add(beanName);
 					this.beanDefinitionNames = updatedDefinitions;
+					this.beanDefinitionTypeIndex.add(beanName);
 					removeManualSingletonName(beanName);
 				}
 			} else {
@@ -1045,6 +1271,7 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				this.beanDefinitionMap.put(beanName, beanDefinition);
 				// 记录 beanName
 				this.beanDefinitionNames.add(beanName);
+				this.beanDefinitionTypeIndex.add(beanName);
 				removeManualSingletonName(beanName);
 			}
 			this.frozenBeanDefinitionNames = null;
@@ -1076,10 +1303,12 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 				List<String> updatedDefinitions = new ArrayList<>(this.beanDefinitionNames);
 				updatedDefinitions.remove(beanName);
 				this.beanDefinitionNames = updatedDefinitions;
+				this.beanDefinitionTypeIndex.remove(beanName);
 			}
 		} else {
 			// Still in startup registration phase
 			this.beanDefinitionNames.remove(beanName);
+			this.beanDefinitionTypeIndex.remove(beanName);
 		}
 		this.frozenBeanDefinitionNames = null;
 
@@ -1137,14 +1366,27 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	@Override
 	public void registerSingleton(String beanName, Object singletonObject) throws IllegalStateException {
 		super.registerSingleton(beanName, singletonObject);
-		updateManualSingletonNames(set -> set.add(beanName), set -> !this.beanDefinitionMap.containsKey(beanName));
+		updateManualSingletonNames(set -> {
+			set.add(beanName);
+			this.manualSingletonTypeIndex.add(beanName);
+		}, set -> !this.beanDefinitionMap.containsKey(beanName));
 		clearByTypeCache();
 	}
 
+	@Override
+	protected void addSingleton(String beanName, Object singletonObject) {
+		super.addSingleton(beanName, singletonObject);
+		// The instance might have been proxied or otherwise replaced by a post-processor
+		this.beanDefinitionTypeIndex.verifyType(beanName, singletonObject.getClass());
+	}
+
 	@Override
 	public void destroySingletons() {
 		super.destroySingletons();
-		updateManualSingletonNames(Set::clear, set -> !set.isEmpty());
+		updateManualSingletonNames(set -> {
+			set.clear();
+			this.manualSingletonTypeIndex.clear();
+		}, set -> !set.isEmpty());
 		clearByTypeCache();
 	}
 
@@ -1156,7 +1398,10 @@ public class DefaultListableBeanFactory extends AbstractAutowireCapableBeanFacto
 	}
 
 	private void removeManualSingletonName(String beanName) {
-		updateManualSingletonNames(set -> set.remove(beanName), set -> set.contains(beanName));
+		updateManualSingletonNames(set -> {
+			set.remove(beanName);
+			this.manualSingletonTypeIndex.remove(beanName);
+		}, set -> set.contains(beanName));
 	}
 
 	/**
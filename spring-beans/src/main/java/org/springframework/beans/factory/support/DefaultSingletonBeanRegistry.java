@@ -111,6 +111,15 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	private final Set<String> singletonsCurrentlyInCreation =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
 
+	/** Threads creating singletons while concurrent creation is enabled: bean name to thread. */
+	private final Map<String, Thread> singletonCreationThreads = new ConcurrentHashMap<>(16);
+
+	/** Threads waiting for a singleton created by another thread: thread to bean name. */
+	private final Map<Thread, String> singletonCreationWaits = new HashMap<>(16);
+
+	/** Whether singletons may currently be created by several threads concurrently. */
+	private volatile boolean concurrentSingletonCreation;
+
 	/** Names of beans currently excluded from in creation checks. */
 	private final Set<String> inCreationCheckExclusions =
 			Collections.newSetFromMap(new ConcurrentHashMap<>(16));
@@ -224,7 +233,8 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		// Quick check for existing instance without full singleton lock
 		// 检查一级缓存中是否存在实例
 		Object singletonObject = this.singletonObjects.get(beanName);
-		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName)) {
+		if (singletonObject == null && isSingletonCurrentlyInCreation(beanName) &&
+				!isSingletonCurrentlyInCreationByOtherThread(beanName)) {
 			// 一级缓存中没有从二级缓存中查找
 			singletonObject = this.earlySingletonObjects.get(beanName);
 			if (singletonObject == null && allowEarlyReference) {
@@ -262,6 +272,9 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 	 */
 	public Object getSingleton(String beanName, ObjectFactory<?> singletonFactory) {
 		Assert.notNull(beanName, "Bean name must not be null");
+		if (this.concurrentSingletonCreation) {
+			return getSingletonConcurrently(beanName, singletonFactory);
+		}
 		// 全局变量需要同步（锁住）
 		synchronized (this.singletonObjects) {
 			// 先检查一级缓存中是否存在 bean
@@ -320,6 +333,163 @@ public class DefaultSingletonBeanRegistry extends SimpleAliasRegistry implements
 		}
 	}
 
+	/**
+	 * Variant of {@link #getSingleton(String, ObjectFactory)} for concurrent creation:
+	 * instead of holding the singleton mutex for the entire creation, the current
+	 * thread claims the bean name and other threads asking for the same singleton
+	 * wait until it has been created. A circular reference spanning several threads
+	 * is resolved through an early singleton reference, just like on a single thread.
+	 */
+	private Object getSingletonConcurrently(String beanName, ObjectFactory<?> singletonFactory) {
+		Thread currentThread = Thread.currentThread();
+		boolean claimed;
+		synchronized (this.singletonObjects) {
+			while (true) {
+				Object singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject != null) {
+					return singletonObject;
+				}
+				Thread creatingThread = this.singletonCreationThreads.get(beanName);
+				if (creatingThread == null || creatingThread == currentThread) {
+					break;
+				}
+				if (isWaitingForThread(creatingThread, currentThread)) {
+					singletonObject = getEarlySingletonObject(beanName);
+					if (singletonObject == null) {
+						throw new BeanCurrentlyInCreationException(beanName);
+					}
+					return singletonObject;
+				}
+				this.singletonCreationWaits.put(currentThread, beanName);
+				try {
+					this.singletonObjects.wait();
+				}
+				catch (InterruptedException ex) {
+					currentThread.interrupt();
+					throw new BeanCreationException(beanName,
+							"Interrupted while waiting for singleton creation in another thread", ex);
+				}
+				finally {
+					this.singletonCreationWaits.remove(currentThread);
+				}
+			}
+			if (this.singletonsCurrentlyInDestruction) {
+				throw new BeanCreationNotAllowedException(beanName,
+						"Singleton bean creation not allowed while singletons of this factory are in destruction " +
+						"(Do not request a bean from a BeanFactory in a destroy method implementation!)");
+			}
+			claimed = (this.singletonCreationThreads.putIfAbsent(beanName, currentThread) == null);
+		}
+		try {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Creating shared instance of singleton bean '" + beanName + "' in thread '" +
+						currentThread.getName() + "'");
+			}
+			beforeSingletonCreation(beanName);
+			Object singletonObject;
+			boolean newSingleton = false;
+			try {
+				singletonObject = singletonFactory.getObject();
+				newSingleton = true;
+			}
+			catch (IllegalStateException ex) {
+				singletonObject = this.singletonObjects.get(beanName);
+				if (singletonObject == null) {
+					throw ex;
+				}
+			}
+			finally {
+				afterSingletonCreation(beanName);
+			}
+			if (newSingleton) {
+				addSingleton(beanName, singletonObject);
+			}
+			return singletonObject;
+		}
+		finally {
+			if (claimed) {
+				synchronized (this.singletonObjects) {
+					this.singletonCreationThreads.remove(beanName);
+					this.singletonObjects.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Obtain an early reference to a singleton in creation by another thread,
+	 * to be called with the singleton mutex held.
+	 */
+	@Nullable
+	private Object getEarlySingletonObject(String beanName) {
+		Object singletonObject = this.earlySingletonObjects.get(beanName);
+		if (singletonObject == null) {
+			ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+			if (singletonFactory != null) {
+				singletonObject = singletonFactory.getObject();
+				this.earlySingletonObjects.put(beanName, singletonObject);
+				this.singletonFactories.remove(beanName);
+			}
+		}
+		return singletonObject;
+	}
+
+	/**
+	 * Determine whether the given thread is, directly or transitively, waiting
+	 * for a singleton that the target thread is creating. To be called with the
+	 * singleton mutex held.
+	 */
+	private boolean isWaitingForThread(Thread thread, Thread targetThread) {
+		Set<Thread> visited = new HashSet<>();
+		Thread current = thread;
+		while (visited.add(current)) {
+			String awaitedBeanName = this.singletonCreationWaits.get(current);
+			Thread creatingThread = (awaitedBeanName != null ? this.singletonCreationThreads.get(awaitedBeanName) : null);
+			if (creatingThread == null) {
+				return false;
+			}
+			if (creatingThread == targetThread) {
+				return true;
+			}
+			current = creatingThread;
+		}
+		return false;
+	}
+
+	/**
+	 * Specify whether singletons may be created by several threads concurrently.
+	 * <p>While enabled, a thread creating a singleton does not hold the singleton
+	 * mutex for the duration of the creation, and early references to a singleton
+	 * are not exposed to other threads unless needed to resolve a circular reference.
+	 * @since 5.2.10
+	 * @see #getSingleton(String, ObjectFactory)
+	 */
+	protected void setConcurrentSingletonCreation(boolean concurrentSingletonCreation) {
+		synchronized (this.singletonObjects) {
+			this.concurrentSingletonCreation = concurrentSingletonCreation;
+		}
+	}
+
+	/**
+	 * Return whether singletons may currently be created by several threads concurrently.
+	 * @since 5.2.10
+	 */
+	protected boolean isConcurrentSingletonCreation() {
+		return this.concurrentSingletonCreation;
+	}
+
+	/**
+	 * Return whether the specified singleton bean is currently in creation by a
+	 * thread other than the current one, as part of concurrent singleton creation.
+	 * @param beanName the name of the bean
+	 * @since 5.2.10
+	 * @see #setConcurrentSingletonCreation
+	 */
+	protected boolean isSingletonCurrentlyInCreationByOtherThread(String beanName) {
+		Thread creatingThread = this.singletonCreationThreads.get(beanName);
+		return (creatingThread != null && creatingThread != Thread.currentThread());
+	}
+
 	/**
 	 * Register an exception that happened to get suppressed during the creation of a
 	 * singleton bean instance, e.g. a temporary circular reference resolution problem.
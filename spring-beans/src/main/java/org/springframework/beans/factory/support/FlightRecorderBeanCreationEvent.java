@@ -0,0 +1,83 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Java Flight Recorder {@link Event} for the creation of a bean instance
+ * through {@link AbstractAutowireCapableBeanFactory#createBean}, covering
+ * instantiation, property population and initialization callbacks.
+ *
+ * <p>Only referenced by the bean factory if {@code jdk.jfr} is present on
+ * the runtime, and only instantiated while the event type is enabled.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@Category({"Spring Framework", "Beans"})
+@Label("Bean Creation")
+@Description("Creation of a bean instance by a Spring bean factory")
+@StackTrace(false)
+final class FlightRecorderBeanCreationEvent extends Event {
+
+	@Label("Bean Name")
+	String beanName;
+
+	@Label("Bean Class")
+	Class<?> beanClass;
+
+	@Label("Scope")
+	String scope;
+
+
+	/**
+	 * Start timing the creation of a bean instance.
+	 * @return the started event, or {@code null} if bean creation is not being recorded
+	 */
+	@Nullable
+	static FlightRecorderBeanCreationEvent start() {
+		FlightRecorderBeanCreationEvent event = new FlightRecorderBeanCreationEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End this event and commit it if it passes the configured threshold.
+	 * @param beanName the name of the bean that has been created
+	 * @param mbd the merged bean definition used for the creation
+	 */
+	void commit(String beanName, RootBeanDefinition mbd) {
+		end();
+		if (shouldCommit()) {
+			this.beanName = beanName;
+			this.beanClass = (mbd.hasBeanClass() ? mbd.getBeanClass() : null);
+			this.scope = mbd.getScope();
+			commit();
+		}
+	}
+
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.KotlinDetector;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Generated invoker for the constructor or factory method of a bean definition,
+ * cached in {@link RootBeanDefinition} by {@link MethodHandleInstantiationStrategy}.
+ *
+ * <p>The invoker starts out unbound and only gets generated after
+ * {@link #GENERATION_THRESHOLD} instantiations, which in practice restricts
+ * generation to prototype and custom-scoped beans. No-arg constructors and
+ * factory methods of public classes are bound through {@link LambdaMetafactory};
+ * everything else goes through a spreading {@link MethodHandle}.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+final class InstantiationInvoker {
+
+	/**
+	 * Number of instantiations after which the invoker gets generated.
+	 */
+	static final int GENERATION_THRESHOLD = 16;
+
+	private static final Log logger = LogFactory.getLog(InstantiationInvoker.class);
+
+
+	private final Executable executable;
+
+	private final Class<?>[] parameterTypes;
+
+	private final boolean generationCandidate;
+
+	private final AtomicInteger invocationCount = new AtomicInteger();
+
+	@Nullable
+	private volatile Invoker invoker;
+
+
+	/**
+	 * Create a new (not yet generated) invoker for the given executable.
+	 * @param executable the constructor or factory method to invoke
+	 */
+	InstantiationInvoker(Executable executable) {
+		this.executable = executable;
+		this.parameterTypes = executable.getParameterTypes();
+		this.generationCandidate = isGenerationCandidate(executable);
+	}
+
+
+	/**
+	 * Return whether this invoker has been created for the given executable.
+	 */
+	boolean isFor(Executable executable) {
+		return this.executable.equals(executable);
+	}
+
+	/**
+	 * Determine whether {@link #invoke} can be used for the given arguments,
+	 * generating the invoker once the generation threshold has been reached.
+	 * <p>Returns {@code false} for arguments that do not match the parameter
+	 * types as-is, leaving their handling (e.g. default values for primitive
+	 * parameters) to regular reflective instantiation.
+	 * @param target the factory bean instance, or {@code null} for a
+	 * constructor or static factory method
+	 * @param args the arguments to apply
+	 */
+	boolean isApplicable(@Nullable Object target, Object[] args) {
+		if (!this.generationCandidate || !isAssignable(target, args)) {
+			return false;
+		}
+		if (this.invoker != null) {
+			return true;
+		}
+		if (this.invocationCount.get() < GENERATION_THRESHOLD &&
+				this.invocationCount.incrementAndGet() == GENERATION_THRESHOLD) {
+			this.invoker = generate(this.executable);
+			return (this.invoker != null);
+		}
+		return false;
+	}
+
+	/**
+	 * Invoke the generated invoker. Only to be called after
+	 * {@link #isApplicable} returned {@code true} for the same arguments.
+	 * @param target the factory bean instance, or {@code null} for a
+	 * constructor or static factory method
+	 * @param args the arguments to apply
+	 * @return the new instance or factory method result
+	 * @throws Throwable as thrown by the constructor or factory method
+	 */
+	@Nullable
+	Object invoke(@Nullable Object target, Object[] args) throws Throwable {
+		Invoker invoker = this.invoker;
+		if (invoker == null) {
+			throw new IllegalStateException("No invoker generated for " + this.executable);
+		}
+		return invoker.invoke(target, args);
+	}
+
+	private boolean isAssignable(@Nullable Object target, Object[] args) {
+		if (args.length != this.parameterTypes.length) {
+			return false;
+		}
+		if (this.executable instanceof Method && !Modifier.isStatic(this.executable.getModifiers()) &&
+				!this.executable.getDeclaringClass().isInstance(target)) {
+			return false;
+		}
+		for (int i = 0; i < args.length; i++) {
+			Class<?> parameterType = this.parameterTypes[i];
+			if (args[i] != null ? !ClassUtils.isAssignableValue(parameterType, args[i]) : parameterType.isPrimitive()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static boolean isGenerationCandidate(Executable executable) {
+		Class<?> declaringClass = executable.getDeclaringClass();
+		if (executable instanceof Constructor) {
+			return (!Modifier.isAbstract(declaringClass.getModifiers()) &&
+					!(KotlinDetector.isKotlinReflectPresent() && KotlinDetector.isKotlinType(declaringClass)));
+		}
+		return true;
+	}
+
+	private static boolean isLambdaCandidate(Executable executable) {
+		if (executable.getParameterCount() != 0 || !Modifier.isPublic(executable.getModifiers()) ||
+				!Modifier.isPublic(executable.getDeclaringClass().getModifiers())) {
+			return false;
+		}
+		// The generated class must be able to see the target class without pinning its ClassLoader
+		ClassLoader classLoader = InstantiationInvoker.class.getClassLoader();
+		if (!ClassUtils.isCacheSafe(executable.getDeclaringClass(), classLoader)) {
+			return false;
+		}
+		if (executable instanceof Method) {
+			Class<?> returnType = ((Method) executable).getReturnType();
+			return (!returnType.isPrimitive() && ClassUtils.isCacheSafe(returnType, classLoader));
+		}
+		return true;
+	}
+
+	@Nullable
+	private static Invoker generate(Executable executable) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			if (isLambdaCandidate(executable)) {
+				return generateLambda(lookup, executable);
+			}
+			if (executable instanceof Constructor) {
+				Constructor<?> ctor = (Constructor<?>) executable;
+				ReflectionUtils.makeAccessible(ctor);
+				MethodHandle handle = spread(lookup.unreflectConstructor(ctor), 0);
+				return (target, args) -> handle.invokeExact(args);
+			}
+			Method method = (Method) executable;
+			ReflectionUtils.makeAccessible(method);
+			if (Modifier.isStatic(method.getModifiers())) {
+				MethodHandle handle = spread(lookup.unreflect(method), 0);
+				return (target, args) -> handle.invokeExact(args);
+			}
+			MethodHandle handle = spread(lookup.unreflect(method), 1);
+			return (target, args) -> handle.invokeExact(target, args);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate invoker for " + executable + " - using reflection", ex);
+			}
+			return null;
+		}
+	}
+
+	private static MethodHandle spread(MethodHandle handle, int leadingArgumentCount) {
+		MethodType genericType = (leadingArgumentCount == 0 ?
+				MethodType.methodType(Object.class, Object[].class) :
+				MethodType.methodType(Object.class, Object.class, Object[].class));
+		// Varargs arrive as an array already, like for reflective invocation
+		MethodHandle fixedArity = handle.asFixedArity();
+		return fixedArity.asSpreader(Object[].class, fixedArity.type().parameterCount() - leadingArgumentCount)
+				.asType(genericType);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Invoker generateLambda(MethodHandles.Lookup lookup, Executable executable) throws Throwable {
+		Class<?> declaringClass = executable.getDeclaringClass();
+		if (executable instanceof Constructor) {
+			Supplier<Object> supplier = (Supplier<Object>) LambdaMetafactory.metafactory(lookup, "get",
+					MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+					lookup.unreflectConstructor((Constructor<?>) executable),
+					MethodType.methodType(declaringClass)).getTarget().invoke();
+			return (target, args) -> supplier.get();
+		}
+		Method method = (Method) executable;
+		MethodHandle handle = lookup.unreflect(method);
+		if (Modifier.isStatic(method.getModifiers())) {
+			CallSite callSite = LambdaMetafactory.metafactory(lookup, "get",
+					MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+					handle, MethodType.methodType(method.getReturnType()));
+			Supplier<Object> supplier = (Supplier<Object>) callSite.getTarget().invoke();
+			return (target, args) -> supplier.get();
+		}
+		CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+				MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+				handle, MethodType.methodType(method.getReturnType(), declaringClass));
+		Function<Object, Object> function = (Function<Object, Object>) callSite.getTarget().invoke();
+		return (target, args) -> function.apply(target);
+	}
+
+
+	@FunctionalInterface
+	private interface Invoker {
+
+		@Nullable
+		Object invoke(@Nullable Object target, Object[] args) throws Throwable;
+	}
+
+}
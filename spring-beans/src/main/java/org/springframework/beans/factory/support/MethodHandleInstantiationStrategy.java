@@ -0,0 +1,96 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.lang.Nullable;
+
+/**
+ * Object instantiation strategy that invokes constructors and factory methods
+ * through generated invokers instead of reflection, for bean definitions that
+ * get instantiated repeatedly (typically prototype, request or session beans).
+ *
+ * <p>Invokers are cached per {@link RootBeanDefinition} and generated through
+ * {@link java.lang.invoke.LambdaMetafactory} or {@link java.lang.invoke.MethodHandle}
+ * once a definition has been instantiated a number of times, so singletons keep
+ * going through plain reflection. Reflection also remains in use whenever the
+ * given arguments need adapting (e.g. {@code null} for a primitive parameter),
+ * for Kotlin classes, and when running under a {@code SecurityManager}. Method
+ * Injection is supported through CGLIB as in the superclass.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see AbstractAutowireCapableBeanFactory#setInstantiationStrategy
+ */
+public class MethodHandleInstantiationStrategy extends CglibSubclassingInstantiationStrategy {
+
+	@Override
+	protected Object invokeConstructor(RootBeanDefinition bd, Constructor<?> ctor, Object... args) {
+		InstantiationInvoker invoker = getInstantiationInvoker(bd, ctor, null, args);
+		if (invoker != null) {
+			try {
+				return invoker.invoke(null, args);
+			}
+			catch (Throwable ex) {
+				throw new BeanInstantiationException(ctor, "Constructor threw exception", ex);
+			}
+		}
+		return super.invokeConstructor(bd, ctor, args);
+	}
+
+	@Override
+	@Nullable
+	protected Object invokeFactoryMethod(RootBeanDefinition bd, @Nullable Object factoryBean,
+			Method factoryMethod, Object... args) throws IllegalAccessException, InvocationTargetException {
+
+		InstantiationInvoker invoker = getInstantiationInvoker(bd, factoryMethod, factoryBean, args);
+		if (invoker != null) {
+			try {
+				return invoker.invoke(factoryBean, args);
+			}
+			catch (Throwable ex) {
+				throw new InvocationTargetException(ex);
+			}
+		}
+		return super.invokeFactoryMethod(bd, factoryBean, factoryMethod, args);
+	}
+
+	/**
+	 * Obtain the generated invoker for the given executable, if applicable
+	 * to the given arguments.
+	 */
+	@Nullable
+	private InstantiationInvoker getInstantiationInvoker(
+			RootBeanDefinition bd, Executable executable, @Nullable Object target, Object[] args) {
+
+		if (System.getSecurityManager() != null) {
+			return null;
+		}
+		InstantiationInvoker invoker = bd.instantiationInvoker;
+		if (invoker == null || !invoker.isFor(executable)) {
+			invoker = new InstantiationInvoker(executable);
+			bd.instantiationInvoker = invoker;
+		}
+		return (invoker.isApplicable(target, args) ? invoker : null);
+	}
+
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.BeanMetadataElement;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.BeanReference;
+import org.springframework.beans.factory.config.ConstructorArgumentValues.ValueHolder;
+import org.springframework.lang.Nullable;
+
+/**
+ * Pre-instantiates the non-lazy singletons of a {@link DefaultListableBeanFactory}
+ * on a given {@link Executor}, following the dependency graph between them.
+ *
+ * <p>Singletons that require sequential instantiation are created first, one by
+ * one on the calling thread. The dependency graph of the remaining singletons
+ * is derived from their bean definitions (depends-on declarations, factory bean
+ * references and bean references in constructor arguments and property values)
+ * and from the dependencies already registered with the factory. Each strongly
+ * connected group of singletons is then created on a single thread, as soon as
+ * all groups it depends on have been created. Dependencies that are only
+ * discovered during creation, e.g. through autowiring, are coordinated by
+ * {@link DefaultSingletonBeanRegistry#setConcurrentSingletonCreation concurrent
+ * singleton creation} in the factory itself.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see DefaultListableBeanFactory#setPreInstantiationExecutor
+ */
+final class ParallelSingletonPreInstantiator {
+
+	private final DefaultListableBeanFactory beanFactory;
+
+	private final Executor executor;
+
+
+	ParallelSingletonPreInstantiator(DefaultListableBeanFactory beanFactory, Executor executor) {
+		this.beanFactory = beanFactory;
+		this.executor = executor;
+	}
+
+
+	/**
+	 * Pre-instantiate the non-lazy singletons among the given bean names.
+	 * @param beanNames the names of all bean definitions, in registration order
+	 */
+	public void preInstantiateSingletons(List<String> beanNames) {
+		List<String> parallelBeanNames = new ArrayList<>(beanNames.size());
+		for (String beanName : beanNames) {
+			RootBeanDefinition bd = this.beanFactory.getMergedLocalBeanDefinition(beanName);
+			if (!bd.isAbstract() && bd.isSingleton() && !bd.isLazyInit()) {
+				if (this.beanFactory.requiresSequentialPreInstantiation(beanName, bd)) {
+					this.beanFactory.preInstantiateSingleton(beanName);
+				}
+				else {
+					parallelBeanNames.add(beanName);
+				}
+			}
+		}
+		if (parallelBeanNames.isEmpty()) {
+			return;
+		}
+
+		Map<String, Set<String>> dependencies = determineDependencies(parallelBeanNames);
+		List<List<String>> groups = new DependencyGraph(parallelBeanNames, dependencies).getStronglyConnectedGroups();
+		this.beanFactory.setConcurrentSingletonCreation(true);
+		try {
+			Map<String, CompletableFuture<Void>> futures = new HashMap<>(parallelBeanNames.size());
+			for (List<String> group : groups) {
+				List<CompletableFuture<Void>> dependencyFutures = new ArrayList<>();
+				for (String beanName : group) {
+					for (String dependency : dependencies.get(beanName)) {
+						CompletableFuture<Void> dependencyFuture = futures.get(dependency);
+						if (dependencyFuture != null) {
+							dependencyFutures.add(dependencyFuture);
+						}
+					}
+				}
+				CompletableFuture<Void> future = CompletableFuture
+						.allOf(dependencyFutures.toArray(new CompletableFuture<?>[0]))
+						.thenRunAsync(() -> group.forEach(this.beanFactory::preInstantiateSingleton), this::execute);
+				for (String beanName : group) {
+					futures.put(beanName, future);
+				}
+			}
+			awaitCompletion(new LinkedHashSet<>(futures.values()));
+		}
+		finally {
+			this.beanFactory.setConcurrentSingletonCreation(false);
+		}
+	}
+
+	private void execute(Runnable task) {
+		try {
+			this.executor.execute(task);
+		}
+		catch (RejectedExecutionException ex) {
+			// Fall back to creating the singletons on the current thread
+			task.run();
+		}
+	}
+
+	private Map<String, Set<String>> determineDependencies(List<String> beanNames) {
+		Set<String> candidates = new LinkedHashSet<>(beanNames);
+		Map<String, Set<String>> dependencies = new LinkedHashMap<>(beanNames.size());
+		for (String beanName : beanNames) {
+			Set<String> referencedNames = new LinkedHashSet<>();
+			RootBeanDefinition bd = this.beanFactory.getMergedLocalBeanDefinition(beanName);
+			collectReferencedBeanNames(bd, referencedNames);
+			Collections.addAll(referencedNames, this.beanFactory.getDependenciesForBean(beanName));
+			Set<String> beanDependencies = new LinkedHashSet<>();
+			for (String referencedName : referencedNames) {
+				String dependency = this.beanFactory.transformedBeanName(referencedName);
+				if (!dependency.equals(beanName) && candidates.contains(dependency)) {
+					beanDependencies.add(dependency);
+				}
+			}
+			dependencies.put(beanName, beanDependencies);
+		}
+		return dependencies;
+	}
+
+	private void collectReferencedBeanNames(BeanDefinition bd, Set<String> referencedNames) {
+		String[] dependsOn = bd.getDependsOn();
+		if (dependsOn != null) {
+			Collections.addAll(referencedNames, dependsOn);
+		}
+		if (bd.getFactoryBeanName() != null) {
+			referencedNames.add(bd.getFactoryBeanName());
+		}
+		for (ValueHolder valueHolder : bd.getConstructorArgumentValues().getIndexedArgumentValues().values()) {
+			collectReferencedBeanNames(valueHolder.getValue(), referencedNames);
+		}
+		for (ValueHolder valueHolder : bd.getConstructorArgumentValues().getGenericArgumentValues()) {
+			collectReferencedBeanNames(valueHolder.getValue(), referencedNames);
+		}
+		for (PropertyValue pv : bd.getPropertyValues().getPropertyValueList()) {
+			collectReferencedBeanNames(pv.getValue(), referencedNames);
+		}
+	}
+
+	private void collectReferencedBeanNames(@Nullable Object value, Set<String> referencedNames) {
+		if (value instanceof BeanReference) {
+			referencedNames.add(((BeanReference) value).getBeanName());
+		}
+		else if (value instanceof BeanDefinitionHolder) {
+			collectReferencedBeanNames(((BeanDefinitionHolder) value).getBeanDefinition(), referencedNames);
+		}
+		else if (value instanceof BeanDefinition) {
+			collectReferencedBeanNames((BeanDefinition) value, referencedNames);
+		}
+		else if (value instanceof Iterable && value instanceof BeanMetadataElement) {
+			for (Object element : (Iterable<?>) value) {
+				collectReferencedBeanNames(element, referencedNames);
+			}
+		}
+		else if (value instanceof Map && value instanceof BeanMetadataElement) {
+			((Map<?, ?>) value).forEach((key, element) -> {
+				collectReferencedBeanNames(key, referencedNames);
+				collectReferencedBeanNames(element, referencedNames);
+			});
+		}
+	}
+
+	private void awaitCompletion(Set<CompletableFuture<Void>> futures) {
+		Throwable failure = null;
+		for (CompletableFuture<Void> future : futures) {
+			try {
+				future.join();
+			}
+			catch (CompletionException ex) {
+				// Keep waiting so that no singleton is still being created when returning
+				if (failure == null) {
+					Throwable cause = ex.getCause();
+					failure = (cause instanceof RuntimeException || cause instanceof Error ? cause : ex);
+				}
+			}
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw (RuntimeException) failure;
+		}
+	}
+
+
+	/**
+	 * Dependency graph between bean names, partitioned into strongly connected
+	 * groups through Tarjan's algorithm.
+	 */
+	private static class DependencyGraph {
+
+		private final List<String> beanNames;
+
+		private final Map<String, Set<String>> dependencies;
+
+		private final Map<String, Integer> registrationOrder = new HashMap<>();
+
+		DependencyGraph(List<String> beanNames, Map<String, Set<String>> dependencies) {
+			this.beanNames = beanNames;
+			this.dependencies = dependencies;
+			for (int i = 0; i < beanNames.size(); i++) {
+				this.registrationOrder.put(beanNames.get(i), i);
+			}
+		}
+
+		/**
+		 * Return the strongly connected groups of bean names, each group following
+		 * all groups it depends on. Bean names within a group keep their registration order.
+		 */
+		List<List<String>> getStronglyConnectedGroups() {
+			List<List<String>> groups = new ArrayList<>();
+			Map<String, Integer> indexes = new HashMap<>();
+			Map<String, Integer> lowLinks = new HashMap<>();
+			Deque<String> stack = new ArrayDeque<>();
+			Set<String> onStack = new HashSet<>();
+			Deque<Map.Entry<String, Iterator<String>>> path = new ArrayDeque<>();
+			int index = 0;
+			for (String root : this.beanNames) {
+				if (indexes.containsKey(root)) {
+					continue;
+				}
+				indexes.put(root, index);
+				lowLinks.put(root, index++);
+				stack.push(root);
+				onStack.add(root);
+				path.push(new AbstractMap.SimpleEntry<>(root, this.dependencies.get(root).iterator()));
+				while (!path.isEmpty()) {
+					String beanName = path.peek().getKey();
+					Iterator<String> it = path.peek().getValue();
+					if (it.hasNext()) {
+						String dependency = it.next();
+						if (!indexes.containsKey(dependency)) {
+							indexes.put(dependency, index);
+							lowLinks.put(dependency, index++);
+							stack.push(dependency);
+							onStack.add(dependency);
+							path.push(new AbstractMap.SimpleEntry<>(dependency, this.dependencies.get(dependency).iterator()));
+						}
+						else if (onStack.contains(dependency)) {
+							lowLinks.put(beanName, Math.min(lowLinks.get(beanName), indexes.get(dependency)));
+						}
+						continue;
+					}
+					path.pop();
+					if (!path.isEmpty()) {
+						String parent = path.peek().getKey();
+						lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLinks.get(beanName)));
+					}
+					if (lowLinks.get(beanName).equals(indexes.get(beanName))) {
+						List<String> group = new ArrayList<>();
+						String member;
+						do {
+							member = stack.pop();
+							onStack.remove(member);
+							group.add(member);
+						}
+						while (!member.equals(beanName));
+						group.sort((name1, name2) ->
+								Integer.compare(this.registrationOrder.get(name1), this.registrationOrder.get(name2)));
+						groups.add(group);
+					}
+				}
+			}
+			return groups;
+		}
+	}
+
+}
@@ -70,6 +70,15 @@ public class ReplaceOverride extends MethodOverride {
 		this.typeIdentifiers.add(identifier);
 	}
 
+	/**
+	 * Return the type identifiers registered for this override.
+	 * @since 5.2.10
+	 * @see #addTypeIdentifier
+	 */
+	List<String> getTypeIdentifiers() {
+		return this.typeIdentifiers;
+	}
+
 
 	@Override
 	public boolean matches(Method method) {
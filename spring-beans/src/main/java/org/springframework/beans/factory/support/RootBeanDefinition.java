@@ -107,6 +107,10 @@ public class RootBeanDefinition extends AbstractBeanDefinition {
 	@Nullable
 	Object[] preparedConstructorArguments;
 
+	/** Package-visible field for caching a generated invoker for the constructor or factory method. */
+	@Nullable
+	volatile InstantiationInvoker instantiationInvoker;
+
 	/** Common lock for the two post-processing fields below. */
 	final Object postProcessingLock = new Object();
 
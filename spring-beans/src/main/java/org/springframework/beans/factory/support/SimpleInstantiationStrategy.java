@@ -110,7 +110,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 				}
 			}
 			// 通过反射生成具体的实例化对象
-			return BeanUtils.instantiateClass(constructorToUse);
+			return invokeConstructor(bd, constructorToUse);
 		}
 		else {
 			// Must generate CGLIB subclass.
@@ -156,7 +156,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 				});
 			}
 			// 反射实例化对象
-			return BeanUtils.instantiateClass(ctor, args);
+			return invokeConstructor(bd, ctor, args);
 		}
 		else {
 			// bd 有 methodOverride 对象，使用该方法
@@ -164,6 +164,22 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 		}
 	}
 
+	/**
+	 * Invoke the given constructor for a bean definition without method overrides.
+	 * <p>The default implementation delegates to {@link BeanUtils#instantiateClass}.
+	 * Subclasses may override this to use a different invocation mechanism.
+	 * @param bd the bean definition
+	 * @param ctor the constructor to invoke
+	 * @param args the constructor arguments to apply
+	 * @return the new instance
+	 * @throws BeanInstantiationException if the constructor could not be invoked
+	 * or threw an exception
+	 * @since 5.2.10
+	 */
+	protected Object invokeConstructor(RootBeanDefinition bd, Constructor<?> ctor, Object... args) {
+		return BeanUtils.instantiateClass(ctor, args);
+	}
+
 	/**
 	 * Subclasses can override this method, which is implemented to throw
 	 * UnsupportedOperationException, if they can instantiate an object with
@@ -213,7 +229,7 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 				// 设置当前 method
 				currentlyInvokedFactoryMethod.set(factoryMethod);
 				// 使用 factorymethod 实例化对象
-				Object result = factoryMethod.invoke(factoryBean, args);
+				Object result = invokeFactoryMethod(bd, factoryBean, factoryMethod, args);
 				if (result == null) {
 					result = new NullBean();
 				}
@@ -249,4 +265,25 @@ public class SimpleInstantiationStrategy implements InstantiationStrategy {
 		}
 	}
 
+	/**
+	 * Invoke the given factory method, exposed through
+	 * {@link #getCurrentlyInvokedFactoryMethod()} for the duration of the call.
+	 * <p>The default implementation uses {@link Method#invoke}. Subclasses may
+	 * override this to use a different invocation mechanism, reporting exceptions
+	 * thrown by the factory method as {@link InvocationTargetException}.
+	 * @param bd the bean definition
+	 * @param factoryBean the factory bean instance to call the factory method on,
+	 * or {@code null} in case of a static factory method
+	 * @param factoryMethod the factory method to invoke (already made accessible)
+	 * @param args the factory method arguments to apply
+	 * @return the factory method result (may be {@code null})
+	 * @since 5.2.10
+	 */
+	@Nullable
+	protected Object invokeFactoryMethod(RootBeanDefinition bd, @Nullable Object factoryBean,
+			Method factoryMethod, Object... args) throws IllegalAccessException, InvocationTargetException {
+
+		return factoryMethod.invoke(factoryBean, args);
+	}
+
 }
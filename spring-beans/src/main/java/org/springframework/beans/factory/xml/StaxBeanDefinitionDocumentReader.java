@@ -0,0 +1,342 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.xml;
+
+import java.io.IOException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link DefaultBeanDefinitionDocumentReader} variant that consumes a StAX
+ * {@link XMLStreamReader} instead of a fully parsed DOM document.
+ *
+ * <p>Only the {@code <beans>} elements are kept in memory while streaming through
+ * the document: each top-level element below them is materialized as a small DOM
+ * subtree, handed to the regular {@link BeanDefinitionParserDelegate} or to the
+ * {@link NamespaceHandler} for its namespace, and discarded once parsed. As a
+ * consequence, all existing namespace handlers and the pre-/post-processing
+ * hooks of the superclass keep working unchanged.
+ *
+ * <p>The stream is not validated. Elements of custom namespaces get the default
+ * attribute values applied that their XSD declares, provided that the document
+ * declares the schema location through {@code xsi:schemaLocation} and that this
+ * reader is driven by a {@link StaxXmlBeanDefinitionReader} which can resolve
+ * the schema locally. Default values of the core {@code beans} namespace are
+ * not applied, since its parsers treat missing attributes like their declared
+ * defaults; the same goes for DTD-based documents.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see StaxXmlBeanDefinitionReader
+ */
+public class StaxBeanDefinitionDocumentReader extends DefaultBeanDefinitionDocumentReader {
+
+	private static final String SCHEMA_LOCATION_ATTRIBUTE = "schemaLocation";
+
+	private static final ErrorHandler LENIENT_ERROR_HANDLER = new ErrorHandler() {
+		@Override
+		public void warning(SAXParseException ex) {
+		}
+		@Override
+		public void error(SAXParseException ex) {
+		}
+		@Override
+		public void fatalError(SAXParseException ex) throws SAXException {
+			throw ex;
+		}
+	};
+
+
+	@Nullable
+	private XMLStreamReader streamReader;
+
+	private boolean childrenConsumed;
+
+
+	/**
+	 * Register the bean definitions in the document that the given stream
+	 * reader is positioned at, reading it up to the end of the root element.
+	 * @param streamReader the StAX reader to consume
+	 * @param readerContext the current context of the reader
+	 * @throws XMLStreamException if the document is not well-formed
+	 * @throws BeanDefinitionStoreException in case of parsing errors
+	 */
+	public void registerBeanDefinitions(XMLStreamReader streamReader, XmlReaderContext readerContext)
+			throws XMLStreamException {
+
+		while (!streamReader.isStartElement()) {
+			streamReader.next();
+		}
+		Document doc = newDocument();
+		doc.appendChild(createElement(doc, streamReader));
+		this.streamReader = streamReader;
+		try {
+			registerBeanDefinitions(doc, readerContext);
+		}
+		finally {
+			this.streamReader = null;
+		}
+	}
+
+	/**
+	 * Stream the children of the given {@code <beans>} element when reading from
+	 * a StAX stream, falling back to the DOM traversal of the superclass otherwise.
+	 */
+	@Override
+	protected void parseBeanDefinitions(Element root, BeanDefinitionParserDelegate delegate) {
+		XMLStreamReader streamReader = this.streamReader;
+		if (streamReader == null) {
+			super.parseBeanDefinitions(root, delegate);
+			return;
+		}
+		try {
+			if (!delegate.isDefaultNamespace(root)) {
+				appendChildren(root, streamReader);
+				applySchemaDefaults(root, delegate);
+				delegate.parseCustomElement(root);
+			}
+			else {
+				while (streamReader.next() != XMLStreamConstants.END_ELEMENT) {
+					if (streamReader.isStartElement()) {
+						Element ele = createElement(root.getOwnerDocument(), streamReader);
+						root.appendChild(ele);
+						parseStreamedElement(ele, streamReader, delegate);
+						root.removeChild(ele);
+					}
+				}
+			}
+		}
+		catch (XMLStreamException ex) {
+			throw new BeanDefinitionStoreException(getReaderContext().getResource().getDescription(),
+					describeInvalidStream(ex, getReaderContext().getResource().toString()), ex);
+		}
+		this.childrenConsumed = true;
+	}
+
+	private void parseStreamedElement(Element ele, XMLStreamReader streamReader,
+			BeanDefinitionParserDelegate delegate) throws XMLStreamException {
+
+		if (!delegate.isDefaultNamespace(ele)) {
+			appendChildren(ele, streamReader);
+			applySchemaDefaults(ele, delegate);
+			delegate.parseCustomElement(ele);
+		}
+		else if (delegate.nodeNameEquals(ele, NESTED_BEANS_ELEMENT)) {
+			// Recurse with the nested element's defaults, streaming its children
+			// unless its profile got rejected upfront
+			this.childrenConsumed = false;
+			doRegisterBeanDefinitions(ele);
+			if (!this.childrenConsumed) {
+				skipElement(streamReader);
+			}
+		}
+		else {
+			appendChildren(ele, streamReader);
+			applySchemaDefaults(ele, delegate);
+			if (delegate.nodeNameEquals(ele, IMPORT_ELEMENT)) {
+				importBeanDefinitionResource(ele);
+			}
+			else if (delegate.nodeNameEquals(ele, ALIAS_ELEMENT)) {
+				processAliasRegistration(ele);
+			}
+			else if (delegate.nodeNameEquals(ele, BEAN_ELEMENT)) {
+				processBeanDefinition(ele, delegate);
+			}
+		}
+	}
+
+	/**
+	 * Apply the default attribute values that the XML schemas of the given element
+	 * and its nested elements declare for custom namespaces, as a validating parser
+	 * would have done.
+	 */
+	private void applySchemaDefaults(Element ele, BeanDefinitionParserDelegate delegate) {
+		XmlBeanDefinitionReader reader = getReaderContext().getReader();
+		if (reader instanceof StaxXmlBeanDefinitionReader) {
+			applySchemaDefaults(ele, delegate, (StaxXmlBeanDefinitionReader) reader);
+		}
+	}
+
+	private void applySchemaDefaults(Element ele, BeanDefinitionParserDelegate delegate,
+			StaxXmlBeanDefinitionReader reader) {
+
+		String namespaceUri = ele.getNamespaceURI();
+		if (delegate.isDefaultNamespace(namespaceUri)) {
+			for (Node child = ele.getFirstChild(); child != null; child = child.getNextSibling()) {
+				if (child instanceof Element) {
+					applySchemaDefaults((Element) child, delegate, reader);
+				}
+			}
+			return;
+		}
+		String schemaLocation = findSchemaLocation(ele, namespaceUri);
+		Schema schema = (schemaLocation != null ? reader.getSchema(schemaLocation) : null);
+		if (schema == null) {
+			return;
+		}
+		try {
+			Validator validator = schema.newValidator();
+			validator.setErrorHandler(LENIENT_ERROR_HANDLER);
+			// Validating a node in place augments it with the declared default values
+			validator.validate(new DOMSource(ele), new DOMResult(ele));
+		}
+		catch (SAXException | IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not apply XML schema defaults to element <" + ele.getNodeName() + ">", ex);
+			}
+		}
+	}
+
+	/**
+	 * Find the schema location that the given element or its ancestors declare
+	 * for the given namespace.
+	 */
+	@Nullable
+	private static String findSchemaLocation(Element ele, @Nullable String namespaceUri) {
+		for (Node node = ele; node instanceof Element; node = node.getParentNode()) {
+			String[] tokens = StringUtils.tokenizeToStringArray(((Element) node).getAttributeNS(
+					XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, SCHEMA_LOCATION_ATTRIBUTE), " \t\n\r");
+			for (int i = 0; i + 1 < tokens.length; i += 2) {
+				if (tokens[i].equals(namespaceUri)) {
+					return tokens[i + 1];
+				}
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Build a message for a stream that is not well-formed.
+	 */
+	static String describeInvalidStream(XMLStreamException ex, String resourceDescription) {
+		Location location = ex.getLocation();
+		return (location != null && location.getLineNumber() >= 0 ?
+				"Line " + location.getLineNumber() + " in XML document from " + resourceDescription + " is invalid" :
+				"XML document from " + resourceDescription + " is invalid");
+	}
+
+	private static Document newDocument() {
+		try {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			return factory.newDocumentBuilder().newDocument();
+		}
+		catch (ParserConfigurationException ex) {
+			throw new IllegalStateException("Cannot create DOM document", ex);
+		}
+	}
+
+	/**
+	 * Create an element with the attributes and namespace declarations of the
+	 * start tag that the stream reader is positioned at, without its children.
+	 */
+	private static Element createElement(Document doc, XMLStreamReader streamReader) {
+		Element element = doc.createElementNS(emptyToNull(streamReader.getNamespaceURI()),
+				qualifiedName(streamReader.getPrefix(), streamReader.getLocalName()));
+		for (int i = 0; i < streamReader.getNamespaceCount(); i++) {
+			String prefix = streamReader.getNamespacePrefix(i);
+			element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+					qualifiedName(XMLConstants.XMLNS_ATTRIBUTE, prefix), streamReader.getNamespaceURI(i));
+		}
+		for (int i = 0; i < streamReader.getAttributeCount(); i++) {
+			element.setAttributeNS(emptyToNull(streamReader.getAttributeNamespace(i)),
+					qualifiedName(streamReader.getAttributePrefix(i), streamReader.getAttributeLocalName(i)),
+					streamReader.getAttributeValue(i));
+		}
+		return element;
+	}
+
+	/**
+	 * Read the content of the current element into the given DOM element,
+	 * up to and including its end tag. Comments and processing instructions
+	 * are dropped since bean definition parsing ignores them.
+	 */
+	private static void appendChildren(Element parent, XMLStreamReader streamReader) throws XMLStreamException {
+		Document doc = parent.getOwnerDocument();
+		Node current = parent;
+		int depth = 1;
+		while (depth > 0) {
+			switch (streamReader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					current = current.appendChild(createElement(doc, streamReader));
+					depth++;
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					current = current.getParentNode();
+					depth--;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE:
+					current.appendChild(doc.createTextNode(streamReader.getText()));
+					break;
+				case XMLStreamConstants.CDATA:
+					current.appendChild(doc.createCDATASection(streamReader.getText()));
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	private static void skipElement(XMLStreamReader streamReader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			int event = streamReader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	private static String qualifiedName(@Nullable String prefix, @Nullable String localName) {
+		if (!StringUtils.hasLength(prefix)) {
+			return (localName != null ? localName : "");
+		}
+		return (StringUtils.hasLength(localName) ? prefix + ':' + localName : prefix);
+	}
+
+	@Nullable
+	private static String emptyToNull(@Nullable String value) {
+		return (StringUtils.hasLength(value) ? value : null);
+	}
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.ls.DOMImplementationLS;
+import org.w3c.dom.ls.LSInput;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.xml.StaxUtils;
+
+/**
+ * {@link XmlBeanDefinitionReader} variant that streams XML bean definition files
+ * through StAX instead of building a DOM document for each of them, using a
+ * {@link StaxBeanDefinitionDocumentReader}. Namespace handlers and imports are
+ * supported just like with the DOM-based reader.
+ *
+ * <p>Streamed XML documents are not validated against their schema or DTD;
+ * the default attribute values that the schemas of custom namespaces declare
+ * are applied nevertheless. A custom
+ * {@linkplain #setDocumentReaderClass document reader class} that does not
+ * extend {@code StaxBeanDefinitionDocumentReader} switches this reader back to
+ * regular DOM loading.
+ *
+ * <p>With a {@linkplain #setParsingExecutor parsing executor}, multiple resources
+ * passed to a single {@code loadBeanDefinitions} call are loaded as regular,
+ * validated DOM documents in parallel and registered in their original order.
+ * Each of those resources is then held as a complete document until its turn
+ * for registration comes.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see StaxBeanDefinitionDocumentReader
+ */
+public class StaxXmlBeanDefinitionReader extends XmlBeanDefinitionReader {
+
+	private final XMLInputFactory inputFactory = StaxUtils.createDefensiveInputFactory();
+
+	private final Map<String, Optional<Schema>> schemaCache = new ConcurrentHashMap<>();
+
+	private final ThreadLocal<Map<Resource, CompletableFuture<Document>>> prefetchedDocuments =
+			new NamedThreadLocal<>("XML bean definition documents loaded in parallel");
+
+	@Nullable
+	private Executor parsingExecutor;
+
+
+	/**
+	 * Create a new StaxXmlBeanDefinitionReader for the given bean factory.
+	 * @param registry the BeanFactory to load bean definitions into,
+	 * in the form of a BeanDefinitionRegistry
+	 */
+	public StaxXmlBeanDefinitionReader(BeanDefinitionRegistry registry) {
+		super(registry);
+		setDocumentReaderClass(StaxBeanDefinitionDocumentReader.class);
+	}
+
+
+	/**
+	 * Specify an executor for reading multiple XML resources in parallel.
+	 * <p>Default is none, reading one resource after the other.
+	 */
+	public void setParsingExecutor(@Nullable Executor parsingExecutor) {
+		this.parsingExecutor = parsingExecutor;
+	}
+
+	/**
+	 * Return the executor for reading multiple XML resources in parallel, if any.
+	 */
+	@Nullable
+	public Executor getParsingExecutor() {
+		return this.parsingExecutor;
+	}
+
+
+	@Override
+	public int loadBeanDefinitions(Resource... resources) throws BeanDefinitionStoreException {
+		Assert.notNull(resources, "Resource array must not be null");
+		Executor executor = this.parsingExecutor;
+		if (executor == null || resources.length < 2 || this.prefetchedDocuments.get() != null) {
+			return super.loadBeanDefinitions(resources);
+		}
+
+		// Load the documents in parallel, then register them one after the other
+		// through the regular per-resource path
+		getEntityResolver();
+		Map<Resource, CompletableFuture<Document>> documents = new HashMap<>(resources.length * 2);
+		for (Resource resource : resources) {
+			documents.computeIfAbsent(resource, key ->
+					CompletableFuture.supplyAsync(() -> loadDocument(resource), executor));
+		}
+		this.prefetchedDocuments.set(documents);
+		try {
+			return super.loadBeanDefinitions(resources);
+		}
+		finally {
+			this.prefetchedDocuments.remove();
+		}
+	}
+
+	@Override
+	public int loadBeanDefinitions(String... locations) throws BeanDefinitionStoreException {
+		Assert.notNull(locations, "Location array must not be null");
+		ResourceLoader resourceLoader = getResourceLoader();
+		if (this.parsingExecutor == null || locations.length < 2 || resourceLoader == null) {
+			return super.loadBeanDefinitions(locations);
+		}
+
+		// Resolve all locations upfront so that their resources can be read in one parallel batch
+		List<Resource> resources = new ArrayList<>();
+		for (String location : locations) {
+			if (resourceLoader instanceof ResourcePatternResolver) {
+				try {
+					Collections.addAll(resources, ((ResourcePatternResolver) resourceLoader).getResources(location));
+				}
+				catch (IOException ex) {
+					throw new BeanDefinitionStoreException(
+							"Could not resolve bean definition resource pattern [" + location + "]", ex);
+				}
+			}
+			else {
+				resources.add(resourceLoader.getResource(location));
+			}
+		}
+		return loadBeanDefinitions(resources.toArray(new Resource[0]));
+	}
+
+	/**
+	 * Register the document loaded in parallel for the given resource, if any,
+	 * or stream the bean definitions from the given input source into the registry,
+	 * provided that the input source has a byte or character stream.
+	 */
+	@Override
+	protected int doLoadBeanDefinitions(InputSource inputSource, Resource resource)
+			throws BeanDefinitionStoreException {
+
+		Map<Resource, CompletableFuture<Document>> documents = this.prefetchedDocuments.get();
+		CompletableFuture<Document> document = (documents != null ? documents.remove(resource) : null);
+		if (document != null) {
+			Document doc;
+			try {
+				doc = document.join();
+			}
+			catch (CompletionException ex) {
+				// Load the document again on this thread, for the regular exception handling
+				return super.doLoadBeanDefinitions(inputSource, resource);
+			}
+			int count = registerBeanDefinitions(doc, resource);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + count + " bean definitions from " + resource);
+			}
+			return count;
+		}
+
+		BeanDefinitionDocumentReader documentReader = createBeanDefinitionDocumentReader();
+		if (!(documentReader instanceof StaxBeanDefinitionDocumentReader) ||
+				(inputSource.getByteStream() == null && inputSource.getCharacterStream() == null)) {
+			return super.doLoadBeanDefinitions(inputSource, resource);
+		}
+
+		XMLStreamReader streamReader = null;
+		try {
+			streamReader = createStreamReader(inputSource);
+			int countBefore = getRegistry().getBeanDefinitionCount();
+			((StaxBeanDefinitionDocumentReader) documentReader).registerBeanDefinitions(
+					streamReader, createReaderContext(resource));
+			int count = getRegistry().getBeanDefinitionCount() - countBefore;
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded " + count + " bean definitions from " + resource);
+			}
+			return count;
+		}
+		catch (XMLStreamException ex) {
+			throw new BeanDefinitionStoreException(resource.getDescription(),
+					StaxBeanDefinitionDocumentReader.describeInvalidStream(ex, resource.toString()), ex);
+		}
+		finally {
+			closeStreamReader(streamReader);
+		}
+	}
+
+	/**
+	 * Load the DOM document of the given resource, for parallel loading.
+	 */
+	private Document loadDocument(Resource resource) {
+		try (InputStream inputStream = resource.getInputStream()) {
+			return doLoadDocument(new InputSource(inputStream), resource);
+		}
+		catch (Exception ex) {
+			throw new CompletionException(ex);
+		}
+	}
+
+	/**
+	 * Return the XML schema at the given location, resolved through the
+	 * {@linkplain #setEntityResolver entity resolver} of this reader.
+	 * @param schemaLocation the system id of the schema
+	 * @return the schema, or {@code null} if it cannot be resolved locally
+	 */
+	@Nullable
+	Schema getSchema(String schemaLocation) {
+		return this.schemaCache.computeIfAbsent(schemaLocation, this::loadSchema).orElse(null);
+	}
+
+	private Optional<Schema> loadSchema(String schemaLocation) {
+		EntityResolver entityResolver = getEntityResolver();
+		try {
+			InputSource inputSource = entityResolver.resolveEntity(null, schemaLocation);
+			if (inputSource == null) {
+				return Optional.empty();
+			}
+			DOMImplementationLS domImplementation = (DOMImplementationLS)
+					DocumentBuilderFactory.newInstance().newDocumentBuilder().getDOMImplementation();
+			SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+			schemaFactory.setResourceResolver((type, namespaceUri, publicId, systemId, baseUri) -> {
+				LSInput input = domImplementation.createLSInput();
+				input.setPublicId(publicId);
+				input.setSystemId(systemId);
+				input.setBaseURI(baseUri);
+				InputSource importedSource = null;
+				try {
+					importedSource = (systemId != null ? entityResolver.resolveEntity(publicId, systemId) : null);
+				}
+				catch (SAXException | IOException ex) {
+					logger.trace("Could not resolve imported schema [" + systemId + "]", ex);
+				}
+				if (importedSource != null) {
+					input.setByteStream(importedSource.getByteStream());
+					input.setCharacterStream(importedSource.getCharacterStream());
+				}
+				else {
+					// Never fall back to fetching the schema over the network
+					input.setStringData("");
+				}
+				return input;
+			});
+			if (inputSource.getSystemId() == null) {
+				inputSource.setSystemId(schemaLocation);
+			}
+			return Optional.of(schemaFactory.newSchema(new SAXSource(inputSource)));
+		}
+		catch (SAXException | IOException | ParserConfigurationException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Could not load XML schema [" + schemaLocation + "]: default attribute values " +
+						"declared in it will not be applied to streamed documents", ex);
+			}
+			return Optional.empty();
+		}
+	}
+
+	private XMLStreamReader createStreamReader(InputSource inputSource) throws XMLStreamException {
+		// XMLInputFactory implementations are not guaranteed to be thread-safe
+		synchronized (this.inputFactory) {
+			if (inputSource.getCharacterStream() != null) {
+				return this.inputFactory.createXMLStreamReader(inputSource.getCharacterStream());
+			}
+			if (inputSource.getEncoding() != null) {
+				return this.inputFactory.createXMLStreamReader(inputSource.getByteStream(), inputSource.getEncoding());
+			}
+			return this.inputFactory.createXMLStreamReader(inputSource.getByteStream());
+		}
+	}
+
+	private void closeStreamReader(@Nullable XMLStreamReader streamReader) {
+		if (streamReader != null) {
+			try {
+				streamReader.close();
+			}
+			catch (XMLStreamException ex) {
+				logger.trace("Could not close XMLStreamReader", ex);
+			}
+		}
+	}
+
+}
@@ -104,6 +104,25 @@ public class BeanWrapperTests extends AbstractPropertyAccessorTests {
 			.satisfies(ex -> assertThat(ex.getPossibleMatches()).containsExactly("age"));
 	}
 
+	@Test
+	public void repeatedPropertyAccessBeyondGenerationThreshold() {
+		BeanWrapper accessor = createAccessor(new TestBean());
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD * 2; i++) {
+			accessor.setPropertyValue("age", i);
+			accessor.setPropertyValue("name", "name" + i);
+			assertThat(accessor.getPropertyValue("age")).isEqualTo(i);
+			assertThat(accessor.getPropertyValue("name")).isEqualTo("name" + i);
+		}
+		accessor.setPropertyValue("name", null);
+		assertThat(accessor.getPropertyValue("name")).isNull();
+		assertThatExceptionOfType(MethodInvocationException.class).isThrownBy(() ->
+				accessor.setPropertyValue("touchy", ".invalid"))
+			.satisfies(ex -> assertThat(ex.getCause()).hasMessage("Can't contain a ."));
+		assertThatExceptionOfType(MethodInvocationException.class).isThrownBy(() ->
+				accessor.setPropertyValue("touchy", "in,valid"))
+			.satisfies(ex -> assertThat(ex.getCause()).isInstanceOf(NumberFormatException.class));
+	}
+
 	@Test // Can't be shared; there is no such thing as a read-only field
 	public void setReadOnlyMapProperty() {
 		TypedReadOnlyMap map = new TypedReadOnlyMap(Collections.singletonMap("key", new TestBean()));
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans;
+
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PropertyMethodInvoker}.
+ *
+ * @author agent
+ */
+class PropertyMethodInvokerTests {
+
+	@Test
+	void getterIsGeneratedAfterThreshold() {
+		PropertyMethodInvoker invoker = new PropertyMethodInvoker(method(TestBean.class, "getName"), null);
+		for (int i = 1; i < PropertyMethodInvoker.GENERATION_THRESHOLD; i++) {
+			assertThat(invoker.getGetter()).isNull();
+		}
+		Function<Object, Object> getter = invoker.getGetter();
+		assertThat(getter).isNotNull();
+		assertThat(getter.apply(new TestBean("tom"))).isEqualTo("tom");
+		assertThat(invoker.getGetter()).isSameAs(getter);
+	}
+
+	@Test
+	void primitiveGetterAndSetter() {
+		PropertyMethodInvoker invoker = new PropertyMethodInvoker(
+				method(TestBean.class, "getAge"), method(TestBean.class, "setAge", int.class));
+		Function<Object, Object> getter = generateGetter(invoker);
+		BiConsumer<Object, Object> setter = generateSetter(invoker, 42);
+		TestBean bean = new TestBean();
+		setter.accept(bean, 42);
+		assertThat(getter.apply(bean)).isEqualTo(42);
+	}
+
+	@Test
+	void setterIsNotUsedForValueOfUnexpectedType() {
+		PropertyMethodInvoker invoker = new PropertyMethodInvoker(null, method(TestBean.class, "setAge", int.class));
+		generateSetter(invoker, 42);
+		assertThat(invoker.getSetter(null)).isNull();
+		assertThat(invoker.getSetter("42")).isNull();
+		assertThat(invoker.getSetter(42)).isNotNull();
+	}
+
+	@Test
+	void nonPublicClassIsNotGenerated() {
+		PropertyMethodInvoker invoker = new PropertyMethodInvoker(
+				method(PackagePrivateBean.class, "getName"), method(PackagePrivateBean.class, "setName", String.class));
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD * 2; i++) {
+			assertThat(invoker.getGetter()).isNull();
+			assertThat(invoker.getSetter("tom")).isNull();
+		}
+	}
+
+
+	private static Method method(Class<?> clazz, String name, Class<?>... parameterTypes) {
+		Method method = ReflectionUtils.findMethod(clazz, name, parameterTypes);
+		assertThat(method).isNotNull();
+		return method;
+	}
+
+	private static Function<Object, Object> generateGetter(PropertyMethodInvoker invoker) {
+		Function<Object, Object> getter = null;
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD && getter == null; i++) {
+			getter = invoker.getGetter();
+		}
+		assertThat(getter).isNotNull();
+		return getter;
+	}
+
+	private static BiConsumer<Object, Object> generateSetter(PropertyMethodInvoker invoker, Object value) {
+		BiConsumer<Object, Object> setter = null;
+		for (int i = 0; i < PropertyMethodInvoker.GENERATION_THRESHOLD && setter == null; i++) {
+			setter = invoker.getSetter(value);
+		}
+		assertThat(setter).isNotNull();
+		return setter;
+	}
+
+
+	@SuppressWarnings("unused")
+	static class PackagePrivateBean {
+
+		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+}
@@ -19,6 +19,7 @@ package org.springframework.beans.factory;
 import java.io.Closeable;
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
 import java.net.MalformedURLException;
 import java.security.AccessControlContext;
 import java.security.AccessController;
@@ -26,6 +27,7 @@ import java.security.Principal;
 import java.security.PrivilegedAction;
 import java.text.NumberFormat;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -87,6 +89,7 @@ import org.springframework.beans.testfixture.beans.SideEffectBean;
 import org.springframework.beans.testfixture.beans.TestBean;
 import org.springframework.beans.testfixture.beans.factory.DummyFactory;
 import org.springframework.core.MethodParameter;
+import org.springframework.core.OverridingClassLoader;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.core.convert.converter.Converter;
@@ -1923,6 +1926,88 @@ class DefaultListableBeanFactoryTests {
 		assertThat(beanNames[0]).isEqualTo("&factoryBean");
 	}
 
+	@Test
+	void getBeanNamesForTypeInRegistrationOrder() {
+		lbf.registerBeanDefinition("test1", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		lbf.registerBeanDefinition("test2", new RootBeanDefinition(DerivedTestBean.class));
+		lbf.registerSingleton("test3", new TestBean());
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("test1", "test2", "test3");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("nested");
+
+		lbf.registerBeanDefinition("test1", new RootBeanDefinition(NestedTestBean.class));
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("test2", "test3");
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("test1", "nested");
+
+		lbf.removeBeanDefinition("test2");
+		lbf.destroySingleton("test3");
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).isEmpty();
+	}
+
+	@Test
+	void getBeanNamesForTypeWithProxiedSingleton() {
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class));
+		lbf.addBeanPostProcessor(new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {ITestBean.class, Runnable.class},
+						(proxy, method, args) -> method.invoke(bean, args));
+			}
+		});
+		assertThat(lbf.getBeanNamesForType(Runnable.class)).isEmpty();
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("test");
+
+		lbf.getBean("test");
+		assertThat(lbf.getBeanNamesForType(Runnable.class)).containsExactly("test");
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).isEmpty();
+		assertThat(lbf.getBeanNamesForType(ITestBean.class)).containsExactly("test");
+	}
+
+	@Test
+	void getBeanNamesForTypeConsultsIndexWithNonPredictingPostProcessor() {
+		List<String> mergedBeanNames = new ArrayList<>();
+		DefaultListableBeanFactory lbf = new DefaultListableBeanFactory() {
+			@Override
+			protected RootBeanDefinition getMergedLocalBeanDefinition(String beanName) {
+				mergedBeanNames.add(beanName);
+				return super.getMergedLocalBeanDefinition(beanName);
+			}
+		};
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class));
+		lbf.registerBeanDefinition("nested", new RootBeanDefinition(NestedTestBean.class));
+		lbf.addBeanPostProcessor(new InstantiationAwareBeanPostProcessorAdapter() {
+		});
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("nested");
+
+		mergedBeanNames.clear();
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("nested");
+		assertThat(mergedBeanNames).doesNotContain("test");
+
+		lbf.addBeanPostProcessor(new InstantiationAwareBeanPostProcessorAdapter() {
+			@Override
+			public Class<?> predictBeanType(Class<?> beanClass, String beanName) {
+				return null;
+			}
+		});
+		mergedBeanNames.clear();
+		assertThat(lbf.getBeanNamesForType(NestedTestBean.class)).containsExactly("nested");
+		assertThat(mergedBeanNames).contains("test");
+	}
+
+	@Test
+	void getBeanNamesForTypeWithTempClassLoader() {
+		lbf.registerBeanDefinition("test", new RootBeanDefinition(TestBean.class.getName()));
+		OverridingClassLoader tempClassLoader = new OverridingClassLoader(getClass().getClassLoader());
+		tempClassLoader.excludePackage("org.springframework.beans.testfixture");
+		lbf.setTempClassLoader(tempClassLoader);
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("test");
+		assertThat(lbf.getMergedBeanDefinition("test")).isInstanceOfSatisfying(AbstractBeanDefinition.class,
+				bd -> assertThat(bd.hasBeanClass()).isFalse());
+
+		lbf.setTempClassLoader(null);
+		assertThat(lbf.getBeanNamesForType(TestBean.class)).containsExactly("test");
+	}
+
 	/**
 	 * Verifies that a dependency on a {@link FactoryBean} can <strong>not</strong>
 	 * be autowired <em>by name</em>, as &amp; is an illegal character in
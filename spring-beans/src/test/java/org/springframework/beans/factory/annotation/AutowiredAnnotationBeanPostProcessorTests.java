@@ -166,6 +166,65 @@ public class AutowiredAnnotationBeanPostProcessorTests {
 		assertThat(depBeans[1]).isEqualTo("nestedTestBean");
 	}
 
+	@Test
+	public void testResourceInjectionWithReplacedSingleton() {
+		RootBeanDefinition bd = new RootBeanDefinition(ResourceInjectionBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		TestBean tb = new TestBean();
+		bf.registerSingleton("testBean", tb);
+
+		for (int i = 0; i < 3; i++) {
+			ResourceInjectionBean bean = (ResourceInjectionBean) bf.getBean("annotatedBean");
+			assertThat(bean.getTestBean()).isSameAs(tb);
+			assertThat(bean.getTestBean2()).isSameAs(tb);
+		}
+
+		bf.destroySingleton("testBean");
+		TestBean tb2 = new TestBean();
+		bf.registerSingleton("testBean", tb2);
+		ResourceInjectionBean bean = (ResourceInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean.getTestBean()).isSameAs(tb2);
+		assertThat(bean.getTestBean2()).isSameAs(tb2);
+	}
+
+	@Test
+	public void testResourceInjectionWithPrototypeShortcut() {
+		RootBeanDefinition bd = new RootBeanDefinition(ResourceInjectionBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		RootBeanDefinition tbd = new RootBeanDefinition(TestBean.class);
+		tbd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("testBean", tbd);
+
+		ResourceInjectionBean bean = (ResourceInjectionBean) bf.getBean("annotatedBean");
+		ResourceInjectionBean bean2 = (ResourceInjectionBean) bf.getBean("annotatedBean");
+		ResourceInjectionBean bean3 = (ResourceInjectionBean) bf.getBean("annotatedBean");
+		assertThat(bean2.getTestBean()).isNotSameAs(bean.getTestBean());
+		assertThat(bean3.getTestBean()).isNotSameAs(bean2.getTestBean());
+		assertThat(bean3.getTestBean2()).isNotSameAs(bean2.getTestBean2());
+	}
+
+	@Test
+	public void testMethodInjectionWithCollectionAndSingleArguments() {
+		RootBeanDefinition bd = new RootBeanDefinition(MixedMethodInjectionBean.class);
+		bd.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		bf.registerBeanDefinition("annotatedBean", bd);
+		TestBean tb1 = new TestBean("tb1");
+		TestBean tb2 = new TestBean("tb2");
+		bf.registerSingleton("testBean1", tb1);
+		bf.registerSingleton("testBean2", tb2);
+		NestedTestBean ntb = new NestedTestBean();
+		bf.registerSingleton("nestedTestBean", ntb);
+
+		for (int i = 0; i < 3; i++) {
+			MixedMethodInjectionBean bean = (MixedMethodInjectionBean) bf.getBean("annotatedBean");
+			assertThat(bean.testBeans).containsExactly(tb1, tb2);
+			assertThat(bean.nestedTestBean).isSameAs(ntb);
+		}
+		assertThat(bf.getDependentBeans("nestedTestBean")).containsExactly("annotatedBean");
+	}
+
 	@Test
 	public void testExtendedResourceInjectionWithDestruction() {
 		bf.registerBeanDefinition("annotatedBean", new RootBeanDefinition(TypedExtendedResourceInjectionBean.class));
@@ -2249,6 +2308,20 @@ public class AutowiredAnnotationBeanPostProcessorTests {
 	}
 
 
+	public static class MixedMethodInjectionBean {
+
+		private List<TestBean> testBeans;
+
+		private NestedTestBean nestedTestBean;
+
+		@Autowired
+		public void setDependencies(List<TestBean> testBeans, NestedTestBean nestedTestBean) {
+			this.testBeans = testBeans;
+			this.nestedTestBean = nestedTestBean;
+		}
+	}
+
+
 	public static class TypedExtendedResourceInjectionBean extends NonPublicResourceInjectionBean<NestedTestBean>
 			implements DisposableBean {
 
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinitionHolder;
+import org.springframework.beans.factory.config.RuntimeBeanNameReference;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+import org.springframework.beans.factory.config.TypedStringValue;
+import org.springframework.beans.testfixture.beans.ITestBean;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link BeanDefinitionSnapshot}.
+ *
+ * @author agent
+ */
+class BeanDefinitionSnapshotTests {
+
+	@Test
+	void roundTripPreservesBeanDefinitions() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		RootBeanDefinition spouse = new RootBeanDefinition(TestBean.class);
+		spouse.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		spouse.setLazyInit(true);
+		spouse.setPrimary(true);
+		spouse.setDependsOn("other");
+		spouse.setInitMethodName("toString");
+		spouse.setRole(BeanDefinition.ROLE_SUPPORT);
+		spouse.addQualifier(new AutowireCandidateQualifier("qualifier", "value"));
+		spouse.setAttribute("order", 5);
+		spouse.setAttribute("retention", RetentionPolicy.RUNTIME);
+		spouse.setAttribute("type", ITestBean.class);
+		spouse.getPropertyValues().add("name", new TypedStringValue("Kerry", String.class));
+		spouse.getPropertyValues().add("age", 42);
+		source.registerBeanDefinition("spouse", spouse);
+
+		GenericBeanDefinition other = new GenericBeanDefinition();
+		other.setBeanClass(TestBean.class);
+		other.getConstructorArgumentValues().addIndexedArgumentValue(0, "Juergen", String.class.getName());
+		other.getConstructorArgumentValues().addGenericArgumentValue(new TypedStringValue("Rod"));
+		ManagedList<Object> friends = new ManagedList<>();
+		friends.add(new RuntimeBeanReference("spouse"));
+		friends.add(new BeanDefinitionHolder(new GenericBeanDefinition(spouse), "inner"));
+		friends.setMergeEnabled(true);
+		other.getPropertyValues().add("friends", friends);
+		ManagedMap<Object, Object> someMap = new ManagedMap<>();
+		someMap.put(new TypedStringValue("key"), new RuntimeBeanNameReference("spouse"));
+		other.getPropertyValues().add("someMap", someMap);
+		ManagedProperties someProperties = new ManagedProperties();
+		someProperties.put("a", "b");
+		other.getPropertyValues().add("someProperties", someProperties);
+		ManagedSet<Object> someSet = new ManagedSet<>();
+		someSet.add("x");
+		other.getPropertyValues().add("someSet", someSet);
+		other.getPropertyValues().add("stringArray", new String[] {"a", null, "c"});
+		other.getPropertyValues().add("someList", Arrays.asList(1L, 2.5d, 'c', true));
+		other.getMethodOverrides().addOverride(new LookupOverride("getSpouse", "spouse"));
+		ReplaceOverride replaceOverride = new ReplaceOverride("getAge", "replacer");
+		replaceOverride.addTypeIdentifier("int");
+		other.getMethodOverrides().addOverride(replaceOverride);
+		source.registerBeanDefinition("other", other);
+		source.registerAlias("other", "alias");
+
+		GenericBeanDefinition child = new GenericBeanDefinition();
+		child.setParentName("spouse");
+		child.getPropertyValues().add("name", "child");
+		source.registerBeanDefinition("child", child);
+
+		BeanDefinitionSnapshot snapshot = writeAndRead(BeanDefinitionSnapshot.capture(source, "fp"));
+		assertThat(snapshot.getFingerprint()).isEqualTo("fp");
+		assertThat(snapshot.getBeanDefinitionCount()).isEqualTo(3);
+
+		DefaultListableBeanFactory target = new DefaultListableBeanFactory();
+		assertThat(snapshot.registerBeanDefinitions(target, null)).isEqualTo(3);
+		assertThat(target.getBeanDefinitionNames()).containsExactly("spouse", "other", "child");
+		assertThat(target.getAliases("other")).containsExactly("alias");
+		for (String beanName : source.getBeanDefinitionNames()) {
+			assertThat(target.getBeanDefinition(beanName)).isEqualTo(source.getMergedBeanDefinition(beanName));
+		}
+		assertThat(((RootBeanDefinition) target.getBeanDefinition("spouse")).hasBeanClass()).isTrue();
+		assertThat(target.getBeanDefinition("spouse").getRole()).isEqualTo(BeanDefinition.ROLE_SUPPORT);
+		assertThat(target.getBeanDefinition("child").getPropertyValues().get("name")).isEqualTo("child");
+	}
+
+	@Test
+	void snapshotIsDetachedFromLaterChanges() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("name", "${name}");
+		source.registerBeanDefinition("bean", bd);
+
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(source, "fp");
+		bd.getPropertyValues().add("name", "resolved");
+
+		DefaultListableBeanFactory target = new DefaultListableBeanFactory();
+		writeAndRead(snapshot).registerBeanDefinitions(target, null);
+		assertThat(target.getBeanDefinition("bean").getPropertyValues().get("name")).isEqualTo("${name}");
+	}
+
+	@Test
+	void existingBeanDefinitionsAreKept() throws IOException {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		source.registerBeanDefinition("a", new RootBeanDefinition(TestBean.class));
+		source.registerBeanDefinition("b", new RootBeanDefinition(TestBean.class));
+		BeanDefinitionSnapshot snapshot = writeAndRead(BeanDefinitionSnapshot.capture(source, "fp"));
+
+		DefaultListableBeanFactory target = new DefaultListableBeanFactory();
+		RootBeanDefinition existing = new RootBeanDefinition(Object.class);
+		target.registerBeanDefinition("a", existing);
+		assertThat(snapshot.registerBeanDefinitions(target, null)).isEqualTo(1);
+		assertThat(target.getBeanDefinition("a")).isSameAs(existing);
+		assertThat(target.getBean("b")).isInstanceOf(TestBean.class);
+	}
+
+	@Test
+	void attributesRoundTrip() throws IOException {
+		BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(new DefaultListableBeanFactory(), "fp");
+		snapshot.setAttribute("key", "value");
+		snapshot.setAttribute("other", "value");
+		snapshot.setAttribute("other", null);
+		snapshot = writeAndRead(snapshot);
+		assertThat(snapshot.attributeNames()).containsExactly("key");
+		assertThat(snapshot.getAttribute("key")).isEqualTo("value");
+	}
+
+	@Test
+	void captureRejectsInstanceSupplier() {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		source.registerBeanDefinition("bean", new RootBeanDefinition(TestBean.class, TestBean::new));
+		assertThatIllegalArgumentException().isThrownBy(() -> BeanDefinitionSnapshot.capture(source, "fp"))
+				.withMessageContaining("'bean'");
+	}
+
+	@Test
+	void captureRejectsArbitraryValues() {
+		DefaultListableBeanFactory source = new DefaultListableBeanFactory();
+		RootBeanDefinition bd = new RootBeanDefinition(TestBean.class);
+		bd.getPropertyValues().add("touchy", new Properties().keySet().stream());
+		source.registerBeanDefinition("bean", bd);
+		assertThatIllegalArgumentException().isThrownBy(() -> BeanDefinitionSnapshot.capture(source, "fp"))
+				.withMessageContaining("'bean'");
+	}
+
+	@Test
+	void readRejectsOtherContent() {
+		assertThatExceptionOfType(IOException.class).isThrownBy(() ->
+				BeanDefinitionSnapshot.readFrom(new ByteArrayInputStream(new byte[] {1, 2, 3, 4})));
+	}
+
+	@Test
+	void classpathFingerprintIsStable() {
+		ClassLoader classLoader = getClass().getClassLoader();
+		assertThat(BeanDefinitionSnapshot.computeClasspathFingerprint(classLoader))
+				.isEqualTo(BeanDefinitionSnapshot.computeClasspathFingerprint(classLoader)).hasSize(32);
+	}
+
+
+	private static BeanDefinitionSnapshot writeAndRead(BeanDefinitionSnapshot snapshot) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		snapshot.writeTo(out);
+		return BeanDefinitionSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+}
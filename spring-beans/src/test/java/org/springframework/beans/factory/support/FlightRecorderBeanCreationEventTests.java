@@ -0,0 +1,69 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link FlightRecorderBeanCreationEvent}.
+ *
+ * @author agent
+ */
+class FlightRecorderBeanCreationEventTests {
+
+	@Test
+	void beanCreationIsRecorded(@TempDir Path tempDir) throws Exception {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("bean", BeanDefinitionBuilder.genericBeanDefinition(TestBean.class)
+				.setScope(BeanDefinition.SCOPE_PROTOTYPE).getBeanDefinition());
+
+		Path file = tempDir.resolve("beans.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(FlightRecorderBeanCreationEvent.class);
+			recording.start();
+			beanFactory.getBean("bean");
+			beanFactory.getBean("bean");
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		assertThat(events).hasSize(2).allSatisfy(event -> {
+			assertThat(event.getString("beanName")).isEqualTo("bean");
+			assertThat(event.getClass("beanClass").getName()).isEqualTo(TestBean.class.getName());
+			assertThat(event.getString("scope")).isEqualTo(BeanDefinition.SCOPE_PROTOTYPE);
+		});
+	}
+
+	@Test
+	void nothingIsRecordedWhenDisabled() {
+		assertThat(FlightRecorderBeanCreationEvent.start()).isNull();
+	}
+
+}
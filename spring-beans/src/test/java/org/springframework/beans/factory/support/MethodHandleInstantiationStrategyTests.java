@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.testfixture.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link MethodHandleInstantiationStrategy}.
+ *
+ * @author agent
+ */
+class MethodHandleInstantiationStrategyTests {
+
+	private static final int INSTANCE_COUNT = InstantiationInvoker.GENERATION_THRESHOLD * 2;
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@BeforeEach
+	void setup() {
+		this.beanFactory.setInstantiationStrategy(new MethodHandleInstantiationStrategy());
+	}
+
+
+	@Test
+	void defaultConstructor() {
+		registerPrototype("bean", BeanDefinitionBuilder.genericBeanDefinition(TestBean.class));
+		TestBean previous = null;
+		for (int i = 0; i < INSTANCE_COUNT; i++) {
+			TestBean bean = this.beanFactory.getBean("bean", TestBean.class);
+			assertThat(bean).isNotSameAs(previous);
+			previous = bean;
+		}
+		if (System.getSecurityManager() == null) {
+			assertThat(this.beanFactory.getMergedBeanDefinition("bean"))
+					.extracting("instantiationInvoker").isNotNull();
+		}
+	}
+
+	@Test
+	void nonPublicConstructorWithArguments() {
+		registerPrototype("bean", BeanDefinitionBuilder.genericBeanDefinition(NonPublicBean.class)
+				.addConstructorArgValue("value").addConstructorArgValue(42));
+		for (int i = 0; i < INSTANCE_COUNT; i++) {
+			NonPublicBean bean = this.beanFactory.getBean("bean", NonPublicBean.class);
+			assertThat(bean.name).isEqualTo("value");
+			assertThat(bean.age).isEqualTo(42);
+		}
+	}
+
+	@Test
+	void staticFactoryMethod() {
+		registerPrototype("bean", BeanDefinitionBuilder.genericBeanDefinition(Factory.class)
+				.setFactoryMethod("createBean").addConstructorArgValue("value"));
+		for (int i = 0; i < INSTANCE_COUNT; i++) {
+			assertThat(this.beanFactory.getBean("bean", TestBean.class).getName()).isEqualTo("value");
+		}
+	}
+
+	@Test
+	void instanceFactoryMethod() {
+		this.beanFactory.registerSingleton("factory", new Factory());
+		registerPrototype("bean", BeanDefinitionBuilder.genericBeanDefinition()
+				.setFactoryMethodOnBean("createCountedBean", "factory"));
+		for (int i = 0; i < INSTANCE_COUNT; i++) {
+			assertThat(this.beanFactory.getBean("bean", TestBean.class).getAge()).isEqualTo(i + 1);
+		}
+	}
+
+	@Test
+	void factoryMethodReturningNull() {
+		registerPrototype("bean", BeanDefinitionBuilder.genericBeanDefinition(Factory.class)
+				.setFactoryMethod("createNull"));
+		for (int i = 0; i < INSTANCE_COUNT; i++) {
+			assertThat(this.beanFactory.getBean("bean").toString()).isEqualTo("null");
+		}
+	}
+
+	@Test
+	void constructorExceptionIsExposed() {
+		registerPrototype("bean", BeanDefinitionBuilder.genericBeanDefinition(FailingBean.class));
+		for (int i = 0; i < INSTANCE_COUNT; i++) {
+			assertThatExceptionOfType(BeanCreationException.class)
+					.isThrownBy(() -> this.beanFactory.getBean("bean"))
+					.havingRootCause().isInstanceOf(IllegalStateException.class).withMessage("failed");
+		}
+		assertThatExceptionOfType(BeanCreationException.class)
+				.isThrownBy(() -> this.beanFactory.getBean("bean"))
+				.withCauseInstanceOf(BeanInstantiationException.class)
+				.withMessageContaining("Constructor threw exception");
+	}
+
+	@Test
+	void factoryMethodExceptionIsExposed() {
+		registerPrototype("bean", BeanDefinitionBuilder.genericBeanDefinition(Factory.class)
+				.setFactoryMethod("fail"));
+		for (int i = 0; i < INSTANCE_COUNT; i++) {
+			assertThatExceptionOfType(BeanCreationException.class)
+					.isThrownBy(() -> this.beanFactory.getBean("bean"))
+					.withMessageContaining("Factory method 'fail' threw exception")
+					.havingRootCause().isInstanceOf(IllegalStateException.class).withMessage("failed");
+		}
+	}
+
+	private void registerPrototype(String beanName, BeanDefinitionBuilder builder) {
+		this.beanFactory.registerBeanDefinition(beanName,
+				builder.setScope(BeanDefinition.SCOPE_PROTOTYPE).getBeanDefinition());
+	}
+
+
+	static class NonPublicBean {
+
+		final String name;
+
+		final int age;
+
+		NonPublicBean(String name, int age) {
+			this.name = name;
+			this.age = age;
+		}
+	}
+
+
+	public static class FailingBean {
+
+		public FailingBean() {
+			throw new IllegalStateException("failed");
+		}
+	}
+
+
+	public static class Factory {
+
+		private int count;
+
+		public static TestBean createBean(String name) {
+			return new TestBean(name);
+		}
+
+		public static TestBean createNull() {
+			return null;
+		}
+
+		public static TestBean fail() {
+			throw new IllegalStateException("failed");
+		}
+
+		public TestBean createCountedBean() {
+			return new TestBean("counted", ++this.count);
+		}
+	}
+
+}
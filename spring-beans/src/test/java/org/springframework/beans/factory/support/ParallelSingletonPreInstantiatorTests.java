@@ -0,0 +1,327 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.support;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.beans.factory.config.RuntimeBeanReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link ParallelSingletonPreInstantiator}.
+ *
+ * @author agent
+ */
+class ParallelSingletonPreInstantiatorTests {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+
+	@BeforeEach
+	void setup() {
+		this.beanFactory.setPreInstantiationExecutor(this.executor);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+
+	@Test
+	void independentSingletonsAreCreatedInParallel() {
+		CountDownLatch latch = new CountDownLatch(2);
+		RootBeanDefinition bd1 = new RootBeanDefinition(LatchBean.class);
+		bd1.getConstructorArgumentValues().addGenericArgumentValue(latch);
+		RootBeanDefinition bd2 = new RootBeanDefinition(LatchBean.class);
+		bd2.getConstructorArgumentValues().addGenericArgumentValue(latch);
+		this.beanFactory.registerBeanDefinition("bean1", bd1);
+		this.beanFactory.registerBeanDefinition("bean2", bd2);
+
+		this.beanFactory.preInstantiateSingletons();
+		assertThat(this.beanFactory.getBean("bean1", LatchBean.class).released).isTrue();
+		assertThat(this.beanFactory.getBean("bean2", LatchBean.class).released).isTrue();
+	}
+
+	@Test
+	void dependenciesAreInitializedFirst() {
+		for (int i = 0; i < 10; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(DependentBean.class);
+			if (i > 0) {
+				bd.getPropertyValues().add("dependency", new RuntimeBeanReference("bean" + (i - 1)));
+			}
+			this.beanFactory.registerBeanDefinition("bean" + i, bd);
+		}
+
+		this.beanFactory.preInstantiateSingletons();
+		for (int i = 1; i < 10; i++) {
+			assertThat(this.beanFactory.getBean("bean" + i, DependentBean.class).dependencyInitialized).isTrue();
+		}
+	}
+
+	@Test
+	void circularReferencesAreResolved() {
+		RootBeanDefinition bd1 = new RootBeanDefinition(DependentBean.class);
+		bd1.getPropertyValues().add("dependency", new RuntimeBeanReference("bean2"));
+		RootBeanDefinition bd2 = new RootBeanDefinition(DependentBean.class);
+		bd2.getPropertyValues().add("dependency", new RuntimeBeanReference("bean1"));
+		this.beanFactory.registerBeanDefinition("bean1", bd1);
+		this.beanFactory.registerBeanDefinition("bean2", bd2);
+
+		this.beanFactory.preInstantiateSingletons();
+		DependentBean bean1 = this.beanFactory.getBean("bean1", DependentBean.class);
+		DependentBean bean2 = this.beanFactory.getBean("bean2", DependentBean.class);
+		assertThat(bean1.dependency).isSameAs(bean2);
+		assertThat(bean2.dependency).isSameAs(bean1);
+	}
+
+	@Test
+	void circularReferencesAcrossThreadsAreResolved() {
+		for (int i = 0; i < 20; i++) {
+			DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+			beanFactory.setPreInstantiationExecutor(this.executor);
+			RootBeanDefinition bd1 = new RootBeanDefinition(CircularBean1.class);
+			bd1.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_BY_TYPE);
+			RootBeanDefinition bd2 = new RootBeanDefinition(CircularBean2.class);
+			bd2.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_BY_TYPE);
+			beanFactory.registerBeanDefinition("bean1", bd1);
+			beanFactory.registerBeanDefinition("bean2", bd2);
+
+			beanFactory.preInstantiateSingletons();
+			CircularBean1 bean1 = beanFactory.getBean(CircularBean1.class);
+			CircularBean2 bean2 = beanFactory.getBean(CircularBean2.class);
+			assertThat(bean1.bean2).isSameAs(bean2);
+			assertThat(bean2.bean1).isSameAs(bean1);
+		}
+	}
+
+	@Test
+	void sharedDependencyDiscoveredDuringCreationIsCreatedOnce() {
+		CountingBean.instances.set(0);
+		this.beanFactory.registerBeanDefinition("shared", new RootBeanDefinition(CountingBean.class));
+		for (int i = 0; i < 8; i++) {
+			RootBeanDefinition bd = new RootBeanDefinition(CountingBeanConsumer.class);
+			bd.setAutowireMode(AutowireCapableBeanFactory.AUTOWIRE_BY_TYPE);
+			this.beanFactory.registerBeanDefinition("consumer" + i, bd);
+		}
+
+		this.beanFactory.preInstantiateSingletons();
+		assertThat(CountingBean.instances.get()).isEqualTo(1);
+		CountingBean shared = this.beanFactory.getBean(CountingBean.class);
+		for (int i = 0; i < 8; i++) {
+			assertThat(this.beanFactory.getBean("consumer" + i, CountingBeanConsumer.class).countingBean).isSameAs(shared);
+		}
+	}
+
+	@Test
+	void sequentialSingletonsAreCreatedOnCallingThread() {
+		RootBeanDefinition bd = new RootBeanDefinition(ThreadRecordingBean.class);
+		bd.setAttribute(DefaultListableBeanFactory.SEQUENTIAL_PRE_INSTANTIATION_ATTRIBUTE, Boolean.TRUE);
+		this.beanFactory.registerBeanDefinition("sequential", bd);
+		this.beanFactory.registerBeanDefinition("factoryBean", new RootBeanDefinition(ThreadRecordingFactoryBean.class));
+
+		this.beanFactory.preInstantiateSingletons();
+		assertThat(this.beanFactory.getBean("sequential", ThreadRecordingBean.class).thread)
+				.isSameAs(Thread.currentThread());
+		assertThat(this.beanFactory.getBean("&factoryBean", ThreadRecordingFactoryBean.class).thread)
+				.isSameAs(Thread.currentThread());
+	}
+
+	@Test
+	void creationFailureIsPropagated() {
+		this.beanFactory.registerBeanDefinition("bean", new RootBeanDefinition(DependentBean.class));
+		this.beanFactory.registerBeanDefinition("failing", new RootBeanDefinition(FailingBean.class));
+
+		assertThatExceptionOfType(BeanCreationException.class)
+				.isThrownBy(this.beanFactory::preInstantiateSingletons)
+				.satisfies(ex -> assertThat(ex.getBeanName()).isEqualTo("failing"));
+		assertThat(this.beanFactory.isConcurrentSingletonCreation()).isFalse();
+		assertThat(this.beanFactory.getBean("bean")).isNotNull();
+	}
+
+	@Test
+	void errorIsPropagatedOnceRemainingSingletonsAreCreated() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory() {
+			@Override
+			void preInstantiateSingleton(String beanName) {
+				if (beanName.equals("failing")) {
+					throw new ExpectedError();
+				}
+				super.preInstantiateSingleton(beanName);
+			}
+		};
+		beanFactory.setPreInstantiationExecutor(this.executor);
+		beanFactory.registerBeanDefinition("failing", new RootBeanDefinition(Object.class));
+		beanFactory.registerBeanDefinition("slow", new RootBeanDefinition(SlowBean.class));
+
+		assertThatExceptionOfType(ExpectedError.class).isThrownBy(beanFactory::preInstantiateSingletons);
+		assertThat(beanFactory.isConcurrentSingletonCreation()).isFalse();
+		assertThat(beanFactory.containsSingleton("slow")).isTrue();
+	}
+
+
+	static class LatchBean implements InitializingBean {
+
+		private final CountDownLatch latch;
+
+		boolean released;
+
+		LatchBean(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public void afterPropertiesSet() throws InterruptedException {
+			this.latch.countDown();
+			this.released = this.latch.await(10, TimeUnit.SECONDS);
+		}
+	}
+
+
+	static class DependentBean implements InitializingBean {
+
+		DependentBean dependency;
+
+		boolean initialized;
+
+		boolean dependencyInitialized;
+
+		public void setDependency(DependentBean dependency) {
+			this.dependency = dependency;
+		}
+
+		@Override
+		public void afterPropertiesSet() {
+			this.dependencyInitialized = (this.dependency != null && this.dependency.initialized);
+			this.initialized = true;
+		}
+	}
+
+
+	static class CircularBean1 {
+
+		CircularBean2 bean2;
+
+		CircularBean1() throws InterruptedException {
+			// Give the other bean a chance to start its creation on another thread
+			Thread.sleep(10);
+		}
+
+		public void setBean2(CircularBean2 bean2) {
+			this.bean2 = bean2;
+		}
+	}
+
+
+	static class CircularBean2 {
+
+		CircularBean1 bean1;
+
+		CircularBean2() throws InterruptedException {
+			// Give the other bean a chance to start its creation on another thread
+			Thread.sleep(10);
+		}
+
+		public void setBean1(CircularBean1 bean1) {
+			this.bean1 = bean1;
+		}
+	}
+
+
+	static class CountingBean {
+
+		static final AtomicInteger instances = new AtomicInteger();
+
+		CountingBean() throws InterruptedException {
+			instances.incrementAndGet();
+			Thread.sleep(50);
+		}
+	}
+
+
+	static class CountingBeanConsumer {
+
+		CountingBean countingBean;
+
+		public void setCountingBean(CountingBean countingBean) {
+			this.countingBean = countingBean;
+		}
+	}
+
+
+	static class ThreadRecordingBean {
+
+		final Thread thread = Thread.currentThread();
+	}
+
+
+	static class ThreadRecordingFactoryBean implements FactoryBean<Set<String>> {
+
+		final Thread thread = Thread.currentThread();
+
+		@Override
+		public Set<String> getObject() {
+			return ConcurrentHashMap.newKeySet();
+		}
+
+		@Override
+		public Class<?> getObjectType() {
+			return Set.class;
+		}
+	}
+
+
+	static class SlowBean {
+
+		SlowBean() throws InterruptedException {
+			Thread.sleep(200);
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class ExpectedError extends Error {
+	}
+
+
+	static class FailingBean implements InitializingBean {
+
+		@Override
+		public void afterPropertiesSet() {
+			throw new IllegalStateException("Expected failure");
+		}
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.beans.factory.xml;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.beans.factory.BeanDefinitionStoreException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ObjectUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link StaxXmlBeanDefinitionReader}.
+ *
+ * @author agent
+ */
+class StaxXmlBeanDefinitionReaderTests {
+
+	private static final Pattern INNER_BEAN_NAME_SUFFIX = Pattern.compile("#[0-9a-f]+");
+
+
+	@ParameterizedTest
+	@ValueSource(strings = {"test.xml", "collections.xml", "collectionMerging.xml", "factory-methods.xml",
+			"beanNameGeneration.xml", "import.xml", "testUtilNamespace.xml", "simplePropertyNamespaceHandlerTests.xml",
+			"NestedBeansElementAttributeRecursionTests-merge-context.xml", "withMeta.xml"})
+	void streamedBeanDefinitionsMatchDomParsing(String fileName) {
+		Resource resource = new ClassPathResource(fileName, getClass());
+		DefaultListableBeanFactory expected = new DefaultListableBeanFactory();
+		int expectedCount = new XmlBeanDefinitionReader(expected).loadBeanDefinitions(resource);
+		DefaultListableBeanFactory actual = new DefaultListableBeanFactory();
+		int actualCount = new StaxXmlBeanDefinitionReader(actual).loadBeanDefinitions(resource);
+
+		assertThat(actualCount).isEqualTo(expectedCount);
+		assertThat(actual.getBeanDefinitionNames()).containsExactly(expected.getBeanDefinitionNames());
+		for (String beanName : expected.getBeanDefinitionNames()) {
+			assertThat(describe(actual.getBeanDefinition(beanName)))
+					.isEqualTo(describe(expected.getBeanDefinition(beanName)));
+			assertThat(actual.getAliases(beanName)).containsExactlyInAnyOrder(expected.getAliases(beanName));
+		}
+	}
+
+	@Test
+	void nestedBeansElementWithInactiveProfileIsSkipped() {
+		Resource resource = new ClassPathResource("NestedBeansElementTests-context.xml", getClass());
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		new StaxXmlBeanDefinitionReader(bf).loadBeanDefinitions(resource);
+		assertThat(bf.getBean("foo")).isInstanceOf(String.class);
+		assertThat(bf.containsBeanDefinition("devOnlyBean")).isFalse();
+	}
+
+	@Test
+	void nestedBeansElementWithActiveProfile() {
+		Resource resource = new ClassPathResource("NestedBeansElementTests-context.xml", getClass());
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.setActiveProfiles("dev");
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(bf);
+		reader.setEnvironment(environment);
+		reader.loadBeanDefinitions(resource);
+		assertThat(bf.getBean("foo")).isEqualTo(42);
+		assertThat(bf.containsBeanDefinition("devOnlyBean")).isTrue();
+	}
+
+	@Test
+	void parallelReadingKeepsRegistrationOrder() {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+			StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(bf);
+			reader.setResourceLoader(new DefaultResourceLoader());
+			reader.setParsingExecutor(executor);
+			String prefix = "classpath:org/springframework/beans/factory/xml/";
+			int count = reader.loadBeanDefinitions(prefix + "collections.xml", prefix + "NestedBeansElementTests-context.xml");
+
+			DefaultListableBeanFactory expected = new DefaultListableBeanFactory();
+			XmlBeanDefinitionReader expectedReader = new XmlBeanDefinitionReader(expected);
+			expectedReader.setResourceLoader(new DefaultResourceLoader());
+			assertThat(count).isEqualTo(expectedReader.loadBeanDefinitions(
+					prefix + "collections.xml", prefix + "NestedBeansElementTests-context.xml"));
+			assertThat(bf.getBeanDefinitionNames()).containsExactly(expected.getBeanDefinitionNames());
+			assertThat(bf.getBean("foo")).isInstanceOf(String.class);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void customElementsAndInnerBeans() {
+		String xml = "<beans xmlns='http://www.springframework.org/schema/beans'" +
+				" xmlns:util='http://www.springframework.org/schema/util'>" +
+				"<util:list id='names'><value>Rod</value><value><![CDATA[<Juergen>]]></value></util:list>" +
+				"<bean id='rod' class='" + TestBean.class.getName() + "'>" +
+				"<property name='name' value='Rod'/>" +
+				"<property name='spouse'><bean class='" + TestBean.class.getName() + "' p:name='Kerry'" +
+				" xmlns:p='http://www.springframework.org/schema/p'/></property>" +
+				"</bean><alias name='rod' alias='johnson'/></beans>";
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		new StaxXmlBeanDefinitionReader(bf).loadBeanDefinitions(
+				new InputStreamResource(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+		assertThat(bf.getBean("names")).asList().containsExactly("Rod", "<Juergen>");
+		TestBean rod = bf.getBean("johnson", TestBean.class);
+		assertThat(rod.getName()).isEqualTo("Rod");
+		assertThat(rod.getSpouse().getName()).isEqualTo("Kerry");
+	}
+
+	@Test
+	void malformedDocument() {
+		String xml = "<beans xmlns='http://www.springframework.org/schema/beans'>\n<bean id='a'>\n</beans>";
+		DefaultListableBeanFactory bf = new DefaultListableBeanFactory();
+		assertThatExceptionOfType(BeanDefinitionStoreException.class).isThrownBy(() ->
+				new StaxXmlBeanDefinitionReader(bf).loadBeanDefinitions(
+						new InputStreamResource(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))))
+				.withMessageContaining("Line 3");
+	}
+
+
+	private static String describe(BeanDefinition bd) {
+		StringBuilder description = new StringBuilder(bd.toString());
+		bd.getPropertyValues().forEach(pv ->
+				description.append("; ").append(pv.getName()).append('=').append(ObjectUtils.nullSafeToString(pv.getValue())));
+		bd.getConstructorArgumentValues().getIndexedArgumentValues().forEach((index, valueHolder) ->
+				description.append("; ").append(index).append('=').append(ObjectUtils.nullSafeToString(valueHolder.getValue())));
+		bd.getConstructorArgumentValues().getGenericArgumentValues().forEach(valueHolder ->
+				description.append("; ").append(ObjectUtils.nullSafeToString(valueHolder.getValue())));
+		// Inner bean names carry an identity hash code
+		return INNER_BEAN_NAME_SUFFIX.matcher(description).replaceAll("#");
+	}
+
+}
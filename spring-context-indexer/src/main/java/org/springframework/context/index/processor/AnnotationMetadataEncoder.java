@@ -0,0 +1,329 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Encode the annotation metadata of a {@link TypeElement} the way Spring's
+ * ASM-based {@code SimpleMetadataReader} would read it from the compiled class:
+ * class-file access flags, runtime-retained annotations with their explicitly
+ * declared attributes, and annotated methods.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see AnnotationMetadataMarshaller
+ */
+class AnnotationMetadataEncoder {
+
+	// Class file access flags, see the JVM specification
+
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_PRIVATE = 0x0002;
+	private static final int ACC_PROTECTED = 0x0004;
+	private static final int ACC_STATIC = 0x0008;
+	private static final int ACC_FINAL = 0x0010;
+	private static final int ACC_SUPER = 0x0020;
+	private static final int ACC_SYNCHRONIZED = 0x0020;
+	private static final int ACC_VARARGS = 0x0080;
+	private static final int ACC_NATIVE = 0x0100;
+	private static final int ACC_INTERFACE = 0x0200;
+	private static final int ACC_ABSTRACT = 0x0400;
+	private static final int ACC_STRICT = 0x0800;
+	private static final int ACC_ANNOTATION = 0x2000;
+	private static final int ACC_ENUM = 0x4000;
+
+
+	private final Elements elements;
+
+	private final Types types;
+
+
+	public AnnotationMetadataEncoder(ProcessingEnvironment env) {
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+	}
+
+
+	/**
+	 * Return the binary name of the given type, as used for the class file.
+	 */
+	public String getClassName(TypeElement type) {
+		return this.elements.getBinaryName(type).toString();
+	}
+
+	/**
+	 * Encode the metadata of the given type.
+	 */
+	public byte[] encode(TypeElement type) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bos);
+		boolean nested = (type.getNestingKind() == NestingKind.MEMBER);
+		out.writeUTF(getClassName(type));
+		out.writeInt(getClassAccess(type, nested));
+		writeOptionalString(out, nested ? getClassName((TypeElement) type.getEnclosingElement()) : null);
+		writeOptionalString(out, getSuperClassName(type));
+		out.writeBoolean(nested && isStatic(type));
+		List<String> interfaceNames = new ArrayList<>();
+		for (TypeMirror interfaceType : type.getInterfaces()) {
+			interfaceNames.add(getClassName(interfaceType));
+		}
+		writeStrings(out, interfaceNames);
+		List<String> memberClassNames = new ArrayList<>();
+		List<ExecutableElement> annotatedMethods = new ArrayList<>();
+		for (Element element : type.getEnclosedElements()) {
+			if (element instanceof TypeElement) {
+				memberClassNames.add(getClassName((TypeElement) element));
+			}
+			else if (element instanceof ExecutableElement &&
+					(element.getKind() == ElementKind.METHOD || element.getKind() == ElementKind.CONSTRUCTOR) &&
+					!getRuntimeAnnotations(element).isEmpty()) {
+				annotatedMethods.add((ExecutableElement) element);
+			}
+		}
+		writeStrings(out, memberClassNames);
+		writeAnnotations(out, getRuntimeAnnotations(type));
+		out.writeInt(annotatedMethods.size());
+		for (ExecutableElement method : annotatedMethods) {
+			boolean constructor = (method.getKind() == ElementKind.CONSTRUCTOR);
+			out.writeUTF(constructor ? "<init>" : method.getSimpleName().toString());
+			out.writeInt(getMethodAccess(method));
+			out.writeUTF(constructor ? "void" : getClassName(method.getReturnType()));
+			writeAnnotations(out, getRuntimeAnnotations(method));
+		}
+		out.flush();
+		return bos.toByteArray();
+	}
+
+	private int getClassAccess(TypeElement type, boolean nested) {
+		Set<Modifier> modifiers = type.getModifiers();
+		int access = 0;
+		// Nested classes are compiled as public or package-private top-level classes
+		if (modifiers.contains(Modifier.PUBLIC) || (nested && modifiers.contains(Modifier.PROTECTED))) {
+			access |= ACC_PUBLIC;
+		}
+		if (modifiers.contains(Modifier.FINAL)) {
+			access |= ACC_FINAL;
+		}
+		switch (type.getKind()) {
+			case ANNOTATION_TYPE:
+				access |= ACC_ANNOTATION | ACC_INTERFACE | ACC_ABSTRACT;
+				break;
+			case INTERFACE:
+				access |= ACC_INTERFACE | ACC_ABSTRACT;
+				break;
+			case ENUM:
+				access |= ACC_ENUM | ACC_SUPER;
+				break;
+			default:
+				access |= ACC_SUPER;
+				if (modifiers.contains(Modifier.ABSTRACT)) {
+					access |= ACC_ABSTRACT;
+				}
+		}
+		return access;
+	}
+
+	private int getMethodAccess(ExecutableElement method) {
+		Set<Modifier> modifiers = method.getModifiers();
+		int access = 0;
+		access |= (modifiers.contains(Modifier.PUBLIC) ? ACC_PUBLIC : 0);
+		access |= (modifiers.contains(Modifier.PRIVATE) ? ACC_PRIVATE : 0);
+		access |= (modifiers.contains(Modifier.PROTECTED) ? ACC_PROTECTED : 0);
+		access |= (modifiers.contains(Modifier.STATIC) ? ACC_STATIC : 0);
+		access |= (modifiers.contains(Modifier.FINAL) ? ACC_FINAL : 0);
+		access |= (modifiers.contains(Modifier.SYNCHRONIZED) ? ACC_SYNCHRONIZED : 0);
+		access |= (modifiers.contains(Modifier.NATIVE) ? ACC_NATIVE : 0);
+		access |= (modifiers.contains(Modifier.ABSTRACT) ? ACC_ABSTRACT : 0);
+		access |= (modifiers.contains(Modifier.STRICTFP) ? ACC_STRICT : 0);
+		access |= (method.isVarArgs() ? ACC_VARARGS : 0);
+		return access;
+	}
+
+	private boolean isStatic(TypeElement type) {
+		return (type.getModifiers().contains(Modifier.STATIC) || type.getKind() != ElementKind.CLASS);
+	}
+
+	private String getSuperClassName(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (type.getKind().isInterface() || superclass.getKind() == TypeKind.NONE) {
+			return null;
+		}
+		return getClassName(superclass);
+	}
+
+	private String getClassName(TypeMirror type) {
+		TypeMirror erasure = this.types.erasure(type);
+		switch (erasure.getKind()) {
+			case DECLARED:
+				return getClassName((TypeElement) ((DeclaredType) erasure).asElement());
+			case ARRAY:
+				return getClassName(((ArrayType) erasure).getComponentType()) + "[]";
+			case BOOLEAN:
+			case BYTE:
+			case CHAR:
+			case SHORT:
+			case INT:
+			case LONG:
+			case FLOAT:
+			case DOUBLE:
+			case VOID:
+				return erasure.getKind().name().toLowerCase();
+			default:
+				return erasure.toString();
+		}
+	}
+
+	/**
+	 * Return the annotations declared on the given element that are retained at
+	 * runtime, i.e. the annotations present in the compiled class.
+	 */
+	private List<AnnotationMirror> getRuntimeAnnotations(Element element) {
+		List<AnnotationMirror> result = new ArrayList<>();
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			if (isRuntimeRetained(annotation)) {
+				result.add(annotation);
+			}
+		}
+		return result;
+	}
+
+	private boolean isRuntimeRetained(AnnotationMirror annotation) {
+		Retention retention = annotation.getAnnotationType().asElement().getAnnotation(Retention.class);
+		return (retention != null && retention.value() == RetentionPolicy.RUNTIME);
+	}
+
+	private void writeAnnotations(DataOutputStream out, List<AnnotationMirror> annotations) throws IOException {
+		out.writeInt(annotations.size());
+		for (AnnotationMirror annotation : annotations) {
+			writeAnnotation(out, annotation);
+		}
+	}
+
+	private void writeAnnotation(DataOutputStream out, AnnotationMirror annotation) throws IOException {
+		out.writeUTF(getClassName(annotation.getAnnotationType()));
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = annotation.getElementValues();
+		out.writeInt(values.size());
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+			out.writeUTF(entry.getKey().getSimpleName().toString());
+			writeValue(out, entry.getValue().getValue());
+		}
+	}
+
+	private void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value instanceof Boolean) {
+			out.writeByte('Z');
+			out.writeBoolean((Boolean) value);
+		}
+		else if (value instanceof Byte) {
+			out.writeByte('B');
+			out.writeByte((Byte) value);
+		}
+		else if (value instanceof Character) {
+			out.writeByte('C');
+			out.writeChar((Character) value);
+		}
+		else if (value instanceof Short) {
+			out.writeByte('S');
+			out.writeShort((Short) value);
+		}
+		else if (value instanceof Integer) {
+			out.writeByte('I');
+			out.writeInt((Integer) value);
+		}
+		else if (value instanceof Long) {
+			out.writeByte('J');
+			out.writeLong((Long) value);
+		}
+		else if (value instanceof Float) {
+			out.writeByte('F');
+			out.writeFloat((Float) value);
+		}
+		else if (value instanceof Double) {
+			out.writeByte('D');
+			out.writeDouble((Double) value);
+		}
+		else if (value instanceof String) {
+			out.writeByte('s');
+			out.writeUTF((String) value);
+		}
+		else if (value instanceof TypeMirror) {
+			out.writeByte('c');
+			out.writeUTF(getClassName((TypeMirror) value));
+		}
+		else if (value instanceof VariableElement) {
+			out.writeByte('e');
+			out.writeUTF(getClassName((TypeElement) ((VariableElement) value).getEnclosingElement()));
+			out.writeUTF(((VariableElement) value).getSimpleName().toString());
+		}
+		else if (value instanceof AnnotationMirror) {
+			out.writeByte('@');
+			writeAnnotation(out, (AnnotationMirror) value);
+		}
+		else if (value instanceof List) {
+			List<?> elements = (List<?>) value;
+			out.writeByte('[');
+			out.writeInt(elements.size());
+			for (Object element : elements) {
+				writeValue(out, ((AnnotationValue) element).getValue());
+			}
+		}
+		else {
+			throw new IllegalArgumentException("Unsupported annotation value " + value);
+		}
+	}
+
+	private void writeOptionalString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+
+}
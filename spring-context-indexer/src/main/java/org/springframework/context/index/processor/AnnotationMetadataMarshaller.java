@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Marshaller to write encoded annotation metadata, keyed by class name, in
+ * the binary format read by {@code CachingMetadataReaderFactory}: a header
+ * followed by one length-prefixed entry per class.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see AnnotationMetadataEncoder
+ */
+abstract class AnnotationMetadataMarshaller {
+
+	private static final int MAGIC = 0x53434D49;
+
+	private static final int VERSION = 1;
+
+
+	public static void write(Map<String, byte[]> metadata, OutputStream out) throws IOException {
+		DataOutputStream dos = new DataOutputStream(out);
+		dos.writeInt(MAGIC);
+		dos.writeInt(VERSION);
+		dos.writeInt(metadata.size());
+		for (Map.Entry<String, byte[]> entry : new TreeMap<>(metadata).entrySet()) {
+			dos.writeUTF(entry.getKey());
+			dos.writeInt(entry.getValue().length);
+			dos.write(entry.getValue());
+		}
+		dos.flush();
+	}
+
+	public static Map<String, byte[]> read(InputStream in) throws IOException {
+		DataInputStream dis = new DataInputStream(in);
+		if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+			throw new IOException("Unsupported annotation metadata format");
+		}
+		Map<String, byte[]> result = new TreeMap<>();
+		int count = dis.readInt();
+		for (int i = 0; i < count; i++) {
+			String type = dis.readUTF();
+			byte[] entry = new byte[dis.readInt()];
+			dis.readFully(entry);
+			result.put(type, entry);
+		}
+		return result;
+	}
+
+}
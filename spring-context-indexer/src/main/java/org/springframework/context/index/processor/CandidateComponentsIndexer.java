@@ -40,6 +40,9 @@ import javax.lang.model.element.TypeElement;
  * Annotation {@link Processor} that writes {@link CandidateComponentsMetadata}
  * file for spring components.
  *
+ * <p>As of 5.2.10, the annotation metadata of each indexed component is written as
+ * well, allowing it to be read at runtime without parsing the component's class.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @since 5.0
@@ -55,6 +58,8 @@ public class CandidateComponentsIndexer implements Processor {
 
 	private TypeHelper typeHelper;
 
+	private AnnotationMetadataEncoder annotationMetadataEncoder;
+
 	private List<StereotypesProvider> stereotypesProviders;
 
 
@@ -78,7 +83,9 @@ public class CandidateComponentsIndexer implements Processor {
 		this.stereotypesProviders = getStereotypesProviders(env);
 		this.typeHelper = new TypeHelper(env);
 		this.metadataStore = new MetadataStore(env);
-		this.metadataCollector = new MetadataCollector(env, this.metadataStore.readMetadata());
+		this.annotationMetadataEncoder = new AnnotationMetadataEncoder(env);
+		this.metadataCollector = new MetadataCollector(env,
+				this.metadataStore.readMetadata(), this.metadataStore.readAnnotationMetadata());
 	}
 
 	@Override
@@ -118,6 +125,19 @@ public class CandidateComponentsIndexer implements Processor {
 		this.stereotypesProviders.forEach(p -> stereotypes.addAll(p.getStereotypes(element)));
 		if (!stereotypes.isEmpty()) {
 			this.metadataCollector.add(new ItemMetadata(this.typeHelper.getType(element), stereotypes));
+			if (element instanceof TypeElement) {
+				addAnnotationMetadataFor((TypeElement) element);
+			}
+		}
+	}
+
+	private void addAnnotationMetadataFor(TypeElement type) {
+		try {
+			this.metadataCollector.addAnnotationMetadata(
+					this.annotationMetadataEncoder.getClassName(type), this.annotationMetadataEncoder.encode(type));
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to encode annotation metadata for " + type, ex);
 		}
 	}
 
@@ -126,6 +146,7 @@ public class CandidateComponentsIndexer implements Processor {
 		if (!metadata.getItems().isEmpty()) {
 			try {
 				this.metadataStore.writeMetadata(metadata);
+				this.metadataStore.writeAnnotationMetadata(this.metadataCollector.getAnnotationMetadata());
 			}
 			catch (IOException ex) {
 				throw new IllegalStateException("Failed to write metadata", ex);
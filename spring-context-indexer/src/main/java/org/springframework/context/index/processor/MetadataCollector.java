@@ -17,8 +17,10 @@
 package org.springframework.context.index.processor;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.processing.ProcessingEnvironment;
@@ -44,6 +46,10 @@ class MetadataCollector {
 
 	private final Set<String> processedSourceTypes = new HashSet<>();
 
+	private final Map<String, byte[]> annotationMetadata = new HashMap<>();
+
+	private final Map<String, byte[]> previousAnnotationMetadata;
+
 
 	/**
 	 * Create a new {@code MetadataProcessor} instance.
@@ -53,8 +59,22 @@ class MetadataCollector {
 	public MetadataCollector(ProcessingEnvironment processingEnvironment,
 			CandidateComponentsMetadata previousMetadata) {
 
+		this(processingEnvironment, previousMetadata, null);
+	}
+
+	/**
+	 * Create a new {@code MetadataProcessor} instance.
+	 * @param processingEnvironment the processing environment of the build
+	 * @param previousMetadata any previous metadata or {@code null}
+	 * @param previousAnnotationMetadata any previous annotation metadata or {@code null}
+	 * @since 5.2.10
+	 */
+	public MetadataCollector(ProcessingEnvironment processingEnvironment,
+			CandidateComponentsMetadata previousMetadata, Map<String, byte[]> previousAnnotationMetadata) {
+
 		this.processingEnvironment = processingEnvironment;
 		this.previousMetadata = previousMetadata;
+		this.previousAnnotationMetadata = previousAnnotationMetadata;
 		this.typeHelper = new TypeHelper(processingEnvironment);
 	}
 
@@ -75,6 +95,10 @@ class MetadataCollector {
 		this.metadataItems.add(metadata);
 	}
 
+	public void addAnnotationMetadata(String className, byte[] metadata) {
+		this.annotationMetadata.put(className, metadata);
+	}
+
 	public CandidateComponentsMetadata getMetadata() {
 		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
 		for (ItemMetadata item : this.metadataItems) {
@@ -91,6 +115,26 @@ class MetadataCollector {
 		return metadata;
 	}
 
+	/**
+	 * Return the annotation metadata of the components processed in this build,
+	 * along with the previous metadata of components that were not recompiled.
+	 */
+	public Map<String, byte[]> getAnnotationMetadata() {
+		Map<String, byte[]> metadata = new HashMap<>();
+		if (this.previousAnnotationMetadata != null) {
+			this.previousAnnotationMetadata.forEach((className, entry) -> {
+				// Binary name of a (possibly nested) class -> source type of its top-level class
+				int nestedIndex = className.indexOf('$');
+				String sourceType = (nestedIndex != -1 ? className.substring(0, nestedIndex) : className);
+				if (!deletedInCurrentBuild(className.replace('$', '.')) && !processedInCurrentBuild(sourceType)) {
+					metadata.put(className, entry);
+				}
+			});
+		}
+		metadata.putAll(this.annotationMetadata);
+		return metadata;
+	}
+
 	private boolean shouldBeMerged(ItemMetadata itemMetadata) {
 		String sourceType = itemMetadata.getType();
 		return (sourceType != null && !deletedInCurrentBuild(sourceType)
@@ -19,7 +19,13 @@ package org.springframework.context.index.processor;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.ManagedBean;
 import javax.inject.Named;
@@ -33,9 +39,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.index.sample.AbstractController;
 import org.springframework.context.index.sample.MetaControllerIndexed;
 import org.springframework.context.index.sample.SampleComponent;
+import org.springframework.context.index.sample.SampleConfiguration;
 import org.springframework.context.index.sample.SampleController;
 import org.springframework.context.index.sample.SampleEmbedded;
 import org.springframework.context.index.sample.SampleMetaController;
@@ -44,6 +53,7 @@ import org.springframework.context.index.sample.SampleNonStaticEmbedded;
 import org.springframework.context.index.sample.SampleNone;
 import org.springframework.context.index.sample.SampleRepository;
 import org.springframework.context.index.sample.SampleService;
+import org.springframework.context.index.sample.Scope;
 import org.springframework.context.index.sample.cdi.SampleManagedBean;
 import org.springframework.context.index.sample.cdi.SampleNamed;
 import org.springframework.context.index.sample.cdi.SampleTransactional;
@@ -58,6 +68,13 @@ import org.springframework.context.index.sample.type.SampleSpecializedRepo;
 import org.springframework.context.index.sample.type.SmartRepo;
 import org.springframework.context.index.sample.type.SpecializedRepo;
 import org.springframework.context.index.test.TestCompiler;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ClassUtils;
 
@@ -218,6 +235,94 @@ class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems()).hasSize(0);
 	}
 
+	@Test
+	void annotationMetadataMatchesClassFile() throws IOException {
+		compile(SampleConfiguration.class);
+		assertThat(readGeneratedAnnotationMetadata()).containsOnlyKeys(
+				SampleConfiguration.class.getName(), SampleConfiguration.Nested.class.getName());
+
+		try (URLClassLoader classLoader = createOutputClassLoader()) {
+			MetadataReaderFactory indexed = new CachingMetadataReaderFactory(classLoader);
+			MetadataReaderFactory parsed = new SimpleMetadataReaderFactory(classLoader);
+			for (Class<?> type : new Class<?>[] {SampleConfiguration.class, SampleConfiguration.Nested.class}) {
+				Resource resource = getClassFile(type);
+				assertSameMetadata(indexed.getMetadataReader(resource).getAnnotationMetadata(),
+						parsed.getMetadataReader(resource).getAnnotationMetadata());
+			}
+		}
+	}
+
+	@Test
+	void annotationMetadataIsReadWithoutClassFile() throws IOException {
+		compile(SampleConfiguration.class);
+		Resource resource = getClassFile(SampleConfiguration.class);
+		Files.write(resource.getFile().toPath(), new byte[] {0, 1, 2, 3});
+
+		try (URLClassLoader classLoader = createOutputClassLoader()) {
+			AnnotationMetadata metadata = new CachingMetadataReaderFactory(classLoader)
+					.getMetadataReader(resource).getAnnotationMetadata();
+			assertThat(metadata.getClassName()).isEqualTo(SampleConfiguration.class.getName());
+			assertThat(metadata.hasAnnotation(Configuration.class.getName())).isTrue();
+			assertThat(metadata.getAnnotationAttributes(Configuration.class.getName()))
+					.containsEntry("proxyBeanMethods", false);
+			assertThat(metadata.getAnnotatedMethods(Bean.class.getName())).hasSize(2);
+		}
+	}
+
+	private void assertSameMetadata(AnnotationMetadata actual, AnnotationMetadata expected) {
+		assertThat(actual.getClassName()).isEqualTo(expected.getClassName());
+		assertThat(actual.isInterface()).isEqualTo(expected.isInterface());
+		assertThat(actual.isAnnotation()).isEqualTo(expected.isAnnotation());
+		assertThat(actual.isAbstract()).isEqualTo(expected.isAbstract());
+		assertThat(actual.isFinal()).isEqualTo(expected.isFinal());
+		assertThat(actual.isIndependent()).isEqualTo(expected.isIndependent());
+		assertThat(actual.getEnclosingClassName()).isEqualTo(expected.getEnclosingClassName());
+		assertThat(actual.getSuperClassName()).isEqualTo(expected.getSuperClassName());
+		assertThat(actual.getInterfaceNames()).isEqualTo(expected.getInterfaceNames());
+		assertThat(actual.getMemberClassNames()).containsExactlyInAnyOrder(expected.getMemberClassNames());
+		assertThat(actual.getAnnotationTypes()).isEqualTo(expected.getAnnotationTypes());
+		for (String annotationType : expected.getAnnotationTypes()) {
+			assertThat(actual.getAnnotationAttributes(annotationType, true)).usingRecursiveComparison()
+					.isEqualTo(expected.getAnnotationAttributes(annotationType, true));
+			assertThat(actual.getAnnotationAttributes(annotationType, false)).usingRecursiveComparison()
+					.isEqualTo(expected.getAnnotationAttributes(annotationType, false));
+		}
+		Set<MethodMetadata> expectedMethods = expected.getAnnotatedMethods(Bean.class.getName());
+		Set<MethodMetadata> actualMethods = actual.getAnnotatedMethods(Bean.class.getName());
+		assertThat(actualMethods).hasSameSizeAs(expectedMethods);
+		Iterator<MethodMetadata> actualIterator = actualMethods.iterator();
+		for (MethodMetadata expectedMethod : expectedMethods) {
+			MethodMetadata actualMethod = actualIterator.next();
+			assertThat(actualMethod.getMethodName()).isEqualTo(expectedMethod.getMethodName());
+			assertThat(actualMethod.getDeclaringClassName()).isEqualTo(expectedMethod.getDeclaringClassName());
+			assertThat(actualMethod.getReturnTypeName()).isEqualTo(expectedMethod.getReturnTypeName());
+			assertThat(actualMethod.isStatic()).isEqualTo(expectedMethod.isStatic());
+			assertThat(actualMethod.isFinal()).isEqualTo(expectedMethod.isFinal());
+			assertThat(actualMethod.isOverridable()).isEqualTo(expectedMethod.isOverridable());
+			assertThat(actualMethod.getAnnotationAttributes(Scope.class.getName())).usingRecursiveComparison()
+					.isEqualTo(expectedMethod.getAnnotationAttributes(Scope.class.getName()));
+			assertThat(actualMethod.getAnnotationAttributes(Bean.class.getName())).usingRecursiveComparison()
+					.isEqualTo(expectedMethod.getAnnotationAttributes(Bean.class.getName()));
+		}
+	}
+
+	private URLClassLoader createOutputClassLoader() throws IOException {
+		URL[] urls = {this.compiler.getOutputLocation().toURI().toURL()};
+		return new URLClassLoader(urls, getClass().getClassLoader());
+	}
+
+	private Resource getClassFile(Class<?> type) {
+		return new FileSystemResource(new File(this.compiler.getOutputLocation(),
+				ClassUtils.convertClassNameToResourcePath(type.getName()) + ClassUtils.CLASS_FILE_SUFFIX));
+	}
+
+	private Map<String, byte[]> readGeneratedAnnotationMetadata() throws IOException {
+		File metadataFile = new File(this.compiler.getOutputLocation(), MetadataStore.ANNOTATION_METADATA_PATH);
+		try (FileInputStream fileInputStream = new FileInputStream(metadataFile)) {
+			return AnnotationMetadataMarshaller.read(fileInputStream);
+		}
+	}
+
 	private void testComponent(Class<?>... classes) {
 		CandidateComponentsMetadata metadata = compile(classes);
 		for (Class<?> c : classes) {
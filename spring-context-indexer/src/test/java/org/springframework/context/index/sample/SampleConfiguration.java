@@ -0,0 +1,75 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.sample;
+
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.util.List;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Test candidate for annotation metadata of a {@code @Configuration} class.
+ *
+ * @author agent
+ */
+@Configuration(proxyBeanMethods = false)
+@Lazy
+@Profile({"dev", "test"})
+@ComponentScan(basePackages = "org.springframework.context.index.sample.cdi", lazyInit = true,
+		excludeFilters = @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = Controller.class))
+@SampleAttributes(flag = true, letter = 'z', big = Long.MAX_VALUE, ratio = 0.5, numbers = {1, 2, 3},
+		names = {"one", "two"}, types = {String.class, int[].class, SampleConfiguration.Nested.class},
+		elementTypes = {ElementType.TYPE, ElementType.FIELD}, scopes = @Scope("prototype"))
+@Deprecated
+public class SampleConfiguration implements Serializable {
+
+	@Bean(initMethod = "toString")
+	@Scope("prototype")
+	public static String[] names() {
+		return new String[0];
+	}
+
+	@Bean
+	@Nullable
+	protected final List<String> list(String... names) {
+		return null;
+	}
+
+	public String plain() {
+		return "plain";
+	}
+
+
+	@Configuration
+	@SampleAttributes(numbers = {})
+	public static class Nested {
+
+		@Bean
+		Integer answer() {
+			return 42;
+		}
+	}
+
+}
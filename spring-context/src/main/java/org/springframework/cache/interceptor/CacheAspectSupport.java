@@ -84,6 +84,9 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	private static final boolean flightRecorderPresent =
+			ClassUtils.isPresent("jdk.jfr.Event", CacheAspectSupport.class.getClassLoader());
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
@@ -567,15 +570,22 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 	@Nullable
 	private Cache.ValueWrapper findInCaches(CacheOperationContext context, Object key) {
+		FlightRecorderCacheLookupEvent event = (flightRecorderPresent ? FlightRecorderCacheLookupEvent.start() : null);
 		for (Cache cache : context.getCaches()) {
 			Cache.ValueWrapper wrapper = doGet(cache, key);
 			if (wrapper != null) {
 				if (logger.isTraceEnabled()) {
 					logger.trace("Cache entry for key '" + key + "' found in cache '" + cache.getName() + "'");
 				}
+				if (event != null) {
+					event.commit(context.getMethod(), context.getCacheNames(), key, cache);
+				}
 				return wrapper;
 			}
 		}
+		if (event != null) {
+			event.commit(context.getMethod(), context.getCacheNames(), key, null);
+		}
 		return null;
 	}
 
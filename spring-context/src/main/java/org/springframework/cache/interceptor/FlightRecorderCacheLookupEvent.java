@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Java Flight Recorder {@link Event} for the cache lookup performed by
+ * {@link CacheAspectSupport} on behalf of a {@code @Cacheable} operation,
+ * recording whether the lookup was a hit or a miss.
+ *
+ * <p>Synchronized {@code @Cacheable} operations delegate the lookup to
+ * {@link Cache#get(Object, java.util.concurrent.Callable)} and are not covered.
+ *
+ * <p>Only referenced by {@code CacheAspectSupport} if {@code jdk.jfr} is
+ * present on the runtime, and only instantiated while the event type is enabled.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@Category({"Spring Framework", "Cache"})
+@Label("Cache Lookup")
+@Description("Cache lookup for a Spring @Cacheable operation")
+@StackTrace(false)
+final class FlightRecorderCacheLookupEvent extends Event {
+
+	@Label("Method")
+	String method;
+
+	@Label("Cache Names")
+	String cacheNames;
+
+	@Label("Key")
+	String key;
+
+	@Label("Hit")
+	boolean hit;
+
+	@Label("Cache")
+	String cache;
+
+
+	/**
+	 * Start timing a lookup in the caches of a {@code @Cacheable} operation.
+	 * @return the started event, or {@code null} if cache lookups are not being recorded
+	 */
+	@Nullable
+	static FlightRecorderCacheLookupEvent start() {
+		FlightRecorderCacheLookupEvent event = new FlightRecorderCacheLookupEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End this event and commit it if it passes the configured threshold.
+	 * @param method the cached method
+	 * @param cacheNames the names of the caches that have been looked up
+	 * @param key the cache key
+	 * @param cache the cache holding the entry, or {@code null} on a miss
+	 */
+	void commit(Method method, Collection<String> cacheNames, Object key, @Nullable Cache cache) {
+		end();
+		if (shouldCommit()) {
+			this.method = ClassUtils.getQualifiedMethodName(method);
+			this.cacheNames = cacheNames.toString();
+			this.key = String.valueOf(key);
+			this.hit = (cache != null);
+			this.cache = (cache != null ? cache.getName() : null);
+			commit();
+		}
+	}
+
+}
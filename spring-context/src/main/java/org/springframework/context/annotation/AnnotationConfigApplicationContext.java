@@ -16,6 +16,7 @@
 
 package org.springframework.context.annotation;
 
+import java.util.Arrays;
 import java.util.function.Supplier;
 
 import org.springframework.beans.factory.config.BeanDefinitionCustomizer;
@@ -23,6 +24,7 @@ import org.springframework.beans.factory.support.BeanNameGenerator;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
@@ -159,7 +161,10 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 	@Override
 	public void register(Class<?>... componentClasses) {
 		Assert.notEmpty(componentClasses, "At least one component class must be specified");
+		StartupStep registerComponentClass = getApplicationStartup().start("spring.context.component-classes.register")
+				.tag("classes", () -> Arrays.toString(componentClasses));
 		this.reader.register(componentClasses);
+		registerComponentClass.end();
 	}
 
 	/**
@@ -173,7 +178,10 @@ public class AnnotationConfigApplicationContext extends GenericApplicationContex
 	@Override
 	public void scan(String... basePackages) {
 		Assert.notEmpty(basePackages, "At least one base package must be specified");
+		StartupStep scanPackages = getApplicationStartup().start("spring.context.base-packages.scan")
+				.tag("packages", () -> Arrays.toString(basePackages));
 		this.scanner.scan(basePackages);
+		scanPackages.end();
 	}
 
 
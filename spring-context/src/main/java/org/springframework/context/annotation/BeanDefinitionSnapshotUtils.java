@@ -0,0 +1,302 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.WritableResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Utilities for restoring the bean definitions of an application context from a
+ * {@link BeanDefinitionSnapshot} instead of re-running component scanning and
+ * configuration class parsing on every startup.
+ *
+ * <p>A typical arrangement calls {@link #loadSnapshot} on a fresh
+ * {@link GenericApplicationContext} and, if that returns {@code false}, registers
+ * the configuration classes as usual and calls {@link #captureSnapshot} before
+ * refreshing the context. Snapshots are tagged with a fingerprint of the
+ * {@linkplain BeanDefinitionSnapshot#computeClasspathFingerprint classpath}, the
+ * active and default profiles, and the values of all {@code Environment} properties
+ * that were consulted while the bean definitions were being registered (for example
+ * by {@link Conditional @Conditional} checks), so a change to any of them
+ * invalidates the snapshot. Conditions that depend on other state, such as
+ * system resources, are not tracked.
+ *
+ * <p>Configuration classes restored from a snapshot are not parsed again, so
+ * side effects of parsing other than bean definitions, such as
+ * {@link PropertySource @PropertySource} declarations, need to be applied to
+ * the {@code Environment} by the caller.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see BeanDefinitionSnapshot
+ */
+public abstract class BeanDefinitionSnapshotUtils {
+
+	private static final String IMPORTED_CLASS_ATTRIBUTE_PREFIX = "importRegistry:";
+
+	private static final String PROPERTY_NAMES_ATTRIBUTE = "environment:propertyNames";
+
+	private static final String PROPERTY_RECORDER_NAME = "beanDefinitionSnapshotPropertyRecorder";
+
+	private static final Log logger = LogFactory.getLog(BeanDefinitionSnapshotUtils.class);
+
+
+	/**
+	 * Capture the bean definitions of the given context into the given resource
+	 * once the context is being refreshed, after all bean definition registry
+	 * post-processing but before bean factory post-processors modify the
+	 * definitions. Failures to capture are logged and do not affect the refresh.
+	 * <p>From this point until the snapshot is written, all property lookups
+	 * against the context's {@code Environment} are recorded for the fingerprint.
+	 * @param context the context to capture (not refreshed yet)
+	 * @param resource the resource to write the snapshot to
+	 */
+	public static void captureSnapshot(ConfigurableApplicationContext context, WritableResource resource) {
+		Assert.notNull(context, "ApplicationContext must not be null");
+		Assert.notNull(resource, "Resource must not be null");
+		PropertyRecordingPropertySource recorder = new PropertyRecordingPropertySource();
+		context.getEnvironment().getPropertySources().addFirst(recorder);
+		context.addBeanFactoryPostProcessor(new SnapshotCapturingPostProcessor(
+				context.getClassLoader(), context.getEnvironment(), recorder, resource));
+	}
+
+	/**
+	 * Register the bean definitions of the snapshot in the given resource with the
+	 * given context, provided that the snapshot matches the current classpath
+	 * and the current state of the context's {@code Environment}.
+	 * @param context the context to populate (not refreshed yet)
+	 * @param resource the resource to read the snapshot from
+	 * @return {@code true} if the snapshot has been applied, {@code false} if the
+	 * resource does not exist or the snapshot is outdated
+	 * @throws IOException if the resource cannot be read
+	 * @throws IllegalStateException if the snapshot refers to classes that are not present
+	 */
+	public static boolean loadSnapshot(GenericApplicationContext context, Resource resource) throws IOException {
+		Assert.notNull(context, "ApplicationContext must not be null");
+		Assert.notNull(resource, "Resource must not be null");
+		if (!resource.exists()) {
+			return false;
+		}
+		BeanDefinitionSnapshot snapshot;
+		try (InputStream inputStream = resource.getInputStream()) {
+			snapshot = BeanDefinitionSnapshot.readFrom(inputStream);
+		}
+		catch (FileNotFoundException ex) {
+			return false;
+		}
+		ClassLoader classLoader = context.getClassLoader();
+		String propertyNames = snapshot.getAttribute(PROPERTY_NAMES_ATTRIBUTE);
+		String fingerprint = computeFingerprint(classLoader, context.getEnvironment(),
+				Arrays.asList(StringUtils.delimitedListToStringArray(propertyNames, "\n")));
+		if (!snapshot.getFingerprint().equals(fingerprint)) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring outdated bean definition snapshot " + resource);
+			}
+			return false;
+		}
+
+		int count = snapshot.registerBeanDefinitions(context, classLoader);
+		Map<String, String> importingClasses = new LinkedHashMap<>();
+		for (String name : snapshot.attributeNames()) {
+			if (name.startsWith(IMPORTED_CLASS_ATTRIBUTE_PREFIX)) {
+				importingClasses.put(name.substring(IMPORTED_CLASS_ATTRIBUTE_PREFIX.length()),
+						snapshot.getAttribute(name));
+			}
+		}
+		ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+		if (!beanFactory.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+			beanFactory.registerSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME,
+					new SnapshotImportRegistry(importingClasses, classLoader));
+		}
+		if (logger.isDebugEnabled()) {
+			logger.debug("Registered " + count + " bean definitions from snapshot " + resource);
+		}
+		return true;
+	}
+
+
+	/**
+	 * Compute the fingerprint of a snapshot from the classpath, the profiles of
+	 * the given environment and the current values of the given properties.
+	 */
+	private static String computeFingerprint(@Nullable ClassLoader classLoader,
+			ConfigurableEnvironment environment, Collection<String> propertyNames) {
+
+		StringBuilder content = new StringBuilder(BeanDefinitionSnapshot.computeClasspathFingerprint(classLoader));
+		content.append("\nactiveProfiles=")
+				.append(StringUtils.arrayToCommaDelimitedString(environment.getActiveProfiles()))
+				.append("\ndefaultProfiles=")
+				.append(StringUtils.arrayToCommaDelimitedString(environment.getDefaultProfiles()));
+		for (String propertyName : new TreeSet<>(propertyNames)) {
+			String value = environment.getProperty(propertyName);
+			content.append('\n').append(propertyName).append(value != null ? "=" + value : " (absent)");
+		}
+		return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+
+	/**
+	 * {@link BeanDefinitionRegistryPostProcessor} that writes the snapshot
+	 * before regular bean factory post-processing starts.
+	 */
+	private static class SnapshotCapturingPostProcessor implements BeanDefinitionRegistryPostProcessor {
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		private final ConfigurableEnvironment environment;
+
+		private final PropertyRecordingPropertySource recorder;
+
+		private final WritableResource resource;
+
+		SnapshotCapturingPostProcessor(@Nullable ClassLoader classLoader, ConfigurableEnvironment environment,
+				PropertyRecordingPropertySource recorder, WritableResource resource) {
+
+			this.classLoader = classLoader;
+			this.environment = environment;
+			this.recorder = recorder;
+			this.resource = resource;
+		}
+
+		@Override
+		public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+		}
+
+		@Override
+		public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+			this.environment.getPropertySources().remove(this.recorder.getName());
+			Set<String> propertyNames = this.recorder.getPropertyNames();
+			try {
+				BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.capture(beanFactory,
+						computeFingerprint(this.classLoader, this.environment, propertyNames));
+				snapshot.setAttribute(PROPERTY_NAMES_ATTRIBUTE,
+						StringUtils.collectionToDelimitedString(new TreeSet<>(propertyNames), "\n"));
+				if (beanFactory.containsSingleton(ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME)) {
+					ImportRegistry importRegistry = (ImportRegistry) beanFactory.getSingleton(
+							ConfigurationClassPostProcessor.IMPORT_REGISTRY_BEAN_NAME);
+					for (String importedClass : importRegistry.getImportedClasses()) {
+						AnnotationMetadata importingClass = importRegistry.getImportingClassFor(importedClass);
+						if (importingClass != null) {
+							snapshot.setAttribute(IMPORTED_CLASS_ATTRIBUTE_PREFIX + importedClass,
+									importingClass.getClassName());
+						}
+					}
+				}
+				try (OutputStream outputStream = this.resource.getOutputStream()) {
+					snapshot.writeTo(outputStream);
+				}
+			}
+			catch (IOException | RuntimeException ex) {
+				logger.warn("Failed to write bean definition snapshot to " + this.resource, ex);
+			}
+		}
+	}
+
+
+	/**
+	 * {@link PropertySource} that contributes no properties but records the names
+	 * of all properties looked up while it is registered first in line.
+	 */
+	private static class PropertyRecordingPropertySource extends PropertySource<Object> {
+
+		private final Set<String> propertyNames = ConcurrentHashMap.newKeySet();
+
+		PropertyRecordingPropertySource() {
+			super(PROPERTY_RECORDER_NAME);
+		}
+
+		@Override
+		@Nullable
+		public Object getProperty(String name) {
+			this.propertyNames.add(name);
+			return null;
+		}
+
+		Set<String> getPropertyNames() {
+			return this.propertyNames;
+		}
+	}
+
+
+	/**
+	 * {@link ImportRegistry} restored from a snapshot, introspecting the
+	 * importing classes on demand.
+	 */
+	private static class SnapshotImportRegistry implements ImportRegistry {
+
+		private final Map<String, String> importingClasses;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		SnapshotImportRegistry(Map<String, String> importingClasses, @Nullable ClassLoader classLoader) {
+			this.importingClasses = new ConcurrentHashMap<>(importingClasses);
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		@Nullable
+		public AnnotationMetadata getImportingClassFor(String importedClass) {
+			String importingClass = this.importingClasses.get(importedClass);
+			return (importingClass != null ?
+					AnnotationMetadata.introspect(ClassUtils.resolveClassName(importingClass, this.classLoader)) : null);
+		}
+
+		@Override
+		public void removeImportingClass(String importingClass) {
+			this.importingClasses.values().removeIf(importingClass::equals);
+		}
+
+		@Override
+		public Set<String> getImportedClasses() {
+			return this.importingClasses.keySet();
+		}
+	}
+
+}
@@ -18,11 +18,17 @@ package org.springframework.context.annotation;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -35,6 +41,7 @@ import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.context.index.CandidateComponentsIndex;
 import org.springframework.context.index.CandidateComponentsIndexLoader;
+import org.springframework.core.SpringProperties;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.EnvironmentCapable;
@@ -88,6 +95,16 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
+	/**
+	 * System property that instructs Spring to scan the classpath in parallel
+	 * by default, i.e. the default for {@link #setParallelScanning}.
+	 * <p>The default is "false". Switching this flag to {@code true} allows for
+	 * parallel scanning in {@code @ComponentScan} and {@code <context:component-scan>}
+	 * processing, provided all custom type filters and conditions are thread-safe.
+	 * @since 5.2.10
+	 */
+	public static final String PARALLEL_SCANNING_PROPERTY_NAME = "spring.scan.parallel";
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -112,6 +129,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	@Nullable
 	private CandidateComponentsIndex componentsIndex;
 
+	private boolean parallelScanning = SpringProperties.getFlag(PARALLEL_SCANNING_PROPERTY_NAME);
+
 
 	/**
 	 * Protected constructor for flexible subclass initialization.
@@ -223,6 +242,31 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		}
 	}
 
+	/**
+	 * Set whether to read and filter the class files found on the classpath in
+	 * parallel, fanning them out over a {@link ForkJoinPool} sized to the number
+	 * of available processors.
+	 * <p>Default is "false", unless the {@value #PARALLEL_SCANNING_PROPERTY_NAME}
+	 * system property is set. The resulting candidates are returned in the same
+	 * order as with sequential scanning. Only switch this on if all configured
+	 * {@link TypeFilter TypeFilters}, {@link Conditional @Conditional} conditions
+	 * and the {@link MetadataReaderFactory} in use are thread-safe, as the default
+	 * ones are. Scanning based on the {@link CandidateComponentsIndex} is not affected.
+	 * @since 5.2.10
+	 * @see #PARALLEL_SCANNING_PROPERTY_NAME
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
+	/**
+	 * Return whether the class path is scanned in parallel.
+	 * @since 5.2.10
+	 */
+	public boolean isParallelScanning() {
+		return this.parallelScanning;
+	}
+
 	/**
 	 * Set the Environment to use when resolving placeholders and evaluating
 	 * {@link Conditional @Conditional}-annotated component classes.
@@ -418,52 +462,118 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
-			boolean traceEnabled = logger.isTraceEnabled();
-			boolean debugEnabled = logger.isDebugEnabled();
+			if (this.parallelScanning && resources.length > 1) {
+				candidates.addAll(scanCandidateComponentsInParallel(resources));
+			}
+			else {
+				for (Resource resource : resources) {
+					ScannedGenericBeanDefinition candidate = scanCandidateComponent(resource);
+					if (candidate != null) {
+						candidates.add(candidate);
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Read and filter the given resources on a dedicated fork-join pool,
+	 * collecting the candidates in the order of the given resources.
+	 */
+	private List<ScannedGenericBeanDefinition> scanCandidateComponentsInParallel(Resource[] resources) {
+		// Initialize shared state upfront rather than lazily from the workers
+		getMetadataReaderFactory();
+		getConditionEvaluator();
+
+		ClassLoader classLoader = getResourcePatternResolver().getClassLoader();
+		ForkJoinPool pool = new ForkJoinPool(Math.min(Runtime.getRuntime().availableProcessors(), resources.length),
+				forkJoinPool -> {
+					ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+					thread.setContextClassLoader(classLoader);
+					return thread;
+				}, null, false);
+		try {
+			List<Callable<ScannedGenericBeanDefinition>> tasks = new ArrayList<>(resources.length);
 			for (Resource resource : resources) {
-				if (traceEnabled) {
-					logger.trace("Scanning " + resource);
+				tasks.add(() -> scanCandidateComponent(resource));
+			}
+			List<ScannedGenericBeanDefinition> candidates = new ArrayList<>();
+			for (Future<ScannedGenericBeanDefinition> future : pool.invokeAll(tasks)) {
+				ScannedGenericBeanDefinition candidate = future.get();
+				if (candidate != null) {
+					candidates.add(candidate);
 				}
-				if (resource.isReadable()) {
-					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
-						if (isCandidateComponent(metadataReader)) {
-							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
-							sbd.setSource(resource);
-							if (isCandidateComponent(sbd)) {
-								if (debugEnabled) {
-									logger.debug("Identified candidate component class: " + resource);
-								}
-								candidates.add(sbd);
-							}
-							else {
-								if (debugEnabled) {
-									logger.debug("Ignored because not a concrete top-level class: " + resource);
-								}
-							}
-						}
-						else {
-							if (traceEnabled) {
-								logger.trace("Ignored because not matching any filter: " + resource);
-							}
+			}
+			return candidates;
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new BeanDefinitionStoreException("Failure during parallel classpath scanning", cause);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BeanDefinitionStoreException("Interrupted during parallel classpath scanning", ex);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Read the given class file resource and check whether it qualifies as a
+	 * candidate component.
+	 * @param resource the class file resource
+	 * @return the candidate component definition, or {@code null} if none
+	 */
+	@Nullable
+	private ScannedGenericBeanDefinition scanCandidateComponent(Resource resource) {
+		boolean traceEnabled = logger.isTraceEnabled();
+		boolean debugEnabled = logger.isDebugEnabled();
+		if (traceEnabled) {
+			logger.trace("Scanning " + resource);
+		}
+		if (resource.isReadable()) {
+			try {
+				MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+				if (isCandidateComponent(metadataReader)) {
+					ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
+					sbd.setSource(resource);
+					if (isCandidateComponent(sbd)) {
+						if (debugEnabled) {
+							logger.debug("Identified candidate component class: " + resource);
 						}
+						return sbd;
 					}
-					catch (Throwable ex) {
-						throw new BeanDefinitionStoreException(
-								"Failed to read candidate component class: " + resource, ex);
+					else {
+						if (debugEnabled) {
+							logger.debug("Ignored because not a concrete top-level class: " + resource);
+						}
 					}
 				}
 				else {
 					if (traceEnabled) {
-						logger.trace("Ignored because not readable: " + resource);
+						logger.trace("Ignored because not matching any filter: " + resource);
 					}
 				}
 			}
+			catch (Throwable ex) {
+				throw new BeanDefinitionStoreException(
+						"Failed to read candidate component class: " + resource, ex);
+			}
 		}
-		catch (IOException ex) {
-			throw new BeanDefinitionStoreException("I/O failure during classpath scanning", ex);
+		else {
+			if (traceEnabled) {
+				logger.trace("Ignored because not readable: " + resource);
+			}
 		}
-		return candidates;
+		return null;
 	}
 
 
@@ -506,11 +616,16 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 	 * @return whether the class qualifies as a candidate component
 	 */
 	private boolean isConditionMatch(MetadataReader metadataReader) {
-		if (this.conditionEvaluator == null) {
-			this.conditionEvaluator =
-					new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
+		return !getConditionEvaluator().shouldSkip(metadataReader.getAnnotationMetadata());
+	}
+
+	private ConditionEvaluator getConditionEvaluator() {
+		ConditionEvaluator conditionEvaluator = this.conditionEvaluator;
+		if (conditionEvaluator == null) {
+			conditionEvaluator = new ConditionEvaluator(getRegistry(), this.environment, this.resourcePatternResolver);
+			this.conditionEvaluator = conditionEvaluator;
 		}
-		return !this.conditionEvaluator.shouldSkip(metadataReader.getAnnotationMetadata());
+		return conditionEvaluator;
 	}
 
 	/**
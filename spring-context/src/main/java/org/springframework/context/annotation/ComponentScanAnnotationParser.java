@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -62,6 +62,8 @@ class ComponentScanAnnotationParser {
 
 	private final BeanDefinitionRegistry registry;
 
+	private boolean parallelScanning = false;
+
 
 	public ComponentScanAnnotationParser(Environment environment, ResourceLoader resourceLoader,
 			BeanNameGenerator beanNameGenerator, BeanDefinitionRegistry registry) {
@@ -73,6 +75,15 @@ class ComponentScanAnnotationParser {
 	}
 
 
+	/**
+	 * Set whether component packages get scanned in parallel, in addition to
+	 * the default set through {@link ClassPathScanningCandidateComponentProvider#PARALLEL_SCANNING_PROPERTY_NAME}.
+	 * @since 5.2.10
+	 */
+	public void setParallelScanning(boolean parallelScanning) {
+		this.parallelScanning = parallelScanning;
+	}
+
 	/**
 	 * 解析 @ComponentScan 和 @ComponentScans 配置的扫描的包所在的类
 	 * basePackages = com.ling,会扫描出这个包下的所有类，并将其解析成 BeanDefinition
@@ -86,6 +97,10 @@ class ComponentScanAnnotationParser {
 		ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner(this.registry,
 				componentScan.getBoolean("useDefaultFilters"), this.environment, this.resourceLoader);
 
+		if (this.parallelScanning) {
+			scanner.setParallelScanning(true);
+		}
+
 		// 获取 @Component 的参数，并进行参数的设置
 		Class<? extends BeanNameGenerator> generatorClass = componentScan.getClass("nameGenerator");
 		boolean useInheritedGenerator = (BeanNameGenerator.class == generatorClass);
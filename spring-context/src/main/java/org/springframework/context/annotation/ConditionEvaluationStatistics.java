@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Records how often each {@link Condition} class has been evaluated while bean
+ * definitions were registered, how much time those evaluations took and how many
+ * of them were answered from the outcome cache of a {@link StableCondition}.
+ *
+ * <p>Recording is opt-in: statistics are only collected for a bean factory that
+ * holds a singleton under {@link #BEAN_NAME}, typically registered through
+ * {@link #enable} before the bean definitions are loaded. That instance is then
+ * shared by all condition evaluations against the bean factory.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see #enable(ConfigurableListableBeanFactory)
+ */
+public final class ConditionEvaluationStatistics {
+
+	/**
+	 * The bean name of the statistics singleton.
+	 */
+	public static final String BEAN_NAME =
+			"org.springframework.context.annotation.internalConditionEvaluationStatistics";
+
+
+	private final Map<String, ConditionStatistics> statistics = new ConcurrentHashMap<>();
+
+
+	private ConditionEvaluationStatistics() {
+	}
+
+
+	void recordEvaluation(Class<?> conditionClass, long nanos) {
+		ConditionStatistics conditionStatistics = getConditionStatistics(conditionClass);
+		conditionStatistics.evaluationCount.increment();
+		conditionStatistics.evaluationNanos.add(nanos);
+	}
+
+	void recordCacheHit(Class<?> conditionClass) {
+		getConditionStatistics(conditionClass).cacheHitCount.increment();
+	}
+
+	private ConditionStatistics getConditionStatistics(Class<?> conditionClass) {
+		return this.statistics.computeIfAbsent(conditionClass.getName(), name -> new ConditionStatistics());
+	}
+
+	/**
+	 * Return the statistics recorded so far, keyed by condition class name and
+	 * ordered by descending total evaluation time.
+	 */
+	public Map<String, ConditionStatistics> getStatistics() {
+		List<Map.Entry<String, ConditionStatistics>> entries = new ArrayList<>(this.statistics.entrySet());
+		entries.sort((e1, e2) -> Long.compare(e2.getValue().getEvaluationNanos(), e1.getValue().getEvaluationNanos()));
+		Map<String, ConditionStatistics> result = new LinkedHashMap<>(entries.size());
+		for (Map.Entry<String, ConditionStatistics> entry : entries) {
+			result.put(entry.getKey(), entry.getValue());
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * Return the statistics recorded for the given condition class, if any.
+	 */
+	@Nullable
+	public ConditionStatistics getStatistics(Class<? extends Condition> conditionClass) {
+		return this.statistics.get(conditionClass.getName());
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("ConditionEvaluationStatistics: ");
+		sb.append(this.statistics.size()).append(" condition classes");
+		getStatistics().forEach((name, stats) -> sb.append("; ").append(name).append(' ').append(stats));
+		return sb.toString();
+	}
+
+
+	/**
+	 * Enable the recording of statistics for condition evaluations against the
+	 * given bean factory, registering a new instance unless one exists already.
+	 * @param beanFactory the bean factory to record statistics for
+	 * @return the shared statistics instance (never {@code null})
+	 */
+	public static ConditionEvaluationStatistics enable(ConfigurableListableBeanFactory beanFactory) {
+		Assert.notNull(beanFactory, "BeanFactory must not be null");
+		synchronized (beanFactory) {
+			ConditionEvaluationStatistics existing = find(beanFactory);
+			if (existing != null) {
+				return existing;
+			}
+			ConditionEvaluationStatistics statistics = new ConditionEvaluationStatistics();
+			beanFactory.registerSingleton(BEAN_NAME, statistics);
+			return statistics;
+		}
+	}
+
+	/**
+	 * Return the statistics registered with the given bean factory, if enabled.
+	 */
+	@Nullable
+	static ConditionEvaluationStatistics find(ConfigurableListableBeanFactory beanFactory) {
+		if (!beanFactory.containsSingleton(BEAN_NAME)) {
+			return null;
+		}
+		Object existing = beanFactory.getSingleton(BEAN_NAME);
+		Assert.state(existing instanceof ConditionEvaluationStatistics,
+				() -> "Unexpected bean registered as '" + BEAN_NAME + "': " + existing);
+		return (ConditionEvaluationStatistics) existing;
+	}
+
+
+	/**
+	 * Statistics for a single condition class.
+	 */
+	public static final class ConditionStatistics {
+
+		private final LongAdder evaluationCount = new LongAdder();
+
+		private final LongAdder evaluationNanos = new LongAdder();
+
+		private final LongAdder cacheHitCount = new LongAdder();
+
+		/**
+		 * Return the number of times the condition has actually been evaluated.
+		 */
+		public long getEvaluationCount() {
+			return this.evaluationCount.sum();
+		}
+
+		/**
+		 * Return the total time spent evaluating the condition, in nanoseconds.
+		 */
+		public long getEvaluationNanos() {
+			return this.evaluationNanos.sum();
+		}
+
+		/**
+		 * Return the number of evaluations answered from the outcome cache.
+		 */
+		public long getCacheHitCount() {
+			return this.cacheHitCount.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "[evaluations=" + getEvaluationCount() + ", cacheHits=" + getCacheHitCount() +
+					", time=" + TimeUnit.NANOSECONDS.toMillis(getEvaluationNanos()) + "ms]";
+		}
+	}
+
+}
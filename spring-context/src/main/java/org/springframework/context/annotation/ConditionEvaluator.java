@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,8 @@ package org.springframework.context.annotation;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
@@ -37,10 +39,16 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.ObjectUtils;
 
 /**
  * Internal class used to evaluate {@link Conditional} annotations.
  *
+ * <p>Condition instances are reused across evaluations, and the outcomes of
+ * {@link StableCondition StableConditions} are cached per cache key. Evaluations
+ * are only timed and recorded if {@link ConditionEvaluationStatistics} have been
+ * enabled for the underlying bean factory.
+ *
  * @author Phillip Webb
  * @author Juergen Hoeller
  * @since 4.0
@@ -49,6 +57,13 @@ class ConditionEvaluator {
 
 	private final ConditionContextImpl context;
 
+	private final Map<String, Condition> conditionCache = new ConcurrentHashMap<>();
+
+	private final Map<ConditionCacheKey, Boolean> outcomeCache = new ConcurrentHashMap<>();
+
+	@Nullable
+	private volatile ConditionEvaluationStatistics statistics;
+
 
 	/**
 	 * Create a new {@link ConditionEvaluator} instance.
@@ -117,7 +132,7 @@ class ConditionEvaluator {
 				// 4. 获取条件上的 ConfigurationPhase（在哪个阶段进行注入）
 				requiredPhase = ((ConfigurationCondition) condition).getConfigurationPhase();
 			}
-			if ((requiredPhase == null || requiredPhase == phase) && !condition.matches(this.context, metadata)) {
+			if ((requiredPhase == null || requiredPhase == phase) && !matches(condition, metadata)) {
 				// 调用条件的匹配方法，判断是否要跳过；条件匹配成功不跳过，条件未匹配成功则跳过
 				return true;
 			}
@@ -134,8 +149,84 @@ class ConditionEvaluator {
 	}
 
 	private Condition getCondition(String conditionClassName, @Nullable ClassLoader classloader) {
-		Class<?> conditionClass = ClassUtils.resolveClassName(conditionClassName, classloader);
-		return (Condition) BeanUtils.instantiateClass(conditionClass);
+		return this.conditionCache.computeIfAbsent(conditionClassName, name -> {
+			Class<?> conditionClass = ClassUtils.resolveClassName(name, classloader);
+			return (Condition) BeanUtils.instantiateClass(conditionClass);
+		});
+	}
+
+	private boolean matches(Condition condition, AnnotatedTypeMetadata metadata) {
+		ConditionEvaluationStatistics statistics = getStatistics();
+		ConditionCacheKey cacheKey = null;
+		if (condition instanceof StableCondition) {
+			Object key = ((StableCondition) condition).getCacheKey(metadata);
+			if (key != null) {
+				cacheKey = new ConditionCacheKey(condition.getClass(), key);
+				Boolean outcome = this.outcomeCache.get(cacheKey);
+				if (outcome != null) {
+					if (statistics != null) {
+						statistics.recordCacheHit(condition.getClass());
+					}
+					return outcome;
+				}
+			}
+		}
+		long start = (statistics != null ? System.nanoTime() : 0);
+		boolean outcome = condition.matches(this.context, metadata);
+		if (statistics != null) {
+			statistics.recordEvaluation(condition.getClass(), System.nanoTime() - start);
+		}
+		if (cacheKey != null) {
+			this.outcomeCache.put(cacheKey, outcome);
+		}
+		return outcome;
+	}
+
+	@Nullable
+	private ConditionEvaluationStatistics getStatistics() {
+		ConditionEvaluationStatistics statistics = this.statistics;
+		if (statistics == null) {
+			ConfigurableListableBeanFactory beanFactory = this.context.getBeanFactory();
+			if (beanFactory != null) {
+				statistics = ConditionEvaluationStatistics.find(beanFactory);
+				this.statistics = statistics;
+			}
+		}
+		return statistics;
+	}
+
+
+	/**
+	 * Cache key for the outcome of a {@link StableCondition}.
+	 */
+	private static final class ConditionCacheKey {
+
+		private final Class<?> conditionClass;
+
+		private final Object key;
+
+		ConditionCacheKey(Class<?> conditionClass, Object key) {
+			this.conditionClass = conditionClass;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof ConditionCacheKey)) {
+				return false;
+			}
+			ConditionCacheKey otherKey = (ConditionCacheKey) other;
+			return (this.conditionClass == otherKey.conditionClass &&
+					ObjectUtils.nullSafeEquals(this.key, otherKey.key));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.conditionClass.hashCode() * 31 + ObjectUtils.nullSafeHashCode(this.key));
+		}
 	}
 
 
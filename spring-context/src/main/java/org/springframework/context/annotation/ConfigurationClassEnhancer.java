@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,15 @@
 
 package org.springframework.context.annotation;
 
+import java.io.File;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -37,6 +41,8 @@ import org.springframework.beans.factory.support.SimpleInstantiationStrategy;
 import org.springframework.cglib.core.ClassGenerator;
 import org.springframework.cglib.core.ClassLoaderAwareGeneratorStrategy;
 import org.springframework.cglib.core.Constants;
+import org.springframework.cglib.core.FileCachingGeneratorStrategy;
+import org.springframework.cglib.core.GeneratorStrategy;
 import org.springframework.cglib.core.SpringNamingPolicy;
 import org.springframework.cglib.proxy.Callback;
 import org.springframework.cglib.proxy.CallbackFilter;
@@ -83,6 +89,9 @@ class ConfigurationClassEnhancer {
 
 	private static final String BEAN_FACTORY_FIELD = "$$beanFactory";
 
+	@Nullable
+	private static final File classCacheDirectory = FileCachingGeneratorStrategy.getDefaultCacheDirectory();
+
 
 	private static final Log logger = LogFactory.getLog(ConfigurationClassEnhancer.class);
 
@@ -123,12 +132,49 @@ class ConfigurationClassEnhancer {
 		enhancer.setInterfaces(new Class<?>[] {EnhancedConfiguration.class});
 		enhancer.setUseFactory(false);
 		enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
-		enhancer.setStrategy(new BeanFactoryAwareGeneratorStrategy(classLoader));
+		enhancer.setStrategy(newGeneratorStrategy(configSuperClass, classLoader));
 		enhancer.setCallbackFilter(CALLBACK_FILTER);
 		enhancer.setCallbackTypes(CALLBACK_FILTER.getCallbackTypes());
 		return enhancer;
 	}
 
+	/**
+	 * Creates the {@link GeneratorStrategy} for the given configuration class,
+	 * caching the generated bytecode if a class cache directory has been specified.
+	 * @see FileCachingGeneratorStrategy#CACHE_DIRECTORY_PROPERTY_NAME
+	 */
+	private GeneratorStrategy newGeneratorStrategy(Class<?> configSuperClass, @Nullable ClassLoader classLoader) {
+		GeneratorStrategy strategy = new BeanFactoryAwareGeneratorStrategy(classLoader);
+		if (classCacheDirectory != null) {
+			String cacheKey = FileCachingGeneratorStrategy.computeCacheKey(
+					describeEnhancement(configSuperClass), configSuperClass, EnhancedConfiguration.class);
+			if (cacheKey != null) {
+				strategy = new FileCachingGeneratorStrategy(strategy, classCacheDirectory, cacheKey);
+			}
+		}
+		return strategy;
+	}
+
+	/**
+	 * Describes the enhancer settings for the given configuration class, including
+	 * the callback chosen for each method: the latter depends on annotations which
+	 * may be declared outside of the class files covered by the cache key.
+	 */
+	private String describeEnhancement(Class<?> configSuperClass) {
+		List<String> callbackMapping = new ArrayList<>();
+		ReflectionUtils.doWithMethods(configSuperClass,
+				method -> callbackMapping.add(method + "=" + CALLBACK_FILTER.accept(method)),
+				method -> !Modifier.isStatic(method.getModifiers()) && !Modifier.isPrivate(method.getModifiers()));
+		for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(configSuperClass)) {
+			for (Method method : ifc.getMethods()) {
+				callbackMapping.add(method + "=" + CALLBACK_FILTER.accept(method));
+			}
+		}
+		Collections.sort(callbackMapping);
+		return ConfigurationClassEnhancer.class.getName() + Arrays.toString(CALLBACK_FILTER.getCallbackTypes()) +
+				callbackMapping;
+	}
+
 	/**
 	 * Uses enhancer to generate a subclass of superclass,
 	 * ensuring that callbacks are registered for the new subclass.
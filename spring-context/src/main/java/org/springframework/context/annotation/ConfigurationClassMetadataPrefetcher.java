@@ -0,0 +1,159 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Reads the metadata of configuration classes in parallel ahead of the
+ * {@link ConfigurationClassParser}, following {@link Import @Import}
+ * declarations, member classes and superclasses level by level.
+ *
+ * <p>The parser itself still processes the configuration classes one after the
+ * other, in their declaration order, so that conditions, imports and the order
+ * of the resulting bean definitions stay deterministic. It merely finds the
+ * metadata in the cache of the {@link MetadataReaderFactory} afterwards, which
+ * therefore needs to be a thread-safe caching factory such as the default one.
+ * Failures to read a class are ignored here and surface during parsing.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see ConfigurationClassPostProcessor#setParallelParsing
+ */
+class ConfigurationClassMetadataPrefetcher {
+
+	private static final Log logger = LogFactory.getLog(ConfigurationClassMetadataPrefetcher.class);
+
+	private final MetadataReaderFactory metadataReaderFactory;
+
+	@Nullable
+	private final ClassLoader classLoader;
+
+
+	ConfigurationClassMetadataPrefetcher(MetadataReaderFactory metadataReaderFactory,
+			@Nullable ClassLoader classLoader) {
+
+		this.metadataReaderFactory = metadataReaderFactory;
+		this.classLoader = classLoader;
+	}
+
+
+	/**
+	 * Read the metadata of the given classes and of all classes that they
+	 * reference through imports, member classes and superclasses.
+	 * @param classNames the names of the configuration classes to start with
+	 */
+	void prefetch(Collection<String> classNames) {
+		Set<String> visited = new HashSet<>();
+		Set<String> level = new LinkedHashSet<>();
+		for (String className : classNames) {
+			if (isCandidate(className) && visited.add(className)) {
+				level.add(className);
+			}
+		}
+		if (level.isEmpty()) {
+			return;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+				forkJoinPool -> {
+					ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+					thread.setContextClassLoader(this.classLoader);
+					return thread;
+				}, null, false);
+		try {
+			while (!level.isEmpty()) {
+				List<Callable<Set<String>>> tasks = new ArrayList<>(level.size());
+				for (String className : level) {
+					tasks.add(() -> readReferencedClasses(className));
+				}
+				Set<String> nextLevel = new LinkedHashSet<>();
+				for (Future<Set<String>> future : pool.invokeAll(tasks)) {
+					for (String className : future.get()) {
+						if (isCandidate(className) && visited.add(className)) {
+							nextLevel.add(className);
+						}
+					}
+				}
+				level = nextLevel;
+			}
+		}
+		catch (ExecutionException ex) {
+			logger.debug("Failed to prefetch configuration class metadata", ex.getCause());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private Set<String> readReferencedClasses(String className) {
+		AnnotationMetadata metadata;
+		try {
+			metadata = this.metadataReaderFactory.getMetadataReader(className).getAnnotationMetadata();
+		}
+		catch (IOException | RuntimeException ex) {
+			return Collections.emptySet();
+		}
+		Set<String> referencedClasses = new LinkedHashSet<>();
+		MultiValueMap<String, Object> imports = metadata.getAllAnnotationAttributes(Import.class.getName(), true);
+		if (imports != null) {
+			List<Object> values = imports.get("value");
+			if (values != null) {
+				for (Object value : values) {
+					if (value instanceof String[]) {
+						Collections.addAll(referencedClasses, (String[]) value);
+					}
+				}
+			}
+		}
+		Collections.addAll(referencedClasses, metadata.getMemberClassNames());
+		String superClassName = metadata.getSuperClassName();
+		if (superClassName != null) {
+			referencedClasses.add(superClassName);
+		}
+		return referencedClasses;
+	}
+
+	private static boolean isCandidate(String className) {
+		// The parser introspects core Java types via reflection
+		return !className.startsWith("java");
+	}
+
+}
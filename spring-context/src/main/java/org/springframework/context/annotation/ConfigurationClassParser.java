@@ -153,6 +153,8 @@ class ConfigurationClassParser {
 
 	private final SourceClass objectSourceClass = new SourceClass(Object.class);
 
+	private boolean parallelParsing = false;
+
 
 	/**
 	 * Create a new {@link ConfigurationClassParser} instance that will be used
@@ -173,6 +175,18 @@ class ConfigurationClassParser {
 	}
 
 
+	/**
+	 * Set whether to read the metadata of the configuration class hierarchy in
+	 * parallel before parsing, and to scan component packages in parallel.
+	 * @since 5.2.10
+	 * @see ConfigurationClassMetadataPrefetcher
+	 */
+	public void setParallelParsing(boolean parallelParsing) {
+		this.parallelParsing = parallelParsing;
+		this.componentScanParser.setParallelScanning(parallelParsing);
+	}
+
+
 	/**
 	 * 解析带有 @Controller、@Import、@ImportResource、@ComponentScan、@ComponentScans、@Bean 的 BeanDefinition
 	 * 解析包括 xml 配置文件或注解定义的 BeanDefinition
@@ -185,6 +199,9 @@ class ConfigurationClassParser {
 	 * @param configCandidates
 	 */
 	public void parse(Set<BeanDefinitionHolder> configCandidates) {
+		if (this.parallelParsing) {
+			prefetchMetadata(configCandidates);
+		}
 		for (BeanDefinitionHolder holder : configCandidates) {
 			BeanDefinition bd = holder.getBeanDefinition();
 			// 根据 BeanDefinition 类型的不同，调用 parse 不同的重载方法，实际上最终都是调用 processConfigurationClass() 方法
@@ -209,6 +226,20 @@ class ConfigurationClassParser {
 		this.deferredImportSelectorHandler.process();
 	}
 
+	private void prefetchMetadata(Set<BeanDefinitionHolder> configCandidates) {
+		List<String> classNames = new ArrayList<>(configCandidates.size());
+		for (BeanDefinitionHolder holder : configCandidates) {
+			BeanDefinition bd = holder.getBeanDefinition();
+			String className = (bd instanceof AnnotatedBeanDefinition ?
+					((AnnotatedBeanDefinition) bd).getMetadata().getClassName() : bd.getBeanClassName());
+			if (className != null) {
+				classNames.add(className);
+			}
+		}
+		new ConfigurationClassMetadataPrefetcher(this.metadataReaderFactory, this.resourceLoader.getClassLoader())
+				.prefetch(classNames);
+	}
+
 	protected final void parse(@Nullable String className, String beanName) throws IOException {
 		Assert.notNull(className, "No bean class name for configuration class bean definition");
 		MetadataReader reader = this.metadataReaderFactory.getMetadataReader(className);
@@ -807,6 +838,17 @@ class ConfigurationClassParser {
 			}
 		}
 
+		@Override
+		public Set<String> getImportedClasses() {
+			Set<String> importedClasses = new LinkedHashSet<>();
+			this.imports.forEach((importedClass, importingClasses) -> {
+				if (!importingClasses.isEmpty()) {
+					importedClasses.add(importedClass);
+				}
+			});
+			return importedClasses;
+		}
+
 		/**
 		 * Given a stack containing (in order)
 		 * <ul>
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.context.annotation;
 
+import java.util.Set;
+
 import org.springframework.core.type.AnnotationMetadata;
 import org.springframework.lang.Nullable;
 
@@ -32,4 +34,10 @@ interface ImportRegistry {
 
 	void removeImportingClass(String importingClass);
 
+	/**
+	 * Return the names of all imported classes that have an importing class.
+	 * @since 5.2.10
+	 */
+	Set<String> getImportedClasses();
+
 }
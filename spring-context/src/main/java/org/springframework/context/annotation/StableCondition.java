@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.lang.Nullable;
+
+/**
+ * A {@link Condition} whose outcome depends solely on the annotation metadata
+ * it is evaluated against and on state that does not change while bean definitions
+ * are being registered, for example the presence of classes on the classpath.
+ *
+ * <p>The outcome of such a condition is cached per condition class and
+ * {@linkplain #getCacheKey cache key}, so that the same condition declared on
+ * many components or {@code @Bean} methods is only evaluated once. Conditions
+ * that inspect the bean definitions registered so far or mutable environment
+ * state must not implement this interface.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see Conditional
+ * @see ConditionEvaluationStatistics
+ */
+public interface StableCondition extends Condition {
+
+	/**
+	 * Return a key for the parts of the given metadata that are relevant to this
+	 * condition, typically the attributes of the condition's own annotation.
+	 * <p>Two evaluations against metadata with equal keys are expected to produce
+	 * the same outcome. The key must implement {@code equals} and {@code hashCode}
+	 * accordingly; arrays should be wrapped in a {@link java.util.List}.
+	 * @param metadata the metadata of the {@link org.springframework.core.type.AnnotationMetadata class}
+	 * or {@link org.springframework.core.type.MethodMetadata method} being checked
+	 * @return the cache key, or {@code null} if the outcome for the given metadata
+	 * should not be cached
+	 */
+	@Nullable
+	Object getCacheKey(AnnotatedTypeMetadata metadata);
+
+}
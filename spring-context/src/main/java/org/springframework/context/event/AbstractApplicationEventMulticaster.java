@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,11 +18,13 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.beans.factory.BeanClassLoaderAware;
@@ -54,6 +56,11 @@ import org.springframework.util.ObjectUtils;
  * all events to all registered listeners, invoking them in the calling thread.
  * Alternative implementations could be more sophisticated in those respects.
  *
+ * <p>Registered listeners are kept in an immutable snapshot which gets replaced
+ * on every registration change, so that listener retrieval never needs to lock.
+ * Pre-filtered listeners are cached per event type and source type; adding or
+ * removing a listener instance only evicts the cache entries it affects.
+ *
  * @author Juergen Hoeller
  * @author Stephane Nicoll
  * @since 1.2.3
@@ -63,18 +70,19 @@ import org.springframework.util.ObjectUtils;
 public abstract class AbstractApplicationEventMulticaster
 		implements ApplicationEventMulticaster, BeanClassLoaderAware, BeanFactoryAware {
 
-	private final ListenerRetriever defaultRetriever = new ListenerRetriever(false);
+	private volatile ListenerRetriever defaultRetriever =
+			new ListenerRetriever(Collections.emptySet(), Collections.emptySet(), false);
 
 	final Map<ListenerCacheKey, ListenerRetriever> retrieverCache = new ConcurrentHashMap<>(64);
 
+	private final Object registrationMonitor = new Object();
+
 	@Nullable
 	private ClassLoader beanClassLoader;
 
 	@Nullable
 	private ConfigurableBeanFactory beanFactory;
 
-	private Object retrievalMutex = this.defaultRetriever;
-
 
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
@@ -90,7 +98,6 @@ public abstract class AbstractApplicationEventMulticaster
 		if (this.beanClassLoader == null) {
 			this.beanClassLoader = this.beanFactory.getBeanClassLoader();
 		}
-		this.retrievalMutex = this.beanFactory.getSingletonMutex();
 	}
 
 	private ConfigurableBeanFactory getBeanFactory() {
@@ -104,51 +111,76 @@ public abstract class AbstractApplicationEventMulticaster
 
 	@Override
 	public void addApplicationListener(ApplicationListener<?> listener) {
-		synchronized (this.retrievalMutex) {
+		synchronized (this.registrationMonitor) {
+			ListenerRetriever registered = this.defaultRetriever;
+			Set<ApplicationListener<?>> listeners = new LinkedHashSet<>(registered.applicationListeners);
 			// Explicitly remove target for a proxy, if registered already,
 			// in order to avoid double invocations of the same listener.
 			Object singletonTarget = AopProxyUtils.getSingletonTarget(listener);
 			if (singletonTarget instanceof ApplicationListener) {
-				this.defaultRetriever.applicationListeners.remove(singletonTarget);
+				listeners.remove(singletonTarget);
 			}
-			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
+			listeners.add(listener);
+			this.defaultRetriever = new ListenerRetriever(listeners, registered.applicationListenerBeans, false);
+			evictRetrievers((cacheKey, retriever) ->
+					supportsEvent(listener, cacheKey.eventType, cacheKey.sourceType) ||
+					(singletonTarget != null && retriever.applicationListeners.contains(singletonTarget)));
 		}
 	}
 
 	@Override
 	public void addApplicationListenerBean(String listenerBeanName) {
-		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
+		synchronized (this.registrationMonitor) {
+			ListenerRetriever registered = this.defaultRetriever;
+			Set<String> listenerBeans = new LinkedHashSet<>(registered.applicationListenerBeans);
+			listenerBeans.add(listenerBeanName);
+			this.defaultRetriever = new ListenerRetriever(registered.applicationListeners, listenerBeans, false);
 			this.retrieverCache.clear();
 		}
 	}
 
 	@Override
 	public void removeApplicationListener(ApplicationListener<?> listener) {
-		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+		synchronized (this.registrationMonitor) {
+			ListenerRetriever registered = this.defaultRetriever;
+			Set<ApplicationListener<?>> listeners = new LinkedHashSet<>(registered.applicationListeners);
+			listeners.remove(listener);
+			this.defaultRetriever = new ListenerRetriever(listeners, registered.applicationListenerBeans, false);
+			evictRetrievers((cacheKey, retriever) -> retriever.applicationListeners.contains(listener));
 		}
 	}
 
 	@Override
 	public void removeApplicationListenerBean(String listenerBeanName) {
-		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListenerBeans.remove(listenerBeanName);
+		synchronized (this.registrationMonitor) {
+			ListenerRetriever registered = this.defaultRetriever;
+			Set<String> listenerBeans = new LinkedHashSet<>(registered.applicationListenerBeans);
+			listenerBeans.remove(listenerBeanName);
+			this.defaultRetriever = new ListenerRetriever(registered.applicationListeners, listenerBeans, false);
 			this.retrieverCache.clear();
 		}
 	}
 
 	@Override
 	public void removeAllListeners() {
-		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListeners.clear();
-			this.defaultRetriever.applicationListenerBeans.clear();
+		synchronized (this.registrationMonitor) {
+			this.defaultRetriever = new ListenerRetriever(Collections.emptySet(), Collections.emptySet(), false);
 			this.retrieverCache.clear();
 		}
 	}
 
+	/**
+	 * Evict the cached retrievers affected by a change of the registered
+	 * listener instances. Must be called after the new snapshot of registered
+	 * listeners has been published.
+	 * <p>Listener bean names are not evaluated here: changes to those clear the
+	 * entire cache, since a bean name may also suppress a non-matching listener
+	 * instance for event types that it does not support.
+	 */
+	private void evictRetrievers(BiPredicate<ListenerCacheKey, ListenerRetriever> affected) {
+		this.retrieverCache.entrySet().removeIf(entry -> affected.test(entry.getKey(), entry.getValue()));
+	}
+
 
 	/**
 	 * Return a Collection containing all ApplicationListeners.
@@ -156,9 +188,7 @@ public abstract class AbstractApplicationEventMulticaster
 	 * @see org.springframework.context.ApplicationListener
 	 */
 	protected Collection<ApplicationListener<?>> getApplicationListeners() {
-		synchronized (this.retrievalMutex) {
-			return this.defaultRetriever.getApplicationListeners();
-		}
+		return this.defaultRetriever.getApplicationListeners();
 	}
 
 	/**
@@ -186,21 +216,11 @@ public abstract class AbstractApplicationEventMulticaster
 		if (this.beanClassLoader == null ||
 				(ClassUtils.isCacheSafe(event.getClass(), this.beanClassLoader) &&
 						(sourceType == null || ClassUtils.isCacheSafe(sourceType, this.beanClassLoader)))) {
-			// Fully synchronized building and caching of a ListenerRetriever
-			synchronized (this.retrievalMutex) {
-				retriever = this.retrieverCache.get(cacheKey);
-				if (retriever != null) {
-					return retriever.getApplicationListeners();
-				}
-				retriever = new ListenerRetriever(true);
-				Collection<ApplicationListener<?>> listeners =
-						retrieveApplicationListeners(eventType, sourceType, retriever);
-				this.retrieverCache.put(cacheKey, retriever);
-				return listeners;
-			}
+			// Lock-free building and caching of a ListenerRetriever
+			return retrieveApplicationListeners(eventType, sourceType, cacheKey);
 		}
 		else {
-			// No ListenerRetriever caching -> no synchronization necessary
+			// No ListenerRetriever caching
 			return retrieveApplicationListeners(eventType, sourceType, null);
 		}
 	}
@@ -209,26 +229,26 @@ public abstract class AbstractApplicationEventMulticaster
 	 * Actually retrieve the application listeners for the given event and source type.
 	 * @param eventType the event type
 	 * @param sourceType the event source type
-	 * @param retriever the ListenerRetriever, if supposed to populate one (for caching purposes)
+	 * @param cacheKey the key to cache a ListenerRetriever for, if caching is possible
 	 * @return the pre-filtered list of application listeners for the given event and source type
 	 */
 	private Collection<ApplicationListener<?>> retrieveApplicationListeners(
-			ResolvableType eventType, @Nullable Class<?> sourceType, @Nullable ListenerRetriever retriever) {
+			ResolvableType eventType, @Nullable Class<?> sourceType, @Nullable ListenerCacheKey cacheKey) {
+
+		ListenerRetriever registered = this.defaultRetriever;
+		Set<ApplicationListener<?>> listeners = registered.applicationListeners;
+		Set<String> listenerBeans = registered.applicationListenerBeans;
 
 		List<ApplicationListener<?>> allListeners = new ArrayList<>();
-		Set<ApplicationListener<?>> listeners;
-		Set<String> listenerBeans;
-		synchronized (this.retrievalMutex) {
-			listeners = new LinkedHashSet<>(this.defaultRetriever.applicationListeners);
-			listenerBeans = new LinkedHashSet<>(this.defaultRetriever.applicationListenerBeans);
-		}
+		Set<ApplicationListener<?>> filteredListeners = (cacheKey != null ? new LinkedHashSet<>() : null);
+		Set<String> filteredListenerBeans = (cacheKey != null ? new LinkedHashSet<>() : null);
 
 		// Add programmatically registered listeners, including ones coming
 		// from ApplicationListenerDetector (singleton beans and inner beans).
 		for (ApplicationListener<?> listener : listeners) {
 			if (supportsEvent(listener, eventType, sourceType)) {
-				if (retriever != null) {
-					retriever.applicationListeners.add(listener);
+				if (filteredListeners != null) {
+					filteredListeners.add(listener);
 				}
 				allListeners.add(listener);
 			}
@@ -244,12 +264,12 @@ public abstract class AbstractApplicationEventMulticaster
 						ApplicationListener<?> listener =
 								beanFactory.getBean(listenerBeanName, ApplicationListener.class);
 						if (!allListeners.contains(listener) && supportsEvent(listener, eventType, sourceType)) {
-							if (retriever != null) {
+							if (filteredListeners != null && filteredListenerBeans != null) {
 								if (beanFactory.isSingleton(listenerBeanName)) {
-									retriever.applicationListeners.add(listener);
+									filteredListeners.add(listener);
 								}
 								else {
-									retriever.applicationListenerBeans.add(listenerBeanName);
+									filteredListenerBeans.add(listenerBeanName);
 								}
 							}
 							allListeners.add(listener);
@@ -260,8 +280,8 @@ public abstract class AbstractApplicationEventMulticaster
 						// ApplicationListenerDetector, possibly ruled out by additional
 						// BeanDefinition metadata (e.g. factory method generics) above.
 						Object listener = beanFactory.getSingleton(listenerBeanName);
-						if (retriever != null) {
-							retriever.applicationListeners.remove(listener);
+						if (filteredListeners != null) {
+							filteredListeners.remove(listener);
 						}
 						allListeners.remove(listener);
 					}
@@ -274,9 +294,17 @@ public abstract class AbstractApplicationEventMulticaster
 		}
 
 		AnnotationAwareOrderComparator.sort(allListeners);
-		if (retriever != null && retriever.applicationListenerBeans.isEmpty()) {
-			retriever.applicationListeners.clear();
-			retriever.applicationListeners.addAll(allListeners);
+		if (cacheKey != null && filteredListeners != null && filteredListenerBeans != null) {
+			if (filteredListenerBeans.isEmpty()) {
+				filteredListeners = new LinkedHashSet<>(allListeners);
+			}
+			ListenerRetriever retriever = new ListenerRetriever(filteredListeners, filteredListenerBeans, true);
+			if (this.retrieverCache.putIfAbsent(cacheKey, retriever) == null &&
+					this.defaultRetriever != registered) {
+				// Registration changed concurrently: the retriever may be stale
+				// and possibly missed by the eviction of affected entries.
+				this.retrieverCache.remove(cacheKey, retriever);
+			}
 		}
 		return allListeners;
 	}
@@ -413,17 +441,23 @@ public abstract class AbstractApplicationEventMulticaster
 	/**
 	 * Helper class that encapsulates a specific set of target listeners,
 	 * allowing for efficient retrieval of pre-filtered listeners.
-	 * <p>An instance of this helper gets cached per event type and source type.
+	 * <p>Instances are immutable: one holds all registered listeners and gets
+	 * replaced on every registration change, further instances get cached per
+	 * event type and source type.
 	 */
 	private class ListenerRetriever {
 
-		public final Set<ApplicationListener<?>> applicationListeners = new LinkedHashSet<>();
+		public final Set<ApplicationListener<?>> applicationListeners;
 
-		public final Set<String> applicationListenerBeans = new LinkedHashSet<>();
+		public final Set<String> applicationListenerBeans;
 
 		private final boolean preFiltered;
 
-		public ListenerRetriever(boolean preFiltered) {
+		public ListenerRetriever(Set<ApplicationListener<?>> applicationListeners,
+				Set<String> applicationListenerBeans, boolean preFiltered) {
+
+			this.applicationListeners = applicationListeners;
+			this.applicationListenerBeans = applicationListenerBeans;
 			this.preFiltered = preFiltered;
 		}
 
@@ -0,0 +1,564 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.ResolvableType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * {@link SimpleApplicationEventMulticaster} variant which delivers events
+ * asynchronously through a bounded queue per listener, rather than submitting
+ * one task per listener and event to the {@linkplain #setTaskExecutor task executor}.
+ *
+ * <p>Each listener receives its events in the order in which they have been
+ * queued for it, since at most one delivery task per listener is active at
+ * any time. A delivery task hands up to {@link #setBatchSize batch size} events
+ * to its listener before yielding the executor thread, resubmitting itself if
+ * further events are pending. When a listener queue is full, the configured
+ * {@link OverflowPolicy} applies. An event that a listener publishes while its
+ * own queue is full, from within the delivery of another event, is kept beyond
+ * the queue capacity and delivered after the events queued before it, unless
+ * the policy is {@code DROP}, since room would never become available while waiting.
+ *
+ * <p>Queues are kept for registered listener instances and for singleton listener
+ * beans, for as long as they are registered. Listeners obtained from non-singleton
+ * beans are handed to the task executor one event at a time instead, without any
+ * ordering guarantees, just like with {@code SimpleApplicationEventMulticaster}.
+ * Removing a listener discards the events still queued for it. Without a task
+ * executor, all listeners are invoked in the calling thread.
+ *
+ * <p>Listener exceptions are passed to the {@linkplain #setErrorHandler
+ * error handler}, if any, and logged otherwise; they never stop the delivery
+ * of subsequent events.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see #getQueueStatistics()
+ */
+public class BatchingApplicationEventMulticaster extends SimpleApplicationEventMulticaster {
+
+	private static final Log logger = LogFactory.getLog(BatchingApplicationEventMulticaster.class);
+
+	private final Map<ApplicationListener<?>, ListenerQueue> queues = new ConcurrentHashMap<>(64);
+
+	private final Set<ApplicationListener<?>> listenerInstances = ConcurrentHashMap.newKeySet();
+
+	private final Set<String> listenerBeanNames = ConcurrentHashMap.newKeySet();
+
+	private final Map<ApplicationListener<?>, Boolean> queueableCache =
+			new ConcurrentReferenceHashMap<>(64, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+	@Nullable
+	private ConfigurableBeanFactory beanFactory;
+
+	private int queueCapacity = 1024;
+
+	private int batchSize = 64;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+
+	/**
+	 * Create a new BatchingApplicationEventMulticaster.
+	 */
+	public BatchingApplicationEventMulticaster() {
+	}
+
+	/**
+	 * Create a new BatchingApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public BatchingApplicationEventMulticaster(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+
+	/**
+	 * Set the maximum number of pending events per listener.
+	 * <p>Default is 1024. Only applies to listener queues created afterwards.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the maximum number of events handed to a listener within a single
+	 * executor task.
+	 * <p>Default is 64.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the policy to apply when the queue of a listener is full.
+	 * <p>Default is {@link OverflowPolicy#BLOCK}.
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+
+	@Override
+	public void setBeanFactory(BeanFactory beanFactory) {
+		super.setBeanFactory(beanFactory);
+		this.beanFactory = (ConfigurableBeanFactory) beanFactory;
+	}
+
+	@Override
+	public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+		Executor executor = getTaskExecutor();
+		if (executor == null) {
+			super.multicastEvent(event, eventType);
+			return;
+		}
+		ResolvableType type = (eventType != null ? eventType : ResolvableType.forInstance(event));
+		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+			if (this.queueableCache.computeIfAbsent(listener, this::isQueueable)) {
+				ListenerQueue queue = this.queues.computeIfAbsent(listener, ListenerQueue::new);
+				queue.enqueue(event, executor);
+			}
+			else {
+				executor.execute(() -> deliver(listener, event));
+			}
+		}
+	}
+
+	@Override
+	public void addApplicationListener(ApplicationListener<?> listener) {
+		super.addApplicationListener(listener);
+		this.listenerInstances.add(listener);
+		this.queueableCache.clear();
+	}
+
+	@Override
+	public void addApplicationListenerBean(String listenerBeanName) {
+		super.addApplicationListenerBean(listenerBeanName);
+		this.listenerBeanNames.add(listenerBeanName);
+		this.queueableCache.clear();
+	}
+
+	@Override
+	public void removeApplicationListener(ApplicationListener<?> listener) {
+		super.removeApplicationListener(listener);
+		this.listenerInstances.remove(listener);
+		this.queueableCache.clear();
+		this.queues.remove(listener);
+	}
+
+	@Override
+	public void removeApplicationListenerBean(String listenerBeanName) {
+		super.removeApplicationListenerBean(listenerBeanName);
+		this.listenerBeanNames.remove(listenerBeanName);
+		this.queueableCache.clear();
+		ConfigurableBeanFactory beanFactory = this.beanFactory;
+		if (beanFactory != null && beanFactory.containsSingleton(listenerBeanName)) {
+			Object listener = beanFactory.getSingleton(listenerBeanName);
+			if (listener != null && !this.listenerInstances.contains(listener)) {
+				this.queues.remove(listener);
+			}
+		}
+	}
+
+	@Override
+	public void removeAllListeners() {
+		super.removeAllListeners();
+		this.listenerInstances.clear();
+		this.listenerBeanNames.clear();
+		this.queueableCache.clear();
+		this.queues.clear();
+	}
+
+	/**
+	 * Return the total number of events currently waiting for delivery.
+	 */
+	public int getQueueDepth() {
+		int depth = 0;
+		for (ListenerQueue queue : this.queues.values()) {
+			depth += queue.size();
+		}
+		return depth;
+	}
+
+	/**
+	 * Return a snapshot of the delivery statistics of each listener queue.
+	 */
+	public List<QueueStatistics> getQueueStatistics() {
+		List<QueueStatistics> statistics = new ArrayList<>(this.queues.size());
+		for (ListenerQueue queue : this.queues.values()) {
+			statistics.add(new QueueStatistics(queue));
+		}
+		return statistics;
+	}
+
+	/**
+	 * Determine whether the given listener gets a queue: registered listener
+	 * instances and singleton listener beans do, other listener beans would
+	 * leave a queue behind for every one of their instances.
+	 * <p>Only called once per listener instance until listeners change.
+	 */
+	private boolean isQueueable(ApplicationListener<?> listener) {
+		if (this.listenerInstances.contains(listener)) {
+			return true;
+		}
+		ConfigurableBeanFactory beanFactory = this.beanFactory;
+		if (beanFactory != null) {
+			for (String listenerBeanName : this.listenerBeanNames) {
+				if (beanFactory.containsSingleton(listenerBeanName) &&
+						beanFactory.getSingleton(listenerBeanName) == listener) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void deliver(ApplicationListener<?> listener, ApplicationEvent event) {
+		try {
+			invokeListener(listener, event);
+		}
+		catch (Throwable ex) {
+			logger.error("Unexpected exception from listener " + listener + " for " + event, ex);
+		}
+	}
+
+
+	/**
+	 * Policy for events published while the queue of a listener is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publishing thread until the listener queue has room.
+		 */
+		BLOCK,
+
+		/**
+		 * Drop the event for the affected listener.
+		 */
+		DROP,
+
+		/**
+		 * Deliver up to {@linkplain #setBatchSize batch size} pending events in the
+		 * publishing thread, taking over from a delivery task that has not started
+		 * yet, followed by the new event if no further events are pending. If
+		 * another thread is delivering to the listener already, or if the queue
+		 * is still full afterwards, the publishing thread blocks as with {@link #BLOCK}.
+		 */
+		CALLER_RUNS
+	}
+
+
+	/**
+	 * Snapshot of the delivery statistics for a single listener.
+	 */
+	public static final class QueueStatistics {
+
+		private final ApplicationListener<?> listener;
+
+		private final int queueDepth;
+
+		private final long deliveredCount;
+
+		private final long droppedCount;
+
+		private final long callerRunsCount;
+
+		private final Duration totalLatency;
+
+		private final Duration maxLatency;
+
+		private QueueStatistics(ListenerQueue queue) {
+			this.listener = queue.listener;
+			this.queueDepth = queue.size();
+			this.deliveredCount = queue.deliveredCount.sum();
+			this.droppedCount = queue.droppedCount.sum();
+			this.callerRunsCount = queue.callerRunsCount.sum();
+			this.totalLatency = Duration.ofNanos(queue.totalLatency.sum());
+			this.maxLatency = Duration.ofNanos(queue.maxLatency.get());
+		}
+
+		/**
+		 * Return the listener that these statistics apply to.
+		 */
+		public ApplicationListener<?> getListener() {
+			return this.listener;
+		}
+
+		/**
+		 * Return the number of events waiting for delivery.
+		 */
+		public int getQueueDepth() {
+			return this.queueDepth;
+		}
+
+		/**
+		 * Return the number of events delivered so far.
+		 */
+		public long getDeliveredCount() {
+			return this.deliveredCount;
+		}
+
+		/**
+		 * Return the number of events dropped because of a full queue.
+		 */
+		public long getDroppedCount() {
+			return this.droppedCount;
+		}
+
+		/**
+		 * Return the number of times the publishing thread had to deliver
+		 * events itself because of a full queue.
+		 */
+		public long getCallerRunsCount() {
+			return this.callerRunsCount;
+		}
+
+		/**
+		 * Return the average time between queueing an event and handing it
+		 * to the listener.
+		 */
+		public Duration getAverageLatency() {
+			return (this.deliveredCount > 0 ? this.totalLatency.dividedBy(this.deliveredCount) : Duration.ZERO);
+		}
+
+		/**
+		 * Return the longest time between queueing an event and handing it
+		 * to the listener.
+		 */
+		public Duration getMaxLatency() {
+			return this.maxLatency;
+		}
+
+		@Override
+		public String toString() {
+			return "QueueStatistics [listener = " + this.listener + ", queueDepth = " + this.queueDepth +
+					", delivered = " + this.deliveredCount + ", dropped = " + this.droppedCount +
+					", callerRuns = " + this.callerRunsCount + ", averageLatency = " + getAverageLatency() +
+					", maxLatency = " + this.maxLatency + "]";
+		}
+	}
+
+
+	/**
+	 * Bounded queue of pending events for a single listener, delivered by at
+	 * most one thread at any time. Events that the listener publishes to itself
+	 * while the queue is full are kept in a separate overflow queue instead.
+	 */
+	private class ListenerQueue implements Runnable {
+
+		private static final int IDLE = 0;
+
+		private static final int SCHEDULED = 1;
+
+		private static final int DELIVERING = 2;
+
+		final ApplicationListener<?> listener;
+
+		final BlockingQueue<QueuedEvent> events;
+
+		final Queue<QueuedEvent> overflowEvents = new ConcurrentLinkedQueue<>();
+
+		private final AtomicInteger state = new AtomicInteger(IDLE);
+
+		// Number of queued events to deliver before the overflow events, only accessed while delivering
+		private int eventsBeforeOverflow;
+
+		@Nullable
+		private volatile Thread deliveringThread;
+
+		final LongAdder deliveredCount = new LongAdder();
+
+		final LongAdder droppedCount = new LongAdder();
+
+		final LongAdder callerRunsCount = new LongAdder();
+
+		final LongAdder totalLatency = new LongAdder();
+
+		final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+		@Nullable
+		private volatile Executor executor;
+
+		ListenerQueue(ApplicationListener<?> listener) {
+			this.listener = listener;
+			this.events = new ArrayBlockingQueue<>(queueCapacity);
+		}
+
+		int size() {
+			return this.events.size() + this.overflowEvents.size();
+		}
+
+		void enqueue(ApplicationEvent event, Executor executor) {
+			this.executor = executor;
+			QueuedEvent queuedEvent = new QueuedEvent(event);
+			if (this.deliveringThread == Thread.currentThread() && !this.overflowEvents.isEmpty()) {
+				// Keep the order of the events that the listener publishes to itself
+				this.overflowEvents.add(queuedEvent);
+			}
+			else if (!this.events.offer(queuedEvent)) {
+				handleOverflow(queuedEvent);
+			}
+			scheduleIfNecessary();
+		}
+
+		private void handleOverflow(QueuedEvent queuedEvent) {
+			OverflowPolicy policy = overflowPolicy;
+			if (policy == OverflowPolicy.DROP) {
+				this.droppedCount.increment();
+				if (logger.isDebugEnabled()) {
+					logger.debug("Dropping " + queuedEvent.event + " for listener " + this.listener +
+							": queue capacity of " + queueCapacity + " reached");
+				}
+				return;
+			}
+			if (this.deliveringThread == Thread.currentThread()) {
+				// Published from within a delivery to this listener: waiting for room would deadlock
+				this.eventsBeforeOverflow = this.events.size();
+				this.overflowEvents.add(queuedEvent);
+				return;
+			}
+			if (policy == OverflowPolicy.CALLER_RUNS && (this.state.compareAndSet(SCHEDULED, DELIVERING) ||
+					this.state.compareAndSet(IDLE, DELIVERING))) {
+				this.callerRunsCount.increment();
+				boolean delivered = false;
+				this.deliveringThread = Thread.currentThread();
+				try {
+					deliverPending(batchSize);
+					if (size() == 0) {
+						deliver(queuedEvent);
+						delivered = true;
+					}
+				}
+				finally {
+					this.deliveringThread = null;
+					this.state.set(IDLE);
+				}
+				if (delivered || this.events.offer(queuedEvent)) {
+					return;
+				}
+			}
+			// Make sure that the queue keeps draining while we wait for room
+			scheduleIfNecessary();
+			try {
+				this.events.put(queuedEvent);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				this.droppedCount.increment();
+			}
+		}
+
+		private void scheduleIfNecessary() {
+			if (size() > 0 && this.state.compareAndSet(IDLE, SCHEDULED)) {
+				Executor executor = this.executor;
+				Assert.state(executor != null, "No executor set");
+				try {
+					executor.execute(this);
+				}
+				catch (RuntimeException ex) {
+					this.state.compareAndSet(SCHEDULED, IDLE);
+					throw ex;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			if (!this.state.compareAndSet(SCHEDULED, DELIVERING)) {
+				// Taken over by a publishing thread in the meantime
+				return;
+			}
+			this.deliveringThread = Thread.currentThread();
+			try {
+				deliverPending(batchSize);
+			}
+			finally {
+				this.deliveringThread = null;
+				this.state.set(IDLE);
+			}
+			scheduleIfNecessary();
+		}
+
+		private void deliverPending(int maxEvents) {
+			for (int i = 0; i < maxEvents; i++) {
+				QueuedEvent queuedEvent = pollNext();
+				if (queuedEvent == null) {
+					return;
+				}
+				deliver(queuedEvent);
+			}
+		}
+
+		@Nullable
+		private QueuedEvent pollNext() {
+			if (this.eventsBeforeOverflow > 0) {
+				this.eventsBeforeOverflow--;
+				return this.events.poll();
+			}
+			QueuedEvent queuedEvent = this.overflowEvents.poll();
+			return (queuedEvent != null ? queuedEvent : this.events.poll());
+		}
+
+		private void deliver(QueuedEvent queuedEvent) {
+			long latency = System.nanoTime() - queuedEvent.queuedAt;
+			this.totalLatency.add(latency);
+			this.maxLatency.accumulate(latency);
+			BatchingApplicationEventMulticaster.this.deliver(this.listener, queuedEvent.event);
+			this.deliveredCount.increment();
+		}
+	}
+
+
+	private static final class QueuedEvent {
+
+		final ApplicationEvent event;
+
+		final long queuedAt = System.nanoTime();
+
+		QueuedEvent(ApplicationEvent event) {
+			this.event = event;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,12 +27,22 @@ import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.context.expression.MethodBasedEvaluationContext;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 
 /**
  * Utility class for handling SpEL expression parsing for application events.
  * <p>Meant to be used as a reusable, thread-safe component.
  *
+ * <p>As of 5.2.10, conditions are compiled on their second evaluation
+ * ({@link SpelCompilerMode#IMMEDIATE}). A condition whose compiled form fails
+ * at runtime, e.g. because it was compiled against a different event type,
+ * permanently falls back to interpreted evaluation.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see CachedExpressionEvaluator
@@ -41,6 +51,14 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 
 	private final Map<ExpressionKey, Expression> conditionCache = new ConcurrentHashMap<>(64);
 
+	private final SpelExpressionParser interpretingParser = new SpelExpressionParser(
+			new SpelParserConfiguration(SpelCompilerMode.OFF, null));
+
+
+	EventExpressionEvaluator() {
+		super(new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, null)));
+	}
+
 
 	/**
 	 * Determine if the condition defined by the specified expression evaluates
@@ -56,8 +74,18 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
 		}
 
-		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
-				evaluationContext, Boolean.class)));
+		Expression expression = getExpression(this.conditionCache, methodKey, conditionExpression);
+		try {
+			return Boolean.TRUE.equals(expression.getValue(evaluationContext, Boolean.class));
+		}
+		catch (SpelEvaluationException ex) {
+			if (ex.getMessageCode() != SpelMessage.EXCEPTION_RUNNING_COMPILED_EXPRESSION) {
+				throw ex;
+			}
+			Expression interpreted = this.interpretingParser.parseExpression(conditionExpression);
+			this.conditionCache.replaceAll((key, value) -> (value == expression ? interpreted : value));
+			return Boolean.TRUE.equals(interpreted.getValue(evaluationContext, Boolean.class));
+		}
 	}
 
 }
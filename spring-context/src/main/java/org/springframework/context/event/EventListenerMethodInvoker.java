@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Generated invoker for an event listener method, used by
+ * {@link ApplicationListenerMethodAdapter} in place of reflective
+ * {@link Method#invoke} for frequently published events.
+ *
+ * <p>The invoker only gets generated after {@link #GENERATION_THRESHOLD}
+ * invocations. Public methods with no or a single non-primitive parameter
+ * on public classes are bound through {@link LambdaMetafactory}; everything
+ * else goes through a spreading {@link MethodHandle}.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+final class EventListenerMethodInvoker {
+
+	/**
+	 * Number of invocations after which the invoker gets generated.
+	 */
+	static final int GENERATION_THRESHOLD = 16;
+
+	private static final Log logger = LogFactory.getLog(EventListenerMethodInvoker.class);
+
+
+	private final Method method;
+
+	private final Class<?>[] parameterTypes;
+
+	private final AtomicInteger invocationCount = new AtomicInteger();
+
+	@Nullable
+	private volatile Invoker invoker;
+
+
+	/**
+	 * Create a new (not yet generated) invoker for the given listener method.
+	 * @param method the event listener method to invoke
+	 */
+	EventListenerMethodInvoker(Method method) {
+		this.method = method;
+		this.parameterTypes = method.getParameterTypes();
+	}
+
+
+	/**
+	 * Determine whether {@link #invoke} can be used for the given target and
+	 * arguments, generating the invoker once the generation threshold has been
+	 * reached.
+	 * <p>Returns {@code false} for a target or arguments that do not match the
+	 * method signature as-is, leaving their error reporting to regular
+	 * reflective invocation.
+	 * @param target the bean to invoke the listener method on
+	 * @param args the arguments to apply
+	 */
+	boolean isApplicable(Object target, Object[] args) {
+		if (!isAssignable(target, args)) {
+			return false;
+		}
+		if (this.invoker != null) {
+			return true;
+		}
+		if (this.invocationCount.get() < GENERATION_THRESHOLD &&
+				this.invocationCount.incrementAndGet() == GENERATION_THRESHOLD) {
+			this.invoker = generate(this.method);
+			return (this.invoker != null);
+		}
+		return false;
+	}
+
+	/**
+	 * Invoke the generated invoker. Only to be called after
+	 * {@link #isApplicable} returned {@code true} for the same target and
+	 * arguments.
+	 * @param target the bean to invoke the listener method on
+	 * @param args the arguments to apply
+	 * @return the listener method result, or {@code null} for a void method
+	 * @throws Throwable as thrown by the listener method
+	 */
+	@Nullable
+	Object invoke(Object target, Object[] args) throws Throwable {
+		Invoker invoker = this.invoker;
+		if (invoker == null) {
+			throw new IllegalStateException("No invoker generated for " + this.method);
+		}
+		return invoker.invoke(target, args);
+	}
+
+	private boolean isAssignable(Object target, Object[] args) {
+		if (args.length != this.parameterTypes.length) {
+			return false;
+		}
+		if (!Modifier.isStatic(this.method.getModifiers()) && !this.method.getDeclaringClass().isInstance(target)) {
+			return false;
+		}
+		for (int i = 0; i < args.length; i++) {
+			Class<?> parameterType = this.parameterTypes[i];
+			if (args[i] != null ? !ClassUtils.isAssignableValue(parameterType, args[i]) : parameterType.isPrimitive()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static boolean isLambdaCandidate(Method method) {
+		if (method.getParameterCount() > 1 || Modifier.isStatic(method.getModifiers()) ||
+				!Modifier.isPublic(method.getModifiers()) ||
+				!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+			return false;
+		}
+		// The generated class must be able to see the target class without pinning its ClassLoader
+		ClassLoader classLoader = EventListenerMethodInvoker.class.getClassLoader();
+		if (!ClassUtils.isCacheSafe(method.getDeclaringClass(), classLoader)) {
+			return false;
+		}
+		Class<?> returnType = method.getReturnType();
+		if (returnType != void.class && (returnType.isPrimitive() || !ClassUtils.isCacheSafe(returnType, classLoader))) {
+			return false;
+		}
+		for (Class<?> parameterType : method.getParameterTypes()) {
+			if (parameterType.isPrimitive() || !ClassUtils.isCacheSafe(parameterType, classLoader)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Nullable
+	private static Invoker generate(Method method) {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			if (isLambdaCandidate(method)) {
+				return generateLambda(lookup, method);
+			}
+			ReflectionUtils.makeAccessible(method);
+			MethodHandle handle = lookup.unreflect(method).asFixedArity();
+			if (Modifier.isStatic(method.getModifiers())) {
+				MethodHandle spread = handle.asSpreader(Object[].class, method.getParameterCount())
+						.asType(MethodType.methodType(Object.class, Object[].class));
+				return (target, args) -> spread.invokeExact(args);
+			}
+			MethodHandle spread = handle.asSpreader(Object[].class, method.getParameterCount())
+					.asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+			return (target, args) -> spread.invokeExact(target, args);
+		}
+		catch (Throwable ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to generate invoker for " + method + " - using reflection", ex);
+			}
+			return null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Invoker generateLambda(MethodHandles.Lookup lookup, Method method) throws Throwable {
+		MethodHandle handle = lookup.unreflect(method);
+		Class<?> declaringClass = method.getDeclaringClass();
+		Class<?> returnType = method.getReturnType();
+		boolean returnsVoid = (returnType == void.class);
+		if (method.getParameterCount() == 0) {
+			if (returnsVoid) {
+				Consumer<Object> consumer = (Consumer<Object>) LambdaMetafactory.metafactory(lookup, "accept",
+						MethodType.methodType(Consumer.class), MethodType.methodType(void.class, Object.class),
+						handle, MethodType.methodType(void.class, declaringClass)).getTarget().invoke();
+				return (target, args) -> {
+					consumer.accept(target);
+					return null;
+				};
+			}
+			Function<Object, Object> function = (Function<Object, Object>) LambdaMetafactory.metafactory(lookup, "apply",
+					MethodType.methodType(Function.class), MethodType.methodType(Object.class, Object.class),
+					handle, MethodType.methodType(returnType, declaringClass)).getTarget().invoke();
+			return (target, args) -> function.apply(target);
+		}
+		Class<?> parameterType = method.getParameterTypes()[0];
+		if (returnsVoid) {
+			BiConsumer<Object, Object> consumer = (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(lookup,
+					"accept", MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class),
+					handle, MethodType.methodType(void.class, declaringClass, parameterType)).getTarget().invoke();
+			return (target, args) -> {
+				consumer.accept(target, args[0]);
+				return null;
+			};
+		}
+		BiFunction<Object, Object, Object> function = (BiFunction<Object, Object, Object>) LambdaMetafactory.metafactory(
+				lookup, "apply", MethodType.methodType(BiFunction.class),
+				MethodType.methodType(Object.class, Object.class, Object.class),
+				handle, MethodType.methodType(returnType, declaringClass, parameterType)).getTarget().invoke();
+		return (target, args) -> function.apply(target, args[0]);
+	}
+
+
+	@FunctionalInterface
+	private interface Invoker {
+
+		@Nullable
+		Object invoke(Object target, Object[] args) throws Throwable;
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link FlightRecorderCacheLookupEvent}.
+ *
+ * @author agent
+ */
+class FlightRecorderCacheLookupEventTests {
+
+	@Test
+	void hitsAndMissesAreRecorded(@TempDir Path tempDir) throws Exception {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(Config.class);
+		SimpleService service = context.getBean(SimpleService.class);
+
+		Path file = tempDir.resolve("cache.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(FlightRecorderCacheLookupEvent.class);
+			recording.start();
+			service.get("1");
+			service.get("1");
+			recording.stop();
+			recording.dump(file);
+		}
+		context.close();
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		assertThat(events).hasSize(2);
+		assertThat(events).extracting(event -> event.getBoolean("hit")).containsExactly(false, true);
+		assertThat(events).extracting(event -> event.getString("cache")).containsExactly(null, "test");
+		assertThat(events).allSatisfy(event -> {
+			assertThat(event.getString("key")).isEqualTo("1");
+			assertThat(event.getString("cacheNames")).isEqualTo("[test]");
+			assertThat(event.getString("method")).isEqualTo(SimpleService.class.getName() + ".get");
+		});
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		SimpleService simpleService() {
+			return new SimpleService();
+		}
+	}
+
+
+	static class SimpleService {
+
+		private final AtomicLong counter = new AtomicLong();
+
+		@Cacheable("test")
+		public Long get(String key) {
+			return this.counter.getAndIncrement();
+		}
+	}
+
+}
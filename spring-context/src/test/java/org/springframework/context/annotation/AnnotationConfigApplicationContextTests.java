@@ -16,6 +16,7 @@
 
 package org.springframework.context.annotation;
 
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -31,6 +32,8 @@ import org.springframework.context.annotation6.ComponentForScanning;
 import org.springframework.context.annotation6.ConfigForScanning;
 import org.springframework.context.annotation6.Jsr330NamedForScanning;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.metrics.BufferingApplicationStartup;
+import org.springframework.core.metrics.BufferingApplicationStartup.TimelineEntry;
 import org.springframework.util.ObjectUtils;
 
 import static java.lang.String.format;
@@ -390,6 +393,30 @@ class AnnotationConfigApplicationContextTests {
 		assertThat(context.getBeanNamesForType(TypedFactoryBean.class)).hasSize(1);
 	}
 
+	@Test
+	void refreshRecordsStartupSteps() {
+		BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(1000);
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.setApplicationStartup(applicationStartup);
+		context.register(Config.class);
+		context.refresh();
+
+		assertThat(context.getBean(BufferingApplicationStartup.class)).isSameAs(applicationStartup);
+		List<TimelineEntry> timeline = applicationStartup.getTimeline();
+		assertThat(timeline).extracting(TimelineEntry::getName).contains(
+				"spring.context.component-classes.register", "spring.context.refresh",
+				"spring.context.beans.post-process", "spring.context.config-classes.parse",
+				"spring.context.config-classes.enhance", "spring.beans.instantiate");
+		TimelineEntry refresh = timeline.stream()
+				.filter(entry -> entry.getName().equals("spring.context.refresh")).findFirst().get();
+		assertThat(timeline).anySatisfy(entry -> {
+			assertThat(entry.getName()).isEqualTo("spring.beans.instantiate");
+			assertThat(entry.getTags()).containsEntry("beanName", "testBean");
+			assertThat(entry.getParentId()).isEqualTo(refresh.getId());
+		});
+		context.close();
+	}
+
 
 	@Configuration
 	static class Config {
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.support.BeanDefinitionSnapshot;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.beans.testfixture.beans.TestBean;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.core.type.AnnotationMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link BeanDefinitionSnapshotUtils}.
+ *
+ * @author agent
+ */
+class BeanDefinitionSnapshotUtilsTests {
+
+	@TempDir
+	File tempDir;
+
+
+	@Test
+	void snapshotRestoresConfigurationClassModel() throws IOException {
+		FileSystemResource resource = new FileSystemResource(new File(this.tempDir, "beans.snapshot"));
+		AnnotationConfigApplicationContext original = new AnnotationConfigApplicationContext();
+		original.register(SnapshotConfig.class);
+		BeanDefinitionSnapshotUtils.captureSnapshot(original, resource);
+		original.refresh();
+		original.close();
+		assertThat(resource.exists()).isTrue();
+
+		AnnotationConfigApplicationContext restored = new AnnotationConfigApplicationContext();
+		assertThat(BeanDefinitionSnapshotUtils.loadSnapshot(restored, resource)).isTrue();
+		restored.refresh();
+		SnapshotConfig config = restored.getBean(SnapshotConfig.class);
+		assertThat(config.getClass()).isNotEqualTo(SnapshotConfig.class);
+		assertThat(config.testBean()).isSameAs(restored.getBean("testBean"));
+		assertThat(restored.getBean("testBean", TestBean.class).getSpouse()).isSameAs(restored.getBean("spouse"));
+		AnnotationMetadata importMetadata = restored.getBean(ImportedConfig.class).importMetadata;
+		assertThat(importMetadata).isNotNull();
+		assertThat(importMetadata.getClassName()).isEqualTo(SnapshotConfig.class.getName());
+		restored.close();
+	}
+
+	@Test
+	void missingSnapshotIsIgnored() throws IOException {
+		FileSystemResource resource = new FileSystemResource(new File(this.tempDir, "missing.snapshot"));
+		assertThat(BeanDefinitionSnapshotUtils.loadSnapshot(new AnnotationConfigApplicationContext(), resource)).isFalse();
+	}
+
+	@Test
+	void outdatedSnapshotIsIgnored() throws IOException {
+		File file = new File(this.tempDir, "outdated.snapshot");
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("testBean", new RootBeanDefinition(TestBean.class));
+		try (OutputStream out = new FileOutputStream(file)) {
+			BeanDefinitionSnapshot.capture(beanFactory, "outdated").writeTo(out);
+		}
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		assertThat(BeanDefinitionSnapshotUtils.loadSnapshot(context, new FileSystemResource(file))).isFalse();
+		assertThat(context.containsBeanDefinition("testBean")).isFalse();
+	}
+
+	@Test
+	void snapshotWithDifferentActiveProfilesIsIgnored() throws IOException {
+		FileSystemResource resource = new FileSystemResource(new File(this.tempDir, "profiles.snapshot"));
+		AnnotationConfigApplicationContext original = new AnnotationConfigApplicationContext();
+		original.register(SnapshotConfig.class);
+		BeanDefinitionSnapshotUtils.captureSnapshot(original, resource);
+		original.refresh();
+		original.close();
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().setActiveProfiles("other");
+		assertThat(BeanDefinitionSnapshotUtils.loadSnapshot(context, resource)).isFalse();
+		assertThat(context.containsBeanDefinition("testBean")).isFalse();
+	}
+
+	@Test
+	void snapshotWithDifferentConditionPropertyIsIgnored() throws IOException {
+		FileSystemResource resource = new FileSystemResource(new File(this.tempDir, "condition.snapshot"));
+		AnnotationConfigApplicationContext original = createConditionalContext("on");
+		BeanDefinitionSnapshotUtils.captureSnapshot(original, resource);
+		original.refresh();
+		assertThat(original.containsBean("conditionalBean")).isTrue();
+		assertThat(original.getEnvironment().getPropertySources().size()).isEqualTo(3);
+		original.close();
+
+		assertThat(BeanDefinitionSnapshotUtils.loadSnapshot(createConditionalContext("on"), resource)).isTrue();
+		assertThat(BeanDefinitionSnapshotUtils.loadSnapshot(createConditionalContext("off"), resource)).isFalse();
+	}
+
+	private static AnnotationConfigApplicationContext createConditionalContext(String feature) {
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources().addLast(
+				new MapPropertySource("test", Collections.singletonMap("snapshot.feature", feature)));
+		context.register(ConditionalConfig.class);
+		return context;
+	}
+
+
+	@Configuration
+	@Import(ImportedConfig.class)
+	static class SnapshotConfig {
+
+		@Bean
+		public TestBean testBean() {
+			TestBean testBean = new TestBean("test");
+			testBean.setSpouse(spouse());
+			return testBean;
+		}
+
+		@Bean
+		public TestBean spouse() {
+			return new TestBean("spouse");
+		}
+	}
+
+
+	@Configuration
+	static class ConditionalConfig {
+
+		@Bean
+		@Conditional(FeatureCondition.class)
+		public TestBean conditionalBean() {
+			return new TestBean("conditional");
+		}
+	}
+
+
+	static class FeatureCondition implements Condition {
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return "on".equals(context.getEnvironment().getProperty("snapshot.feature"));
+		}
+	}
+
+
+	@Configuration
+	static class ImportedConfig implements ImportAware {
+
+		AnnotationMetadata importMetadata;
+
+		@Override
+		public void setImportMetadata(AnnotationMetadata importMetadata) {
+			this.importMetadata = importMetadata;
+		}
+	}
+
+}
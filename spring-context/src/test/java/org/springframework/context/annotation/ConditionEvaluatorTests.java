@@ -0,0 +1,202 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.annotation.ConditionEvaluationStatistics.ConditionStatistics;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ConditionEvaluator}.
+ *
+ * @author agent
+ */
+class ConditionEvaluatorTests {
+
+	@BeforeEach
+	void resetCounters() {
+		CountingCondition.instances.set(0);
+		StableFeatureCondition.evaluations.set(0);
+	}
+
+	@Test
+	void conditionInstancesAreReused() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(CountingConfig.class);
+		assertThat(ctx.containsBean("one")).isTrue();
+		assertThat(ctx.containsBean("two")).isTrue();
+		assertThat(ctx.containsBean("three")).isTrue();
+		assertThat(CountingCondition.instances.get()).isEqualTo(1);
+		ctx.close();
+	}
+
+	@Test
+	void stableConditionOutcomesAreCached() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ConditionEvaluationStatistics statistics = ConditionEvaluationStatistics.enable(ctx.getBeanFactory());
+		ctx.register(StableConfig.class);
+		ctx.refresh();
+		assertThat(ctx.containsBean("enabled1")).isTrue();
+		assertThat(ctx.containsBean("enabled2")).isTrue();
+		assertThat(ctx.containsBean("disabled1")).isFalse();
+		assertThat(ctx.containsBean("disabled2")).isFalse();
+		assertThat(StableFeatureCondition.evaluations.get()).isEqualTo(2);
+
+		ConditionStatistics conditionStatistics = statistics.getStatistics(StableFeatureCondition.class);
+		assertThat(conditionStatistics).isNotNull();
+		assertThat(conditionStatistics.getEvaluationCount()).isEqualTo(2);
+		assertThat(conditionStatistics.getCacheHitCount()).isEqualTo(2);
+		ctx.close();
+	}
+
+	@Test
+	void statisticsAreRecordedPerConditionClass() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ConditionEvaluationStatistics statistics = ConditionEvaluationStatistics.enable(ctx.getBeanFactory());
+		ctx.register(CountingConfig.class);
+		ctx.refresh();
+		assertThat(ctx.getBean(ConditionEvaluationStatistics.BEAN_NAME)).isSameAs(statistics);
+		Map<String, ConditionStatistics> all = statistics.getStatistics();
+		assertThat(all).containsOnlyKeys(CountingCondition.class.getName());
+		ConditionStatistics conditionStatistics = all.get(CountingCondition.class.getName());
+		assertThat(conditionStatistics.getEvaluationCount()).isEqualTo(3);
+		assertThat(conditionStatistics.getCacheHitCount()).isEqualTo(0);
+		assertThat(conditionStatistics.getEvaluationNanos()).isGreaterThanOrEqualTo(0);
+		ctx.close();
+	}
+
+	@Test
+	void noStatisticsUnlessEnabled() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext(CountingConfig.class);
+		assertThat(ctx.containsBean("one")).isTrue();
+		assertThat(ctx.containsBean(ConditionEvaluationStatistics.BEAN_NAME)).isFalse();
+		ctx.close();
+	}
+
+	@Test
+	void enableReturnsSharedInstance() {
+		AnnotationConfigApplicationContext ctx = new AnnotationConfigApplicationContext();
+		ConditionEvaluationStatistics statistics = ConditionEvaluationStatistics.enable(ctx.getBeanFactory());
+		assertThat(ConditionEvaluationStatistics.enable(ctx.getBeanFactory())).isSameAs(statistics);
+		ctx.close();
+	}
+
+
+	@Configuration
+	static class CountingConfig {
+
+		@Bean
+		@Conditional(CountingCondition.class)
+		String one() {
+			return "one";
+		}
+
+		@Bean
+		@Conditional(CountingCondition.class)
+		String two() {
+			return "two";
+		}
+
+		@Bean
+		@Conditional(CountingCondition.class)
+		String three() {
+			return "three";
+		}
+	}
+
+
+	@Configuration
+	static class StableConfig {
+
+		@Bean
+		@ConditionalOnFeature("enabled")
+		String enabled1() {
+			return "enabled1";
+		}
+
+		@Bean
+		@ConditionalOnFeature("enabled")
+		String enabled2() {
+			return "enabled2";
+		}
+
+		@Bean
+		@ConditionalOnFeature("disabled")
+		String disabled1() {
+			return "disabled1";
+		}
+
+		@Bean
+		@ConditionalOnFeature("disabled")
+		String disabled2() {
+			return "disabled2";
+		}
+	}
+
+
+	@Target(ElementType.METHOD)
+	@Retention(RetentionPolicy.RUNTIME)
+	@Conditional(StableFeatureCondition.class)
+	@interface ConditionalOnFeature {
+
+		String value();
+	}
+
+
+	static class CountingCondition implements Condition {
+
+		static final AtomicInteger instances = new AtomicInteger();
+
+		CountingCondition() {
+			instances.incrementAndGet();
+		}
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			return true;
+		}
+	}
+
+
+	static class StableFeatureCondition implements StableCondition {
+
+		static final AtomicInteger evaluations = new AtomicInteger();
+
+		@Override
+		public Object getCacheKey(AnnotatedTypeMetadata metadata) {
+			return Arrays.asList(metadata.getAnnotationAttributes(ConditionalOnFeature.class.getName()).get("value"));
+		}
+
+		@Override
+		public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			evaluations.incrementAndGet();
+			return "enabled".equals(metadata.getAnnotationAttributes(ConditionalOnFeature.class.getName()).get("value"));
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.annotation;
+
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ConfigurationClassMetadataPrefetcher}.
+ *
+ * @author agent
+ */
+class ConfigurationClassMetadataPrefetcherTests {
+
+	@Test
+	void prefetchFollowsImportsMemberClassesAndSuperclasses() {
+		RecordingMetadataReaderFactory metadataReaderFactory = new RecordingMetadataReaderFactory();
+		new ConfigurationClassMetadataPrefetcher(metadataReaderFactory, getClass().getClassLoader())
+				.prefetch(Collections.singleton(RootConfig.class.getName()));
+
+		assertThat(metadataReaderFactory.classNames).contains(RootConfig.class.getName(),
+				ImportedConfig.class.getName(), MetaImportedConfig.class.getName(),
+				RootConfig.NestedConfig.class.getName(), BaseConfig.class.getName());
+		assertThat(metadataReaderFactory.classNames).noneMatch(className -> className.startsWith("java"));
+	}
+
+	@Test
+	void prefetchIgnoresMissingClasses() {
+		RecordingMetadataReaderFactory metadataReaderFactory = new RecordingMetadataReaderFactory();
+		new ConfigurationClassMetadataPrefetcher(metadataReaderFactory, getClass().getClassLoader())
+				.prefetch(Collections.singleton("com.example.DoesNotExist"));
+		assertThat(metadataReaderFactory.classNames).containsExactly("com.example.DoesNotExist");
+	}
+
+
+	private static class RecordingMetadataReaderFactory extends CachingMetadataReaderFactory {
+
+		final Set<String> classNames = ConcurrentHashMap.newKeySet();
+
+		@Override
+		public MetadataReader getMetadataReader(String className) throws IOException {
+			this.classNames.add(className);
+			return super.getMetadataReader(className);
+		}
+	}
+
+
+	@Configuration
+	static class BaseConfig {
+	}
+
+
+	@Configuration
+	static class ImportedConfig {
+	}
+
+
+	@Configuration
+	static class MetaImportedConfig {
+	}
+
+
+	@Import(MetaImportedConfig.class)
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface EnableMeta {
+	}
+
+
+	@Configuration
+	@Import(ImportedConfig.class)
+	@EnableMeta
+	static class RootConfig extends BaseConfig {
+
+		@Configuration
+		static class NestedConfig {
+		}
+	}
+
+}
@@ -303,6 +303,18 @@ public class ConfigurationClassPostProcessorTests {
 		assertSupportForComposedAnnotation(beanDefinition);
 	}
 
+	@Test
+	public void postProcessorWorksWithParallelParsing() {
+		beanFactory.registerBeanDefinition("config1", new RootBeanDefinition(ComposedConfigurationClass.class.getName()));
+		beanFactory.registerBeanDefinition("config2", new RootBeanDefinition(SingletonBeanConfig.class.getName()));
+		ConfigurationClassPostProcessor pp = new ConfigurationClassPostProcessor();
+		pp.setEnvironment(new StandardEnvironment());
+		pp.setParallelParsing(true);
+		pp.postProcessBeanFactory(beanFactory);
+		assertThat(beanFactory.getBean(SimpleComponent.class)).isNotNull();
+		assertThat(beanFactory.getBean("bar", Bar.class).foo).isSameAs(beanFactory.getBean("foo", Foo.class));
+	}
+
 	private void assertSupportForComposedAnnotation(RootBeanDefinition beanDefinition) {
 		beanFactory.registerBeanDefinition("config", beanDefinition);
 		ConfigurationClassPostProcessor pp = new ConfigurationClassPostProcessor();
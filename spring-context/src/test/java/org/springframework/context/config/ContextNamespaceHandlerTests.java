@@ -23,9 +23,12 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.FatalBeanException;
+import org.springframework.beans.factory.xml.StaxXmlBeanDefinitionReader;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
 import org.springframework.context.support.GenericXmlApplicationContext;
+import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.mock.env.MockEnvironment;
 
@@ -82,6 +85,19 @@ public class ContextNamespaceHandlerTests {
 		assertThat(applicationContext.getBean("fallback")).isEqualTo("none");
 	}
 
+	@Test
+	public void propertyPlaceholderEnvironmentPropertiesWithStaxReader() {
+		MockEnvironment env = new MockEnvironment().withProperty("foo", "spam");
+		GenericApplicationContext applicationContext = new GenericApplicationContext();
+		applicationContext.setEnvironment(env);
+		new StaxXmlBeanDefinitionReader(applicationContext).loadBeanDefinitions(
+				new ClassPathResource("contextNamespaceHandlerTests-simple.xml", getClass()));
+		applicationContext.refresh();
+		assertThat(applicationContext.getBeansOfType(PropertySourcesPlaceholderConfigurer.class)).hasSize(1);
+		assertThat(applicationContext.getBean("string")).isEqualTo("spam");
+		assertThat(applicationContext.getBean("fallback")).isEqualTo("none");
+	}
+
 	@Test
 	public void propertyPlaceholderLocation() {
 		ApplicationContext applicationContext = new ClassPathXmlApplicationContext(
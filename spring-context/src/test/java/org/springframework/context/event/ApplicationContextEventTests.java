@@ -245,6 +245,55 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertThat(listener1.seenEvents.size()).isEqualTo(2);
 	}
 
+	@Test
+	public void addingListenerOnlyEvictsAffectedCacheEntries() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener3 listener3 = new MyOrderedListener3();
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+
+		MyEvent event1 = new MyEvent(this);
+		MyOtherEvent event2 = new MyOtherEvent(this);
+		smc.multicastEvent(event1);
+		smc.multicastEvent(event2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+
+		smc.addApplicationListener(new MyOrderedListener2(listener1));
+		assertThat(smc.retrieverCache.size()).isEqualTo(1);
+		smc.multicastEvent(event1);
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+
+		smc.addApplicationListener(listener3);
+		assertThat(smc.retrieverCache).isEmpty();
+		smc.multicastEvent(event1);
+		smc.multicastEvent(event2);
+		assertThat(listener3.seenEvents).containsExactlyInAnyOrder(event1, event2);
+
+		smc.removeApplicationListener(listener3);
+		assertThat(smc.retrieverCache).isEmpty();
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertThat(listener3.seenEvents).hasSize(2);
+		assertThat(listener1.seenEvents).hasSize(6);
+	}
+
+	@Test
+	public void removingListenerOnlyEvictsCacheEntriesContainingIt() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+		smc.addApplicationListener(listener2);
+
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+
+		smc.removeApplicationListener(listener2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(1);
+		smc.multicastEvent(new MyEvent(this));
+		assertThat(listener1.seenEvents).hasSize(3);
+	}
+
 	@Test
 	public void testEventPublicationInterceptor() throws Throwable {
 		MethodInvocation invocation = mock(MethodInvocation.class);
@@ -298,8 +347,9 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertThat(listener1.seenEvents.contains(event3)).isTrue();
 		assertThat(listener1.seenEvents.contains(event4)).isTrue();
 
+		// ContextRefreshedEvent entry not affected by lazy listener2 registration
 		AbstractApplicationEventMulticaster multicaster = context.getBean(AbstractApplicationEventMulticaster.class);
-		assertThat(multicaster.retrieverCache.size()).isEqualTo(2);
+		assertThat(multicaster.retrieverCache.size()).isEqualTo(3);
 
 		context.close();
 	}
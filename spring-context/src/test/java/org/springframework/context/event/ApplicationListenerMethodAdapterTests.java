@@ -19,6 +19,8 @@ package org.springframework.context.event;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -304,6 +306,47 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.sampleEvents, times(2)).handleStringOrInteger();
 	}
 
+	@Test
+	public void invokeListenerBeyondGenerationThreshold() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		int invocations = EventListenerMethodInvoker.GENERATION_THRESHOLD * 2;
+		for (int i = 0; i < invocations; i++) {
+			adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "test"));
+		}
+		verify(this.sampleEvents, times(invocations)).handleString("test");
+	}
+
+	@Test
+	public void invokeListenerCheckedExceptionBeyondGenerationThreshold() {
+		Method method = ReflectionUtils.findMethod(
+				SampleEvents.class, "generateCheckedException", GenericTestEvent.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		for (int i = 0; i < EventListenerMethodInvoker.GENERATION_THRESHOLD; i++) {
+			adapter.onApplicationEvent(createGenericTestEvent("test"));
+		}
+
+		assertThatExceptionOfType(UndeclaredThrowableException.class).isThrownBy(() ->
+				adapter.onApplicationEvent(createGenericTestEvent("fail")))
+			.withCauseInstanceOf(IOException.class);
+	}
+
+	@Test
+	public void invokePublicListenerBeyondGenerationThreshold() {
+		PublicListener listener = new PublicListener();
+		Method method = ReflectionUtils.findMethod(PublicListener.class, "handle", String.class);
+		ApplicationListenerMethodAdapter adapter = new StaticApplicationListenerMethodAdapter(method, listener);
+		int invocations = EventListenerMethodInvoker.GENERATION_THRESHOLD * 2;
+		for (int i = 0; i < invocations; i++) {
+			adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "test" + i));
+		}
+		assertThat(listener.payloads).hasSize(invocations).endsWith("test" + (invocations - 1));
+
+		assertThatIllegalStateException().isThrownBy(() ->
+				adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "fail")))
+			.withMessage("Test exception");
+	}
+
 	@Test
 	public void beanInstanceRetrievedAtEveryInvocation() {
 		Method method = ReflectionUtils.findMethod(
@@ -466,6 +509,20 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 
 
 	@SuppressWarnings({"unused", "serial"})
+	public static class PublicListener {
+
+		final List<String> payloads = new ArrayList<>();
+
+		@EventListener
+		public void handle(String payload) {
+			if ("fail".equals(payload)) {
+				throw new IllegalStateException("Test exception");
+			}
+			this.payloads.add(payload);
+		}
+	}
+
+
 	static class PayloadTestEvent<V, T> extends PayloadApplicationEvent<T> {
 
 		private final V something;
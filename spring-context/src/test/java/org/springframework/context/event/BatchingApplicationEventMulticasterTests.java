@@ -0,0 +1,280 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.BatchingApplicationEventMulticaster.OverflowPolicy;
+import org.springframework.context.event.BatchingApplicationEventMulticaster.QueueStatistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link BatchingApplicationEventMulticaster}.
+ *
+ * @author agent
+ */
+class BatchingApplicationEventMulticasterTests {
+
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	private final BatchingApplicationEventMulticaster multicaster = new BatchingApplicationEventMulticaster();
+
+
+	@Test
+	void deliversInBatches() {
+		RecordingListener listener = new RecordingListener();
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setBatchSize(4);
+
+		for (int i = 0; i < 10; i++) {
+			this.multicaster.multicastEvent(new TestEvent(i));
+		}
+		assertThat(this.tasks).hasSize(1);
+		assertThat(this.multicaster.getQueueDepth()).isEqualTo(10);
+
+		runTasks();
+		assertThat(listener.received).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+		assertThat(this.multicaster.getQueueDepth()).isZero();
+		QueueStatistics statistics = this.multicaster.getQueueStatistics().get(0);
+		assertThat(statistics.getListener()).isSameAs(listener);
+		assertThat(statistics.getDeliveredCount()).isEqualTo(10);
+		assertThat(statistics.getMaxLatency()).isGreaterThanOrEqualTo(statistics.getAverageLatency());
+	}
+
+	@Test
+	void dropPolicyDiscardsEventsForFullQueue() {
+		RecordingListener listener = new RecordingListener();
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(2);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.DROP);
+
+		for (int i = 0; i < 5; i++) {
+			this.multicaster.multicastEvent(new TestEvent(i));
+		}
+		runTasks();
+		assertThat(listener.received).containsExactly(0, 1);
+		assertThat(this.multicaster.getQueueStatistics().get(0).getDroppedCount()).isEqualTo(3);
+	}
+
+	@Test
+	void callerRunsPolicyDeliversPendingEventsFirst() {
+		RecordingListener listener = new RecordingListener();
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(2);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.CALLER_RUNS);
+
+		for (int i = 0; i < 3; i++) {
+			this.multicaster.multicastEvent(new TestEvent(i));
+		}
+		assertThat(listener.received).containsExactly(0, 1, 2);
+		assertThat(listener.threads).containsOnly(Thread.currentThread());
+
+		this.multicaster.multicastEvent(new TestEvent(3));
+		runTasks();
+		assertThat(listener.received).containsExactly(0, 1, 2, 3);
+		assertThat(this.multicaster.getQueueStatistics().get(0).getCallerRunsCount()).isEqualTo(1);
+	}
+
+	@Test
+	void callerRunsPolicyDeliversAtMostOneBatch() {
+		RecordingListener listener = new RecordingListener();
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(4);
+		this.multicaster.setBatchSize(2);
+		this.multicaster.setOverflowPolicy(OverflowPolicy.CALLER_RUNS);
+
+		for (int i = 0; i < 5; i++) {
+			this.multicaster.multicastEvent(new TestEvent(i));
+		}
+		assertThat(listener.received).containsExactly(0, 1);
+		assertThat(this.multicaster.getQueueDepth()).isEqualTo(3);
+
+		runTasks();
+		assertThat(listener.received).containsExactly(0, 1, 2, 3, 4);
+	}
+
+	@Test
+	void blockPolicyQueuesEventsPublishedByListenerToItselfInOrder() {
+		assertEventsPublishedByListenerToItselfAreQueuedInOrder(OverflowPolicy.BLOCK);
+	}
+
+	@Test
+	void callerRunsPolicyQueuesEventsPublishedByListenerToItselfInOrder() {
+		assertEventsPublishedByListenerToItselfAreQueuedInOrder(OverflowPolicy.CALLER_RUNS);
+	}
+
+	private void assertEventsPublishedByListenerToItselfAreQueuedInOrder(OverflowPolicy overflowPolicy) {
+		RecordingListener listener = new RecordingListener() {
+			@Override
+			public synchronized void onApplicationEvent(TestEvent event) {
+				super.onApplicationEvent(event);
+				if (event.getSequence() == 0) {
+					for (int i = 1; i < 5; i++) {
+						multicaster.multicastEvent(new TestEvent(i));
+					}
+				}
+			}
+		};
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+		this.multicaster.setQueueCapacity(1);
+		this.multicaster.setOverflowPolicy(overflowPolicy);
+
+		this.multicaster.multicastEvent(new TestEvent(0));
+		runTasks();
+		assertThat(listener.received).containsExactly(0, 1, 2, 3, 4);
+		assertThat(this.multicaster.getQueueDepth()).isZero();
+	}
+
+	@Test
+	void queuesOnlySingletonListenerBeans() {
+		RecordingListener singletonListener = new RecordingListener();
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		RootBeanDefinition prototypeDefinition = new RootBeanDefinition(RecordingListener.class);
+		prototypeDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		beanFactory.registerBeanDefinition("prototypeListener", prototypeDefinition);
+		beanFactory.registerSingleton("singletonListener", singletonListener);
+		this.multicaster.setBeanFactory(beanFactory);
+		this.multicaster.addApplicationListenerBean("prototypeListener");
+		this.multicaster.addApplicationListenerBean("singletonListener");
+		this.multicaster.setTaskExecutor(this.tasks::add);
+
+		this.multicaster.multicastEvent(new TestEvent(0));
+		this.multicaster.multicastEvent(new TestEvent(1));
+		assertThat(this.tasks).hasSize(3);
+		runTasks();
+		assertThat(singletonListener.received).containsExactly(0, 1);
+		assertThat(this.multicaster.getQueueStatistics()).hasSize(1);
+		assertThat(this.multicaster.getQueueStatistics().get(0).getListener()).isSameAs(singletonListener);
+
+		this.multicaster.removeApplicationListenerBean("singletonListener");
+		assertThat(this.multicaster.getQueueStatistics()).isEmpty();
+	}
+
+	@Test
+	void preservesOrderPerListenerWithBlockingPolicy() throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			int eventCount = 2000;
+			CountDownLatch latch = new CountDownLatch(eventCount * 2);
+			RecordingListener listener1 = new RecordingListener(latch);
+			RecordingListener listener2 = new RecordingListener(latch);
+			this.multicaster.addApplicationListener(listener1);
+			this.multicaster.addApplicationListener(listener2);
+			this.multicaster.setTaskExecutor(executor);
+			this.multicaster.setQueueCapacity(16);
+			this.multicaster.setBatchSize(8);
+
+			for (int i = 0; i < eventCount; i++) {
+				this.multicaster.multicastEvent(new TestEvent(i));
+			}
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(listener1.received).isSorted().hasSize(eventCount);
+			assertThat(listener2.received).isSorted().hasSize(eventCount);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void listenerExceptionDoesNotStopDelivery() {
+		RecordingListener listener = new RecordingListener();
+		this.multicaster.addApplicationListener(event -> {
+			throw new IllegalStateException("Test exception");
+		});
+		this.multicaster.addApplicationListener(listener);
+		this.multicaster.setTaskExecutor(this.tasks::add);
+
+		this.multicaster.multicastEvent(new TestEvent(0));
+		this.multicaster.multicastEvent(new TestEvent(1));
+		runTasks();
+		assertThat(listener.received).containsExactly(0, 1);
+	}
+
+	@Test
+	void invokesListenersInCallingThreadWithoutExecutor() {
+		RecordingListener listener = new RecordingListener();
+		this.multicaster.addApplicationListener(listener);
+
+		this.multicaster.multicastEvent(new TestEvent(0));
+		assertThat(listener.received).containsExactly(0);
+		assertThat(this.multicaster.getQueueStatistics()).isEmpty();
+	}
+
+	private void runTasks() {
+		while (!this.tasks.isEmpty()) {
+			this.tasks.remove(0).run();
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class TestEvent extends ApplicationEvent {
+
+		TestEvent(int sequence) {
+			super(sequence);
+		}
+
+		int getSequence() {
+			return (Integer) getSource();
+		}
+	}
+
+
+	static class RecordingListener implements ApplicationListener<TestEvent> {
+
+		final List<Integer> received = new ArrayList<>();
+
+		final List<Thread> threads = new ArrayList<>();
+
+		private final CountDownLatch latch;
+
+		RecordingListener() {
+			this(new CountDownLatch(0));
+		}
+
+		RecordingListener(CountDownLatch latch) {
+			this.latch = latch;
+		}
+
+		@Override
+		public synchronized void onApplicationEvent(TestEvent event) {
+			this.received.add(event.getSequence());
+			this.threads.add(Thread.currentThread());
+			this.latch.countDown();
+		}
+	}
+
+}
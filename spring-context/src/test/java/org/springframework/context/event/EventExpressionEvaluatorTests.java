@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.expression.AnnotatedElementKey;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link EventExpressionEvaluator}.
+ *
+ * @author agent
+ */
+class EventExpressionEvaluatorTests {
+
+	private final EventExpressionEvaluator evaluator = new EventExpressionEvaluator();
+
+	private final Method method = ReflectionUtils.findMethod(getClass(), "handle", Object.class);
+
+	private final AnnotatedElementKey methodKey = new AnnotatedElementKey(this.method, getClass());
+
+
+	@Test
+	void conditionIsEvaluatedRepeatedly() {
+		String condition = "event.payload.length() > 2";
+		for (int i = 0; i < 5; i++) {
+			assertThat(condition(condition, "test")).isTrue();
+			assertThat(condition(condition, "ab")).isFalse();
+		}
+	}
+
+	@Test
+	void conditionFallsBackToInterpretedEvaluationWhenCompiledFormFails() {
+		String condition = "event.payload.length() > 2";
+		for (int i = 0; i < 3; i++) {
+			assertThat(condition(condition, "test")).isTrue();
+		}
+		// Compiled against String, so a different CharSequence breaks the compiled form
+		assertThat(condition(condition, new StringBuilder("test"))).isTrue();
+		assertThat(condition(condition, new StringBuilder("ab"))).isFalse();
+		assertThat(condition(condition, "test")).isTrue();
+	}
+
+	@Test
+	void conditionFailureIsPropagated() {
+		assertThatExceptionOfType(SpelEvaluationException.class).isThrownBy(() ->
+				condition("event.payload.unknown", "test"));
+	}
+
+	private boolean condition(String condition, Object payload) {
+		ApplicationEvent event = new PayloadApplicationEvent<>(this, payload);
+		return this.evaluator.condition(condition, event, this.method, this.methodKey,
+				new Object[] {payload}, null);
+	}
+
+
+	@SuppressWarnings("unused")
+	private void handle(Object payload) {
+	}
+
+}
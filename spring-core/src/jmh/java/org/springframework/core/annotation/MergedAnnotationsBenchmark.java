@@ -0,0 +1,119 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+
+/**
+ * Benchmarks for {@link MergedAnnotations}, resolving meta-annotations with
+ * attribute aliases on types and methods across a type hierarchy.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@BenchmarkMode(Mode.Throughput)
+public class MergedAnnotationsBenchmark {
+
+	@Benchmark
+	public Object fromClassDirect(AnnotatedElements elements) {
+		return MergedAnnotations.from(elements.type).get(Mapping.class).getString("path");
+	}
+
+	@Benchmark
+	public Object fromClassTypeHierarchy(AnnotatedElements elements) {
+		return MergedAnnotations.from(elements.type, SearchStrategy.TYPE_HIERARCHY)
+				.get(Mapping.class).getString("path");
+	}
+
+	@Benchmark
+	public Object fromMethodTypeHierarchy(AnnotatedElements elements) {
+		return MergedAnnotations.from(elements.method, SearchStrategy.TYPE_HIERARCHY)
+				.get(Mapping.class).getString("path");
+	}
+
+	@Benchmark
+	public boolean isPresentOnUnannotatedClass(AnnotatedElements elements) {
+		return MergedAnnotations.from(String.class, SearchStrategy.TYPE_HIERARCHY).isPresent(Mapping.class);
+	}
+
+	@Benchmark
+	public Object findMergedAnnotation(AnnotatedElements elements) {
+		return AnnotatedElementUtils.findMergedAnnotation(elements.method, Mapping.class);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class AnnotatedElements {
+
+		public Class<?> type;
+
+		public Method method;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.type = SubController.class;
+			this.method = SubController.class.getMethod("handle");
+		}
+	}
+
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@interface Mapping {
+
+		@AliasFor("path")
+		String value() default "";
+
+		@AliasFor("value")
+		String path() default "";
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Mapping
+	@interface GetMapping {
+
+		@AliasFor(annotation = Mapping.class)
+		String path() default "";
+	}
+
+	@Mapping("/base")
+	interface BaseController {
+
+		@GetMapping(path = "/handle")
+		void handle();
+	}
+
+	@GetMapping(path = "/sub")
+	static class SubController implements BaseController {
+
+		@Override
+		public void handle() {
+		}
+	}
+
+}
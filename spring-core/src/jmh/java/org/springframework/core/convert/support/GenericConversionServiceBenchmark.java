@@ -0,0 +1,84 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.convert.support;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.core.convert.TypeDescriptor;
+
+/**
+ * Benchmarks for {@link GenericConversionService}, covering simple converter
+ * lookups as well as collection conversions.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@BenchmarkMode(Mode.Throughput)
+public class GenericConversionServiceBenchmark {
+
+	@Benchmark
+	public Integer convertStringToInteger(ConversionData data) {
+		return data.conversionService.convert("4242", Integer.class);
+	}
+
+	@Benchmark
+	public Boolean canConvertStringToInteger(ConversionData data) {
+		return data.conversionService.canConvert(String.class, Integer.class);
+	}
+
+	@Benchmark
+	public Object convertListOfStringToSetOfInteger(ConversionData data) {
+		return data.conversionService.convert(data.source, data.sourceType, data.targetType);
+	}
+
+	@Benchmark
+	public Object convertCommaDelimitedStringToArray(ConversionData data) {
+		return data.conversionService.convert("1,2,3,4,5,6,7,8,9,10", Integer[].class);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class ConversionData {
+
+		public GenericConversionService conversionService;
+
+		public List<String> source;
+
+		public TypeDescriptor sourceType;
+
+		public TypeDescriptor targetType;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.conversionService = new DefaultConversionService();
+			this.source = Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9", "10");
+			this.sourceType = TypeDescriptor.collection(List.class, TypeDescriptor.valueOf(String.class));
+			this.targetType = TypeDescriptor.collection(Set.class, TypeDescriptor.valueOf(Integer.class));
+		}
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for {@link AntPathMatcher}, matching a request path against
+ * a set of route patterns the way handler mappings do.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@BenchmarkMode(Mode.Throughput)
+public class AntPathMatcherBenchmark {
+
+	@Benchmark
+	public void matchAllPatterns(PatternsData data, Blackhole bh) {
+		for (String path : data.paths) {
+			for (String pattern : data.patterns) {
+				bh.consume(data.pathMatcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchAndSortPatterns(PatternsData data, Blackhole bh) {
+		for (String path : data.paths) {
+			List<String> matches = new ArrayList<>();
+			for (String pattern : data.patterns) {
+				if (data.pathMatcher.match(pattern, path)) {
+					matches.add(pattern);
+				}
+			}
+			matches.sort(data.pathMatcher.getPatternComparator(path));
+			bh.consume(matches);
+		}
+	}
+
+	@Benchmark
+	public void extractUriTemplateVariables(PatternsData data, Blackhole bh) {
+		bh.consume(data.pathMatcher.extractUriTemplateVariables(
+				"/api/v1/projects/{project}/issues/{issue}", "/api/v1/projects/spring/issues/12345"));
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class PatternsData {
+
+		@Param({"true", "false"})
+		public boolean cachePatterns;
+
+		public AntPathMatcher pathMatcher;
+
+		public List<String> patterns = new ArrayList<>();
+
+		public List<String> paths = new ArrayList<>();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.pathMatcher = new AntPathMatcher();
+			this.pathMatcher.setCachePatterns(this.cachePatterns);
+			this.patterns.add("/");
+			this.patterns.add("/static/**");
+			this.patterns.add("/resources/*.css");
+			this.patterns.add("/resources/*.js");
+			this.patterns.add("/api/v1/projects");
+			this.patterns.add("/api/v1/projects/{project}");
+			this.patterns.add("/api/v1/projects/{project}/issues");
+			this.patterns.add("/api/v1/projects/{project}/issues/{issue}");
+			this.patterns.add("/api/v1/projects/{project}/releases/{version:[0-9.]+}");
+			this.patterns.add("/api/v1/users/{user}/**");
+			this.patterns.add("/admin/**/settings");
+			this.patterns.add("/**");
+			this.paths.add("/");
+			this.paths.add("/static/js/app.min.js");
+			this.paths.add("/resources/main.css");
+			this.paths.add("/api/v1/projects/spring/issues/12345");
+			this.paths.add("/api/v1/projects/spring/releases/5.3.0");
+			this.paths.add("/admin/users/42/settings");
+			this.paths.add("/unknown/path/to/resource");
+		}
+	}
+
+}
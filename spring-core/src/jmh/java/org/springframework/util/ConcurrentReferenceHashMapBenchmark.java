@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
+
+/**
+ * Benchmarks for {@link ConcurrentReferenceHashMap}, comparing the default
+ * segment-locked purging on reads with lock-free reads while a writer keeps
+ * releasing entries that readers would otherwise purge themselves.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@BenchmarkMode(Mode.Throughput)
+public class ConcurrentReferenceHashMapBenchmark {
+
+	@Benchmark
+	@Group("readOnly")
+	@GroupThreads(4)
+	public void readOnlyGet(MapState state, Blackhole bh) {
+		bh.consume(state.map.get(state.randomKey()));
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(7)
+	public void readWriteGet(MapState state, Blackhole bh) {
+		bh.consume(state.map.get(state.randomKey()));
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(1)
+	public void readWriteReplace(MapState state, Blackhole bh) {
+		String key = state.randomKey();
+		bh.consume(state.map.remove(key));
+		bh.consume(state.map.put(key, key));
+	}
+
+
+	@State(Scope.Group)
+	public static class MapState {
+
+		@Param({"false", "true"})
+		public boolean lockFreeReads;
+
+		@Param({"SOFT", "WEAK"})
+		public ReferenceType referenceType;
+
+		@Param({"1024"})
+		public int size;
+
+		public ConcurrentReferenceHashMap<String, String> map;
+
+		public String[] keys;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.map = new ConcurrentReferenceHashMap<>(16, 0.75f, 16, this.referenceType, this.lockFreeReads);
+			this.keys = new String[this.size];
+			for (int i = 0; i < this.size; i++) {
+				this.keys[i] = "key" + i;
+				this.map.put(this.keys[i], this.keys[i]);
+			}
+		}
+
+		public String randomKey() {
+			return this.keys[ThreadLocalRandom.current().nextInt(this.keys.length)];
+		}
+	}
+
+}
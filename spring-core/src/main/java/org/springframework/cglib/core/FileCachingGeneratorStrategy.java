@@ -0,0 +1,271 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.core.SpringProperties;
+import org.springframework.core.SpringVersion;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * CGLIB {@link GeneratorStrategy} decorator which stores the generated bytecode
+ * in a directory and returns it on subsequent runs instead of generating the
+ * class again, saving the ASM work for proxy-heavy applications at startup.
+ *
+ * <p>Each instance is bound to a cache key that has to identify the generated
+ * class across JVM runs, typically obtained from {@link #computeCacheKey}: the
+ * key combines a stable description of the generator configuration with a hash
+ * of the class files of all types the generated class is derived from, so that
+ * the cached bytecode is invalidated whenever one of them changes. Generator
+ * keys themselves are not suitable since they commonly contain identity hash
+ * codes, e.g. of the {@link org.springframework.cglib.proxy.CallbackFilter}.
+ *
+ * <p>Only classes generated by an {@link Enhancer} are cached; other generators
+ * sharing the strategy, such as the {@code FastClass} generators that
+ * {@link org.springframework.cglib.proxy.MethodProxy} derives from an enhancer,
+ * always delegate to the target strategy.
+ *
+ * <p>Cached bytecode is used as-is, including the class name it was generated
+ * with. If a class with that name is already present in the target class loader,
+ * the class is generated anew. Note that the cache directory must only be
+ * writable by trusted users since its content gets defined as classes.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see #getDefaultCacheDirectory()
+ */
+public class FileCachingGeneratorStrategy implements GeneratorStrategy {
+
+	/**
+	 * System property that specifies the directory to cache generated classes in,
+	 * for example for {@code @Configuration} class subclasses: {@value}.
+	 * <p>The persistent class cache is disabled if this property is not set.
+	 */
+	public static final String CACHE_DIRECTORY_PROPERTY_NAME = "spring.cglib.cache.directory";
+
+	private static final String CLASS_FILE_SUFFIX = ".class";
+
+	private static final Log logger = LogFactory.getLog(FileCachingGeneratorStrategy.class);
+
+
+	private final GeneratorStrategy delegate;
+
+	private final File cacheDirectory;
+
+	private final String cacheKey;
+
+
+	/**
+	 * Create a new {@code FileCachingGeneratorStrategy}.
+	 * @param delegate the strategy to generate the bytecode with on a cache miss
+	 * @param cacheDirectory the directory to store generated bytecode in
+	 * @param cacheKey the key identifying the generated class
+	 * @see #computeCacheKey
+	 */
+	public FileCachingGeneratorStrategy(GeneratorStrategy delegate, File cacheDirectory, String cacheKey) {
+		Assert.notNull(delegate, "Delegate GeneratorStrategy must not be null");
+		Assert.notNull(cacheDirectory, "Cache directory must not be null");
+		Assert.hasText(cacheKey, "Cache key must not be empty");
+		this.delegate = delegate;
+		this.cacheDirectory = cacheDirectory;
+		this.cacheKey = cacheKey;
+	}
+
+
+	@Override
+	public byte[] generate(ClassGenerator cg) throws Exception {
+		if (!(cg instanceof Enhancer)) {
+			// e.g. FastClass generators inheriting the strategy through MethodProxy
+			return this.delegate.generate(cg);
+		}
+		File cacheFile = new File(this.cacheDirectory, this.cacheKey + CLASS_FILE_SUFFIX);
+		byte[] cached = readCachedClass(cacheFile, cg);
+		if (cached != null) {
+			return cached;
+		}
+		byte[] generated = this.delegate.generate(cg);
+		writeCachedClass(cacheFile, generated);
+		return generated;
+	}
+
+	@Nullable
+	private byte[] readCachedClass(File cacheFile, ClassGenerator cg) {
+		if (!cacheFile.isFile()) {
+			return null;
+		}
+		try {
+			byte[] bytes = Files.readAllBytes(cacheFile.toPath());
+			String className = ClassNameReader.getClassName(new ClassReader(bytes));
+			if (ClassUtils.isPresent(className, ((Enhancer) cg).getClassLoader())) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Not using cached bytecode for class [" + className +
+							"]: class already defined in target ClassLoader");
+				}
+				return null;
+			}
+			if (logger.isTraceEnabled()) {
+				logger.trace("Using cached bytecode for class [" + className + "] from " + cacheFile);
+			}
+			return bytes;
+		}
+		catch (IOException | RuntimeException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring unreadable class cache file " + cacheFile, ex);
+			}
+			return null;
+		}
+	}
+
+	private void writeCachedClass(File cacheFile, byte[] bytes) {
+		try {
+			Path directory = Files.createDirectories(this.cacheDirectory.toPath());
+			Path tempFile = Files.createTempFile(directory, this.cacheKey, ".tmp");
+			try {
+				Files.write(tempFile, bytes);
+				try {
+					Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				}
+				catch (AtomicMoveNotSupportedException ex) {
+					Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+			}
+			finally {
+				Files.deleteIfExists(tempFile);
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to write class cache file " + cacheFile, ex);
+			}
+		}
+	}
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof FileCachingGeneratorStrategy)) {
+			return false;
+		}
+		FileCachingGeneratorStrategy otherStrategy = (FileCachingGeneratorStrategy) other;
+		return (this.delegate.equals(otherStrategy.delegate) &&
+				this.cacheDirectory.equals(otherStrategy.cacheDirectory) &&
+				this.cacheKey.equals(otherStrategy.cacheKey));
+	}
+
+	@Override
+	public int hashCode() {
+		return this.cacheKey.hashCode();
+	}
+
+
+	/**
+	 * Return the cache directory specified through the
+	 * {@link #CACHE_DIRECTORY_PROPERTY_NAME} property, if any.
+	 */
+	@Nullable
+	public static File getDefaultCacheDirectory() {
+		String directory = SpringProperties.getProperty(CACHE_DIRECTORY_PROPERTY_NAME);
+		return (directory != null && !directory.isEmpty() ? new File(directory) : null);
+	}
+
+	/**
+	 * Compute a cache key from the given generator description and the class
+	 * files of the given types, including their superclasses and interfaces.
+	 * The Spring version is part of the key as well, invalidating cached
+	 * bytecode on framework upgrades.
+	 * @param description a stable description of the generator configuration,
+	 * covering everything that affects the generated bytecode apart from the
+	 * given types
+	 * @param types the types the generated class is derived from
+	 * @return the cache key, or {@code null} if the class file of one of the
+	 * types could not be read (e.g. for a generated type)
+	 */
+	@Nullable
+	public static String computeCacheKey(String description, Class<?>... types) {
+		Assert.notEmpty(types, "At least one type is required");
+		Set<Class<?>> hierarchy = new LinkedHashSet<>();
+		for (Class<?> type : types) {
+			collectHierarchy(type, hierarchy);
+		}
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException ex) {
+			return null;
+		}
+		digest.update(String.valueOf(SpringVersion.getVersion()).getBytes(StandardCharsets.UTF_8));
+		digest.update(description.getBytes(StandardCharsets.UTF_8));
+		for (Class<?> type : hierarchy) {
+			byte[] classFile = readClassFile(type);
+			if (classFile == null) {
+				return null;
+			}
+			digest.update(type.getName().getBytes(StandardCharsets.UTF_8));
+			digest.update(classFile);
+		}
+		StringBuilder sb = new StringBuilder(ClassUtils.getShortName(types[0])).append('-');
+		for (byte b : digest.digest()) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	private static void collectHierarchy(@Nullable Class<?> type, Set<Class<?>> hierarchy) {
+		if (type == null || type == Object.class || !hierarchy.add(type)) {
+			return;
+		}
+		collectHierarchy(type.getSuperclass(), hierarchy);
+		for (Class<?> ifc : type.getInterfaces()) {
+			collectHierarchy(ifc, hierarchy);
+		}
+	}
+
+	@Nullable
+	private static byte[] readClassFile(Class<?> type) {
+		String resourceName = ClassUtils.getClassFileName(type);
+		try (InputStream is = type.getResourceAsStream(resourceName)) {
+			return (is != null ? StreamUtils.copyToByteArray(is) : null);
+		}
+		catch (IOException ex) {
+			return null;
+		}
+	}
+
+}
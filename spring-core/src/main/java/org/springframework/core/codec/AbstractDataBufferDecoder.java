@@ -92,8 +92,23 @@ public abstract class AbstractDataBufferDecoder<T> extends AbstractDecoder<T> {
 	public Mono<T> decodeToMono(Publisher<DataBuffer> input, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		return DataBufferUtils.join(input, this.maxInMemorySize)
-				.map(buffer -> decodeDataBuffer(buffer, elementType, mimeType, hints));
+		Mono<DataBuffer> joined = (supportsCompositeInput() ?
+				DataBufferUtils.joinComposite(input, this.maxInMemorySize) :
+				DataBufferUtils.join(input, this.maxInMemorySize));
+		return joined.map(buffer -> decodeDataBuffer(buffer, elementType, mimeType, hints));
+	}
+
+	/**
+	 * Whether {@link #decode(DataBuffer, ResolvableType, MimeType, Map)} can
+	 * handle a {@link org.springframework.core.io.buffer.CompositeDataBuffer}, in
+	 * which case {@link #decodeToMono} aggregates the input through
+	 * {@link DataBufferUtils#joinComposite} rather than copying it into a
+	 * single buffer.
+	 * <p>The default implementation returns {@code false}.
+	 * @since 5.2.10
+	 */
+	protected boolean supportsCompositeInput() {
+		return false;
 	}
 
 	/**
@@ -0,0 +1,580 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link DataBuffer} that presents a sequence of other data buffers as a
+ * single buffer, without copying their contents. Used by
+ * {@link DataBufferUtils#joinComposite} to aggregate buffers that do not
+ * provide a composite of their own.
+ *
+ * <p>The readable bytes of each component buffer at construction time make up
+ * the contents of the composite. Reads, {@link #indexOf}, {@link #slice} and
+ * {@link #asInputStream()} operate across component boundaries, whereas
+ * {@link #asByteBuffer(int, int)} and {@link #toString(int, int, Charset)} only
+ * share memory when the requested range lies within a single component, and
+ * copy it otherwise. Writing beyond the current capacity appends a new
+ * component allocated from the {@linkplain #factory() factory}; reducing the
+ * capacity is not supported.
+ *
+ * <p>A composite takes over ownership of its components: they are released
+ * when the composite itself is {@linkplain #release() released}. Slices share
+ * the reference count of the composite they were created from.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see DataBufferUtils#joinComposite
+ */
+public class CompositeDataBuffer implements PooledDataBuffer {
+
+	private static final int MIN_APPENDED_CAPACITY = 256;
+
+
+	private final DataBufferFactory dataBufferFactory;
+
+	@Nullable
+	private final CompositeDataBuffer parent;
+
+	private DataBuffer[] components;
+
+	private ByteBuffer[] segments;
+
+	private int[] offsets;
+
+	private int capacity;
+
+	private int readPosition;
+
+	private int writePosition;
+
+	private final AtomicInteger refCount;
+
+
+	/**
+	 * Create a new {@code CompositeDataBuffer} with the readable bytes of the
+	 * given data buffers as contents, taking over their ownership.
+	 * @param dataBuffers the data buffers to compose
+	 */
+	public CompositeDataBuffer(List<? extends DataBuffer> dataBuffers) {
+		Assert.notEmpty(dataBuffers, "DataBuffer List must not be empty");
+		this.dataBufferFactory = dataBuffers.get(0).factory();
+		this.parent = null;
+		this.components = dataBuffers.toArray(new DataBuffer[0]);
+		this.segments = new ByteBuffer[0];
+		this.offsets = new int[0];
+		this.refCount = new AtomicInteger(1);
+		for (DataBuffer dataBuffer : this.components) {
+			addSegment(dataBuffer.asByteBuffer());
+		}
+		this.writePosition = this.capacity;
+	}
+
+	private CompositeDataBuffer(CompositeDataBuffer parent, ByteBuffer[] segments) {
+		this.dataBufferFactory = parent.dataBufferFactory;
+		this.parent = (parent.parent != null ? parent.parent : parent);
+		this.components = new DataBuffer[0];
+		this.segments = new ByteBuffer[0];
+		this.offsets = new int[0];
+		this.refCount = this.parent.refCount;
+		for (ByteBuffer segment : segments) {
+			addSegment(segment);
+		}
+		this.writePosition = this.capacity;
+	}
+
+	private void addSegment(ByteBuffer byteBuffer) {
+		int length = byteBuffer.remaining();
+		if (length == 0) {
+			return;
+		}
+		Assert.state(length <= Integer.MAX_VALUE - this.capacity, "Composite buffer exceeds maximum capacity");
+		int count = this.segments.length;
+		this.segments = Arrays.copyOf(this.segments, count + 1);
+		this.offsets = Arrays.copyOf(this.offsets, count + 1);
+		this.segments[count] = byteBuffer.slice();
+		this.offsets[count] = this.capacity;
+		this.capacity += length;
+	}
+
+
+	/**
+	 * Return the number of contiguous memory regions this buffer consists of.
+	 * @return the number of regions; 1 if the contents are contiguous
+	 */
+	public int getSegmentCount() {
+		return this.segments.length;
+	}
+
+	@Override
+	public DataBufferFactory factory() {
+		return this.dataBufferFactory;
+	}
+
+	@Override
+	public int indexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		if (fromIndex < 0) {
+			fromIndex = 0;
+		}
+		else if (fromIndex >= this.writePosition) {
+			return -1;
+		}
+		for (int i = segmentIndex(fromIndex); i < this.segments.length; i++) {
+			ByteBuffer segment = this.segments[i];
+			int offset = this.offsets[i];
+			int end = Math.min(segment.capacity(), this.writePosition - offset);
+			for (int local = Math.max(fromIndex - offset, 0); local < end; local++) {
+				if (predicate.test(segment.get(local))) {
+					return offset + local;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+		Assert.notNull(predicate, "IntPredicate must not be null");
+		int index = Math.min(fromIndex, this.writePosition - 1);
+		if (index < 0) {
+			return -1;
+		}
+		for (int i = segmentIndex(index); i >= 0; i--) {
+			ByteBuffer segment = this.segments[i];
+			int offset = this.offsets[i];
+			for (int local = Math.min(index - offset, segment.capacity() - 1); local >= 0; local--) {
+				if (predicate.test(segment.get(local))) {
+					return offset + local;
+				}
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int readableByteCount() {
+		return this.writePosition - this.readPosition;
+	}
+
+	@Override
+	public int writableByteCount() {
+		return this.capacity - this.writePosition;
+	}
+
+	@Override
+	public int capacity() {
+		return this.capacity;
+	}
+
+	@Override
+	public CompositeDataBuffer capacity(int newCapacity) {
+		if (newCapacity <= 0) {
+			throw new IllegalArgumentException(String.format("'newCapacity' %d must be higher than 0", newCapacity));
+		}
+		if (newCapacity < this.capacity) {
+			throw new UnsupportedOperationException("Reducing the capacity of a composite buffer is not supported");
+		}
+		if (newCapacity > this.capacity) {
+			if (this.parent != null) {
+				throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+			}
+			DataBuffer component = this.dataBufferFactory.allocateBuffer(newCapacity - this.capacity);
+			int count = this.components.length;
+			this.components = Arrays.copyOf(this.components, count + 1);
+			this.components[count] = component;
+			addSegment(component.asByteBuffer(0, component.capacity()));
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer ensureCapacity(int length) {
+		int writable = writableByteCount();
+		if (length > writable) {
+			capacity(this.capacity + Math.max(length - writable, MIN_APPENDED_CAPACITY));
+		}
+		return this;
+	}
+
+	@Override
+	public int readPosition() {
+		return this.readPosition;
+	}
+
+	@Override
+	public CompositeDataBuffer readPosition(int readPosition) {
+		assertIndex(readPosition >= 0, "'readPosition' %d must be >= 0", readPosition);
+		assertIndex(readPosition <= this.writePosition, "'readPosition' %d must be <= %d",
+				readPosition, this.writePosition);
+		this.readPosition = readPosition;
+		return this;
+	}
+
+	@Override
+	public int writePosition() {
+		return this.writePosition;
+	}
+
+	@Override
+	public CompositeDataBuffer writePosition(int writePosition) {
+		assertIndex(writePosition >= this.readPosition, "'writePosition' %d must be >= %d",
+				writePosition, this.readPosition);
+		assertIndex(writePosition <= this.capacity, "'writePosition' %d must be <= %d",
+				writePosition, this.capacity);
+		this.writePosition = writePosition;
+		return this;
+	}
+
+	@Override
+	public byte getByte(int index) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(index <= this.writePosition - 1, "index %d must be <= %d", index, this.writePosition - 1);
+		int i = segmentIndex(index);
+		return this.segments[i].get(index - this.offsets[i]);
+	}
+
+	@Override
+	public byte read() {
+		assertIndex(this.readPosition <= this.writePosition - 1, "readPosition %d must be <= %d",
+				this.readPosition, this.writePosition - 1);
+		byte b = getByte(this.readPosition);
+		this.readPosition++;
+		return b;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination) {
+		Assert.notNull(destination, "Byte array must not be null");
+		read(destination, 0, destination.length);
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer read(byte[] destination, int offset, int length) {
+		Assert.notNull(destination, "Byte array must not be null");
+		assertIndex(this.readPosition <= this.writePosition - length,
+				"readPosition %d and length %d should be smaller than writePosition %d",
+				this.readPosition, length, this.writePosition);
+		getBytes(this.readPosition, destination, offset, length);
+		this.readPosition += length;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte b) {
+		ensureCapacity(1);
+		int i = segmentIndex(this.writePosition);
+		this.segments[i].put(this.writePosition - this.offsets[i], b);
+		this.writePosition++;
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source) {
+		Assert.notNull(source, "Byte array must not be null");
+		write(source, 0, source.length);
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(byte[] source, int offset, int length) {
+		Assert.notNull(source, "Byte array must not be null");
+		write(ByteBuffer.wrap(source, offset, length));
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(DataBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			write(Arrays.stream(buffers).map(DataBuffer::asByteBuffer).toArray(ByteBuffer[]::new));
+		}
+		return this;
+	}
+
+	@Override
+	public CompositeDataBuffer write(ByteBuffer... buffers) {
+		if (!ObjectUtils.isEmpty(buffers)) {
+			int length = Arrays.stream(buffers).mapToInt(ByteBuffer::remaining).sum();
+			ensureCapacity(length);
+			for (ByteBuffer buffer : buffers) {
+				write(buffer);
+			}
+		}
+		return this;
+	}
+
+	private void write(ByteBuffer source) {
+		ensureCapacity(source.remaining());
+		ByteBuffer remaining = source.duplicate();
+		int i = segmentIndex(this.writePosition);
+		while (remaining.hasRemaining()) {
+			ByteBuffer target = this.segments[i].duplicate();
+			int local = this.writePosition - this.offsets[i];
+			int length = Math.min(remaining.remaining(), target.capacity() - local);
+			// Explicit access via Buffer base type for compatibility
+			// with covariant return type on JDK 9's ByteBuffer...
+			Buffer targetBuffer = target;
+			targetBuffer.position(local);
+			ByteBuffer chunk = remaining.duplicate();
+			Buffer chunkBuffer = chunk;
+			chunkBuffer.limit(chunk.position() + length);
+			target.put(chunk);
+			Buffer remainingBuffer = remaining;
+			remainingBuffer.position(remaining.position() + length);
+			this.writePosition += length;
+			i++;
+		}
+	}
+
+	@Override
+	public CompositeDataBuffer slice(int index, int length) {
+		checkIndex(index, length);
+		return new CompositeDataBuffer(this, segments(index, length));
+	}
+
+	@Override
+	public ByteBuffer asByteBuffer() {
+		return asByteBuffer(this.readPosition, readableByteCount());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>The returned buffer shares memory with this buffer only if the given
+	 * range lies within a single component; otherwise it contains a copy.
+	 */
+	@Override
+	public ByteBuffer asByteBuffer(int index, int length) {
+		checkIndex(index, length);
+		ByteBuffer[] segments = segments(index, length);
+		if (segments.length == 1) {
+			return segments[0];
+		}
+		ByteBuffer result = ByteBuffer.allocate(length);
+		for (ByteBuffer segment : segments) {
+			result.put(segment);
+		}
+		((Buffer) result).flip();
+		return result;
+	}
+
+	@Override
+	public InputStream asInputStream() {
+		return new CompositeDataBufferInputStream(false);
+	}
+
+	@Override
+	public InputStream asInputStream(boolean releaseOnClose) {
+		return new CompositeDataBufferInputStream(releaseOnClose);
+	}
+
+	@Override
+	public OutputStream asOutputStream() {
+		return new CompositeDataBufferOutputStream();
+	}
+
+	@Override
+	public String toString(int index, int length, Charset charset) {
+		checkIndex(index, length);
+		Assert.notNull(charset, "Charset must not be null");
+		ByteBuffer[] segments = segments(index, length);
+		if (segments.length == 1 && segments[0].hasArray()) {
+			ByteBuffer segment = segments[0];
+			return new String(segment.array(), segment.arrayOffset() + segment.position(), length, charset);
+		}
+		byte[] bytes = new byte[length];
+		getBytes(index, bytes, 0, length);
+		return new String(bytes, charset);
+	}
+
+
+	@Override
+	public boolean isAllocated() {
+		return this.refCount.get() > 0;
+	}
+
+	@Override
+	public PooledDataBuffer retain() {
+		int count = this.refCount.get();
+		while (true) {
+			if (count <= 0) {
+				throw new IllegalStateException("Cannot retain released buffer: " + this);
+			}
+			if (this.refCount.compareAndSet(count, count + 1)) {
+				return this;
+			}
+			count = this.refCount.get();
+		}
+	}
+
+	@Override
+	public boolean release() {
+		int count = this.refCount.get();
+		while (true) {
+			if (count <= 0) {
+				throw new IllegalStateException("Buffer has already been released: " + this);
+			}
+			if (this.refCount.compareAndSet(count, count - 1)) {
+				break;
+			}
+			count = this.refCount.get();
+		}
+		if (count > 1) {
+			return false;
+		}
+		CompositeDataBuffer owner = (this.parent != null ? this.parent : this);
+		for (DataBuffer component : owner.components) {
+			DataBufferUtils.release(component);
+		}
+		return true;
+	}
+
+
+	/**
+	 * Return the index of the segment that contains the given index.
+	 */
+	private int segmentIndex(int index) {
+		int i = Arrays.binarySearch(this.offsets, index);
+		return (i >= 0 ? i : -i - 2);
+	}
+
+	/**
+	 * Return views of the segments that make up the given range.
+	 */
+	private ByteBuffer[] segments(int index, int length) {
+		if (length == 0) {
+			return new ByteBuffer[] {ByteBuffer.allocate(0)};
+		}
+		int first = segmentIndex(index);
+		int last = segmentIndex(index + length - 1);
+		ByteBuffer[] result = new ByteBuffer[last - first + 1];
+		for (int i = first; i <= last; i++) {
+			int offset = this.offsets[i];
+			ByteBuffer segment = this.segments[i];
+			int start = Math.max(index - offset, 0);
+			int end = Math.min(index + length - offset, segment.capacity());
+			ByteBuffer duplicate = segment.duplicate();
+			// Explicit access via Buffer base type for compatibility
+			// with covariant return type on JDK 9's ByteBuffer...
+			Buffer buffer = duplicate;
+			buffer.position(start);
+			buffer.limit(end);
+			result[i - first] = duplicate.slice();
+		}
+		return result;
+	}
+
+	private void getBytes(int index, byte[] destination, int offset, int length) {
+		for (ByteBuffer segment : segments(index, length)) {
+			int count = segment.remaining();
+			segment.get(destination, offset, count);
+			offset += count;
+		}
+	}
+
+	private void checkIndex(int index, int length) {
+		assertIndex(index >= 0, "index %d must be >= 0", index);
+		assertIndex(length >= 0, "length %d must be >= 0", length);
+		assertIndex(index <= this.capacity - length, "index %d and length %d must be <= %d",
+				index, length, this.capacity);
+	}
+
+	private void assertIndex(boolean expression, String format, Object... args) {
+		if (!expression) {
+			String message = String.format(format, args);
+			throw new IndexOutOfBoundsException(message);
+		}
+	}
+
+
+	@Override
+	public String toString() {
+		return String.format("CompositeDataBuffer (r: %d, w: %d, c: %d, segments: %d)",
+				this.readPosition, this.writePosition, this.capacity, this.segments.length);
+	}
+
+
+	private class CompositeDataBufferInputStream extends InputStream {
+
+		private final boolean releaseOnClose;
+
+		private boolean closed;
+
+		CompositeDataBufferInputStream(boolean releaseOnClose) {
+			this.releaseOnClose = releaseOnClose;
+		}
+
+		@Override
+		public int available() {
+			return readableByteCount();
+		}
+
+		@Override
+		public int read() {
+			return available() > 0 ? CompositeDataBuffer.this.read() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			int available = available();
+			if (available > 0) {
+				len = Math.min(len, available);
+				CompositeDataBuffer.this.read(bytes, off, len);
+				return len;
+			}
+			else {
+				return -1;
+			}
+		}
+
+		@Override
+		public void close() {
+			if (this.releaseOnClose && !this.closed) {
+				this.closed = true;
+				DataBufferUtils.release(CompositeDataBuffer.this);
+			}
+		}
+	}
+
+
+	private class CompositeDataBufferOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) {
+			CompositeDataBuffer.this.write((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int off, int len) {
+			CompositeDataBuffer.this.write(bytes, off, len);
+		}
+	}
+
+}
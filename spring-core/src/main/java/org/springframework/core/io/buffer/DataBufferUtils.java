@@ -17,6 +17,7 @@
 package org.springframework.core.io.buffer;
 
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -25,6 +26,7 @@ import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channel;
 import java.nio.channels.Channels;
 import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.file.OpenOption;
@@ -32,9 +34,11 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -233,6 +237,57 @@ public abstract class DataBufferUtils {
 		return position == 0 ? result : skipUntilByteCount(result, position);
 	}
 
+	/**
+	 * Read the file at the given {@code Path} into a {@code Flux} of read-only
+	 * {@code DataBuffer}s by {@linkplain FileChannel#map mapping} it into memory
+	 * rather than copying its content into newly allocated buffers.
+	 * @param path the path to read bytes from
+	 * @param bufferFactory the factory to wrap the mapped regions with
+	 * @param regionSize the maximum number of bytes mapped per data buffer
+	 * @return a Flux of data buffers, each backed by a mapped region of the file
+	 * @since 5.2.10
+	 * @see #readMapped(Path, long, long, DataBufferFactory, int)
+	 */
+	public static Flux<DataBuffer> readMapped(Path path, DataBufferFactory bufferFactory, int regionSize) {
+		return readMapped(path, 0, Long.MAX_VALUE, bufferFactory, regionSize);
+	}
+
+	/**
+	 * Read the given range of the file at the given {@code Path} into a
+	 * {@code Flux} of read-only {@code DataBuffer}s, by {@linkplain FileChannel#map
+	 * mapping} consecutive regions of at most {@code regionSize} bytes into memory.
+	 * The file channel is closed when the flux is terminated; a mapping outlives
+	 * the channel until the buffer it backs is released.
+	 * <p>Each returned buffer is a {@link PooledDataBuffer}, so that it can be
+	 * {@linkplain #release(DataBuffer) released} like any other buffer. The
+	 * region itself is unmapped by the garbage collector once neither the buffer
+	 * nor any {@code ByteBuffer} obtained from it is reachable any more, so that
+	 * accidental access after release never touches unmapped memory.
+	 * @param path the path to read bytes from
+	 * @param position the position in the file to start reading from
+	 * @param count the maximum number of bytes to read; the read stops at the
+	 * end of the file if that comes first
+	 * @param bufferFactory the factory to wrap the mapped regions with
+	 * @param regionSize the maximum number of bytes mapped per data buffer
+	 * @return a Flux of data buffers, each backed by a mapped region of the file
+	 * @since 5.2.10
+	 */
+	public static Flux<DataBuffer> readMapped(
+			Path path, long position, long count, DataBufferFactory bufferFactory, int regionSize) {
+
+		Assert.notNull(path, "Path must not be null");
+		Assert.notNull(bufferFactory, "BufferFactory must not be null");
+		Assert.isTrue(position >= 0, "'position' must be >= 0");
+		Assert.isTrue(count >= 0, "'count' must be >= 0");
+		Assert.isTrue(regionSize > 0, "'regionSize' must be > 0");
+
+		Flux<DataBuffer> flux = Flux.using(() -> FileChannel.open(path, StandardOpenOption.READ),
+				channel -> Flux.generate(new MappedRegionGenerator(channel, position, count, bufferFactory, regionSize)),
+				DataBufferUtils::closeChannel);
+
+		return flux.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+	}
+
 
 	//---------------------------------------------------------------------
 	// Writing
@@ -566,6 +621,52 @@ public abstract class DataBufferUtils {
 				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
 	}
 
+	/**
+	 * Variant of {@link #join(Publisher, int)} that avoids copying buffers from
+	 * a {@link DefaultDataBufferFactory}: rather than being joined into a new
+	 * {@link DefaultDataBuffer}, they are composed into a
+	 * {@link CompositeDataBuffer}. A single buffer is returned as-is, and other
+	 * buffers are joined by their {@linkplain DataBufferFactory#join factory},
+	 * which for Netty already results in a composite.
+	 * <p>Note that a {@link CompositeDataBuffer} does not support reducing its
+	 * capacity, and that {@link DataBuffer#asByteBuffer()} copies its contents
+	 * if they span several components. This method is therefore meant for
+	 * consumers that read the aggregated content through
+	 * {@link DataBuffer#read}, {@link DataBuffer#toString(java.nio.charset.Charset)} or
+	 * {@link DataBuffer#asInputStream()}.
+	 * @param buffers the data buffers that are to be composed
+	 * @param maxByteCount the max number of bytes to buffer, or -1 for unlimited
+	 * @return a buffer with the aggregated content, possibly an empty Mono if
+	 * the max number of bytes to buffer is exceeded.
+	 * @throws DataBufferLimitException if maxByteCount is exceeded
+	 * @since 5.2.10
+	 */
+	@SuppressWarnings("unchecked")
+	public static Mono<DataBuffer> joinComposite(Publisher<? extends DataBuffer> buffers, int maxByteCount) {
+		Assert.notNull(buffers, "'dataBuffers' must not be null");
+
+		if (buffers instanceof Mono) {
+			return (Mono<DataBuffer>) buffers;
+		}
+
+		return Flux.from(buffers)
+				.collect(() -> new LimitedDataBufferList(maxByteCount), LimitedDataBufferList::add)
+				.filter(list -> !list.isEmpty())
+				.map(DataBufferUtils::joinBuffers)
+				.doOnDiscard(PooledDataBuffer.class, DataBufferUtils::release);
+	}
+
+	private static DataBuffer joinBuffers(List<DataBuffer> dataBuffers) {
+		if (dataBuffers.size() == 1) {
+			return dataBuffers.get(0);
+		}
+		DataBufferFactory bufferFactory = dataBuffers.get(0).factory();
+		if (bufferFactory instanceof DefaultDataBufferFactory) {
+			return new CompositeDataBuffer(dataBuffers);
+		}
+		return bufferFactory.join(dataBuffers);
+	}
+
 	/**
 	 * Return a {@link Matcher} for the given delimiter.
 	 * The matcher can be used to find the delimiters in data buffers.
@@ -671,6 +772,154 @@ public abstract class DataBufferUtils {
 	}
 
 
+	private static class MappedRegionGenerator implements Consumer<SynchronousSink<DataBuffer>> {
+
+		private final FileChannel channel;
+
+		private final DataBufferFactory dataBufferFactory;
+
+		private final int regionSize;
+
+		private long position;
+
+		private long remaining;
+
+		public MappedRegionGenerator(FileChannel channel, long position, long count,
+				DataBufferFactory dataBufferFactory, int regionSize) {
+
+			this.channel = channel;
+			this.position = position;
+			this.remaining = count;
+			this.dataBufferFactory = dataBufferFactory;
+			this.regionSize = regionSize;
+		}
+
+		@Override
+		public void accept(SynchronousSink<DataBuffer> sink) {
+			try {
+				long size = Math.min(this.remaining, this.channel.size() - this.position);
+				if (size <= 0) {
+					sink.complete();
+					return;
+				}
+				size = Math.min(size, this.regionSize);
+				ByteBuffer region = this.channel.map(FileChannel.MapMode.READ_ONLY, this.position, size);
+				this.position += size;
+				this.remaining -= size;
+				sink.next(new MappedDataBuffer(this.dataBufferFactory.wrap(region)));
+			}
+			catch (IOException ex) {
+				sink.error(ex);
+			}
+		}
+	}
+
+
+	/**
+	 * Read-only {@link DataBuffer} backed by a mapped file region, sharing a
+	 * reference count with all of its slices.
+	 */
+	private static class MappedDataBuffer extends DataBufferWrapper implements PooledDataBuffer {
+
+		private final MappedRegion region;
+
+		MappedDataBuffer(DataBuffer delegate) {
+			this(delegate, new MappedRegion(delegate));
+		}
+
+		private MappedDataBuffer(DataBuffer delegate, MappedRegion region) {
+			super(delegate);
+			this.region = region;
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.region.refCount.get() > 0;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.region.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.region.release();
+		}
+
+		@Override
+		public DataBuffer slice(int index, int length) {
+			return new MappedDataBuffer(dataBuffer().slice(index, length), this.region);
+		}
+
+		@Override
+		public DataBuffer retainedSlice(int index, int length) {
+			this.region.retain();
+			return slice(index, length);
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			InputStream inputStream = dataBuffer().asInputStream(false);
+			if (!releaseOnClose) {
+				return inputStream;
+			}
+			return new FilterInputStream(inputStream) {
+				private final AtomicBoolean closed = new AtomicBoolean();
+				@Override
+				public void close() throws IOException {
+					if (this.closed.compareAndSet(false, true)) {
+						MappedDataBuffer.this.release();
+					}
+				}
+			};
+		}
+
+		@Override
+		public String toString() {
+			return "MappedDataBuffer [" + dataBuffer() + "]";
+		}
+	}
+
+
+	private static class MappedRegion {
+
+		private final DataBuffer dataBuffer;
+
+		final AtomicInteger refCount = new AtomicInteger(1);
+
+		MappedRegion(DataBuffer dataBuffer) {
+			this.dataBuffer = dataBuffer;
+		}
+
+		void retain() {
+			int count;
+			do {
+				count = this.refCount.get();
+				Assert.state(count > 0, "Mapped region has already been released");
+			}
+			while (!this.refCount.compareAndSet(count, count + 1));
+		}
+
+		boolean release() {
+			int count;
+			do {
+				count = this.refCount.get();
+				Assert.state(count > 0, "Mapped region has already been released");
+			}
+			while (!this.refCount.compareAndSet(count, count - 1));
+			if (count == 1) {
+				// Explicit unmapping would turn access after release into a JVM crash:
+				// leave it to the garbage collector instead
+				DataBufferUtils.release(this.dataBuffer);
+				return true;
+			}
+			return false;
+		}
+	}
+
+
 	private static class ReadCompletionHandler implements CompletionHandler<Integer, DataBuffer> {
 
 		private final AsynchronousFileChannel channel;
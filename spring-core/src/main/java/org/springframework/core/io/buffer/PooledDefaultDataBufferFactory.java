@@ -0,0 +1,623 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Variant of {@link DefaultDataBufferFactory} that recycles the underlying
+ * {@link ByteBuffer ByteBuffers}, reducing allocation churn on runtimes that
+ * do not provide a buffer pool of their own (i.e. Servlet containers and
+ * Undertow, as opposed to Reactor Netty).
+ *
+ * <p>Buffers allocated by this factory implement {@link PooledDataBuffer}. Once
+ * their reference count drops to zero through {@link PooledDataBuffer#release()}
+ * (typically via {@link DataBufferUtils#release(DataBuffer)}), the memory is
+ * returned to the pool and must not be accessed any more; reading from or writing
+ * to a released buffer or any of its slices fails with an
+ * {@link IllegalStateException}. Buffers that are never released are simply
+ * garbage collected, so a missing release leads to a pool miss rather than to
+ * a memory leak. The same applies to the memory a buffer leaves behind when its
+ * capacity changes, since slices may still refer to it.
+ *
+ * <p>Memory is pooled in power-of-two size classes, ranging from
+ * {@value #MIN_POOLED_CAPACITY} bytes up to the configured maximum pooled
+ * capacity; larger requests are allocated on demand and not recycled. Each
+ * thread keeps a small cache per size class in front of a bounded pool shared
+ * by all threads, so that allocation and release on the same thread (the
+ * common case for request body reading and response writing) do not contend.
+ * The memory held by each thread cache is bounded by a total size, and a thread
+ * can hand its cache back via {@link #trimThreadLocalCache()}.
+ *
+ * <p>{@link #wrap(ByteBuffer) Wrapped} buffers are not pooled, since their
+ * memory is owned by the caller.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see org.springframework.http.server.reactive.ServletHttpHandlerAdapter#setDataBufferFactory
+ * @see org.springframework.http.server.reactive.UndertowHttpHandlerAdapter#setDataBufferFactory
+ */
+public class PooledDefaultDataBufferFactory extends DefaultDataBufferFactory {
+
+	/**
+	 * The capacity of the smallest size class.
+	 */
+	public static final int MIN_POOLED_CAPACITY = 256;
+
+	/**
+	 * The default maximum capacity of pooled buffers.
+	 * @see #PooledDefaultDataBufferFactory(boolean, int, int, int)
+	 */
+	public static final int DEFAULT_MAX_POOLED_CAPACITY = 64 * 1024;
+
+	/**
+	 * The default number of buffers that are kept per size class in the
+	 * pool that is shared across threads.
+	 */
+	public static final int DEFAULT_MAX_SHARED_BUFFERS = 128;
+
+	/**
+	 * The default number of buffers that each thread caches per size class.
+	 */
+	public static final int DEFAULT_MAX_THREAD_LOCAL_BUFFERS = 8;
+
+	/**
+	 * The default total capacity of the buffers that each thread caches.
+	 */
+	public static final int DEFAULT_MAX_THREAD_LOCAL_CACHE_SIZE = 256 * 1024;
+
+	private static final int MIN_POOLED_CAPACITY_SHIFT = Integer.numberOfTrailingZeros(MIN_POOLED_CAPACITY);
+
+
+	private final boolean preferDirect;
+
+	private final int maxPooledCapacity;
+
+	private final int maxThreadLocalBuffers;
+
+	private final int maxThreadLocalCacheSize;
+
+	private final List<BlockingQueue<ByteBuffer>> sharedPools;
+
+	private final ThreadLocal<ThreadLocalCache> threadLocalCache =
+			new NamedThreadLocal<>("PooledDefaultDataBufferFactory thread-local cache");
+
+	private final AtomicInteger activeBuffers = new AtomicInteger();
+
+	private final LongAdder poolHits = new LongAdder();
+
+	private final LongAdder poolMisses = new LongAdder();
+
+
+	/**
+	 * Create a new {@code PooledDefaultDataBufferFactory} with default settings,
+	 * pooling direct buffers.
+	 */
+	public PooledDefaultDataBufferFactory() {
+		this(true);
+	}
+
+	/**
+	 * Create a new {@code PooledDefaultDataBufferFactory}, indicating whether
+	 * direct buffers should be pooled.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 */
+	public PooledDefaultDataBufferFactory(boolean preferDirect) {
+		this(preferDirect, DEFAULT_INITIAL_CAPACITY, DEFAULT_MAX_POOLED_CAPACITY, DEFAULT_MAX_SHARED_BUFFERS);
+	}
+
+	/**
+	 * Create a new {@code PooledDefaultDataBufferFactory} with the given settings.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param defaultInitialCapacity the capacity to use for {@link #allocateBuffer()}
+	 * @param maxPooledCapacity the capacity of the largest buffers to pool,
+	 * rounded up to the next power of two
+	 * @param maxSharedBuffers the number of buffers to keep per size class in
+	 * the pool shared across threads
+	 */
+	public PooledDefaultDataBufferFactory(boolean preferDirect, int defaultInitialCapacity,
+			int maxPooledCapacity, int maxSharedBuffers) {
+
+		this(preferDirect, defaultInitialCapacity, maxPooledCapacity, maxSharedBuffers,
+				DEFAULT_MAX_THREAD_LOCAL_BUFFERS);
+	}
+
+	/**
+	 * Create a new {@code PooledDefaultDataBufferFactory} with the given settings.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param defaultInitialCapacity the capacity to use for {@link #allocateBuffer()}
+	 * @param maxPooledCapacity the capacity of the largest buffers to pool,
+	 * rounded up to the next power of two
+	 * @param maxSharedBuffers the number of buffers to keep per size class in
+	 * the pool shared across threads
+	 * @param maxThreadLocalBuffers the number of buffers each thread caches per
+	 * size class, or 0 to disable thread-local caching
+	 */
+	public PooledDefaultDataBufferFactory(boolean preferDirect, int defaultInitialCapacity,
+			int maxPooledCapacity, int maxSharedBuffers, int maxThreadLocalBuffers) {
+
+		this(preferDirect, defaultInitialCapacity, maxPooledCapacity, maxSharedBuffers,
+				maxThreadLocalBuffers, DEFAULT_MAX_THREAD_LOCAL_CACHE_SIZE);
+	}
+
+	/**
+	 * Create a new {@code PooledDefaultDataBufferFactory} with the given settings.
+	 * @param preferDirect {@code true} if direct buffers are to be preferred;
+	 * {@code false} otherwise
+	 * @param defaultInitialCapacity the capacity to use for {@link #allocateBuffer()}
+	 * @param maxPooledCapacity the capacity of the largest buffers to pool,
+	 * rounded up to the next power of two
+	 * @param maxSharedBuffers the number of buffers to keep per size class in
+	 * the pool shared across threads
+	 * @param maxThreadLocalBuffers the number of buffers each thread caches per
+	 * size class, or 0 to disable thread-local caching
+	 * @param maxThreadLocalCacheSize the total capacity of the buffers each
+	 * thread caches across all size classes
+	 */
+	public PooledDefaultDataBufferFactory(boolean preferDirect, int defaultInitialCapacity,
+			int maxPooledCapacity, int maxSharedBuffers, int maxThreadLocalBuffers, int maxThreadLocalCacheSize) {
+
+		super(preferDirect, defaultInitialCapacity);
+		Assert.isTrue(maxPooledCapacity >= MIN_POOLED_CAPACITY,
+				() -> "'maxPooledCapacity' should be at least " + MIN_POOLED_CAPACITY);
+		Assert.isTrue(maxPooledCapacity <= (1 << 30), "'maxPooledCapacity' should be at most 1 GB");
+		Assert.isTrue(maxSharedBuffers > 0, "'maxSharedBuffers' should be larger than 0");
+		Assert.isTrue(maxThreadLocalBuffers >= 0, "'maxThreadLocalBuffers' should not be negative");
+		Assert.isTrue(maxThreadLocalCacheSize >= 0, "'maxThreadLocalCacheSize' should not be negative");
+		this.preferDirect = preferDirect;
+		int sizeClasses = sizeClassIndex(maxPooledCapacity) + 1;
+		this.maxPooledCapacity = sizeClassCapacity(sizeClasses - 1);
+		this.maxThreadLocalBuffers = maxThreadLocalBuffers;
+		this.maxThreadLocalCacheSize = maxThreadLocalCacheSize;
+		this.sharedPools = new ArrayList<>(sizeClasses);
+		for (int i = 0; i < sizeClasses; i++) {
+			this.sharedPools.add(new ArrayBlockingQueue<>(maxSharedBuffers));
+		}
+	}
+
+
+	/**
+	 * Return the capacity of the largest buffers that are pooled.
+	 */
+	public int getMaxPooledCapacity() {
+		return this.maxPooledCapacity;
+	}
+
+	/**
+	 * Return the number of buffers that have been allocated and not yet
+	 * released.
+	 */
+	public int getActiveBufferCount() {
+		return this.activeBuffers.get();
+	}
+
+	/**
+	 * Return the number of allocations that were served from the pool.
+	 */
+	public long getPoolHitCount() {
+		return this.poolHits.sum();
+	}
+
+	/**
+	 * Return the number of allocations that required new memory, either
+	 * because the pool was empty or the requested capacity is not pooled.
+	 */
+	public long getPoolMissCount() {
+		return this.poolMisses.sum();
+	}
+
+	/**
+	 * Hand the buffers cached by the calling thread back to the shared pool,
+	 * or to the garbage collector if the shared pool is full, and discard the
+	 * thread's cache. To be called by threads that stop allocating buffers,
+	 * e.g. before being returned to a thread pool that serves other purposes.
+	 */
+	public void trimThreadLocalCache() {
+		ThreadLocalCache cache = this.threadLocalCache.get();
+		if (cache == null) {
+			return;
+		}
+		this.threadLocalCache.remove();
+		for (int index = 0; index < this.sharedPools.size(); index++) {
+			ByteBuffer chunk = cache.poll(index);
+			while (chunk != null) {
+				this.sharedPools.get(index).offer(chunk);
+				chunk = cache.poll(index);
+			}
+		}
+	}
+
+
+	@Override
+	public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+		Assert.isTrue(initialCapacity >= 0, "'initialCapacity' must not be negative");
+		ByteBuffer chunk = acquire(initialCapacity);
+		this.activeBuffers.incrementAndGet();
+		return new PooledDefaultDataBuffer(this, chunk, initialCapacity);
+	}
+
+	/**
+	 * Obtain a {@code ByteBuffer} with at least the given capacity, from the
+	 * pool if possible.
+	 */
+	ByteBuffer acquire(int capacity) {
+		if (capacity > this.maxPooledCapacity) {
+			this.poolMisses.increment();
+			return allocate(capacity);
+		}
+		int index = sizeClassIndex(capacity);
+		ByteBuffer chunk = null;
+		ThreadLocalCache cache = getThreadLocalCache();
+		if (cache != null) {
+			chunk = cache.poll(index);
+		}
+		if (chunk == null) {
+			chunk = this.sharedPools.get(index).poll();
+		}
+		if (chunk != null) {
+			this.poolHits.increment();
+			return chunk;
+		}
+		this.poolMisses.increment();
+		return allocate(sizeClassCapacity(index));
+	}
+
+	/**
+	 * Return a {@code ByteBuffer} obtained from {@link #acquire(int)} to the pool.
+	 */
+	void recycle(ByteBuffer chunk) {
+		int capacity = chunk.capacity();
+		if (capacity > this.maxPooledCapacity || Integer.bitCount(capacity) != 1 ||
+				capacity < MIN_POOLED_CAPACITY || chunk.isDirect() != this.preferDirect) {
+			return;
+		}
+		((Buffer) chunk).clear();
+		int index = sizeClassIndex(capacity);
+		ThreadLocalCache cache = getThreadLocalCache();
+		if (cache == null || !cache.offer(index, chunk)) {
+			// If the shared pool is full as well, the chunk is left to the garbage collector
+			this.sharedPools.get(index).offer(chunk);
+		}
+	}
+
+	void onRelease() {
+		this.activeBuffers.decrementAndGet();
+	}
+
+	private ByteBuffer allocate(int capacity) {
+		return (this.preferDirect ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity));
+	}
+
+	@Nullable
+	private ThreadLocalCache getThreadLocalCache() {
+		if (this.maxThreadLocalBuffers == 0 || this.maxThreadLocalCacheSize == 0) {
+			return null;
+		}
+		ThreadLocalCache cache = this.threadLocalCache.get();
+		if (cache == null) {
+			cache = new ThreadLocalCache(this.sharedPools.size(), this.maxThreadLocalBuffers,
+					this.maxThreadLocalCacheSize);
+			this.threadLocalCache.set(cache);
+		}
+		return cache;
+	}
+
+	private static int sizeClassIndex(int capacity) {
+		int normalized = Math.max(capacity, MIN_POOLED_CAPACITY);
+		return (32 - Integer.numberOfLeadingZeros(normalized - 1)) - MIN_POOLED_CAPACITY_SHIFT;
+	}
+
+	private static int sizeClassCapacity(int index) {
+		return 1 << (index + MIN_POOLED_CAPACITY_SHIFT);
+	}
+
+
+	@Override
+	public String toString() {
+		return "PooledDefaultDataBufferFactory (preferDirect=" + this.preferDirect +
+				", maxPooledCapacity=" + this.maxPooledCapacity + ")";
+	}
+
+
+	/**
+	 * Per-thread stacks of recycled buffers, one per size class, bounded by
+	 * their total capacity.
+	 */
+	private static class ThreadLocalCache {
+
+		private final ByteBuffer[][] buffers;
+
+		private final int[] counts;
+
+		private final int maxSize;
+
+		private int size;
+
+		ThreadLocalCache(int sizeClasses, int maxBuffers, int maxSize) {
+			this.buffers = new ByteBuffer[sizeClasses][maxBuffers];
+			this.counts = new int[sizeClasses];
+			this.maxSize = maxSize;
+		}
+
+		@Nullable
+		ByteBuffer poll(int index) {
+			int count = this.counts[index];
+			if (count == 0) {
+				return null;
+			}
+			count--;
+			ByteBuffer buffer = this.buffers[index][count];
+			this.buffers[index][count] = null;
+			this.counts[index] = count;
+			this.size -= buffer.capacity();
+			return buffer;
+		}
+
+		boolean offer(int index, ByteBuffer buffer) {
+			int count = this.counts[index];
+			if (count == this.buffers[index].length || this.size + buffer.capacity() > this.maxSize) {
+				return false;
+			}
+			this.buffers[index][count] = buffer;
+			this.counts[index] = count + 1;
+			this.size += buffer.capacity();
+			return true;
+		}
+	}
+
+
+	/**
+	 * Base class for buffers whose memory is recycled once released, rejecting
+	 * any access to that memory from then on.
+	 */
+	private abstract static class AbstractPooledDataBuffer extends DefaultDataBuffer implements PooledDataBuffer {
+
+		AbstractPooledDataBuffer(DefaultDataBufferFactory factory, ByteBuffer byteBuffer) {
+			super(factory, byteBuffer);
+		}
+
+		/**
+		 * Return the buffer that owns the memory and the reference count.
+		 */
+		abstract PooledDefaultDataBuffer owner();
+
+		void assertNotReleased() {
+			// The chunk may already be in use by another buffer
+			if (!owner().isAllocated()) {
+				throw new IllegalStateException("Buffer has already been released: " + this);
+			}
+		}
+
+		@Override
+		public ByteBuffer getNativeBuffer() {
+			assertNotReleased();
+			return super.getNativeBuffer();
+		}
+
+		@Override
+		public int indexOf(IntPredicate predicate, int fromIndex) {
+			assertNotReleased();
+			return super.indexOf(predicate, fromIndex);
+		}
+
+		@Override
+		public int lastIndexOf(IntPredicate predicate, int fromIndex) {
+			assertNotReleased();
+			return super.lastIndexOf(predicate, fromIndex);
+		}
+
+		@Override
+		public DataBuffer ensureCapacity(int length) {
+			// All write operations go through here
+			assertNotReleased();
+			return super.ensureCapacity(length);
+		}
+
+		@Override
+		public byte getByte(int index) {
+			assertNotReleased();
+			return super.getByte(index);
+		}
+
+		@Override
+		public byte read() {
+			assertNotReleased();
+			return super.read();
+		}
+
+		@Override
+		public DefaultDataBuffer read(byte[] destination, int offset, int length) {
+			assertNotReleased();
+			return super.read(destination, offset, length);
+		}
+
+		@Override
+		public DefaultDataBuffer slice(int index, int length) {
+			return new PooledSlicedDataBuffer(owner(), asByteBuffer(index, length), length);
+		}
+
+		@Override
+		public ByteBuffer asByteBuffer(int index, int length) {
+			assertNotReleased();
+			return super.asByteBuffer(index, length);
+		}
+
+		@Override
+		public InputStream asInputStream() {
+			assertNotReleased();
+			return super.asInputStream();
+		}
+
+		@Override
+		public InputStream asInputStream(boolean releaseOnClose) {
+			assertNotReleased();
+			return super.asInputStream(releaseOnClose);
+		}
+
+		@Override
+		public String toString(int index, int length, Charset charset) {
+			assertNotReleased();
+			return super.toString(index, length, charset);
+		}
+	}
+
+
+	/**
+	 * Reference counted {@link DefaultDataBuffer} backed by a pooled chunk.
+	 */
+	private static class PooledDefaultDataBuffer extends AbstractPooledDataBuffer {
+
+		private final PooledDefaultDataBufferFactory factory;
+
+		private final AtomicInteger refCount = new AtomicInteger(1);
+
+		private ByteBuffer chunk;
+
+		PooledDefaultDataBuffer(PooledDefaultDataBufferFactory factory, ByteBuffer chunk, int capacity) {
+			super(factory, limit(chunk, capacity));
+			this.factory = factory;
+			this.chunk = chunk;
+		}
+
+		@Override
+		PooledDefaultDataBuffer owner() {
+			return this;
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			// The previous chunk is left to the garbage collector, since slices may still refer to it
+			assertNotReleased();
+			return super.capacity(newCapacity);
+		}
+
+		@Override
+		ByteBuffer allocateByteBuffer(int capacity, boolean direct) {
+			this.chunk = this.factory.acquire(capacity);
+			return limit(this.chunk, capacity);
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.refCount.get() > 0;
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			int count = this.refCount.get();
+			while (true) {
+				if (count <= 0) {
+					throw new IllegalStateException("Cannot retain released buffer: " + this);
+				}
+				if (this.refCount.compareAndSet(count, count + 1)) {
+					return this;
+				}
+				count = this.refCount.get();
+			}
+		}
+
+		@Override
+		public boolean release() {
+			int count = this.refCount.get();
+			while (true) {
+				if (count <= 0) {
+					throw new IllegalStateException("Buffer has already been released: " + this);
+				}
+				if (this.refCount.compareAndSet(count, count - 1)) {
+					break;
+				}
+				count = this.refCount.get();
+			}
+			if (count > 1) {
+				return false;
+			}
+			this.factory.onRelease();
+			this.factory.recycle(this.chunk);
+			return true;
+		}
+
+		private static ByteBuffer limit(ByteBuffer chunk, int capacity) {
+			ByteBuffer duplicate = chunk.duplicate();
+			// Explicit access via Buffer base type for compatibility
+			// with covariant return type on JDK 9's ByteBuffer...
+			Buffer buffer = duplicate;
+			buffer.clear();
+			buffer.limit(capacity);
+			return duplicate.slice();
+		}
+	}
+
+
+	/**
+	 * Slice of a {@link PooledDefaultDataBuffer}, sharing its memory and its
+	 * reference count.
+	 */
+	private static class PooledSlicedDataBuffer extends AbstractPooledDataBuffer {
+
+		private final PooledDefaultDataBuffer parent;
+
+		PooledSlicedDataBuffer(PooledDefaultDataBuffer parent, ByteBuffer slice, int length) {
+			super(parent.factory(), slice);
+			this.parent = parent;
+			writePosition(length);
+		}
+
+		@Override
+		PooledDefaultDataBuffer owner() {
+			return this.parent;
+		}
+
+		@Override
+		public DefaultDataBuffer capacity(int newCapacity) {
+			throw new UnsupportedOperationException("Changing the capacity of a sliced buffer is not supported");
+		}
+
+		@Override
+		public boolean isAllocated() {
+			return this.parent.isAllocated();
+		}
+
+		@Override
+		public PooledDataBuffer retain() {
+			this.parent.retain();
+			return this;
+		}
+
+		@Override
+		public boolean release() {
+			return this.parent.release();
+		}
+	}
+
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Index of the entry names of jar files, allowing {@link PathMatchingResourcePatternResolver}
+ * to answer repeated {@code classpath*:} pattern lookups against the same jar through a
+ * prefix search on a sorted array instead of a full enumeration of the jar's entries.
+ *
+ * <p>The entries of a jar are read once, on first access, and validated against the
+ * last-modified timestamp and length of the jar file on subsequent lookups. If a
+ * storage directory is specified, the index of each jar is additionally written to
+ * that directory and reused by later instances (e.g. on the next start of the same
+ * application) as long as the jar file has not changed.
+ *
+ * <p>An instance is thread-safe and may be shared between several resolvers.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see PathMatchingResourcePatternResolver#setJarEntryIndex
+ */
+public class JarEntryIndex {
+
+	private static final int MAGIC = 0x4A454958;
+
+	private static final int VERSION = 1;
+
+	private static final String INDEX_FILE_SUFFIX = ".idx";
+
+	private static final Log logger = LogFactory.getLog(JarEntryIndex.class);
+
+
+	@Nullable
+	private final File storageDirectory;
+
+	private final Map<String, Entries> entriesCache = new ConcurrentHashMap<>(64);
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+
+	/**
+	 * Create a new {@code JarEntryIndex} that is held in memory only.
+	 */
+	public JarEntryIndex() {
+		this.storageDirectory = null;
+	}
+
+	/**
+	 * Create a new {@code JarEntryIndex} that is additionally persisted to the given
+	 * directory, keyed by the path, last-modified timestamp and length of each jar file.
+	 * @param storageDirectory the directory to store the index files in
+	 * (created on demand)
+	 */
+	public JarEntryIndex(File storageDirectory) {
+		Assert.notNull(storageDirectory, "Storage directory must not be null");
+		this.storageDirectory = storageDirectory;
+	}
+
+
+	/**
+	 * Return the directory that the index is persisted to, if any.
+	 */
+	@Nullable
+	public File getStorageDirectory() {
+		return this.storageDirectory;
+	}
+
+	/**
+	 * Return the number of lookups that were answered from the index, either
+	 * from memory or from a previously persisted index file.
+	 */
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+
+	/**
+	 * Return the number of lookups that required the entries of a jar file
+	 * to be enumerated.
+	 */
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+
+	/**
+	 * Return the number of jar files currently held in memory.
+	 */
+	public int size() {
+		return this.entriesCache.size();
+	}
+
+	/**
+	 * Remove all in-memory entries and reset the statistics.
+	 * <p>Persisted index files are left untouched.
+	 */
+	public void clear() {
+		this.entriesCache.clear();
+		this.hitCount.set(0);
+		this.missCount.set(0);
+	}
+
+	/**
+	 * Return the names of all entries in the given jar file that start with the
+	 * given prefix, in lexicographical order.
+	 * @param jarFile the jar file to introspect
+	 * @param prefix the entry name prefix (may be empty)
+	 * @return the matching entry names (never {@code null})
+	 */
+	public List<String> getEntryNames(JarFile jarFile, String prefix) {
+		String[] names = getEntries(jarFile).names;
+		int from = Arrays.binarySearch(names, prefix);
+		if (from < 0) {
+			from = -from - 1;
+		}
+		int to = from;
+		while (to < names.length && names[to].startsWith(prefix)) {
+			to++;
+		}
+		return (from == to ? Collections.emptyList() : Arrays.asList(names).subList(from, to));
+	}
+
+	private Entries getEntries(JarFile jarFile) {
+		String key = jarFile.getName();
+		File file = new File(key);
+		long lastModified = file.lastModified();
+		long length = file.length();
+		Entries entries = this.entriesCache.get(key);
+		if (entries != null && entries.matches(lastModified, length)) {
+			this.hitCount.incrementAndGet();
+			return entries;
+		}
+		entries = (lastModified != 0 ? readEntries(key, lastModified, length) : null);
+		if (entries != null) {
+			this.hitCount.incrementAndGet();
+		}
+		else {
+			this.missCount.incrementAndGet();
+			entries = createEntries(jarFile, lastModified, length);
+			if (lastModified != 0) {
+				writeEntries(key, entries);
+			}
+		}
+		this.entriesCache.put(key, entries);
+		return entries;
+	}
+
+	private Entries createEntries(JarFile jarFile, long lastModified, long length) {
+		List<String> names = new ArrayList<>();
+		for (Enumeration<JarEntry> jarEntries = jarFile.entries(); jarEntries.hasMoreElements();) {
+			names.add(jarEntries.nextElement().getName());
+		}
+		String[] sorted = names.toArray(new String[0]);
+		Arrays.sort(sorted);
+		return new Entries(lastModified, length, sorted);
+	}
+
+	@Nullable
+	private Entries readEntries(String jarPath, long lastModified, long length) {
+		Path indexFile = getIndexFile(jarPath);
+		if (indexFile == null || !Files.isRegularFile(indexFile)) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || !jarPath.equals(in.readUTF()) ||
+					in.readLong() != lastModified || in.readLong() != length) {
+				return null;
+			}
+			String[] names = new String[in.readInt()];
+			for (int i = 0; i < names.length; i++) {
+				names[i] = in.readUTF();
+			}
+			return new Entries(lastModified, length, names);
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Ignoring unreadable jar entry index [" + indexFile + "]: " + ex);
+			}
+			return null;
+		}
+	}
+
+	private void writeEntries(String jarPath, Entries entries) {
+		Path indexFile = getIndexFile(jarPath);
+		if (indexFile == null) {
+			return;
+		}
+		try {
+			Files.createDirectories(indexFile.getParent());
+			Path tempFile = Files.createTempFile(indexFile.getParent(), indexFile.getFileName().toString(), null);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(jarPath);
+				out.writeLong(entries.lastModified);
+				out.writeLong(entries.length);
+				out.writeInt(entries.names.length);
+				for (String name : entries.names) {
+					out.writeUTF(name);
+				}
+			}
+			Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to write jar entry index [" + indexFile + "]: " + ex);
+			}
+		}
+	}
+
+	@Nullable
+	private Path getIndexFile(String jarPath) {
+		if (this.storageDirectory == null) {
+			return null;
+		}
+		String digest = DigestUtils.md5DigestAsHex(jarPath.getBytes(StandardCharsets.UTF_8));
+		return this.storageDirectory.toPath().resolve(new File(jarPath).getName() + "-" + digest + INDEX_FILE_SUFFIX);
+	}
+
+	@Override
+	public String toString() {
+		return "JarEntryIndex: jar files=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount();
+	}
+
+
+	/**
+	 * Sorted entry names of a single jar file, along with the file attributes
+	 * that they were read for.
+	 */
+	private static class Entries {
+
+		final long lastModified;
+
+		final long length;
+
+		final String[] names;
+
+		Entries(long lastModified, long length, String[] names) {
+			this.lastModified = lastModified;
+			this.length = length;
+			this.names = names;
+		}
+
+		boolean matches(long lastModified, long length) {
+			return (this.lastModified == lastModified && this.length == length);
+		}
+	}
+
+}
@@ -211,6 +211,11 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	// 创建 ant 方式的路径匹配器
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	private boolean defaultPathMatcher = true;
+
+	@Nullable
+	private JarEntryIndex jarEntryIndex;
+
 
 	/**
 	 * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
@@ -265,6 +270,7 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 	public void setPathMatcher(PathMatcher pathMatcher) {
 		Assert.notNull(pathMatcher, "PathMatcher must not be null");
 		this.pathMatcher = pathMatcher;
+		this.defaultPathMatcher = false;
 	}
 
 	/**
@@ -274,6 +280,28 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Set a {@link JarEntryIndex} to answer jar file lookups with, instead of
+	 * enumerating all entries of a jar file for every pattern that is resolved
+	 * against it. Default is none.
+	 * <p>The same index may be shared between several resolvers, and may be
+	 * persisted to disk in order to be reused across application restarts.
+	 * @since 5.2.10
+	 * @see #doFindPathMatchingJarResources
+	 */
+	public void setJarEntryIndex(@Nullable JarEntryIndex jarEntryIndex) {
+		this.jarEntryIndex = jarEntryIndex;
+	}
+
+	/**
+	 * Return the {@link JarEntryIndex} that this resource pattern resolver uses, if any.
+	 * @since 5.2.10
+	 */
+	@Nullable
+	public JarEntryIndex getJarEntryIndex() {
+		return this.jarEntryIndex;
+	}
+
 
 	@Override
 	public Resource getResource(String location) {
@@ -652,6 +680,16 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 				rootEntryPath = rootEntryPath + "/";
 			}
 			Set<Resource> result = new LinkedHashSet<>(8);
+			if (this.jarEntryIndex != null) {
+				String searchPath = rootEntryPath + determineStaticPrefix(subPattern);
+				for (String entryPath : this.jarEntryIndex.getEntryNames(jarFile, searchPath)) {
+					String relativePath = entryPath.substring(rootEntryPath.length());
+					if (getPathMatcher().match(subPattern, relativePath)) {
+						result.add(rootDirResource.createRelative(relativePath));
+					}
+				}
+				return result;
+			}
 			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
 				JarEntry entry = entries.nextElement();
 				String entryPath = entry.getName();
@@ -671,6 +709,26 @@ public class PathMatchingResourcePatternResolver implements ResourcePatternResol
 		}
 	}
 
+	/**
+	 * Determine the leading directories of the given sub-pattern that do not
+	 * contain any wildcards, narrowing the range of a {@link JarEntryIndex} search.
+	 * <p>Only applied to the default {@link AntPathMatcher}; an empty prefix is
+	 * returned for a custom {@link PathMatcher} since its syntax is unknown.
+	 */
+	private String determineStaticPrefix(String subPattern) {
+		if (!this.defaultPathMatcher) {
+			return "";
+		}
+		int wildcardIndex = subPattern.length();
+		for (char wildcard : new char[] {'*', '?', '{'}) {
+			int index = subPattern.indexOf(wildcard);
+			if (index != -1 && index < wildcardIndex) {
+				wildcardIndex = index;
+			}
+		}
+		return subPattern.substring(0, subPattern.lastIndexOf('/', wildcardIndex - 1) + 1);
+	}
+
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
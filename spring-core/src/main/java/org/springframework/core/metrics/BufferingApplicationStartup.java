@@ -0,0 +1,340 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ApplicationStartup} implementation that buffers ended {@link StartupStep
+ * steps} in memory, so that the timeline of the startup phase can be inspected
+ * or printed once the application has started.
+ *
+ * <p>The buffer holds at most the configured number of steps; further steps are
+ * still handed out to callers but not recorded. The parent of a new step is the
+ * step that was started most recently and has not ended yet.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see #getTimeline()
+ * @see #prettyPrint()
+ */
+public class BufferingApplicationStartup implements ApplicationStartup {
+
+	private final int capacity;
+
+	private final Instant startTime = Instant.now();
+
+	private final AtomicLong idSeq = new AtomicLong();
+
+	private final AtomicInteger estimatedSize = new AtomicInteger();
+
+	private final ConcurrentLinkedQueue<TimelineEntry> entries = new ConcurrentLinkedQueue<>();
+
+	private final AtomicReference<BufferedStartupStep> current = new AtomicReference<>();
+
+
+	/**
+	 * Create a new buffering {@code ApplicationStartup} with a limited capacity.
+	 * @param capacity the maximum number of steps to record
+	 */
+	public BufferingApplicationStartup(int capacity) {
+		Assert.isTrue(capacity > 0, "Capacity must be greater than 0");
+		this.capacity = capacity;
+	}
+
+
+	@Override
+	public StartupStep start(String name) {
+		Assert.hasText(name, "Step name must not be empty");
+		BufferedStartupStep parent = this.current.get();
+		BufferedStartupStep step = new BufferedStartupStep(
+				this.idSeq.getAndIncrement(), name, parent, Instant.now(), System.nanoTime());
+		this.current.set(step);
+		return step;
+	}
+
+	private void record(BufferedStartupStep step) {
+		this.current.compareAndSet(step, step.parent);
+		if (this.estimatedSize.getAndIncrement() < this.capacity) {
+			this.entries.add(new TimelineEntry(step, Duration.ofNanos(System.nanoTime() - step.startNanos)));
+		}
+	}
+
+	/**
+	 * Return the time at which this {@code ApplicationStartup} was created.
+	 */
+	public Instant getStartTime() {
+		return this.startTime;
+	}
+
+	/**
+	 * Return the recorded steps, ordered by their start time.
+	 */
+	public List<TimelineEntry> getTimeline() {
+		List<TimelineEntry> timeline = new ArrayList<>(this.entries);
+		timeline.sort(Comparator.comparingLong(TimelineEntry::getId));
+		return Collections.unmodifiableList(timeline);
+	}
+
+	/**
+	 * Return a human-readable rendering of the recorded timeline, with each
+	 * step indented below its parent step.
+	 */
+	public String prettyPrint() {
+		List<TimelineEntry> timeline = getTimeline();
+		Map<Long, Integer> depths = new HashMap<>();
+		StringBuilder sb = new StringBuilder("Startup timeline (").append(timeline.size()).append(" steps");
+		int dropped = this.estimatedSize.get() - timeline.size();
+		if (dropped > 0) {
+			sb.append(", ").append(dropped).append(" not recorded");
+		}
+		sb.append(")\n");
+		for (TimelineEntry entry : timeline) {
+			Long parentId = entry.getParentId();
+			int depth = (parentId != null ? depths.getOrDefault(parentId, 0) + 1 : 0);
+			depths.put(entry.getId(), depth);
+			sb.append(String.format("%8d ms  %8d ms  ",
+					Duration.between(this.startTime, entry.getStartTime()).toMillis(),
+					entry.getDuration().toMillis()));
+			for (int i = 0; i < depth; i++) {
+				sb.append("  ");
+			}
+			sb.append(entry.getName());
+			if (!entry.getTags().isEmpty()) {
+				sb.append(' ').append(entry.getTags());
+			}
+			sb.append('\n');
+		}
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "BufferingApplicationStartup: capacity=" + this.capacity + ", recorded=" + this.entries.size();
+	}
+
+
+	/**
+	 * A recorded {@link StartupStep}.
+	 */
+	public static final class TimelineEntry {
+
+		private final long id;
+
+		@Nullable
+		private final Long parentId;
+
+		private final String name;
+
+		private final Map<String, String> tags;
+
+		private final Instant startTime;
+
+		private final Duration duration;
+
+		TimelineEntry(BufferedStartupStep step, Duration duration) {
+			this.id = step.getId();
+			this.parentId = step.getParentId();
+			this.name = step.getName();
+			Map<String, String> tags = new LinkedHashMap<>();
+			for (StartupStep.Tag tag : step.getTags()) {
+				tags.put(tag.getKey(), tag.getValue());
+			}
+			this.tags = Collections.unmodifiableMap(tags);
+			this.startTime = step.startTime;
+			this.duration = duration;
+		}
+
+		/**
+		 * Return the id of the step.
+		 */
+		public long getId() {
+			return this.id;
+		}
+
+		/**
+		 * Return the id of the parent step, if any.
+		 */
+		@Nullable
+		public Long getParentId() {
+			return this.parentId;
+		}
+
+		/**
+		 * Return the name of the step.
+		 */
+		public String getName() {
+			return this.name;
+		}
+
+		/**
+		 * Return the tags of the step, in the order they were added.
+		 */
+		public Map<String, String> getTags() {
+			return this.tags;
+		}
+
+		/**
+		 * Return the time at which the step was started.
+		 */
+		public Instant getStartTime() {
+			return this.startTime;
+		}
+
+		/**
+		 * Return the time between the start and the end of the step.
+		 */
+		public Duration getDuration() {
+			return this.duration;
+		}
+
+		@Override
+		public String toString() {
+			return this.name + " " + this.tags + " [" + this.duration.toMillis() + " ms]";
+		}
+	}
+
+
+	private class BufferedStartupStep implements StartupStep {
+
+		private final long id;
+
+		private final String name;
+
+		@Nullable
+		private final BufferedStartupStep parent;
+
+		private final Instant startTime;
+
+		private final long startNanos;
+
+		private final BufferedTags tags = new BufferedTags();
+
+		private volatile boolean ended;
+
+		BufferedStartupStep(long id, String name, @Nullable BufferedStartupStep parent,
+				Instant startTime, long startNanos) {
+
+			this.id = id;
+			this.name = name;
+			this.parent = parent;
+			this.startTime = startTime;
+			this.startNanos = startNanos;
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public long getId() {
+			return this.id;
+		}
+
+		@Override
+		@Nullable
+		public Long getParentId() {
+			return (this.parent != null ? this.parent.id : null);
+		}
+
+		@Override
+		public StartupStep tag(String key, String value) {
+			Assert.state(!this.ended, "StartupStep has already ended");
+			this.tags.add(key, value);
+			return this;
+		}
+
+		@Override
+		public StartupStep tag(String key, Supplier<String> value) {
+			return tag(key, value.get());
+		}
+
+		@Override
+		public Tags getTags() {
+			return this.tags;
+		}
+
+		@Override
+		public void end() {
+			Assert.state(!this.ended, "StartupStep has already ended");
+			this.ended = true;
+			record(this);
+		}
+	}
+
+
+	private static class BufferedTags implements StartupStep.Tags {
+
+		private final List<StartupStep.Tag> tags = new ArrayList<>(2);
+
+		synchronized void add(String key, String value) {
+			this.tags.add(new BufferedTag(key, value));
+		}
+
+		@Override
+		public synchronized Iterator<StartupStep.Tag> iterator() {
+			return new ArrayList<>(this.tags).iterator();
+		}
+	}
+
+
+	private static class BufferedTag implements StartupStep.Tag {
+
+		private final String key;
+
+		private final String value;
+
+		BufferedTag(String key, String value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return this.key;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+
+		@Override
+		public String toString() {
+			return this.key + "=" + this.value;
+		}
+	}
+
+}
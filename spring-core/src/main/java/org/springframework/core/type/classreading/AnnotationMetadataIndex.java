@@ -0,0 +1,187 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Index of annotation metadata recorded at build time by the
+ * {@code spring-context-indexer} annotation processor, allowing
+ * {@link MetadataReader MetadataReaders} to be created for indexed
+ * classes without parsing their bytecode.
+ *
+ * <p>Entries are keyed by the URL of the class file they describe, so an index
+ * only ever applies to the classes of the classpath root it was found in.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see CachingMetadataReaderFactory
+ * @see IndexedMetadataReader
+ */
+final class AnnotationMetadataIndex {
+
+	/**
+	 * The location to look for annotation metadata.
+	 * <p>Can be present in multiple JAR files.
+	 */
+	static final String METADATA_RESOURCE_LOCATION = "META-INF/spring.components.metadata";
+
+	/**
+	 * Marker at the start of an index file, followed by the format version.
+	 */
+	static final int MAGIC = 0x53434D49;
+
+	static final int VERSION = 1;
+
+	/**
+	 * System property that instructs Spring to ignore build-time indexes,
+	 * shared with the candidate components index.
+	 */
+	private static final boolean shouldIgnoreIndex = SpringProperties.getFlag("spring.index.ignore");
+
+	private static final Log logger = LogFactory.getLog(AnnotationMetadataIndex.class);
+
+	private static final AnnotationMetadataIndex EMPTY = new AnnotationMetadataIndex(Collections.emptyMap());
+
+	private static final ConcurrentMap<ClassLoader, AnnotationMetadataIndex> cache =
+			new ConcurrentReferenceHashMap<>();
+
+
+	private final Map<String, byte[]> entries;
+
+
+	private AnnotationMetadataIndex(Map<String, byte[]> entries) {
+		this.entries = entries;
+	}
+
+
+	/**
+	 * Create a {@link MetadataReader} for the given class file resource from
+	 * this index.
+	 * @param resource the class file resource
+	 * @param classLoader the ClassLoader to resolve annotation types with
+	 * @return the {@code MetadataReader}, or {@code null} if the class is not indexed
+	 * @throws IOException if the index entry for the class is corrupt
+	 */
+	@Nullable
+	public MetadataReader getMetadataReader(Resource resource, @Nullable ClassLoader classLoader)
+			throws IOException {
+
+		if (this.entries.isEmpty()) {
+			return null;
+		}
+		String url;
+		try {
+			url = resource.getURL().toString();
+		}
+		catch (IOException ex) {
+			return null;
+		}
+		byte[] entry = this.entries.get(url);
+		return (entry != null ? new IndexedMetadataReader(resource, entry, classLoader) : null);
+	}
+
+
+	/**
+	 * Load the index from {@value #METADATA_RESOURCE_LOCATION}, using the given
+	 * class loader. The index is empty if no such resource exists or if
+	 * {@code spring.index.ignore} is set.
+	 * @param classLoader the ClassLoader to use for loading
+	 * (can be {@code null} to use the default)
+	 * @return the index to use (never {@code null})
+	 */
+	public static AnnotationMetadataIndex loadIndex(@Nullable ClassLoader classLoader) {
+		ClassLoader classLoaderToUse = classLoader;
+		if (classLoaderToUse == null) {
+			classLoaderToUse = ClassUtils.getDefaultClassLoader();
+			if (classLoaderToUse == null) {
+				return EMPTY;
+			}
+		}
+		return cache.computeIfAbsent(classLoaderToUse, AnnotationMetadataIndex::doLoadIndex);
+	}
+
+	private static AnnotationMetadataIndex doLoadIndex(ClassLoader classLoader) {
+		if (shouldIgnoreIndex) {
+			return EMPTY;
+		}
+		Map<String, byte[]> entries = new HashMap<>();
+		try {
+			Enumeration<URL> urls = classLoader.getResources(METADATA_RESOURCE_LOCATION);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				String location = url.toString();
+				String root = location.substring(0, location.length() - METADATA_RESOURCE_LOCATION.length());
+				try (InputStream is = url.openStream()) {
+					readEntries(new DataInputStream(is), root, entries);
+				}
+				catch (IOException ex) {
+					// Unreadable index -> classes of this root get parsed as usual
+					logger.warn("Ignoring annotation metadata index [" + url + "]: " + ex);
+				}
+			}
+		}
+		catch (IOException ex) {
+			logger.warn("Unable to load annotation metadata indexes from location [" +
+					METADATA_RESOURCE_LOCATION + "]: " + ex);
+			return EMPTY;
+		}
+		if (logger.isDebugEnabled() && !entries.isEmpty()) {
+			logger.debug("Loaded annotation metadata for " + entries.size() + " indexed classes");
+		}
+		return (entries.isEmpty() ? EMPTY : new AnnotationMetadataIndex(entries));
+	}
+
+	private static void readEntries(DataInputStream in, String root, Map<String, byte[]> entries)
+			throws IOException {
+
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not an annotation metadata index");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported index version " + version);
+		}
+		Map<String, byte[]> result = new HashMap<>();
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			String className = in.readUTF();
+			byte[] entry = new byte[in.readInt()];
+			in.readFully(entry);
+			result.put(root + ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX, entry);
+		}
+		entries.putAll(result);
+	}
+
+}
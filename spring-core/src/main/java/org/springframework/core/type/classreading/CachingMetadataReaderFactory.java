@@ -31,6 +31,12 @@ import org.springframework.lang.Nullable;
  * caching a {@link MetadataReader} instance per Spring {@link Resource} handle
  * (i.e. per ".class" file).
  *
+ * <p>As of 5.2.10, metadata for classes covered by a build-time annotation metadata
+ * index ({@code META-INF/spring.components.metadata}, as generated by the
+ * {@code spring-context-indexer} annotation processor next to the components
+ * index) is read from that index instead of parsing the class file. This can be
+ * turned off through the {@code spring.index.ignore} system property.
+ *
  * @author Juergen Hoeller
  * @author Costin Leau
  * @since 2.5
@@ -44,6 +50,9 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 	@Nullable
 	private Map<Resource, MetadataReader> metadataReaderCache;
 
+	@Nullable
+	private volatile AnnotationMetadataIndex metadataIndex;
+
 
 	/**
 	 * Create a new CachingMetadataReaderFactory for the default class loader,
@@ -120,24 +129,42 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 			// No synchronization necessary...
 			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
+				metadataReader = createMetadataReader(resource);
 				this.metadataReaderCache.put(resource, metadataReader);
 			}
 			return metadataReader;
 		}
 		else if (this.metadataReaderCache != null) {
-			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
+			Map<Resource, MetadataReader> cache = this.metadataReaderCache;
+			MetadataReader metadataReader;
+			synchronized (cache) {
+				metadataReader = cache.get(resource);
+			}
+			if (metadataReader == null) {
+				// Read outside of the lock, allowing for concurrent class file parsing
+				metadataReader = createMetadataReader(resource);
+				synchronized (cache) {
+					MetadataReader existing = cache.putIfAbsent(resource, metadataReader);
+					if (existing != null) {
+						metadataReader = existing;
+					}
 				}
-				return metadataReader;
 			}
+			return metadataReader;
 		}
 		else {
-			return super.getMetadataReader(resource);
+			return createMetadataReader(resource);
+		}
+	}
+
+	private MetadataReader createMetadataReader(Resource resource) throws IOException {
+		AnnotationMetadataIndex index = this.metadataIndex;
+		if (index == null) {
+			index = AnnotationMetadataIndex.loadIndex(getResourceLoader().getClassLoader());
+			this.metadataIndex = index;
 		}
+		MetadataReader metadataReader = index.getMetadataReader(resource, getResourceLoader().getClassLoader());
+		return (metadataReader != null ? metadataReader : super.getMetadataReader(resource));
 	}
 
 	/**
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.NestedIOException;
+import org.springframework.core.annotation.AnnotationFilter;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * {@link MetadataReader} implementation that reads the
+ * {@link SimpleAnnotationMetadata} of a class from an
+ * {@link AnnotationMetadataIndex} entry instead of its bytecode.
+ *
+ * <p>Attribute values are materialized the same way as by the ASM-based
+ * {@link SimpleMetadataReader}: class references as class names, enums as
+ * enum constants and non-empty arrays of primitives as primitive arrays.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+final class IndexedMetadataReader implements MetadataReader {
+
+	private static final Map<Class<?>, Class<?>> primitiveTypes = new HashMap<>(16);
+
+	static {
+		for (Class<?> type : new Class<?>[] {boolean.class, byte.class, char.class, short.class,
+				int.class, long.class, float.class, double.class}) {
+			primitiveTypes.put(ClassUtils.resolvePrimitiveIfNecessary(type), type);
+		}
+	}
+
+	private final Resource resource;
+
+	private final AnnotationMetadata annotationMetadata;
+
+
+	IndexedMetadataReader(Resource resource, byte[] entry, @Nullable ClassLoader classLoader) throws IOException {
+		this.resource = resource;
+		try {
+			this.annotationMetadata = new EntryReader(entry, classLoader).readClass();
+		}
+		catch (IOException | IllegalArgumentException | LinkageError ex) {
+			throw new NestedIOException("Failed to read indexed annotation metadata for " + resource, ex);
+		}
+	}
+
+
+	@Override
+	public Resource getResource() {
+		return this.resource;
+	}
+
+	@Override
+	public ClassMetadata getClassMetadata() {
+		return this.annotationMetadata;
+	}
+
+	@Override
+	public AnnotationMetadata getAnnotationMetadata() {
+		return this.annotationMetadata;
+	}
+
+
+	/**
+	 * Reads a single index entry, as written by the annotation processor.
+	 */
+	private static class EntryReader {
+
+		private final DataInputStream in;
+
+		@Nullable
+		private final ClassLoader classLoader;
+
+		EntryReader(byte[] entry, @Nullable ClassLoader classLoader) {
+			this.in = new DataInputStream(new ByteArrayInputStream(entry));
+			this.classLoader = classLoader;
+		}
+
+		SimpleAnnotationMetadata readClass() throws IOException {
+			String className = this.in.readUTF();
+			int access = this.in.readInt();
+			String enclosingClassName = readOptionalString();
+			String superClassName = readOptionalString();
+			boolean independentInnerClass = this.in.readBoolean();
+			String[] interfaceNames = readStrings();
+			String[] memberClassNames = readStrings();
+			MergedAnnotations annotations = readAnnotations(className);
+			MethodMetadata[] annotatedMethods = new MethodMetadata[this.in.readInt()];
+			for (int i = 0; i < annotatedMethods.length; i++) {
+				String methodName = this.in.readUTF();
+				int methodAccess = this.in.readInt();
+				String returnTypeName = this.in.readUTF();
+				MergedAnnotations methodAnnotations = readAnnotations(className + "." + methodName);
+				annotatedMethods[i] = new SimpleMethodMetadata(
+						methodName, methodAccess, className, returnTypeName, methodAnnotations);
+			}
+			return new SimpleAnnotationMetadata(className, access, enclosingClassName, superClassName,
+					independentInnerClass, interfaceNames, memberClassNames, annotatedMethods, annotations);
+		}
+
+		@Nullable
+		private String readOptionalString() throws IOException {
+			return (this.in.readBoolean() ? this.in.readUTF() : null);
+		}
+
+		private String[] readStrings() throws IOException {
+			String[] result = new String[this.in.readInt()];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = this.in.readUTF();
+			}
+			return result;
+		}
+
+		private MergedAnnotations readAnnotations(Object source) throws IOException {
+			int count = this.in.readInt();
+			List<MergedAnnotation<?>> annotations = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				MergedAnnotation<?> annotation = readAnnotation(source);
+				if (annotation != null) {
+					annotations.add(annotation);
+				}
+			}
+			return MergedAnnotations.of(annotations);
+		}
+
+		/**
+		 * Read an annotation, returning {@code null} for plain or unresolvable
+		 * annotation types which the ASM-based reader skips as well.
+		 */
+		@Nullable
+		@SuppressWarnings("unchecked")
+		private MergedAnnotation<?> readAnnotation(Object source) throws IOException {
+			String typeName = this.in.readUTF();
+			Class<? extends Annotation> annotationType = null;
+			if (!AnnotationFilter.PLAIN.matches(typeName)) {
+				try {
+					annotationType = (Class<? extends Annotation>) ClassUtils.forName(typeName, this.classLoader);
+				}
+				catch (ClassNotFoundException | LinkageError ex) {
+					// skip, as SimpleMetadataReader would
+				}
+			}
+			int count = this.in.readInt();
+			Map<String, Object> attributes = new LinkedHashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				String name = this.in.readUTF();
+				Object value = readValue(source);
+				if (value != null) {
+					attributes.put(name, value);
+				}
+			}
+			return (annotationType != null ?
+					MergedAnnotation.of(this.classLoader, source, annotationType, attributes) : null);
+		}
+
+		@Nullable
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private Object readValue(Object source) throws IOException {
+			char tag = (char) this.in.readByte();
+			switch (tag) {
+				case 'Z': return this.in.readBoolean();
+				case 'B': return this.in.readByte();
+				case 'C': return this.in.readChar();
+				case 'S': return this.in.readShort();
+				case 'I': return this.in.readInt();
+				case 'J': return this.in.readLong();
+				case 'F': return this.in.readFloat();
+				case 'D': return this.in.readDouble();
+				case 's':
+				case 'c':
+					return this.in.readUTF();
+				case 'e':
+					Class enumType = ClassUtils.resolveClassName(this.in.readUTF(), this.classLoader);
+					return Enum.valueOf(enumType, this.in.readUTF());
+				case '@':
+					return readAnnotation(source);
+				case '[':
+					return readArray(source);
+				default:
+					throw new IOException("Unexpected attribute value tag '" + tag + "'");
+			}
+		}
+
+		private Object readArray(Object source) throws IOException {
+			int length = this.in.readInt();
+			List<Object> elements = new ArrayList<>(length);
+			for (int i = 0; i < length; i++) {
+				Object element = readValue(source);
+				if (element != null) {
+					elements.add(element);
+				}
+			}
+			if (elements.isEmpty()) {
+				return new Object[0];
+			}
+			Object firstElement = elements.get(0);
+			Class<?> componentType = (firstElement instanceof Enum ?
+					((Enum<?>) firstElement).getDeclaringClass() : firstElement.getClass());
+			Object array = Array.newInstance(
+					primitiveTypes.getOrDefault(componentType, componentType), elements.size());
+			for (int i = 0; i < elements.size(); i++) {
+				Array.set(array, i, elements.get(i));
+			}
+			return array;
+		}
+	}
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * A fixed set of Ant-style patterns, compiled into a trie of path segments
+ * for use with an {@link AntPathMatcher}.
+ *
+ * <p>Answers the question "which of these patterns match the given path"
+ * by walking the segments of the path once, rather than by calling
+ * {@link AntPathMatcher#match} for every pattern in turn. Literal segments
+ * are resolved through a hash lookup, while wildcard segments and {@code "**"}
+ * are followed in parallel. Every candidate that the trie yields is then
+ * confirmed through {@link AntPathMatcher#match}, so results are always
+ * consistent with the given matcher, including its separator, case
+ * sensitivity and token trimming.
+ *
+ * <p>Instances are immutable and thread-safe.
+ *
+ * @author agent
+ * @since 5.2.10
+ * @see AntPathMatcher#getPatternComparator(String)
+ */
+public class AntPathPatternSet {
+
+	private static final String DOUBLE_WILDCARD = "**";
+
+	private static final String SINGLE_WILDCARD = "*";
+
+
+	private final AntPathMatcher pathMatcher;
+
+	private final String[] patterns;
+
+	private final Node root = new Node(false);
+
+
+	/**
+	 * Create a new {@code AntPathPatternSet} for the given patterns,
+	 * using a default {@link AntPathMatcher}.
+	 * @param patterns the patterns to compile
+	 */
+	public AntPathPatternSet(Collection<String> patterns) {
+		this(new AntPathMatcher(), patterns);
+	}
+
+	/**
+	 * Create a new {@code AntPathPatternSet} for the given patterns.
+	 * @param pathMatcher the matcher to tokenize patterns and paths with,
+	 * and to confirm candidate matches against
+	 * @param patterns the patterns to compile
+	 */
+	public AntPathPatternSet(AntPathMatcher pathMatcher, Collection<String> patterns) {
+		Assert.notNull(pathMatcher, "AntPathMatcher must not be null");
+		Assert.notNull(patterns, "Patterns must not be null");
+		this.pathMatcher = pathMatcher;
+		this.patterns = new LinkedHashSet<>(patterns).toArray(new String[0]);
+		for (int i = 0; i < this.patterns.length; i++) {
+			Node node = this.root;
+			for (String segment : pathMatcher.tokenizePattern(this.patterns[i])) {
+				node = node.getOrCreateChild(segment);
+			}
+			node.patternIndexes.set(i);
+		}
+	}
+
+
+	/**
+	 * Return the patterns in this set, in registration order and without duplicates.
+	 */
+	public List<String> getPatterns() {
+		return Collections.unmodifiableList(Arrays.asList(this.patterns));
+	}
+
+	/**
+	 * Return whether any of the patterns in this set matches the given path.
+	 * @param path the path to match
+	 * @see AntPathMatcher#match(String, String)
+	 */
+	public boolean match(String path) {
+		BitSet candidates = findCandidates(path);
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			if (this.pathMatcher.match(this.patterns[i], path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return all patterns in this set that match the given path, sorted by
+	 * specificity as defined by {@link AntPathMatcher#getPatternComparator(String)}.
+	 * Patterns of equal specificity retain their registration order.
+	 * @param path the path to match
+	 * @return the matching patterns, most specific first (never {@code null})
+	 */
+	public List<String> getMatchingPatterns(String path) {
+		BitSet candidates = findCandidates(path);
+		List<String> result = new ArrayList<>(candidates.cardinality());
+		for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+			if (this.pathMatcher.match(this.patterns[i], path)) {
+				result.add(this.patterns[i]);
+			}
+		}
+		if (result.size() > 1) {
+			result.sort(this.pathMatcher.getPatternComparator(path));
+		}
+		return result;
+	}
+
+	/**
+	 * Walk the trie along the segments of the given path, collecting the indexes
+	 * of all patterns that may match. The result is a superset of the actual matches.
+	 */
+	private BitSet findCandidates(String path) {
+		BitSet candidates = new BitSet(this.patterns.length);
+		Set<Node> current = new LinkedHashSet<>();
+		addWithDoubleWildcards(this.root, current);
+		for (String pathDir : this.pathMatcher.tokenizePath(path)) {
+			String key = pathDir.toLowerCase(Locale.ROOT);
+			Set<Node> next = new LinkedHashSet<>();
+			for (Node node : current) {
+				if (node.doubleWildcard) {
+					addWithDoubleWildcards(node, next);
+				}
+				Node literalChild = node.literalChildren.get(key);
+				if (literalChild != null) {
+					addWithDoubleWildcards(literalChild, next);
+				}
+				for (Node wildcardChild : node.wildcardChildren.values()) {
+					addWithDoubleWildcards(wildcardChild, next);
+				}
+			}
+			if (next.isEmpty()) {
+				return candidates;
+			}
+			current = next;
+		}
+		for (Node node : current) {
+			candidates.or(node.patternIndexes);
+			// "/foo/*" also matches "/foo/"
+			Node singleWildcardChild = node.wildcardChildren.get(SINGLE_WILDCARD);
+			if (singleWildcardChild != null) {
+				candidates.or(singleWildcardChild.patternIndexes);
+			}
+		}
+		return candidates;
+	}
+
+	private static void addWithDoubleWildcards(Node node, Set<Node> nodes) {
+		Deque<Node> queue = new ArrayDeque<>();
+		queue.add(node);
+		while (!queue.isEmpty()) {
+			Node current = queue.poll();
+			if (nodes.add(current) && current.doubleWildcardChild != null) {
+				queue.add(current.doubleWildcardChild);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "AntPathPatternSet " + getPatterns();
+	}
+
+
+	/**
+	 * A node in the trie, representing one pattern segment.
+	 */
+	private static class Node {
+
+		final boolean doubleWildcard;
+
+		final Map<String, Node> literalChildren = new HashMap<>(4);
+
+		final Map<String, Node> wildcardChildren = new LinkedHashMap<>(4);
+
+		@Nullable
+		Node doubleWildcardChild;
+
+		final BitSet patternIndexes = new BitSet();
+
+		Node(boolean doubleWildcard) {
+			this.doubleWildcard = doubleWildcard;
+		}
+
+		Node getOrCreateChild(String segment) {
+			if (DOUBLE_WILDCARD.equals(segment)) {
+				if (this.doubleWildcardChild == null) {
+					this.doubleWildcardChild = new Node(true);
+				}
+				return this.doubleWildcardChild;
+			}
+			if (isWildcardSegment(segment)) {
+				return this.wildcardChildren.computeIfAbsent(segment, key -> new Node(false));
+			}
+			// Keys are lower-cased so that case-insensitive matchers are covered as well
+			return this.literalChildren.computeIfAbsent(segment.toLowerCase(Locale.ROOT), key -> new Node(false));
+		}
+
+		private static boolean isWildcardSegment(String segment) {
+			return (segment.indexOf('*') != -1 || segment.indexOf('?') != -1 || segment.indexOf('{') != -1);
+		}
+	}
+
+}
@@ -95,6 +95,11 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 	 */
 	private final int shift;
 
+	/**
+	 * Whether read operations avoid blocking on the segment lock.
+	 */
+	private final boolean lockFreeReads;
+
 	/**
 	 * Late binding entry set.
 	 */
@@ -167,10 +172,33 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 	 * write to the map
 	 * @param referenceType the reference type used for entries (soft or weak)
 	 */
-	@SuppressWarnings("unchecked")
 	public ConcurrentReferenceHashMap(
 			int initialCapacity, float loadFactor, int concurrencyLevel, ReferenceType referenceType) {
 
+		this(initialCapacity, loadFactor, concurrencyLevel, referenceType, false);
+	}
+
+	/**
+	 * Create a new {@code ConcurrentReferenceHashMap} instance.
+	 * <p>With {@code lockFreeReads} enabled, {@link #get}, {@link #getOrDefault} and
+	 * {@link #containsKey} never wait for a segment lock: collected references are
+	 * only purged by a reading thread if the lock is immediately available, and are
+	 * otherwise left for the next write or uncontended read on that segment. This
+	 * suits read-mostly caches where soft or weak references are cleared frequently.
+	 * @param initialCapacity the initial capacity of the map
+	 * @param loadFactor the load factor. When the average number of references per
+	 * table exceeds this value, resize will be attempted.
+	 * @param concurrencyLevel the expected number of threads that will concurrently
+	 * write to the map
+	 * @param referenceType the reference type used for entries (soft or weak)
+	 * @param lockFreeReads whether read operations should avoid blocking on the
+	 * segment lock when purging collected references
+	 * @since 5.2.10
+	 */
+	@SuppressWarnings("unchecked")
+	public ConcurrentReferenceHashMap(int initialCapacity, float loadFactor, int concurrencyLevel,
+			ReferenceType referenceType, boolean lockFreeReads) {
+
 		Assert.isTrue(initialCapacity >= 0, "Initial capacity must not be negative");
 		Assert.isTrue(loadFactor > 0f, "Load factor must be positive");
 		Assert.isTrue(concurrencyLevel > 0, "Concurrency level must be positive");
@@ -179,6 +207,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		this.shift = calculateShift(concurrencyLevel, MAXIMUM_CONCURRENCY_LEVEL);
 		int size = 1 << this.shift;
 		this.referenceType = referenceType;
+		this.lockFreeReads = lockFreeReads;
 		int roundedUpSegmentCapacity = (int) ((initialCapacity + size - 1L) / size);
 		int initialSize = 1 << calculateShift(roundedUpSegmentCapacity, MAXIMUM_SEGMENT_SIZE);
 		Segment[] segments = (Segment[]) Array.newInstance(Segment.class, size);
@@ -202,6 +231,14 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		return this.segments[index];
 	}
 
+	/**
+	 * Return whether read operations avoid blocking on the segment lock.
+	 * @since 5.2.10
+	 */
+	protected final boolean isLockFreeReads() {
+		return this.lockFreeReads;
+	}
+
 	/**
 	 * Factory method that returns the {@link ReferenceManager}.
 	 * This method will be called once for each {@link Segment}.
@@ -482,6 +519,12 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		 */
 		private int resizeThreshold;
 
+		/**
+		 * Set when a reading thread found references to purge but could not
+		 * acquire the lock; the next restructure will then rebuild the table.
+		 */
+		private volatile boolean purgePending;
+
 		public Segment(int initialSize, int resizeThreshold) {
 			this.referenceManager = createReferenceManager();
 			this.initialSize = initialSize;
@@ -492,7 +535,12 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 		@Nullable
 		public Reference<K, V> getReference(@Nullable Object key, int hash, Restructure restructure) {
 			if (restructure == Restructure.WHEN_NECESSARY) {
-				restructureIfNecessary(false);
+				if (ConcurrentReferenceHashMap.this.lockFreeReads) {
+					purgeIfUncontended();
+				}
+				else {
+					restructureIfNecessary(false);
+				}
 			}
 			if (this.count.get() == 0) {
 				return null;
@@ -572,15 +620,40 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 			int currCount = this.count.get();
 			boolean needsResize = allowResize && (currCount > 0 && currCount >= this.resizeThreshold);
 			Reference<K, V> ref = this.referenceManager.pollForPurge();
-			if (ref != null || (needsResize)) {
+			if (ref != null || needsResize || this.purgePending) {
 				restructure(allowResize, ref);
 			}
 		}
 
+		/**
+		 * Purge garbage collected references without ever waiting for the lock.
+		 * If another thread currently holds the lock, the purge is deferred to the
+		 * next restructure of this segment.
+		 */
+		private void purgeIfUncontended() {
+			Reference<K, V> ref = this.referenceManager.pollForPurge();
+			if (ref == null && !this.purgePending) {
+				return;
+			}
+			if (tryLock()) {
+				try {
+					restructure(false, ref);
+				}
+				finally {
+					unlock();
+				}
+			}
+			else {
+				// The polled reference is already cleared, so any later restructure drops it
+				this.purgePending = true;
+			}
+		}
+
 		private void restructure(boolean allowResize, @Nullable Reference<K, V> ref) {
 			boolean needsResize;
 			lock();
 			try {
+				this.purgePending = false;
 				int countAfterRestructure = this.count.get();
 				Set<Reference<K, V>> toPurge = Collections.emptySet();
 				if (ref != null) {
@@ -602,16 +675,14 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 					resizing = true;
 				}
 
-				// Either create a new table or reuse the existing one
-				Reference<K, V>[] restructured =
-						(resizing ? createReferenceArray(restructureSize) : this.references);
+				// Always build a new table so that concurrent readers, which do not
+				// hold the lock, never observe a partially restructured chain
+				Reference<K, V>[] restructured = createReferenceArray(restructureSize);
+				int restructuredCount = 0;
 
 				// Restructure
 				for (int i = 0; i < this.references.length; i++) {
 					ref = this.references[i];
-					if (!resizing) {
-						restructured[i] = null;
-					}
 					while (ref != null) {
 						if (!toPurge.contains(ref)) {
 							Entry<K, V> entry = ref.get();
@@ -619,6 +690,7 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 								int index = getIndex(ref.getHash(), restructured);
 								restructured[index] = this.referenceManager.createReference(
 										entry, ref.getHash(), restructured[index]);
+								restructuredCount++;
 							}
 						}
 						ref = ref.getNext();
@@ -626,11 +698,11 @@ public class ConcurrentReferenceHashMap<K, V> extends AbstractMap<K, V> implemen
 				}
 
 				// Replace volatile members
+				this.references = restructured;
 				if (resizing) {
-					this.references = restructured;
 					this.resizeThreshold = (int) (this.references.length * getLoadFactor());
 				}
-				this.count.set(Math.max(countAfterRestructure, 0));
+				this.count.set(restructuredCount);
 			}
 			finally {
 				unlock();
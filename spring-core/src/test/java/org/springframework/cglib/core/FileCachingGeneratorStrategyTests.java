@@ -0,0 +1,171 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cglib.core;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.NoOp;
+import org.springframework.core.OverridingClassLoader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link FileCachingGeneratorStrategy}.
+ *
+ * @author agent
+ */
+class FileCachingGeneratorStrategyTests {
+
+	@TempDir
+	Path cacheDirectory;
+
+
+	@Test
+	void generatedClassIsWrittenToCacheDirectory() throws Exception {
+		CountingGeneratorStrategy delegate = new CountingGeneratorStrategy();
+		Class<?> proxyClass = createClass(SampleBean.class, delegate);
+
+		assertThat(delegate.count.get()).isEqualTo(1);
+		File[] files = this.cacheDirectory.toFile().listFiles();
+		assertThat(files).hasSize(1);
+		assertThat(files[0].getName()).startsWith("FileCachingGeneratorStrategyTests.SampleBean-").endsWith(".class");
+		assertThat(proxyClass.getSuperclass()).isEqualTo(SampleBean.class);
+	}
+
+	@Test
+	void cachedClassIsDefinedWithoutGeneration() throws Exception {
+		Class<?> firstBeanClass = loadIsolatedBeanClass();
+		Class<?> first = createClass(firstBeanClass, new CountingGeneratorStrategy());
+
+		Class<?> secondBeanClass = loadIsolatedBeanClass();
+		CountingGeneratorStrategy delegate = new CountingGeneratorStrategy();
+		Class<?> second = createClass(secondBeanClass, delegate);
+		assertThat(delegate.count.get()).isEqualTo(0);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getName()).isEqualTo(first.getName());
+		assertThat(second.getSuperclass()).isSameAs(secondBeanClass);
+		assertThat(second.getDeclaredConstructor().newInstance().toString()).isEqualTo("isolated");
+	}
+
+	@Test
+	void cachedClassIsIgnoredIfAlreadyDefined() throws Exception {
+		Class<?> first = createClass(SampleBean.class, new CountingGeneratorStrategy());
+
+		CountingGeneratorStrategy delegate = new CountingGeneratorStrategy();
+		Class<?> second = createClass(SampleBean.class, delegate);
+		assertThat(delegate.count.get()).isEqualTo(1);
+		assertThat(second.getName()).isNotEqualTo(first.getName());
+	}
+
+	@Test
+	void methodProxyGeneratesFastClassesDespiteSharedStrategy() throws Exception {
+		String cacheKey = FileCachingGeneratorStrategy.computeCacheKey("interceptor", SampleBean.class);
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(SampleBean.class);
+		enhancer.setUseCache(false);
+		enhancer.setCallback((MethodInterceptor) (obj, method, args, proxy) -> "intercepted " + proxy.invokeSuper(obj, args));
+		enhancer.setStrategy(new FileCachingGeneratorStrategy(
+				DefaultGeneratorStrategy.INSTANCE, this.cacheDirectory.toFile(), cacheKey));
+
+		assertThat(enhancer.create().toString()).isEqualTo("intercepted sample");
+		assertThat(this.cacheDirectory.toFile().listFiles()).hasSize(1);
+	}
+
+	@Test
+	void cacheKeyReflectsDescriptionAndClassFiles() {
+		String key = FileCachingGeneratorStrategy.computeCacheKey("test", SampleBean.class);
+		assertThat(key).startsWith("FileCachingGeneratorStrategyTests.SampleBean-");
+		assertThat(FileCachingGeneratorStrategy.computeCacheKey("test", SampleBean.class)).isEqualTo(key);
+		assertThat(FileCachingGeneratorStrategy.computeCacheKey("other", SampleBean.class)).isNotEqualTo(key);
+		assertThat(FileCachingGeneratorStrategy.computeCacheKey("test", SampleBean.class, Runnable.class))
+				.isNotEqualTo(key);
+	}
+
+	@Test
+	void unreadableCacheFileIsReplaced() throws Exception {
+		String cacheKey = FileCachingGeneratorStrategy.computeCacheKey("test", SampleBean.class);
+		Path cacheFile = this.cacheDirectory.resolve(cacheKey + ".class");
+		Files.write(cacheFile, new byte[] {1, 2, 3});
+
+		CountingGeneratorStrategy delegate = new CountingGeneratorStrategy();
+		createClass(SampleBean.class, delegate);
+		assertThat(delegate.count.get()).isEqualTo(1);
+		assertThat(Files.size(cacheFile)).isGreaterThan(3);
+	}
+
+
+	private Class<?> loadIsolatedBeanClass() throws ClassNotFoundException {
+		ClassLoader classLoader = new OverridingClassLoader(getClass().getClassLoader()) {
+			@Override
+			protected boolean isEligibleForOverriding(String className) {
+				return className.equals(IsolatedBean.class.getName());
+			}
+		};
+		return classLoader.loadClass(IsolatedBean.class.getName());
+	}
+
+	private Class<?> createClass(Class<?> superclass, GeneratorStrategy delegate) {
+		String cacheKey = FileCachingGeneratorStrategy.computeCacheKey("test", superclass);
+		Enhancer enhancer = new Enhancer();
+		enhancer.setSuperclass(superclass);
+		enhancer.setUseCache(false);
+		enhancer.setCallbackType(NoOp.class);
+		enhancer.setStrategy(new FileCachingGeneratorStrategy(delegate, this.cacheDirectory.toFile(), cacheKey));
+		Class<?> proxyClass = enhancer.createClass();
+		Enhancer.registerStaticCallbacks(proxyClass, new NoOp[] {NoOp.INSTANCE});
+		return proxyClass;
+	}
+
+
+	public static class SampleBean {
+
+		@Override
+		public String toString() {
+			return "sample";
+		}
+	}
+
+
+	public static class IsolatedBean {
+
+		@Override
+		public String toString() {
+			return "isolated";
+		}
+	}
+
+
+	private static class CountingGeneratorStrategy extends DefaultGeneratorStrategy {
+
+		final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public byte[] generate(ClassGenerator cg) throws Exception {
+			this.count.incrementAndGet();
+			return super.generate(cg);
+		}
+	}
+
+}
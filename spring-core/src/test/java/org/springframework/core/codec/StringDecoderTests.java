@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
@@ -30,6 +31,8 @@ import reactor.test.StepVerifier;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DefaultDataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.core.testfixture.codec.AbstractDecoderTests;
 import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
@@ -225,6 +228,27 @@ class StringDecoderTests extends AbstractDecoderTests<StringDecoder> {
 				.verify());
 	}
 
+	@Test
+	void decodeToMonoComposesInputWithoutCopy() {
+		AtomicInteger allocations = new AtomicInteger();
+		DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory() {
+			@Override
+			public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+				allocations.incrementAndGet();
+				return super.allocateBuffer(initialCapacity);
+			}
+		};
+		Flux<DataBuffer> input = Flux.just(
+				bufferFactory.wrap("foo".getBytes(UTF_8)),
+				bufferFactory.wrap("bär".getBytes(UTF_8)));
+
+		StepVerifier.create(this.decoder.decodeToMono(input, TYPE, null, Collections.emptyMap()))
+				.expectNext("foobär")
+				.expectComplete()
+				.verify();
+		assertThat(allocations.get()).isZero();
+	}
+
 	@Test
 	void decodeToMonoWithEmptyFlux() {
 		Flux<DataBuffer> input = Flux.empty();
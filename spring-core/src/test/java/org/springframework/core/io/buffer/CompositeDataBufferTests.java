@@ -0,0 +1,167 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.testfixture.io.buffer.AbstractDataBufferAllocatingTests;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link CompositeDataBuffer}.
+ *
+ * @author agent
+ */
+class CompositeDataBufferTests extends AbstractDataBufferAllocatingTests {
+
+	private CompositeDataBuffer createComposite(String... values) {
+		DataBuffer[] buffers = Arrays.stream(values).map(this::stringBuffer).toArray(DataBuffer[]::new);
+		return new CompositeDataBuffer(Arrays.asList(buffers));
+	}
+
+
+	@ParameterizedDataBufferAllocatingTest
+	void readAcrossComponents(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+		CompositeDataBuffer composite = createComposite("foo", "", "bar", "baz");
+
+		assertThat(composite.getSegmentCount()).isEqualTo(3);
+		assertThat(composite.readableByteCount()).isEqualTo(9);
+		assertThat(composite.read()).isEqualTo((byte) 'f');
+		byte[] result = new byte[5];
+		composite.read(result);
+		assertThat(new String(result, StandardCharsets.UTF_8)).isEqualTo("oobar");
+		assertThat(composite.getByte(8)).isEqualTo((byte) 'z');
+		assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("baz");
+		assertThat(composite.toString(1, 4, StandardCharsets.UTF_8)).isEqualTo("ooba");
+
+		release(composite);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void indexOfAcrossComponents(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+		CompositeDataBuffer composite = createComposite("a,b", "c", "d,e");
+
+		assertThat(composite.indexOf(b -> b == ',', 0)).isEqualTo(1);
+		assertThat(composite.indexOf(b -> b == ',', 2)).isEqualTo(5);
+		assertThat(composite.indexOf(b -> b == 'x', 0)).isEqualTo(-1);
+		assertThat(composite.lastIndexOf(b -> b == ',', 6)).isEqualTo(5);
+		assertThat(composite.lastIndexOf(b -> b == ',', 4)).isEqualTo(1);
+		assertThat(composite.lastIndexOf(b -> b == 'x', 6)).isEqualTo(-1);
+
+		release(composite);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void sliceAcrossComponents(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+		CompositeDataBuffer composite = createComposite("foo", "bar", "baz");
+
+		DataBuffer slice = composite.slice(2, 5);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("obarb");
+
+		DataBufferUtils.retain(slice);
+		assertThat(DataBufferUtils.release(composite)).isFalse();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(composite.isAllocated()).isFalse();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void asByteBuffer(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+		CompositeDataBuffer composite = createComposite("foo", "bar");
+
+		ByteBuffer contiguous = composite.asByteBuffer(3, 3);
+		assertThat(StandardCharsets.UTF_8.decode(contiguous).toString()).isEqualTo("bar");
+
+		ByteBuffer spanning = composite.asByteBuffer();
+		assertThat(StandardCharsets.UTF_8.decode(spanning).toString()).isEqualTo("foobar");
+
+		release(composite);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void asInputStream(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+		CompositeDataBuffer composite = createComposite("foo", "bar", "baz");
+
+		try (InputStream inputStream = composite.asInputStream(true)) {
+			assertThat(StreamUtils.copyToString(inputStream, StandardCharsets.UTF_8)).isEqualTo("foobarbaz");
+		}
+		assertThat(composite.isAllocated()).isFalse();
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void writeAppendsComponent(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+		CompositeDataBuffer composite = createComposite("foo", "bar");
+
+		composite.write("baz", StandardCharsets.UTF_8);
+		composite.write((byte) '!');
+		assertThat(composite.getSegmentCount()).isEqualTo(3);
+		assertThat(composite.toString(StandardCharsets.UTF_8)).isEqualTo("foobarbaz!");
+
+		release(composite);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void reduceCapacity(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+		CompositeDataBuffer composite = createComposite("foo", "bar");
+
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> composite.capacity(2));
+
+		release(composite);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void joinCompositeComposesDefaultBuffers(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer result = DataBufferUtils.joinComposite(Flux.just(
+				stringBuffer("foo"), stringBuffer("bar")), -1).block();
+
+		assertThat(result).isNotNull();
+		assertThat(result.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+		if (bufferFactory instanceof DefaultDataBufferFactory) {
+			assertThat(result).isInstanceOf(CompositeDataBuffer.class);
+		}
+		release(result);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void joinDoesNotCompose(String displayName, DataBufferFactory bufferFactory) {
+		super.bufferFactory = bufferFactory;
+
+		DataBuffer result = DataBufferUtils.join(Flux.just(
+				stringBuffer("foo"), stringBuffer("bar"))).block();
+
+		assertThat(result).isNotNull().isNotInstanceOf(CompositeDataBuffer.class);
+		assertThat(result.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+		release(result);
+	}
+
+}
@@ -249,6 +249,50 @@ class DataBufferUtilsTests extends AbstractDataBufferAllocatingTests {
 				.verify(Duration.ofSeconds(5));
 	}
 
+	@ParameterizedDataBufferAllocatingTest
+	void readMapped(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(this.resource.getFile().toPath(), super.bufferFactory, 3);
+
+		verifyReadData(flux);
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedPositionAndCount(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Path path = this.resource.getFile().toPath();
+		Flux<DataBuffer> flux = DataBufferUtils.readMapped(path, 3, 5, super.bufferFactory, 3);
+
+		StepVerifier.create(flux)
+				.consumeNextWith(stringConsumer("bar"))
+				.consumeNextWith(stringConsumer("ba"))
+				.expectComplete()
+				.verify(Duration.ofSeconds(5));
+	}
+
+	@ParameterizedDataBufferAllocatingTest
+	void readMappedReleasesRegionWithLastSlice(String displayName, DataBufferFactory bufferFactory) throws Exception {
+		super.bufferFactory = bufferFactory;
+
+		Path path = this.resource.getFile().toPath();
+		DataBuffer buffer = DataBufferUtils.readMapped(path, super.bufferFactory, 1024).blockFirst();
+		assertThat(buffer).isInstanceOf(PooledDataBuffer.class);
+		assertThat(buffer.readableByteCount()).isEqualTo(12);
+
+		DataBuffer slice = buffer.retainedSlice(3, 3);
+		assertThat(DataBufferUtils.release(buffer)).isFalse();
+		assertThat(((PooledDataBuffer) buffer).isAllocated()).isTrue();
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("bar");
+		ByteBuffer byteBuffer = slice.asByteBuffer();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(((PooledDataBuffer) buffer).isAllocated()).isFalse();
+
+		// The region is not unmapped explicitly, so earlier references remain valid
+		assertThat(StandardCharsets.UTF_8.decode(byteBuffer).toString()).isEqualTo("bar");
+	}
+
 	private void verifyReadData(Flux<DataBuffer> buffers) {
 		StepVerifier.create(buffers)
 				.consumeNextWith(stringConsumer("foo"))
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.io.buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link PooledDefaultDataBufferFactory}.
+ *
+ * @author agent
+ */
+class PooledDefaultDataBufferFactoryTests {
+
+	private final PooledDefaultDataBufferFactory bufferFactory =
+			new PooledDefaultDataBufferFactory(false, 256, 4096, 4);
+
+
+	@Test
+	void allocatedBuffersArePooled() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(100);
+		assertThat(buffer).isInstanceOf(PooledDataBuffer.class);
+		assertThat(buffer.capacity()).isEqualTo(100);
+		assertThat(buffer.factory()).isSameAs(this.bufferFactory);
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(1);
+
+		assertThat(DataBufferUtils.release(buffer)).isTrue();
+		assertThat(((PooledDataBuffer) buffer).isAllocated()).isFalse();
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+	@Test
+	void releasedMemoryIsReusedForSameSizeClass() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(200);
+		DataBufferUtils.release(buffer);
+		assertThat(this.bufferFactory.getPoolMissCount()).isEqualTo(1);
+
+		buffer = this.bufferFactory.allocateBuffer(256);
+		assertThat(this.bufferFactory.getPoolHitCount()).isEqualTo(1);
+		DataBufferUtils.release(buffer);
+
+		buffer = this.bufferFactory.allocateBuffer(257);
+		assertThat(this.bufferFactory.getPoolMissCount()).isEqualTo(2);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	void releasedMemoryIsSharedAcrossThreads() throws Exception {
+		PooledDefaultDataBufferFactory factory = new PooledDefaultDataBufferFactory(false, 256, 4096, 4, 0);
+		DataBufferUtils.release(factory.allocateBuffer(1024));
+
+		AtomicReference<DataBuffer> result = new AtomicReference<>();
+		Thread thread = new Thread(() -> result.set(factory.allocateBuffer(1024)));
+		thread.start();
+		thread.join();
+
+		assertThat(factory.getPoolHitCount()).isEqualTo(1);
+		DataBufferUtils.release(result.get());
+	}
+
+	@Test
+	void largeBuffersAreNotPooled() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(5000);
+		assertThat(buffer.capacity()).isEqualTo(5000);
+		DataBufferUtils.release(buffer);
+
+		buffer = this.bufferFactory.allocateBuffer(5000);
+		assertThat(this.bufferFactory.getPoolHitCount()).isEqualTo(0);
+		assertThat(this.bufferFactory.getPoolMissCount()).isEqualTo(2);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	void maxPooledCapacityIsRoundedUp() {
+		assertThat(new PooledDefaultDataBufferFactory(false, 256, 3000, 4).getMaxPooledCapacity()).isEqualTo(4096);
+	}
+
+	@Test
+	void growingBufferKeepsContents() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(4);
+		buffer.write("abcd", StandardCharsets.UTF_8);
+		buffer.write("efghijklmnopqrstuvwxyz".getBytes(StandardCharsets.UTF_8));
+		buffer.ensureCapacity(1000);
+
+		assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("abcdefghijklmnopqrstuvwxyz");
+		DataBufferUtils.release(buffer);
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+	@Test
+	void sliceSharesReferenceCount() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(8);
+		buffer.write("abcdefgh", StandardCharsets.UTF_8);
+		DataBuffer slice = buffer.slice(2, 3);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("cde");
+
+		DataBufferUtils.retain(slice);
+		assertThat(DataBufferUtils.release(buffer)).isFalse();
+		assertThat(DataBufferUtils.release(slice)).isTrue();
+		assertThat(((PooledDataBuffer) buffer).isAllocated()).isFalse();
+	}
+
+	@Test
+	void joinReleasesSources() {
+		DataBuffer foo = this.bufferFactory.allocateBuffer(3).write("foo", StandardCharsets.UTF_8);
+		DataBuffer bar = this.bufferFactory.allocateBuffer(3).write("bar", StandardCharsets.UTF_8);
+		DataBuffer result = this.bufferFactory.join(Arrays.asList(foo, bar));
+
+		assertThat(result.toString(StandardCharsets.UTF_8)).isEqualTo("foobar");
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(1);
+		DataBufferUtils.release(result);
+	}
+
+	@Test
+	void retainAfterReleaseFails() {
+		PooledDataBuffer buffer = (PooledDataBuffer) this.bufferFactory.allocateBuffer();
+		buffer.release();
+		assertThatIllegalStateException().isThrownBy(buffer::retain);
+	}
+
+	@Test
+	void writeAfterReleaseFails() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(16);
+		DataBuffer slice = buffer.write(new byte[] {1, 2}).slice(0, 2);
+		DataBufferUtils.release(buffer);
+
+		DataBuffer recycled = this.bufferFactory.allocateBuffer(16);
+		recycled.write((byte) 42);
+		assertThatIllegalStateException().isThrownBy(() -> buffer.write((byte) 1));
+		assertThatIllegalStateException().isThrownBy(() -> buffer.write(new byte[] {1, 2, 3}));
+		assertThatIllegalStateException().isThrownBy(() -> buffer.capacity(32));
+		assertThatIllegalStateException().isThrownBy(() -> slice.write((byte) 1));
+		assertThat(recycled.read()).isEqualTo((byte) 42);
+		DataBufferUtils.release(recycled);
+	}
+
+	@Test
+	void readAfterReleaseFails() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(16);
+		DataBuffer slice = buffer.write(new byte[] {1, 2}).slice(0, 2);
+		DataBufferUtils.release(buffer);
+
+		DataBuffer recycled = this.bufferFactory.allocateBuffer(16);
+		recycled.write((byte) 42);
+		assertThatIllegalStateException().isThrownBy(buffer::read);
+		assertThatIllegalStateException().isThrownBy(() -> buffer.read(new byte[2]));
+		assertThatIllegalStateException().isThrownBy(() -> buffer.getByte(0));
+		assertThatIllegalStateException().isThrownBy(buffer::asByteBuffer);
+		assertThatIllegalStateException().isThrownBy(buffer::asInputStream);
+		assertThatIllegalStateException().isThrownBy(() -> buffer.toString(StandardCharsets.UTF_8));
+		assertThatIllegalStateException().isThrownBy(() -> buffer.slice(0, 1));
+		assertThatIllegalStateException().isThrownBy(slice::read);
+		assertThatIllegalStateException().isThrownBy(() -> slice.getByte(0));
+		assertThatIllegalStateException().isThrownBy(slice::asByteBuffer);
+		DataBufferUtils.release(recycled);
+	}
+
+	@Test
+	void growingBufferDoesNotRecycleMemoryOfSlices() {
+		DataBuffer buffer = this.bufferFactory.allocateBuffer(256);
+		buffer.write("abcdefgh", StandardCharsets.UTF_8);
+		DataBuffer slice = buffer.slice(0, 4);
+		buffer.capacity(1024);
+
+		DataBuffer other = this.bufferFactory.allocateBuffer(256);
+		other.write("ABCDEFGH", StandardCharsets.UTF_8);
+		assertThat(slice.toString(StandardCharsets.UTF_8)).isEqualTo("abcd");
+		assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo("abcdefgh");
+		DataBufferUtils.release(other);
+		DataBufferUtils.release(buffer);
+	}
+
+	@Test
+	void threadLocalCacheIsBoundedBySize() throws Exception {
+		PooledDefaultDataBufferFactory factory = new PooledDefaultDataBufferFactory(false, 256, 4096, 4, 8, 1024);
+		DataBuffer small = factory.allocateBuffer(1024);
+		DataBuffer large = factory.allocateBuffer(2048);
+		DataBufferUtils.release(small);
+		DataBufferUtils.release(large);
+
+		allocateAndReleaseInOtherThread(factory, 2048);
+		assertThat(factory.getPoolHitCount()).isEqualTo(1);
+		allocateAndReleaseInOtherThread(factory, 1024);
+		assertThat(factory.getPoolHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void trimThreadLocalCacheHandsBuffersToSharedPool() throws Exception {
+		PooledDefaultDataBufferFactory factory = new PooledDefaultDataBufferFactory(false, 256, 4096, 4);
+		DataBufferUtils.release(factory.allocateBuffer(1024));
+		allocateAndReleaseInOtherThread(factory, 1024);
+		assertThat(factory.getPoolHitCount()).isEqualTo(0);
+
+		factory.trimThreadLocalCache();
+		allocateAndReleaseInOtherThread(factory, 1024);
+		assertThat(factory.getPoolHitCount()).isEqualTo(1);
+	}
+
+	private void allocateAndReleaseInOtherThread(PooledDefaultDataBufferFactory factory, int capacity)
+			throws InterruptedException {
+
+		Thread thread = new Thread(() -> DataBufferUtils.release(factory.allocateBuffer(capacity)));
+		thread.start();
+		thread.join();
+	}
+
+	@Test
+	void wrappedBuffersAreNotPooled() {
+		DataBuffer buffer = this.bufferFactory.wrap(new byte[] {1, 2, 3});
+		assertThat(buffer).isNotInstanceOf(PooledDataBuffer.class);
+		assertThat(this.bufferFactory.getActiveBufferCount()).isEqualTo(0);
+	}
+
+}
@@ -25,6 +25,7 @@ import java.util.List;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.core.io.Resource;
 import org.springframework.util.StringUtils;
@@ -129,6 +130,45 @@ class PathMatchingResourcePatternResolverTests {
 		assertThat(found).as("Could not find aspectj_1_5_0.dtd in the root of the aspectjweaver jar").isTrue();
 	}
 
+	@Test
+	void classpathStarWithPatternInJarUsingJarEntryIndex() throws IOException {
+		JarEntryIndex index = new JarEntryIndex();
+		resolver.setJarEntryIndex(index);
+		Resource[] resources = resolver.getResources("classpath*:reactor/util/annotation/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTOR_UTIL_ANNOTATIONS);
+		assertThat(index.getMissCount()).isEqualTo(1);
+		assertThat(index.getHitCount()).isEqualTo(0);
+
+		resources = resolver.getResources("classpath*:reactor/util/**/NonNull*.class");
+		assertProtocolAndFilenames(resources, "jar", "NonNull.class", "NonNullApi.class");
+		assertThat(index.getMissCount()).isEqualTo(1);
+		assertThat(index.getHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void rootPatternRetrievalInJarFilesUsingJarEntryIndex() throws IOException {
+		resolver.setJarEntryIndex(new JarEntryIndex());
+		Resource[] resources = resolver.getResources("classpath*:*.dtd");
+		assertThat(resources).extracting(Resource::getFilename).contains("aspectj_1_5_0.dtd");
+	}
+
+	@Test
+	void jarEntryIndexIsPersisted(@TempDir File storageDirectory) throws IOException {
+		JarEntryIndex index = new JarEntryIndex(storageDirectory);
+		resolver.setJarEntryIndex(index);
+		resolver.getResources("classpath*:reactor/util/annotation/*.class");
+		assertThat(index.getMissCount()).isEqualTo(1);
+		assertThat(storageDirectory.listFiles()).hasSize(1);
+
+		JarEntryIndex reloadedIndex = new JarEntryIndex(storageDirectory);
+		PathMatchingResourcePatternResolver otherResolver = new PathMatchingResourcePatternResolver();
+		otherResolver.setJarEntryIndex(reloadedIndex);
+		Resource[] resources = otherResolver.getResources("classpath*:reactor/util/annotation/*.class");
+		assertProtocolAndFilenames(resources, "jar", CLASSES_IN_REACTOR_UTIL_ANNOTATIONS);
+		assertThat(reloadedIndex.getMissCount()).isEqualTo(0);
+		assertThat(reloadedIndex.getHitCount()).isEqualTo(1);
+	}
+
 
 	private void assertProtocolAndFilenames(Resource[] resources, String protocol, String... filenames)
 			throws IOException {
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.metrics;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.metrics.BufferingApplicationStartup.TimelineEntry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link BufferingApplicationStartup}.
+ *
+ * @author agent
+ */
+class BufferingApplicationStartupTests {
+
+	@Test
+	void recordsNestedStepsInStartOrder() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("outer");
+		StartupStep inner = startup.start("inner");
+		inner.end();
+		StartupStep sibling = startup.start("sibling");
+		sibling.end();
+		outer.end();
+
+		List<TimelineEntry> timeline = startup.getTimeline();
+		assertThat(timeline).extracting(TimelineEntry::getName).containsExactly("outer", "inner", "sibling");
+		assertThat(timeline.get(0).getParentId()).isNull();
+		assertThat(timeline.get(1).getParentId()).isEqualTo(outer.getId());
+		assertThat(timeline.get(2).getParentId()).isEqualTo(outer.getId());
+		assertThat(inner.getParentId()).isEqualTo(outer.getId());
+	}
+
+	@Test
+	void recordsTags() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		startup.start("step").tag("beanName", "test").tag("beanType", () -> "java.lang.String").end();
+
+		TimelineEntry entry = startup.getTimeline().get(0);
+		assertThat(entry.getTags()).containsEntry("beanName", "test").containsEntry("beanType", "java.lang.String");
+	}
+
+	@Test
+	void stopsRecordingWhenCapacityIsReached() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(2);
+		for (int i = 0; i < 5; i++) {
+			startup.start("step" + i).end();
+		}
+		assertThat(startup.getTimeline()).extracting(TimelineEntry::getName).containsExactly("step0", "step1");
+		assertThat(startup.prettyPrint()).contains("3 not recorded");
+	}
+
+	@Test
+	void prettyPrintIndentsChildSteps() {
+		BufferingApplicationStartup startup = new BufferingApplicationStartup(10);
+		StartupStep outer = startup.start("outer");
+		startup.start("inner").tag("key", "value").end();
+		outer.end();
+
+		String output = startup.prettyPrint();
+		assertThat(output).startsWith("Startup timeline (2 steps)");
+		assertThat(output).contains("  outer\n");
+		assertThat(output).contains("    inner {key=value}\n");
+	}
+
+	@Test
+	void endingStepTwiceFails() {
+		StartupStep step = new BufferingApplicationStartup(1).start("step");
+		step.end();
+		assertThatIllegalStateException().isThrownBy(step::end);
+	}
+
+	@Test
+	void invalidCapacity() {
+		assertThatIllegalArgumentException().isThrownBy(() -> new BufferingApplicationStartup(0));
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AntPathPatternSet}.
+ *
+ * @author agent
+ */
+class AntPathPatternSetTests {
+
+	private static final List<String> PATTERNS = Arrays.asList(
+			"test", "/test", "t?st", "*", "test*", "test/*", "*test*", "*.*", "/**", "/*/**", "/**/*",
+			"/bla/**/bla", "/**/test", "/bla*bla/test", "/*bla/test", "/x/x/**/bla", "/foo/bar/**",
+			"/foo/**/*.html", "/**/*.jsp", "/{bla}.*", "/foo/{id}", "/foo/{id}/bar", "/foo/**/{name:[a-z]+}.jsp",
+			"/foo/bar/baz.jsp", "/foo/*/baz.jsp", "/Foo/Bar", "/foo/**/**/bar", "/**/bla/**/bla", "/foo/");
+
+	private static final List<String> PATHS = Arrays.asList(
+			"test", "/test", "tst", "test/", "test/t", "/bla/bla", "/bla/bla/bla/bla", "/bla/testing/testing/bla",
+			"/XXXblaXXXX/test", "/x/x/y/bla", "/x/x/x/", "/foo/bar/baz.jsp", "/foo/bar", "/foo/bar/", "/foo",
+			"/foo/", "/foo/a/b/bar", "/foo/a/index.html", "/testing.jpg", "/foo/123", "/foo/123/bar", "",
+			"/", "/foo/bar/baz/index.jsp", "/foo/bar/BAZ.jsp", "/Foo/Bar", "/foo/bar/bar");
+
+
+	@Test
+	void matchingPatternsAreConsistentWithAntPathMatcher() {
+		assertConsistent(new AntPathMatcher());
+	}
+
+	@Test
+	void matchingPatternsAreConsistentWithCaseInsensitiveAntPathMatcher() {
+		AntPathMatcher pathMatcher = new AntPathMatcher();
+		pathMatcher.setCaseSensitive(false);
+		assertConsistent(pathMatcher);
+	}
+
+	@Test
+	void matchingPatternsAreConsistentWithCustomSeparatorAndTrimming() {
+		AntPathMatcher pathMatcher = new AntPathMatcher(".");
+		pathMatcher.setTrimTokens(true);
+		AntPathPatternSet patternSet = new AntPathPatternSet(pathMatcher,
+				Arrays.asList("com.*.Foo", "com.** ", "*.example.*", " org.springframework.**.util"));
+		for (String path : Arrays.asList("com.example.Foo", "com", "org.springframework.core.util", "com . example .Bar")) {
+			assertThat(patternSet.getMatchingPatterns(path)).as(path).isEqualTo(matchAll(pathMatcher, patternSet, path));
+		}
+	}
+
+	@Test
+	void matchingPatternsAreSortedBySpecificity() {
+		AntPathPatternSet patternSet = new AntPathPatternSet(Arrays.asList(
+				"/**", "/foo/**", "/foo/{id}", "/foo/*", "/foo/bar", "/foo/b*"));
+		assertThat(patternSet.getMatchingPatterns("/foo/bar")).containsExactly(
+				"/foo/bar", "/foo/b*", "/foo/{id}", "/foo/*", "/foo/**", "/**");
+		assertThat(patternSet.getMatchingPatterns("/foo/baz/qux")).containsExactly("/foo/**", "/**");
+		assertThat(patternSet.getMatchingPatterns("/other")).containsExactly("/**");
+	}
+
+	@Test
+	void match() {
+		AntPathPatternSet patternSet = new AntPathPatternSet(Arrays.asList("/api/**", "/static/*.css"));
+		assertThat(patternSet.match("/api/users/1")).isTrue();
+		assertThat(patternSet.match("/static/main.css")).isTrue();
+		assertThat(patternSet.match("/static/css/main.css")).isFalse();
+		assertThat(patternSet.match("/index.html")).isFalse();
+	}
+
+	@Test
+	void duplicatePatternsAreIgnored() {
+		AntPathPatternSet patternSet = new AntPathPatternSet(Arrays.asList("/foo", "/bar", "/foo"));
+		assertThat(patternSet.getPatterns()).containsExactly("/foo", "/bar");
+		assertThat(patternSet.getMatchingPatterns("/foo")).containsExactly("/foo");
+	}
+
+	@Test
+	void emptyPatternSet() {
+		AntPathPatternSet patternSet = new AntPathPatternSet(new ArrayList<>());
+		assertThat(patternSet.match("/foo")).isFalse();
+		assertThat(patternSet.getMatchingPatterns("/foo")).isEmpty();
+	}
+
+
+	private void assertConsistent(AntPathMatcher pathMatcher) {
+		AntPathPatternSet patternSet = new AntPathPatternSet(pathMatcher, PATTERNS);
+		for (String path : PATHS) {
+			List<String> expected = matchAll(pathMatcher, patternSet, path);
+			assertThat(patternSet.getMatchingPatterns(path)).as(path).isEqualTo(expected);
+			assertThat(patternSet.match(path)).as(path).isEqualTo(!expected.isEmpty());
+		}
+	}
+
+	private List<String> matchAll(AntPathMatcher pathMatcher, AntPathPatternSet patternSet, String path) {
+		List<String> result = new ArrayList<>();
+		for (String pattern : patternSet.getPatterns()) {
+			if (pathMatcher.match(pattern, path)) {
+				result.add(pattern);
+			}
+		}
+		result.sort(pathMatcher.getPatternComparator(path));
+		return result;
+	}
+
+}
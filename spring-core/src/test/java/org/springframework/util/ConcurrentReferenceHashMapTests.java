@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.CountDownLatch;
 
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -36,6 +37,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.ConcurrentReferenceHashMap.Entry;
 import org.springframework.util.ConcurrentReferenceHashMap.Reference;
 import org.springframework.util.ConcurrentReferenceHashMap.Restructure;
+import org.springframework.util.ConcurrentReferenceHashMap.Segment;
 import org.springframework.util.comparator.ComparableComparator;
 import org.springframework.util.comparator.NullSafeComparator;
 
@@ -234,6 +236,61 @@ class ConcurrentReferenceHashMapTests {
 		assertThat(this.map.get(5)).isEqualTo("5");
 	}
 
+	@Test
+	void shouldPurgeOnGetWithLockFreeReads() {
+		this.map = new TestWeakConcurrentCache<>(1, 0.75f, 1, true);
+		for (int i = 1; i <= 5; i++) {
+			this.map.put(i, String.valueOf(i));
+		}
+		this.map.getMockReference(1, Restructure.NEVER).queueForPurge();
+		this.map.getMockReference(3, Restructure.NEVER).queueForPurge();
+		assertThat(this.map.getReference(1, Restructure.WHEN_NECESSARY)).isNull();
+		assertThat(this.map.get(2)).isEqualTo("2");
+		assertThat(this.map.getReference(3, Restructure.WHEN_NECESSARY)).isNull();
+		assertThat(this.map.get(4)).isEqualTo("4");
+		assertThat(this.map.get(5)).isEqualTo("5");
+		assertThat(this.map.getSegment(0).getCount()).isEqualTo(3);
+	}
+
+	@Test
+	void shouldDeferPurgeOnGetWhenSegmentIsLocked() throws InterruptedException {
+		this.map = new TestWeakConcurrentCache<>(1, 0.75f, 1, true);
+		for (int i = 1; i <= 5; i++) {
+			this.map.put(i, String.valueOf(i));
+		}
+		this.map.getMockReference(1, Restructure.NEVER).release();
+		Segment segment = this.map.getSegment(0);
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(1);
+		Thread lockHolder = new Thread(() -> {
+			segment.lock();
+			try {
+				locked.countDown();
+				done.await();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				segment.unlock();
+			}
+		});
+		lockHolder.start();
+		locked.await();
+		try {
+			assertThat(this.map.get(2)).isEqualTo("2");
+			assertThat(segment.getCount()).isEqualTo(5);
+		}
+		finally {
+			done.countDown();
+			lockHolder.join();
+		}
+		this.map.put(6, "6");
+		assertThat(segment.getCount()).isEqualTo(5);
+		assertThat(this.map.getReference(1, Restructure.NEVER)).isNull();
+		assertThat(this.map.get(6)).isEqualTo("6");
+	}
+
 	@Test
 	void shouldPurgeOnPut() {
 		this.map = new TestWeakConcurrentCache<>(1, 0.75f, 1);
@@ -572,6 +629,10 @@ class ConcurrentReferenceHashMapTests {
 			super(initialCapacity, loadFactor, concurrencyLevel);
 		}
 
+		public TestWeakConcurrentCache(int initialCapacity, float loadFactor, int concurrencyLevel, boolean lockFreeReads) {
+			super(initialCapacity, loadFactor, concurrencyLevel, ReferenceType.SOFT, lockFreeReads);
+		}
+
 		public TestWeakConcurrentCache(int initialCapacity, int concurrencyLevel) {
 			super(initialCapacity, concurrencyLevel);
 		}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+/**
+ * Benchmarks for {@link JdbcTemplate} query execution and row mapping against
+ * an embedded HSQL database.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@BenchmarkMode(Mode.Throughput)
+public class JdbcTemplateQueryBenchmark {
+
+	private static final String SELECT_ALL = "SELECT id, name, age FROM person";
+
+
+	@Benchmark
+	public Object queryWithRowMapper(DatabaseData data) {
+		return data.jdbcTemplate.query(SELECT_ALL,
+				(rs, rowNum) -> new Person(rs.getLong("id"), rs.getString("name"), rs.getInt("age")));
+	}
+
+	@Benchmark
+	public Object queryWithBeanPropertyRowMapper(DatabaseData data) {
+		return data.jdbcTemplate.query(SELECT_ALL, data.beanPropertyRowMapper);
+	}
+
+	@Benchmark
+	public Object queryForList(DatabaseData data) {
+		return data.jdbcTemplate.queryForList(SELECT_ALL);
+	}
+
+	@Benchmark
+	public Object queryForObjectWithArgument(DatabaseData data) {
+		return data.jdbcTemplate.queryForObject("SELECT name FROM person WHERE id = ?", String.class, 42L);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class DatabaseData {
+
+		@Param({"10", "1000"})
+		public int rowCount;
+
+		public EmbeddedDatabase database;
+
+		public JdbcTemplate jdbcTemplate;
+
+		public BeanPropertyRowMapper<Person> beanPropertyRowMapper;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.database = new EmbeddedDatabaseBuilder()
+					.setType(EmbeddedDatabaseType.HSQL).generateUniqueName(true).build();
+			this.jdbcTemplate = new JdbcTemplate(this.database);
+			this.jdbcTemplate.execute("CREATE TABLE person (id BIGINT PRIMARY KEY, name VARCHAR(50), age INTEGER)");
+			for (int i = 0; i < this.rowCount; i++) {
+				this.jdbcTemplate.update("INSERT INTO person VALUES (?, ?, ?)", i, "name" + i, i % 100);
+			}
+			this.beanPropertyRowMapper = new BeanPropertyRowMapper<>(Person.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			this.database.shutdown();
+		}
+	}
+
+
+	public static class Person {
+
+		private long id;
+
+		private String name;
+
+		private int age;
+
+		public Person() {
+		}
+
+		public Person(long id, String name, int age) {
+			this.id = id;
+			this.name = name;
+			this.age = age;
+		}
+
+		public long getId() {
+			return this.id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public int getAge() {
+			return this.age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+
+}
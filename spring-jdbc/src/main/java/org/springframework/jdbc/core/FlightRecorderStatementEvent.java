@@ -0,0 +1,86 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Java Flight Recorder {@link Event} for a JDBC statement executed through
+ * one of the callback-based {@code execute} methods of {@link JdbcTemplate},
+ * from statement creation until the statement has been closed again.
+ *
+ * <p>Only referenced by {@code JdbcTemplate} if {@code jdk.jfr} is present
+ * on the runtime, and only instantiated while the event type is enabled.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@Category({"Spring Framework", "JDBC"})
+@Label("Statement Execution")
+@Description("JDBC statement executed by a Spring JdbcTemplate")
+final class FlightRecorderStatementEvent extends Event {
+
+	@Label("Statement Type")
+	String statementType;
+
+	@Label("SQL")
+	String sql;
+
+	@Nullable
+	private transient Object sqlProvider;
+
+
+	/**
+	 * Start timing the execution of a JDBC statement, from its creation
+	 * through the callback that uses it.
+	 * @param statementType the JDBC statement type ("Statement",
+	 * "PreparedStatement" or "CallableStatement")
+	 * @param sqlProvider the callback or creator that may expose the SQL
+	 * @return the started event, or {@code null} if statements are not being recorded
+	 */
+	@Nullable
+	static FlightRecorderStatementEvent start(String statementType, Object sqlProvider) {
+		FlightRecorderStatementEvent event = new FlightRecorderStatementEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.statementType = statementType;
+		event.sqlProvider = sqlProvider;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End this event and commit it if it passes the configured threshold.
+	 */
+	void record() {
+		end();
+		if (shouldCommit()) {
+			if (this.sqlProvider instanceof SqlProvider) {
+				this.sql = ((SqlProvider) this.sqlProvider).getSql();
+			}
+			commit();
+		}
+	}
+
+}
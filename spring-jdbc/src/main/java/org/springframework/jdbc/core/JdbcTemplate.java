@@ -50,6 +50,7 @@ import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.LinkedCaseInsensitiveMap;
 import org.springframework.util.StringUtils;
 
@@ -104,6 +105,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 
 	private static final String RETURN_UPDATE_COUNT_PREFIX = "#update-count-";
 
+	private static final boolean flightRecorderPresent =
+			ClassUtils.isPresent("jdk.jfr.Event", JdbcTemplate.class.getClassLoader());
+
 
 	/** If this variable is false, we will throw exceptions on SQL warnings. */
 	private boolean ignoreWarnings = true;
@@ -369,6 +373,8 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		Assert.notNull(action, "Callback object must not be null");
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		FlightRecorderStatementEvent event =
+				(flightRecorderPresent ? FlightRecorderStatementEvent.start("Statement", action) : null);
 		Statement stmt = null;
 		try {
 			stmt = con.createStatement();
@@ -390,6 +396,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		finally {
 			JdbcUtils.closeStatement(stmt);
 			DataSourceUtils.releaseConnection(con, getDataSource());
+			if (event != null) {
+				event.record();
+			}
 		}
 	}
 
@@ -610,6 +619,8 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		FlightRecorderStatementEvent event =
+				(flightRecorderPresent ? FlightRecorderStatementEvent.start("PreparedStatement", psc) : null);
 		PreparedStatement ps = null;
 		try {
 			ps = psc.createPreparedStatement(con);
@@ -638,6 +649,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			}
 			JdbcUtils.closeStatement(ps);
 			DataSourceUtils.releaseConnection(con, getDataSource());
+			if (event != null) {
+				event.record();
+			}
 		}
 	}
 
@@ -1085,6 +1099,8 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 		}
 
 		Connection con = DataSourceUtils.getConnection(obtainDataSource());
+		FlightRecorderStatementEvent event =
+				(flightRecorderPresent ? FlightRecorderStatementEvent.start("CallableStatement", csc) : null);
 		CallableStatement cs = null;
 		try {
 			cs = csc.createCallableStatement(con);
@@ -1113,6 +1129,9 @@ public class JdbcTemplate extends JdbcAccessor implements JdbcOperations {
 			}
 			JdbcUtils.closeStatement(cs);
 			DataSourceUtils.releaseConnection(con, getDataSource());
+			if (event != null) {
+				event.record();
+			}
 		}
 	}
 
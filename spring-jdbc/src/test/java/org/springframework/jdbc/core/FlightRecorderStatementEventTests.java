@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.core;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link FlightRecorderStatementEvent}.
+ *
+ * @author agent
+ */
+class FlightRecorderStatementEventTests {
+
+	private static final String UPDATE = "UPDATE seat_status SET booked = 1";
+
+	private static final String UPDATE_WITH_ARGS = "UPDATE seat_status SET booked = 1 WHERE id = ?";
+
+
+	@Test
+	void statementExecutionsAreRecorded(@TempDir Path tempDir) throws Exception {
+		DataSource dataSource = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		Statement statement = mock(Statement.class);
+		PreparedStatement preparedStatement = mock(PreparedStatement.class);
+		given(dataSource.getConnection()).willReturn(connection);
+		given(connection.createStatement()).willReturn(statement);
+		given(statement.executeUpdate(UPDATE)).willReturn(1);
+		given(connection.prepareStatement(UPDATE_WITH_ARGS)).willReturn(preparedStatement);
+		given(preparedStatement.executeUpdate()).willReturn(1);
+		JdbcTemplate template = new JdbcTemplate(dataSource);
+
+		Path file = tempDir.resolve("jdbc.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(FlightRecorderStatementEvent.class);
+			recording.start();
+			template.update(UPDATE);
+			template.update(UPDATE_WITH_ARGS, 1);
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		assertThat(events).hasSize(2);
+		assertThat(events.get(0).getString("statementType")).isEqualTo("Statement");
+		assertThat(events.get(0).getString("sql")).isEqualTo(UPDATE);
+		assertThat(events.get(1).getString("statementType")).isEqualTo("PreparedStatement");
+		assertThat(events.get(1).getString("sql")).isEqualTo(UPDATE_WITH_ARGS);
+	}
+
+	@Test
+	void nothingIsRecordedWhenDisabled() {
+		assertThat(FlightRecorderStatementEvent.start("Statement", new Object())).isNull();
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.interceptor;
+
+import java.lang.reflect.Method;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Java Flight Recorder {@link Event} for a method invocation going through
+ * {@link TransactionInterceptor}, including transaction demarcation.
+ *
+ * <p>For reactive transactions, the event only covers the assembly of the
+ * transactional pipeline rather than its execution.
+ *
+ * <p>Only referenced by the {@code TransactionInterceptor} if {@code jdk.jfr}
+ * is present on the runtime, and only instantiated while the event type is enabled.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@Category({"Spring Framework", "Transactions"})
+@Label("Transactional Invocation")
+@Description("Method invocation within a Spring-managed transaction")
+@StackTrace(false)
+final class FlightRecorderTransactionEvent extends Event {
+
+	@Label("Method")
+	String method;
+
+	@Label("Transaction Attribute")
+	String transactionAttribute;
+
+	@Label("Exception")
+	String exception;
+
+
+	/**
+	 * Start timing a method invocation, including the transaction around it.
+	 * @return the started event, or {@code null} if transactional invocations
+	 * are not being recorded
+	 */
+	@Nullable
+	static FlightRecorderTransactionEvent start() {
+		FlightRecorderTransactionEvent event = new FlightRecorderTransactionEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * End this event and commit it if it passes the configured threshold.
+	 * @param method the invoked method
+	 * @param targetClass the target class, if known
+	 * @param tas the attribute source used by the interceptor, if any
+	 * @param ex the exception thrown by the invocation, if any
+	 */
+	void commit(Method method, @Nullable Class<?> targetClass,
+			@Nullable TransactionAttributeSource tas, @Nullable Throwable ex) {
+
+		end();
+		if (shouldCommit()) {
+			this.method = ClassUtils.getQualifiedMethodName(method, targetClass);
+			TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
+			this.transactionAttribute = (txAttr != null ? txAttr.toString() : null);
+			this.exception = (ex != null ? ex.getClass().getName() : null);
+			commit();
+		}
+	}
+
+}
@@ -30,6 +30,7 @@ import org.springframework.beans.factory.BeanFactory;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionManager;
+import org.springframework.util.ClassUtils;
 
 /**
  * AOP Alliance MethodInterceptor for declarative transaction
@@ -53,6 +54,10 @@ import org.springframework.transaction.TransactionManager;
 @SuppressWarnings("serial")
 public class TransactionInterceptor extends TransactionAspectSupport implements MethodInterceptor, Serializable {
 
+	private static final boolean flightRecorderPresent =
+			ClassUtils.isPresent("jdk.jfr.Event", TransactionInterceptor.class.getClassLoader());
+
+
 	/**
 	 * Create a new TransactionInterceptor.
 	 * <p>Transaction manager and transaction attributes still need to be set.
@@ -117,7 +122,21 @@ public class TransactionInterceptor extends TransactionAspectSupport implements
 
 		// Adapt to TransactionAspectSupport's invokeWithinTransaction...
 		// 以事务的方式调用目标方法（埋了一个钩子函数，用来回调目标方法）
-		return invokeWithinTransaction(invocation.getMethod(), targetClass, invocation::proceed);
+		FlightRecorderTransactionEvent event = (flightRecorderPresent ? FlightRecorderTransactionEvent.start() : null);
+		if (event == null) {
+			return invokeWithinTransaction(invocation.getMethod(), targetClass, invocation::proceed);
+		}
+		Throwable failure = null;
+		try {
+			return invokeWithinTransaction(invocation.getMethod(), targetClass, invocation::proceed);
+		}
+		catch (Throwable ex) {
+			failure = ex;
+			throw ex;
+		}
+		finally {
+			event.commit(invocation.getMethod(), targetClass, getTransactionAttributeSource(), failure);
+		}
 	}
 
 
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.interceptor;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link FlightRecorderTransactionEvent}.
+ *
+ * @author agent
+ */
+class FlightRecorderTransactionEventTests {
+
+	@Test
+	void transactionalInvocationsAreRecorded(@TempDir Path tempDir) throws Exception {
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		given(transactionManager.getTransaction(any())).willReturn(new SimpleTransactionStatus());
+		ProxyFactory proxyFactory = new ProxyFactory(new DefaultGreetingService());
+		proxyFactory.addAdvice(new TransactionInterceptor(transactionManager, new MatchAlwaysTransactionAttributeSource()));
+		GreetingService service = (GreetingService) proxyFactory.getProxy();
+
+		Path file = tempDir.resolve("tx.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(FlightRecorderTransactionEvent.class);
+			recording.start();
+			service.greet("Juergen");
+			assertThatIllegalStateException().isThrownBy(() -> service.greet(null));
+			recording.stop();
+			recording.dump(file);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		assertThat(events).hasSize(2).allSatisfy(event -> {
+			assertThat(event.getString("method")).isEqualTo(DefaultGreetingService.class.getName() + ".greet");
+			assertThat(event.getString("transactionAttribute")).startsWith("PROPAGATION_REQUIRED");
+		});
+		assertThat(events.get(0).getString("exception")).isNull();
+		assertThat(events.get(1).getString("exception")).isEqualTo(IllegalStateException.class.getName());
+	}
+
+	@Test
+	void nothingIsRecordedWhenDisabled() {
+		assertThat(FlightRecorderTransactionEvent.start()).isNull();
+	}
+
+
+	interface GreetingService {
+
+		String greet(String name);
+	}
+
+
+	static class DefaultGreetingService implements GreetingService {
+
+		@Override
+		public String greet(String name) {
+			if (name == null) {
+				throw new IllegalStateException("No name");
+			}
+			return "Hello " + name;
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Benchmarks for {@link PathPattern} matching, compared with string-based
+ * {@link AntPathMatcher} matching over the same set of route patterns.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@BenchmarkMode(Mode.Throughput)
+public class PathPatternBenchmark {
+
+	@Benchmark
+	public void matchPathPatterns(RouteData data, Blackhole bh) {
+		for (String path : data.paths) {
+			PathContainer pathContainer = PathContainer.parsePath(path);
+			for (PathPattern pattern : data.pathPatterns) {
+				bh.consume(pattern.matches(pathContainer));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchAntPatterns(RouteData data, Blackhole bh) {
+		for (String path : data.paths) {
+			for (String pattern : data.patterns) {
+				bh.consume(data.antPathMatcher.match(pattern, path));
+			}
+		}
+	}
+
+	@Benchmark
+	public void parsePatterns(RouteData data, Blackhole bh) {
+		PathPatternParser parser = new PathPatternParser();
+		for (String pattern : data.patterns) {
+			bh.consume(parser.parse(pattern));
+		}
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class RouteData {
+
+		public List<String> patterns = new ArrayList<>();
+
+		public List<PathPattern> pathPatterns = new ArrayList<>();
+
+		public List<String> paths = new ArrayList<>();
+
+		public AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+		@Setup(Level.Trial)
+		public void setup() {
+			this.patterns.add("/");
+			this.patterns.add("/static/**");
+			this.patterns.add("/resources/*.css");
+			this.patterns.add("/api/v1/projects");
+			this.patterns.add("/api/v1/projects/{project}");
+			this.patterns.add("/api/v1/projects/{project}/issues");
+			this.patterns.add("/api/v1/projects/{project}/issues/{issue}");
+			this.patterns.add("/api/v1/projects/{project}/releases/{version:[0-9.]+}");
+			this.patterns.add("/api/v1/users/{user}/**");
+			PathPatternParser parser = new PathPatternParser();
+			for (String pattern : this.patterns) {
+				this.pathPatterns.add(parser.parse(pattern));
+			}
+			this.paths.add("/");
+			this.paths.add("/static/js/app.min.js");
+			this.paths.add("/resources/main.css");
+			this.paths.add("/api/v1/projects/spring/issues/12345");
+			this.paths.add("/api/v1/projects/spring/releases/5.3.0");
+			this.paths.add("/unknown/path/to/resource");
+		}
+	}
+
+}
@@ -36,6 +36,7 @@ import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpLogging;
@@ -73,6 +74,8 @@ public class ResourceHttpMessageWriter implements HttpMessageWriter<Resource> {
 
 	private static final Log logger = HttpLogging.forLogName(ResourceHttpMessageWriter.class);
 
+	private static final int MAPPED_REGION_SIZE = 1024 * 1024;
+
 
 	private final ResourceEncoder encoder;
 
@@ -80,6 +83,8 @@ public class ResourceHttpMessageWriter implements HttpMessageWriter<Resource> {
 
 	private final List<MediaType> mediaTypes;
 
+	private long memoryMappingThreshold = -1;
+
 
 	public ResourceHttpMessageWriter() {
 		this(ResourceEncoder.DEFAULT_BUFFER_SIZE);
@@ -92,6 +97,30 @@ public class ResourceHttpMessageWriter implements HttpMessageWriter<Resource> {
 	}
 
 
+	/**
+	 * Configure the minimum number of bytes of a file resource, or of a single
+	 * region of it, from which to write it by memory-mapping the file, when the
+	 * output message does not support {@link ZeroCopyHttpOutputMessage zero-copy}
+	 * file transfer. This avoids copying the file content into freshly allocated
+	 * buffers, e.g. when writing large static files on a Servlet container.
+	 * <p>By default this is set to -1, in which case files are never mapped.
+	 * @param threshold the minimum number of bytes to memory-map, or -1 to disable
+	 * @since 5.2.10
+	 * @see DataBufferUtils#readMapped
+	 */
+	public void setMemoryMappingThreshold(long threshold) {
+		this.memoryMappingThreshold = threshold;
+	}
+
+	/**
+	 * Return the configured {@link #setMemoryMappingThreshold memory mapping threshold}.
+	 * @since 5.2.10
+	 */
+	public long getMemoryMappingThreshold() {
+		return this.memoryMappingThreshold;
+	}
+
+
 	@Override
 	public boolean canWrite(ResolvableType elementType, @Nullable MediaType mediaType) {
 		return this.encoder.canEncode(elementType, mediaType);
@@ -128,12 +157,13 @@ public class ResourceHttpMessageWriter implements HttpMessageWriter<Resource> {
 		}
 
 		return zeroCopy(resource, null, message, hints)
-				.orElseGet(() -> {
-					Mono<Resource> input = Mono.just(resource);
-					DataBufferFactory factory = message.bufferFactory();
-					Flux<DataBuffer> body = this.encoder.encode(input, factory, type, resourceMediaType, hints);
-					return message.writeWith(body);
-				});
+				.orElseGet(() -> memoryMapped(resource, null, message, hints)
+						.orElseGet(() -> {
+							Mono<Resource> input = Mono.just(resource);
+							DataBufferFactory factory = message.bufferFactory();
+							Flux<DataBuffer> body = this.encoder.encode(input, factory, type, resourceMediaType, hints);
+							return message.writeWith(body);
+						}));
 	}
 
 	private static MediaType getResourceMediaType(
@@ -182,6 +212,31 @@ public class ResourceHttpMessageWriter implements HttpMessageWriter<Resource> {
 		return Optional.empty();
 	}
 
+	private Optional<Mono<Void>> memoryMapped(Resource resource, @Nullable ResourceRegion region,
+			ReactiveHttpOutputMessage message, Map<String, Object> hints) {
+
+		if (this.memoryMappingThreshold >= 0 && resource.isFile()) {
+			try {
+				File file = resource.getFile();
+				long pos = region != null ? region.getPosition() : 0;
+				long count = region != null ? region.getCount() : file.length();
+				if (count >= this.memoryMappingThreshold) {
+					if (logger.isDebugEnabled()) {
+						String formatted = region != null ? "region " + pos + "-" + (count) + " of " : "";
+						logger.debug(Hints.getLogPrefix(hints) + "Memory-mapped " + formatted + "[" + resource + "]");
+					}
+					Flux<DataBuffer> body = DataBufferUtils.readMapped(
+							file.toPath(), pos, count, message.bufferFactory(), MAPPED_REGION_SIZE);
+					return Optional.of(message.writeWith(body));
+				}
+			}
+			catch (IOException ex) {
+				// fall back on the encoder
+			}
+		}
+		return Optional.empty();
+	}
+
 
 	// Server-side only: single Resource or sub-regions...
 
@@ -236,11 +291,12 @@ public class ResourceHttpMessageWriter implements HttpMessageWriter<Resource> {
 			Map<String, Object> hints) {
 
 		return zeroCopy(region.getResource(), region, message, hints)
-				.orElseGet(() -> {
-					Publisher<? extends ResourceRegion> input = Mono.just(region);
-					MediaType mediaType = message.getHeaders().getContentType();
-					return encodeAndWriteRegions(input, mediaType, message, hints);
-				});
+				.orElseGet(() -> memoryMapped(region.getResource(), region, message, hints)
+						.orElseGet(() -> {
+							Publisher<? extends ResourceRegion> input = Mono.just(region);
+							MediaType mediaType = message.getHeaders().getContentType();
+							return encodeAndWriteRegions(input, mediaType, message, hints);
+						}));
 	}
 
 	private Mono<Void> encodeAndWriteRegions(Publisher<? extends ResourceRegion> publisher,
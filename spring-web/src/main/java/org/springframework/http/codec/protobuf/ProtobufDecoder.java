@@ -18,7 +18,6 @@ package org.springframework.http.codec.protobuf;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +34,7 @@ import reactor.core.publisher.Mono;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.Decoder;
 import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.CompositeDataBuffer;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
@@ -141,7 +141,7 @@ public class ProtobufDecoder extends ProtobufCodecSupport implements Decoder<Mes
 	public Mono<Message> decodeToMono(Publisher<DataBuffer> inputStream, ResolvableType elementType,
 			@Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
 
-		return DataBufferUtils.join(inputStream, this.maxMessageSize)
+		return DataBufferUtils.joinComposite(inputStream, this.maxMessageSize)
 				.map(dataBuffer -> decode(dataBuffer, elementType, mimeType, hints));
 	}
 
@@ -151,8 +151,16 @@ public class ProtobufDecoder extends ProtobufCodecSupport implements Decoder<Mes
 
 		try {
 			Message.Builder builder = getMessageBuilder(targetType.toClass());
-			ByteBuffer buffer = dataBuffer.asByteBuffer();
-			builder.mergeFrom(CodedInputStream.newInstance(buffer), this.extensionRegistry);
+			CodedInputStream input;
+			if (dataBuffer instanceof CompositeDataBuffer &&
+					((CompositeDataBuffer) dataBuffer).getSegmentCount() > 1) {
+				// Stream across the aggregated buffers rather than copying them
+				input = CodedInputStream.newInstance(dataBuffer.asInputStream());
+			}
+			else {
+				input = CodedInputStream.newInstance(dataBuffer.asByteBuffer());
+			}
+			builder.mergeFrom(input, this.extensionRegistry);
 			return builder.build();
 		}
 		catch (IOException ex) {
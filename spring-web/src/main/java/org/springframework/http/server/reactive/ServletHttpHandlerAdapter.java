@@ -108,6 +108,13 @@ public class ServletHttpHandlerAdapter implements Servlet {
 		return this.servletPath;
 	}
 
+	/**
+	 * Configure the {@link DataBufferFactory} to use for the request body and
+	 * the response.
+	 * <p>By default this is a {@link DefaultDataBufferFactory}. Consider a
+	 * {@link org.springframework.core.io.buffer.PooledDefaultDataBufferFactory}
+	 * to recycle buffers across requests instead.
+	 */
 	public void setDataBufferFactory(DataBufferFactory dataBufferFactory) {
 		Assert.notNull(dataBufferFactory, "DataBufferFactory must not be null");
 		this.dataBufferFactory = dataBufferFactory;
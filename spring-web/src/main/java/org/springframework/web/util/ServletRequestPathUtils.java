@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Utility class to parse the path of an {@link HttpServletRequest} to a
+ * {@link RequestPath} and cache it in a request attribute for further access,
+ * e.g. for matching against parsed {@link org.springframework.web.util.pattern.PathPattern
+ * PathPatterns}.
+ *
+ * <p>The context path of the resulting {@code RequestPath} covers the Servlet
+ * context path and, for a Servlet mapped by prefix such as {@code "/app/*"},
+ * the Servlet path as well, so that
+ * {@link RequestPath#pathWithinApplication() pathWithinApplication()} is the
+ * path within the Servlet mapping.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+public abstract class ServletRequestPathUtils {
+
+	/** Name of the request attribute that holds the parsed {@link RequestPath}. */
+	public static final String PATH_ATTRIBUTE = ServletRequestPathUtils.class.getName() + ".PATH";
+
+
+	/**
+	 * Parse the {@link HttpServletRequest#getRequestURI() requestURI} of the given
+	 * request to a {@link RequestPath} and save it in the request attribute
+	 * {@link #PATH_ATTRIBUTE} for subsequent use with
+	 * {@link #getParsedRequestPath(ServletRequest)}.
+	 * @param request the current request
+	 * @return the parsed {@code RequestPath}
+	 */
+	public static RequestPath parseAndCache(HttpServletRequest request) {
+		RequestPath requestPath = parse(request);
+		request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		return requestPath;
+	}
+
+	/**
+	 * Parse the path of the given request to a {@link RequestPath}, without
+	 * caching it.
+	 * @param request the current request
+	 * @return the parsed {@code RequestPath}
+	 */
+	public static RequestPath parse(HttpServletRequest request) {
+		String requestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+		if (requestUri == null) {
+			requestUri = request.getRequestURI();
+		}
+		String contextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+		if (contextPath == null) {
+			contextPath = request.getContextPath();
+		}
+		String servletPathPrefix = getServletPathPrefix(request);
+		if (servletPathPrefix != null) {
+			String prefix = (StringUtils.hasLength(contextPath) ? contextPath : "") + servletPathPrefix;
+			if (requestUri.startsWith(prefix) &&
+					(requestUri.length() == prefix.length() || requestUri.charAt(prefix.length()) == '/')) {
+				return RequestPath.parse(requestUri, prefix);
+			}
+		}
+		return RequestPath.parse(requestUri, contextPath);
+	}
+
+	/**
+	 * Return the encoded Servlet path if the Servlet is mapped by prefix,
+	 * i.e. if there is path info following the Servlet path, or {@code null}.
+	 */
+	@Nullable
+	private static String getServletPathPrefix(HttpServletRequest request) {
+		String servletPath = (String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE);
+		String pathInfo;
+		if (servletPath != null) {
+			pathInfo = (String) request.getAttribute(WebUtils.INCLUDE_PATH_INFO_ATTRIBUTE);
+		}
+		else {
+			servletPath = request.getServletPath();
+			pathInfo = request.getPathInfo();
+		}
+		if (pathInfo == null || !StringUtils.hasLength(servletPath) || servletPath.equals("/")) {
+			return null;
+		}
+		if (servletPath.endsWith("/")) {
+			servletPath = servletPath.substring(0, servletPath.length() - 1);
+		}
+		return UriUtils.encodePath(servletPath, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Return a {@link #parseAndCache previously} parsed and cached {@code RequestPath}.
+	 * @param request the current request
+	 * @return the cached {@code RequestPath}
+	 * @throws IllegalArgumentException if no cached {@code RequestPath} is found
+	 */
+	public static RequestPath getParsedRequestPath(ServletRequest request) {
+		RequestPath path = (RequestPath) request.getAttribute(PATH_ATTRIBUTE);
+		Assert.notNull(path, "Expected parsed RequestPath in request attribute \"" + PATH_ATTRIBUTE + "\".");
+		return path;
+	}
+
+	/**
+	 * Set the cached, parsed {@code RequestPath} to the given value.
+	 * @param requestPath the value to set to, or if {@code null} the cache
+	 * value is cleared
+	 * @param request the current request
+	 */
+	public static void setParsedRequestPath(@Nullable RequestPath requestPath, ServletRequest request) {
+		if (requestPath != null) {
+			request.setAttribute(PATH_ATTRIBUTE, requestPath);
+		}
+		else {
+			request.removeAttribute(PATH_ATTRIBUTE);
+		}
+	}
+
+	/**
+	 * Check for a {@link #parseAndCache previously} parsed and cached {@code RequestPath}.
+	 * @param request the current request
+	 */
+	public static boolean hasParsedRequestPath(ServletRequest request) {
+		return (request.getAttribute(PATH_ATTRIBUTE) != null);
+	}
+
+	/**
+	 * Remove the request attribute {@link #PATH_ATTRIBUTE} that holds a
+	 * {@link #parseAndCache previously} parsed and cached {@code RequestPath}.
+	 * @param request the current request
+	 */
+	public static void clearParsedRequestPath(ServletRequest request) {
+		request.removeAttribute(PATH_ATTRIBUTE);
+	}
+
+}
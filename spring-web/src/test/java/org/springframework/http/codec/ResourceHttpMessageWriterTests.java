@@ -17,15 +17,19 @@
 package org.springframework.http.codec;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpRange;
@@ -138,6 +142,35 @@ public class ResourceHttpMessageWriterTests {
 		assertThat(this.response.getStatusCode()).isEqualTo(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
 	}
 
+	@Test
+	public void writeMemoryMappedResource(@TempDir Path tempDir) throws Exception {
+		Path file = tempDir.resolve("resource.txt");
+		Files.write(file, "Spring Framework test resource content.".getBytes(StandardCharsets.UTF_8));
+		this.writer.setMemoryMappingThreshold(0);
+
+		Mono<Void> mono = this.writer.write(Mono.just(new FileSystemResource(file)), null, null,
+				TEXT_PLAIN, get("/").build(), this.response, HINTS);
+		StepVerifier.create(mono).expectComplete().verify();
+
+		assertThat(this.response.getHeaders().getContentLength()).isEqualTo(39L);
+		String content = "Spring Framework test resource content.";
+		StepVerifier.create(this.response.getBodyAsString()).expectNext(content).expectComplete().verify();
+	}
+
+	@Test
+	public void writeMemoryMappedSingleRegion(@TempDir Path tempDir) throws Exception {
+		Path file = tempDir.resolve("resource.txt");
+		Files.write(file, "Spring Framework test resource content.".getBytes(StandardCharsets.UTF_8));
+		this.writer.setMemoryMappingThreshold(0);
+
+		Mono<Void> mono = this.writer.write(Mono.just(new FileSystemResource(file)), null, null,
+				TEXT_PLAIN, get("/").range(of(7, 15)).build(), this.response, HINTS);
+		StepVerifier.create(mono).expectComplete().verify();
+
+		assertThat(this.response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-15/39");
+		StepVerifier.create(this.response.getBodyAsString()).expectNext("Framework").expectComplete().verify();
+	}
+
 
 	private void testWrite(MockServerHttpRequest request) {
 		Mono<Void> mono = this.writer.write(this.input, null, null, TEXT_PLAIN, request, this.response, HINTS);
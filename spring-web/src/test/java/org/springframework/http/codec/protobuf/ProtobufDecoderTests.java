@@ -18,6 +18,7 @@ package org.springframework.http.codec.protobuf;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.protobuf.Message;
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,8 @@ import org.springframework.core.ResolvableType;
 import org.springframework.core.codec.DecodingException;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.core.testfixture.codec.AbstractDecoderTests;
 import org.springframework.http.MediaType;
 import org.springframework.protobuf.Msg;
@@ -107,6 +110,27 @@ public class ProtobufDecoderTests extends AbstractDecoderTests<ProtobufDecoder>
 				.verifyComplete());
 	}
 
+	@Test
+	public void decodeChunksToMonoWithoutCopy() {
+		AtomicInteger allocations = new AtomicInteger();
+		DefaultDataBufferFactory bufferFactory = new DefaultDataBufferFactory() {
+			@Override
+			public DefaultDataBuffer allocateBuffer(int initialCapacity) {
+				allocations.incrementAndGet();
+				return super.allocateBuffer(initialCapacity);
+			}
+		};
+		byte[] full = this.testMsg1.toByteArray();
+		Flux<DataBuffer> input = Flux.just(
+				bufferFactory.wrap(Arrays.copyOfRange(full, 0, full.length / 2)),
+				bufferFactory.wrap(Arrays.copyOfRange(full, full.length / 2, full.length)));
+
+		StepVerifier.create(this.decoder.decodeToMono(input, forClass(Msg.class), null, emptyMap()))
+				.expectNext(this.testMsg1)
+				.verifyComplete();
+		assertThat(allocations.get()).isZero();
+	}
+
 	@Override
 	@Test
 	public void decode() {
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.server.RequestPath;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link ServletRequestPathUtils}.
+ *
+ * @author agent
+ */
+class ServletRequestPathUtilsTests {
+
+	@Test
+	void parseAndCache() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo%20bar");
+		request.setContextPath("/app");
+
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).isFalse();
+		RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+
+		assertThat(requestPath.contextPath().value()).isEqualTo("/app");
+		assertThat(requestPath.pathWithinApplication().value()).isEqualTo("/foo%20bar");
+		assertThat(ServletRequestPathUtils.getParsedRequestPath(request)).isSameAs(requestPath);
+
+		ServletRequestPathUtils.clearParsedRequestPath(request);
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).isFalse();
+		assertThatIllegalArgumentException().isThrownBy(() -> ServletRequestPathUtils.getParsedRequestPath(request));
+	}
+
+	@Test
+	void servletPathPrefixIsPartOfContextPath() {
+		testPathWithinApplication("/app", "/main", "/foo/bar", "/app/main/foo/bar", "/app/main", "/foo/bar");
+		testPathWithinApplication("", "/main", "/foo", "/main/foo", "/main", "/foo");
+		testPathWithinApplication("/app", "/main path", "/foo", "/app/main%20path/foo", "/app/main%20path", "/foo");
+	}
+
+	@Test
+	void defaultServletMappingIsNotPartOfContextPath() {
+		testPathWithinApplication("/app", "/foo/bar", null, "/app/foo/bar", "/app", "/foo/bar");
+		testPathWithinApplication("", "/foo.do", null, "/foo.do", "", "/foo.do");
+	}
+
+	@Test
+	void includeAttributes() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/main/original");
+		request.setContextPath("/app");
+		request.setServletPath("/main");
+		request.setPathInfo("/original");
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/app/other/included");
+		request.setAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE, "/app");
+		request.setAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE, "/other");
+		request.setAttribute(WebUtils.INCLUDE_PATH_INFO_ATTRIBUTE, "/included");
+
+		RequestPath requestPath = ServletRequestPathUtils.parse(request);
+		assertThat(requestPath.contextPath().value()).isEqualTo("/app/other");
+		assertThat(requestPath.pathWithinApplication().value()).isEqualTo("/included");
+	}
+
+	private void testPathWithinApplication(String contextPath, String servletPath, String pathInfo,
+			String requestUri, String expectedContextPath, String expectedPathWithinApplication) {
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+		request.setContextPath(contextPath);
+		request.setServletPath(servletPath);
+		request.setPathInfo(pathInfo);
+
+		RequestPath requestPath = ServletRequestPathUtils.parse(request);
+		assertThat(requestPath.contextPath().value()).isEqualTo(expectedContextPath);
+		assertThat(requestPath.pathWithinApplication().value()).isEqualTo(expectedPathWithinApplication);
+	}
+
+}
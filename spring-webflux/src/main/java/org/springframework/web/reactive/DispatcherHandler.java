@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import org.springframework.context.ApplicationContextAware;
 import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebHandler;
@@ -67,6 +68,9 @@ import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
  */
 public class DispatcherHandler implements WebHandler, ApplicationContextAware {
 
+	private static final boolean flightRecorderPresent =
+			ClassUtils.isPresent("jdk.jfr.Event", DispatcherHandler.class.getClassLoader());
+
 	@Nullable
 	private List<HandlerMapping> handlerMappings;
 
@@ -139,12 +143,14 @@ public class DispatcherHandler implements WebHandler, ApplicationContextAware {
 		if (this.handlerMappings == null) {
 			return createNotFoundError();
 		}
-		return Flux.fromIterable(this.handlerMappings)
+		FlightRecorderDispatchEvent event = (flightRecorderPresent ? FlightRecorderDispatchEvent.start() : null);
+		Mono<Void> handling = Flux.fromIterable(this.handlerMappings)
 				.concatMap(mapping -> mapping.getHandler(exchange))
 				.next()
 				.switchIfEmpty(createNotFoundError())
 				.flatMap(handler -> invokeHandler(exchange, handler))
 				.flatMap(result -> handleResult(exchange, result));
+		return (event != null ? event.record(exchange, handling) : handling);
 	}
 
 	private <R> Mono<R> createNotFoundError() {
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Java Flight Recorder {@link Event} for an exchange handled by
+ * {@link DispatcherHandler}, from the invocation of
+ * {@link DispatcherHandler#handle} until the returned {@code Mono}
+ * terminates or is cancelled.
+ *
+ * <p>Only referenced by the {@code DispatcherHandler} if {@code jdk.jfr} is
+ * present on the runtime, and only instantiated while the event type is enabled.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@Category({"Spring Framework", "WebFlux"})
+@Label("Dispatch")
+@Description("Exchange handled by a Spring WebFlux DispatcherHandler")
+@StackTrace(false)
+final class FlightRecorderDispatchEvent extends Event {
+
+	@Label("Method")
+	String method;
+
+	@Label("Path")
+	String path;
+
+	@Label("Handler")
+	String handler;
+
+	@Label("Status")
+	int status;
+
+	@Label("Signal")
+	String signal;
+
+
+	/**
+	 * Start timing the handling of an exchange, up to the completion of the
+	 * {@code Mono} passed to {@link #record}.
+	 * @return the started event, or {@code null} if dispatches are not being recorded
+	 */
+	@Nullable
+	static FlightRecorderDispatchEvent start() {
+		FlightRecorderDispatchEvent event = new FlightRecorderDispatchEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Decorate the given handling {@code Mono} so that this event is
+	 * committed once it terminates or is cancelled.
+	 * @param exchange the current exchange
+	 * @param handling the result of the dispatch
+	 * @return the decorated {@code Mono}
+	 */
+	Mono<Void> record(ServerWebExchange exchange, Mono<Void> handling) {
+		return handling.doFinally(signalType -> commit(exchange, signalType));
+	}
+
+	private void commit(ServerWebExchange exchange, SignalType signalType) {
+		end();
+		if (shouldCommit()) {
+			this.method = exchange.getRequest().getMethodValue();
+			this.path = exchange.getRequest().getPath().value();
+			Object handler = exchange.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+			this.handler = (handler != null ? handler.toString() : null);
+			HttpStatus status = exchange.getResponse().getStatusCode();
+			this.status = (status != null ? status.value() : 0);
+			this.signal = signalType.toString();
+			commit();
+		}
+	}
+
+}
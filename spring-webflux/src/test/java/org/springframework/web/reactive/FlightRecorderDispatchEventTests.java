@@ -0,0 +1,85 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.reactive.result.SimpleHandlerAdapter;
+import org.springframework.web.server.WebHandler;
+import org.springframework.web.testfixture.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.testfixture.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link FlightRecorderDispatchEvent}.
+ *
+ * @author agent
+ */
+class FlightRecorderDispatchEventTests {
+
+	@Test
+	void dispatchIsRecorded(@TempDir Path tempDir) throws Exception {
+		WebHandler handler = exchange -> {
+			exchange.getResponse().setStatusCode(HttpStatus.ACCEPTED);
+			return exchange.getResponse().setComplete();
+		};
+		StaticApplicationContext context = new StaticApplicationContext();
+		context.registerBean(HandlerMapping.class, () -> new SimpleUrlHandlerMapping(Collections.singletonMap("/accept", handler)));
+		context.registerBean(HandlerAdapter.class, SimpleHandlerAdapter::new);
+		context.refresh();
+		DispatcherHandler dispatcherHandler = new DispatcherHandler(context);
+
+		Path file = tempDir.resolve("dispatch.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(FlightRecorderDispatchEvent.class);
+			recording.start();
+			dispatcherHandler.handle(MockServerWebExchange.from(MockServerHttpRequest.post("/accept")))
+					.block(Duration.ofSeconds(5));
+			recording.stop();
+			recording.dump(file);
+		}
+		context.close();
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		assertThat(events).hasSize(1);
+		RecordedEvent event = events.get(0);
+		assertThat(event.getString("method")).isEqualTo("POST");
+		assertThat(event.getString("path")).isEqualTo("/accept");
+		assertThat(event.getString("handler")).isNotNull();
+		assertThat(event.getInt("status")).isEqualTo(202);
+		assertThat(event.getString("signal")).isEqualTo("onComplete");
+	}
+
+	@Test
+	void nothingIsRecordedWhenDisabled() {
+		assertThat(FlightRecorderDispatchEvent.start()).isNull();
+	}
+
+}
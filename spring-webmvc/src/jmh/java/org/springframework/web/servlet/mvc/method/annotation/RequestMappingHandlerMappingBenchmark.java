@@ -0,0 +1,100 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+/**
+ * Benchmarks for {@link RequestMappingHandlerMapping} handler lookups against
+ * a configurable number of registered mappings.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@BenchmarkMode(Mode.Throughput)
+public class RequestMappingHandlerMappingBenchmark {
+
+	@Benchmark
+	public Object directPathMatch(MappingData data) throws Exception {
+		return data.handlerMapping.getHandler(data.directPathRequest);
+	}
+
+	@Benchmark
+	public Object patternMatch(MappingData data) throws Exception {
+		return data.handlerMapping.getHandler(data.patternRequest);
+	}
+
+	@Benchmark
+	public Object noMatch(MappingData data) throws Exception {
+		return data.handlerMapping.getHandler(data.noMatchRequest);
+	}
+
+
+	@State(Scope.Benchmark)
+	public static class MappingData {
+
+		@Param({"10", "500"})
+		public int mappingCount;
+
+		public RequestMappingHandlerMapping handlerMapping;
+
+		public MockHttpServletRequest directPathRequest;
+
+		public MockHttpServletRequest patternRequest;
+
+		public MockHttpServletRequest noMatchRequest;
+
+		@Setup(Level.Trial)
+		public void setup() throws Exception {
+			this.handlerMapping = new RequestMappingHandlerMapping();
+			Controller controller = new Controller();
+			Method method = Controller.class.getMethod("handle");
+			for (int i = 0; i < this.mappingCount; i++) {
+				this.handlerMapping.registerMapping(RequestMappingInfo.paths("/resources" + i)
+						.methods(RequestMethod.GET).build(), controller, method);
+				this.handlerMapping.registerMapping(RequestMappingInfo.paths("/resources" + i + "/{id}/items/{item}")
+						.methods(RequestMethod.GET).build(), controller, method);
+			}
+			int last = this.mappingCount - 1;
+			this.directPathRequest = new MockHttpServletRequest("GET", "/resources" + last);
+			this.patternRequest = new MockHttpServletRequest("GET", "/resources" + last + "/42/items/7");
+			this.noMatchRequest = new MockHttpServletRequest("GET", "/unknown/42");
+		}
+	}
+
+
+	public static class Controller {
+
+		public String handle() {
+			return "handled";
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -278,6 +278,9 @@ public class DispatcherServlet extends FrameworkServlet {
 	/** Additional logger to use when no mapped handler is found for a request. */
 	protected static final Log pageNotFoundLogger = LogFactory.getLog(PAGE_NOT_FOUND_LOG_CATEGORY);
 
+	private static final boolean flightRecorderPresent =
+			ClassUtils.isPresent("jdk.jfr.Event", DispatcherServlet.class.getClassLoader());
+
     /**
      * org.springframework.web.DispatcherServlet.properties 文件中定义的键值对（spring-webmvc 模块）
      */
@@ -1017,6 +1020,7 @@ public class DispatcherServlet extends FrameworkServlet {
 		boolean multipartRequestParsed = false;
 
 		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+		FlightRecorderDispatchEvent event = (flightRecorderPresent ? FlightRecorderDispatchEvent.start() : null);
 
 		try {
 			// 封装 Model 和 View 的容器
@@ -1032,6 +1036,9 @@ public class DispatcherServlet extends FrameworkServlet {
 				// Determine handler for the current request.
 				// 1. 根据 request 找到 Handler（使用了 HandlerMapping）
 				mappedHandler = getHandler(processedRequest);
+				if (event != null) {
+					event.handlerFound(mappedHandler != null ? mappedHandler.getHandler() : null);
+				}
 				if (mappedHandler == null) {
 					noHandlerFound(processedRequest, response);
 					return;
@@ -1058,6 +1065,9 @@ public class DispatcherServlet extends FrameworkServlet {
 
 				// Actually invoke the handler.
 				mv = ha.handle(processedRequest, response, mappedHandler.getHandler());
+				if (event != null) {
+					event.handlerInvoked();
+				}
 
 				if (asyncManager.isConcurrentHandlingStarted()) {
 					return;
@@ -1097,6 +1107,9 @@ public class DispatcherServlet extends FrameworkServlet {
 					cleanupMultipart(processedRequest);
 				}
 			}
+			if (event != null) {
+				event.commit(request, response);
+			}
 		}
 	}
 
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Java Flight Recorder {@link Event} for a request processed by
+ * {@link DispatcherServlet#doDispatch}, split into the handler lookup,
+ * handler invocation and result processing phases.
+ *
+ * <p>Only referenced by the {@code DispatcherServlet} if {@code jdk.jfr} is
+ * present on the runtime, and only instantiated while the event type is enabled.
+ *
+ * @author agent
+ * @since 5.2.10
+ */
+@Category({"Spring Framework", "Web MVC"})
+@Label("Dispatch")
+@Description("Request dispatched by a Spring DispatcherServlet")
+@StackTrace(false)
+final class FlightRecorderDispatchEvent extends Event {
+
+	@Label("Method")
+	String method;
+
+	@Label("URI")
+	String uri;
+
+	@Label("Handler")
+	String handler;
+
+	@Label("Status")
+	int status;
+
+	@Label("Handler Lookup")
+	@Timespan(Timespan.NANOSECONDS)
+	long handlerLookup;
+
+	@Label("Handler Invocation")
+	@Timespan(Timespan.NANOSECONDS)
+	long handlerInvocation;
+
+	@Label("Result Processing")
+	@Timespan(Timespan.NANOSECONDS)
+	long resultProcessing;
+
+	private transient long phaseStart;
+
+	@Nullable
+	private transient Object handlerObject;
+
+
+	/**
+	 * Start timing a request dispatch, beginning with the handler lookup phase.
+	 * @return the started event, or {@code null} if dispatches are not being recorded
+	 */
+	@Nullable
+	static FlightRecorderDispatchEvent start() {
+		FlightRecorderDispatchEvent event = new FlightRecorderDispatchEvent();
+		if (!event.isEnabled()) {
+			return null;
+		}
+		event.begin();
+		event.phaseStart = System.nanoTime();
+		return event;
+	}
+
+	/**
+	 * Mark the end of the handler lookup phase.
+	 * @param handler the handler found, if any
+	 */
+	void handlerFound(@Nullable Object handler) {
+		long now = System.nanoTime();
+		this.handlerLookup = now - this.phaseStart;
+		this.phaseStart = now;
+		this.handlerObject = handler;
+	}
+
+	/**
+	 * Mark the end of the handler invocation phase.
+	 */
+	void handlerInvoked() {
+		long now = System.nanoTime();
+		this.handlerInvocation = now - this.phaseStart;
+		this.phaseStart = now;
+	}
+
+	/**
+	 * End this event and commit it if it passes the configured threshold.
+	 * @param request current HTTP request
+	 * @param response current HTTP response
+	 */
+	void commit(HttpServletRequest request, HttpServletResponse response) {
+		end();
+		if (shouldCommit()) {
+			if (this.handlerInvocation != 0) {
+				this.resultProcessing = System.nanoTime() - this.phaseStart;
+			}
+			this.method = request.getMethod();
+			this.uri = request.getRequestURI();
+			this.handler = (this.handlerObject != null ? this.handlerObject.toString() : null);
+			this.status = response.getStatus();
+			commit();
+		}
+	}
+
+}
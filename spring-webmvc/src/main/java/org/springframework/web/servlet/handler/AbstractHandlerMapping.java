@@ -30,6 +30,7 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.core.Ordered;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
@@ -48,7 +49,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for {@link org.springframework.web.servlet.HandlerMapping}
@@ -80,6 +83,9 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
 
+	@Nullable
+	private PathPatternParser patternParser;
+
     /**
      * 用于配置 Spring MVC 的拦截器，有两种设置方式：
      * ①注册 HandlerMapping 时通过属性设置；
@@ -196,6 +202,44 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		return this.pathMatcher;
 	}
 
+	/**
+	 * Enable use of parsed {@link org.springframework.web.util.pattern.PathPattern
+	 * PathPatterns} for matching request paths, as an alternative to String
+	 * pattern matching via {@link #setPathMatcher PathMatcher}.
+	 * <p>With this enabled, the request path is parsed once into a
+	 * {@link RequestPath} that is cached as a request attribute (see
+	 * {@link ServletRequestPathUtils}) and the {@link #setUrlPathHelper UrlPathHelper}
+	 * is not used for mapping purposes. Subclasses that support this parse their
+	 * mappings to {@code PathPattern}s during initialization.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to use
+	 * @since 5.2.10
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+	}
+
+	/**
+	 * Return the {@link #setPatternParser(PathPatternParser) configured}
+	 * {@code PathPatternParser}, or {@code null}.
+	 * @since 5.2.10
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
+	/**
+	 * Return whether this handler mapping matches with parsed
+	 * {@link org.springframework.web.util.pattern.PathPattern PathPatterns}
+	 * rather than with String patterns via {@link #getPathMatcher()}.
+	 * @since 5.2.10
+	 * @see #setPatternParser(PathPatternParser)
+	 */
+	public boolean usesPathPatterns() {
+		return (getPatternParser() != null);
+	}
+
 	/**
 	 * Set the interceptors to apply for all handlers mapped by this handler mapping.
 	 * <p>Supported interceptor types are HandlerInterceptor, WebRequestInterceptor, and MappedInterceptor.
@@ -467,6 +511,32 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	@Nullable
 	protected abstract Object getHandlerInternal(HttpServletRequest request) throws Exception;
 
+	/**
+	 * Initialize the path to use for request mapping and expose it under the
+	 * {@link #LOOKUP_PATH} request attribute.
+	 * <p>When {@link #usesPathPatterns() parsed patterns} are enabled, the request
+	 * path is parsed and cached via {@link ServletRequestPathUtils#parseAndCache},
+	 * and the lookup path is its encoded path within the application, without
+	 * semicolon content. Otherwise the lookup path is resolved through the
+	 * configured {@link UrlPathHelper}.
+	 * @param request the current request
+	 * @return the lookup path
+	 * @since 5.2.10
+	 */
+	protected String initLookupPath(HttpServletRequest request) {
+		String lookupPath;
+		if (usesPathPatterns()) {
+			RequestPath requestPath = ServletRequestPathUtils.parseAndCache(request);
+			lookupPath = UrlPathHelper.defaultInstance.removeSemicolonContent(
+					requestPath.pathWithinApplication().value());
+		}
+		else {
+			lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
+		}
+		request.setAttribute(LOOKUP_PATH, lookupPath);
+		return lookupPath;
+	}
+
 	/**
 	 * Build a {@link HandlerExecutionChain} for the given handler, including
 	 * applicable interceptors.
@@ -28,11 +28,16 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for URL-mapped {@link org.springframework.web.servlet.HandlerMapping}
@@ -70,6 +75,25 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
      */
 	private final Map<String, Object> handlerMap = new LinkedHashMap<>();
 
+	private final Map<PathPattern, Object> pathPatternHandlerMap = new LinkedHashMap<>();
+
+
+	/**
+	 * {@inheritDoc}
+	 * <p>Registered URL paths are parsed to {@link PathPattern}s as they are
+	 * registered, so the parser must be set before the handler map is initialized.
+	 * Trailing slash matching is then controlled by
+	 * {@link PathPatternParser#setMatchOptionalTrailingSeparator} rather than by
+	 * {@link #setUseTrailingSlashMatch}.
+	 * @since 5.2.10
+	 */
+	@Override
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		Assert.state(this.handlerMap.isEmpty(),
+				"PathPatternParser must be set before the initialization of the handler map " +
+				"via ApplicationContextAware#setApplicationContext.");
+		super.setPatternParser(patternParser);
+	}
 
 	/**
 	 * Set the root handler for this handler mapping, that is,
@@ -127,10 +151,16 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	@Override
 	@Nullable
 	protected Object getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
-		request.setAttribute(LOOKUP_PATH, lookupPath);
+		String lookupPath = initLookupPath(request);
         // 1. 使用 lookupPath 从 Map 中查找 Handler
-		Object handler = lookupHandler(lookupPath, request);
+		Object handler;
+		if (usesPathPatterns()) {
+			RequestPath path = ServletRequestPathUtils.getParsedRequestPath(request);
+			handler = lookupHandler(path, lookupPath, request);
+		}
+		else {
+			handler = lookupHandler(lookupPath, request);
+		}
 		if (handler == null) {
 			// We need to care for the default handler directly, since we need to
 			// expose the PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE for it as well.
@@ -177,16 +207,9 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	protected Object lookupHandler(String urlPath, HttpServletRequest request) throws Exception {
 		// Direct match?  很多时候不能直接 get 到，很多 Handler都使用了 Pattern 匹配模式 如 “/show/article/*”
         // 直接从 Map 中获取
-		Object handler = this.handlerMap.get(urlPath);
+		Object handler = getDirectMatch(urlPath, request);
 		if (handler != null) {
-			// Bean name or resolved handler?
-			if (handler instanceof String) {
-                // String 类型则从容器中获取
-				String handlerName = (String) handler;
-				handler = obtainApplicationContext().getBean(handlerName);
-			}
-			validateHandler(handler, request);
-			return buildPathExposingHandler(handler, urlPath, urlPath, null);
+			return handler;
 		}
 
 		// Pattern match?   使用带 * 号的模式与 url 进行匹配
@@ -252,6 +275,73 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 		return null;
 	}
 
+	/**
+	 * Look up a handler instance for the given URL path, when parsed
+	 * {@link PathPattern}s are {@link #usesPathPatterns() in use}.
+	 * <p>Supports direct matches on the lookup path first, and otherwise matches
+	 * the parsed request path against all registered patterns, selecting the
+	 * most specific one via {@link PathPattern#SPECIFICITY_COMPARATOR}.
+	 * @param path the parsed request path
+	 * @param lookupPath the String lookup path for direct matches
+	 * @param request current HTTP request
+	 * @return the associated handler instance, or {@code null} if not found
+	 * @since 5.2.10
+	 */
+	@Nullable
+	protected Object lookupHandler(RequestPath path, String lookupPath, HttpServletRequest request)
+			throws Exception {
+
+		Object handler = getDirectMatch(lookupPath, request);
+		if (handler != null) {
+			return handler;
+		}
+
+		PathContainer pathWithinApplication = path.pathWithinApplication();
+		List<PathPattern> matches = null;
+		for (PathPattern pattern : this.pathPatternHandlerMap.keySet()) {
+			if (pattern.matches(pathWithinApplication)) {
+				matches = (matches != null ? matches : new ArrayList<>());
+				matches.add(pattern);
+			}
+		}
+		if (matches == null) {
+			return null;
+		}
+		if (matches.size() > 1) {
+			matches.sort(PathPattern.SPECIFICITY_COMPARATOR);
+			if (logger.isTraceEnabled()) {
+				logger.trace("Matching patterns " + matches);
+			}
+		}
+		PathPattern pattern = matches.get(0);
+		handler = this.pathPatternHandlerMap.get(pattern);
+		if (handler instanceof String) {
+			String handlerName = (String) handler;
+			handler = obtainApplicationContext().getBean(handlerName);
+		}
+		validateHandler(handler, request);
+		PathContainer pathWithinMapping = pattern.extractPathWithinPattern(pathWithinApplication);
+		PathPattern.PathMatchInfo matchInfo = pattern.matchAndExtract(pathWithinApplication);
+		Map<String, String> uriVariables = (matchInfo != null ? matchInfo.getUriVariables() : null);
+		return buildPathExposingHandler(handler, pattern.getPatternString(), pathWithinMapping.value(), uriVariables);
+	}
+
+	@Nullable
+	private Object getDirectMatch(String urlPath, HttpServletRequest request) throws Exception {
+		Object handler = this.handlerMap.get(urlPath);
+		if (handler != null) {
+			// Bean name or resolved handler?
+			if (handler instanceof String) {
+                // String 类型则从容器中获取
+				String handlerName = (String) handler;
+				handler = obtainApplicationContext().getBean(handlerName);
+			}
+			validateHandler(handler, request);
+			return buildPathExposingHandler(handler, urlPath, urlPath, null);
+		}
+		return null;
+	}
+
 	/**
 	 * Validate the given handler against the current request.
 	 * <p>The default implementation is empty. Can be overridden in subclasses,
@@ -315,6 +405,14 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 	@Override
 	@Nullable
 	public RequestMatchResult match(HttpServletRequest request, String pattern) {
+		PathPatternParser patternParser = getPatternParser();
+		if (patternParser != null) {
+			PathPattern pathPattern = patternParser.parse(pattern);
+			PathContainer path = (ServletRequestPathUtils.hasParsedRequestPath(request) ?
+					ServletRequestPathUtils.getParsedRequestPath(request) :
+					ServletRequestPathUtils.parse(request)).pathWithinApplication();
+			return (pathPattern.matches(path) ? new RequestMatchResult(pathPattern, path) : null);
+		}
 		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request, LOOKUP_PATH);
 		if (getPathMatcher().match(pattern, lookupPath)) {
 			return new RequestMatchResult(pattern, lookupPath, getPathMatcher());
@@ -393,6 +491,10 @@ public abstract class AbstractUrlHandlerMapping extends AbstractHandlerMapping i
 			else {
                 // Handler 未注册，则将 url 和对应的 Handler 放入 Map 中
 				this.handlerMap.put(urlPath, resolvedHandler);
+				PathPatternParser patternParser = getPatternParser();
+				if (patternParser != null) {
+					this.pathPatternHandlerMap.put(patternParser.parse(urlPath), resolvedHandler);
+				}
 				if (logger.isTraceEnabled()) {
 					logger.trace("Mapped [" + urlPath + "] onto " + getHandlerDescription(handler));
 				}
@@ -27,18 +27,27 @@ import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
+import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.PathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * A logical disjunction (' || ') request condition that matches a request
  * against a set of URL path patterns.
  *
+ * <p>Patterns are matched as Strings via a {@link PathMatcher} by default, or,
+ * if created with a {@link PathPatternParser}, as parsed {@link PathPattern}s
+ * against the parsed request path (see {@link ServletRequestPathUtils}).
+ *
  * @author Rossen Stoyanchev
  * @since 3.1
  */
@@ -59,6 +68,9 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
 
 	private final List<String> fileExtensions = new ArrayList<>();
 
+	@Nullable
+	private final Set<PathPattern> pathPatterns;
+
 
 	/**
 	 * Creates a new instance with the given URL patterns. Each pattern that is
@@ -85,6 +97,29 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
 		this(patterns, urlPathHelper, pathMatcher, false, useTrailingSlashMatch, null);
 	}
 
+	/**
+	 * Constructor for matching with parsed {@link PathPattern}s rather than
+	 * with a {@link PathMatcher}. Each pattern that is not empty and does not
+	 * start with "/" is prepended with "/".
+	 * <p>Suffix pattern matching is not supported in this mode, and trailing
+	 * slash matching is determined by
+	 * {@link PathPatternParser#setMatchOptionalTrailingSeparator}.
+	 * @param patterns the URL patterns to use; if 0, the condition will match to every request.
+	 * @param patternParser the parser to parse the patterns with
+	 * @since 5.2.10
+	 */
+	public PatternsRequestCondition(String[] patterns, PathPatternParser patternParser) {
+		this.patterns = initPatterns(patterns);
+		this.pathHelper = UrlPathHelper.defaultInstance;
+		this.pathMatcher = new AntPathMatcher();
+		this.useSuffixPatternMatch = false;
+		this.useTrailingSlashMatch = false;
+		this.pathPatterns = new LinkedHashSet<>(this.patterns.size());
+		for (String pattern : this.patterns) {
+			this.pathPatterns.add(patternParser.parse(pattern));
+		}
+	}
+
 	/**
 	 * Alternative constructor with additional optional parameters.
 	 * @param patterns the URL patterns to use; if 0, the condition will match to every request.
@@ -125,6 +160,7 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
 		this.pathMatcher = pathMatcher != null ? pathMatcher : new AntPathMatcher();
 		this.useSuffixPatternMatch = useSuffixPatternMatch;
 		this.useTrailingSlashMatch = useTrailingSlashMatch;
+		this.pathPatterns = null;
 
 		if (fileExtensions != null) {
 			for (String fileExtension : fileExtensions) {
@@ -171,6 +207,23 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
 		this.useSuffixPatternMatch = other.useSuffixPatternMatch;
 		this.useTrailingSlashMatch = other.useTrailingSlashMatch;
 		this.fileExtensions.addAll(other.fileExtensions);
+		this.pathPatterns = null;
+	}
+
+	/**
+	 * Private constructor for use when combining and matching parsed patterns.
+	 */
+	private PatternsRequestCondition(Collection<PathPattern> pathPatterns, PatternsRequestCondition other) {
+		this.pathPatterns = new LinkedHashSet<>(pathPatterns);
+		Set<String> patterns = new LinkedHashSet<>(pathPatterns.size());
+		for (PathPattern pathPattern : pathPatterns) {
+			patterns.add(pathPattern.getPatternString());
+		}
+		this.patterns = patterns;
+		this.pathHelper = other.pathHelper;
+		this.pathMatcher = other.pathMatcher;
+		this.useSuffixPatternMatch = false;
+		this.useTrailingSlashMatch = false;
 	}
 
 
@@ -178,6 +231,16 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
 		return this.patterns;
 	}
 
+	/**
+	 * Return the parsed patterns, if this condition was created with a
+	 * {@link PathPatternParser}, or {@code null} otherwise.
+	 * @since 5.2.10
+	 */
+	@Nullable
+	public Set<PathPattern> getPathPatterns() {
+		return this.pathPatterns;
+	}
+
 	@Override
 	protected Collection<String> getContent() {
 		return this.patterns;
@@ -209,6 +272,15 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
 		else if (isEmptyPathPattern()) {
 			return other;
 		}
+		if (this.pathPatterns != null && other.pathPatterns != null) {
+			Set<PathPattern> result = new LinkedHashSet<>();
+			for (PathPattern pattern1 : this.pathPatterns) {
+				for (PathPattern pattern2 : other.pathPatterns) {
+					result.add(pattern1.combine(pattern2));
+				}
+			}
+			return new PatternsRequestCondition(result, this);
+		}
 		Set<String> result = new LinkedHashSet<>();
 		if (!this.patterns.isEmpty() && !other.patterns.isEmpty()) {
 			for (String pattern1 : this.patterns) {
@@ -243,6 +315,10 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
 	@Override
 	@Nullable
 	public PatternsRequestCondition getMatchingCondition(HttpServletRequest request) {
+		if (this.pathPatterns != null) {
+			List<PathPattern> matches = getMatchingPathPatterns(getPathWithinApplication(request));
+			return (!matches.isEmpty() ? new PatternsRequestCondition(matches, this) : null);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request, HandlerMapping.LOOKUP_PATH);
 		List<String> matches = getMatchingPatterns(lookupPath);
 		return !matches.isEmpty() ? new PatternsRequestCondition(new LinkedHashSet<>(matches), this) : null;
@@ -257,6 +333,14 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
 	 * @return a collection of matching patterns sorted with the closest match at the top
 	 */
 	public List<String> getMatchingPatterns(String lookupPath) {
+		if (this.pathPatterns != null) {
+			List<PathPattern> pathMatches = getMatchingPathPatterns(PathContainer.parsePath(lookupPath));
+			List<String> result = new ArrayList<>(pathMatches.size());
+			for (PathPattern pathPattern : pathMatches) {
+				result.add(pathPattern.getPatternString());
+			}
+			return result;
+		}
 		List<String> matches = null;
 		for (String pattern : this.patterns) {
 			String match = getMatchingPattern(pattern, lookupPath);
@@ -274,6 +358,31 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
 		return matches;
 	}
 
+	private static PathContainer getPathWithinApplication(HttpServletRequest request) {
+		// Prefer the path parsed by the handler mapping over parsing it again
+		return (ServletRequestPathUtils.hasParsedRequestPath(request) ?
+				ServletRequestPathUtils.getParsedRequestPath(request) :
+				ServletRequestPathUtils.parse(request)).pathWithinApplication();
+	}
+
+	private List<PathPattern> getMatchingPathPatterns(PathContainer path) {
+		Assert.state(this.pathPatterns != null, "No parsed patterns");
+		List<PathPattern> matches = null;
+		for (PathPattern pattern : this.pathPatterns) {
+			if (pattern.matches(path)) {
+				matches = (matches != null ? matches : new ArrayList<>());
+				matches.add(pattern);
+			}
+		}
+		if (matches == null) {
+			return Collections.emptyList();
+		}
+		if (matches.size() > 1) {
+			matches.sort(PathPattern.SPECIFICITY_COMPARATOR);
+		}
+		return matches;
+	}
+
 	@Nullable
 	private String getMatchingPattern(String pattern, String lookupPath) {
 		if (pattern.equals(lookupPath)) {
@@ -318,10 +427,18 @@ public class PatternsRequestCondition extends AbstractRequestCondition<PatternsR
 	 */
 	@Override
 	public int compareTo(PatternsRequestCondition other, HttpServletRequest request) {
+		if (this.pathPatterns != null && other.pathPatterns != null) {
+			return compare(this.pathPatterns.iterator(), other.pathPatterns.iterator(),
+					PathPattern.SPECIFICITY_COMPARATOR);
+		}
 		String lookupPath = this.pathHelper.getLookupPathForRequest(request, HandlerMapping.LOOKUP_PATH);
 		Comparator<String> patternComparator = this.pathMatcher.getPatternComparator(lookupPath);
-		Iterator<String> iterator = this.patterns.iterator();
-		Iterator<String> iteratorOther = other.patterns.iterator();
+		return compare(this.patterns.iterator(), other.patterns.iterator(), patternComparator);
+	}
+
+	private static <T> int compare(Iterator<T> iterator, Iterator<T> iteratorOther,
+			Comparator<? super T> patternComparator) {
+
 		while (iterator.hasNext() && iteratorOther.hasNext()) {
 			int result = patternComparator.compare(iterator.next(), iteratorOther.next());
 			if (result != 0) {
@@ -38,6 +38,7 @@ import org.springframework.web.servlet.mvc.condition.RequestConditionHolder;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Request mapping information. Encapsulates the following request mapping conditions:
@@ -548,11 +549,17 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		@SuppressWarnings("deprecation")
 		public RequestMappingInfo build() {
 
-			PatternsRequestCondition patternsCondition = ObjectUtils.isEmpty(this.paths) ? null :
-					new PatternsRequestCondition(
-							this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
-							this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
-							this.options.getFileExtensions());
+			PatternsRequestCondition patternsCondition = null;
+			PathPatternParser patternParser = this.options.getPatternParser();
+			if (patternParser != null) {
+				patternsCondition = new PatternsRequestCondition(this.paths, patternParser);
+			}
+			else if (!ObjectUtils.isEmpty(this.paths)) {
+				patternsCondition = new PatternsRequestCondition(
+						this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
+						this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
+						this.options.getFileExtensions());
+			}
 
 			ContentNegotiationManager manager = this.options.getContentNegotiationManager();
 
@@ -587,6 +594,9 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		@Nullable
 		private PathMatcher pathMatcher;
 
+		@Nullable
+		private PathPatternParser patternParser;
+
 		private boolean trailingSlashMatch = true;
 
 		private boolean suffixPatternMatch = true;
@@ -629,6 +639,27 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 			return this.pathMatcher;
 		}
 
+		/**
+		 * Enable use of parsed {@link org.springframework.web.util.pattern.PathPattern
+		 * PathPatterns} in the PatternsRequestCondition, in which case the
+		 * {@link #setUrlPathHelper UrlPathHelper}, {@link #setPathMatcher PathMatcher},
+		 * and suffix pattern options are not used.
+		 * <p>By default this is not set.
+		 * @since 5.2.10
+		 */
+		public void setPatternParser(@Nullable PathPatternParser patternParser) {
+			this.patternParser = patternParser;
+		}
+
+		/**
+		 * Return the {@link #setPatternParser configured} {@code PathPatternParser}, if any.
+		 * @since 5.2.10
+		 */
+		@Nullable
+		public PathPatternParser getPatternParser() {
+			return this.patternParser;
+		}
+
 		/**
 		 * Set whether to apply trailing slash matching in PatternsRequestCondition.
 		 * <p>By default this is set to 'true'.
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.mvc.Controller;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+import org.springframework.web.testfixture.servlet.MockServletConfig;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link FlightRecorderDispatchEvent}.
+ *
+ * @author agent
+ */
+class FlightRecorderDispatchEventTests {
+
+	@Test
+	void dispatchIsRecorded(@TempDir Path tempDir) throws Exception {
+		StaticWebApplicationContext context = new StaticWebApplicationContext();
+		context.registerBean("/accept", Controller.class, () -> (request, response) -> {
+			response.setStatus(202);
+			return null;
+		});
+		DispatcherServlet servlet = new DispatcherServlet(context);
+		servlet.init(new MockServletConfig());
+
+		Path file = tempDir.resolve("dispatch.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(FlightRecorderDispatchEvent.class);
+			recording.start();
+			servlet.service(new MockHttpServletRequest("POST", "/accept"), new MockHttpServletResponse());
+			recording.stop();
+			recording.dump(file);
+		}
+		servlet.destroy();
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+		assertThat(events).hasSize(1);
+		RecordedEvent event = events.get(0);
+		assertThat(event.getString("method")).isEqualTo("POST");
+		assertThat(event.getString("uri")).isEqualTo("/accept");
+		assertThat(event.getString("handler")).isNotNull();
+		assertThat(event.getInt("status")).isEqualTo(202);
+		assertThat(event.getDuration("handlerLookup")).isPositive();
+		assertThat(event.getDuration("handlerInvocation")).isPositive();
+	}
+
+	@Test
+	void nothingIsRecordedWhenDisabled() {
+		assertThat(FlightRecorderDispatchEvent.start()).isNull();
+	}
+
+}
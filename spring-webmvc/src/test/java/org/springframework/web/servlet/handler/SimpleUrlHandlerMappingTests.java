@@ -17,6 +17,8 @@
 package org.springframework.web.servlet.handler;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
@@ -29,10 +31,13 @@ import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 import org.springframework.web.testfixture.servlet.MockServletContext;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 /**
  * @author Rod Johnson
@@ -85,6 +90,52 @@ public class SimpleUrlHandlerMappingTests {
 	}
 
 	@SuppressWarnings("resource")
+	@Test
+	public void urlMappingWithPathPatterns() throws Exception {
+		Object mainController = new Object();
+		Object resourceController = new Object();
+		Object userController = new Object();
+		Map<String, Object> urlMap = new LinkedHashMap<>();
+		urlMap.put("/welcome.html", mainController);
+		urlMap.put("/resources/**", resourceController);
+		urlMap.put("/users/{id}", userController);
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping();
+		handlerMapping.setPatternParser(new PathPatternParser());
+		handlerMapping.setUrlMap(urlMap);
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/welcome.html");
+		request.setContextPath("/app");
+		HandlerExecutionChain chain = getHandler(handlerMapping, request);
+		assertThat(chain.getHandler()).isSameAs(mainController);
+		assertThat(request.getAttribute(HandlerMapping.LOOKUP_PATH)).isEqualTo("/welcome.html");
+		assertThat(ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication().value())
+				.isEqualTo("/welcome.html");
+
+		request = new MockHttpServletRequest("GET", "/resources/css/main.css");
+		chain = getHandler(handlerMapping, request);
+		assertThat(chain.getHandler()).isSameAs(resourceController);
+		assertThat(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).isEqualTo("/resources/**");
+		assertThat(request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE)).isEqualTo("css/main.css");
+
+		request = new MockHttpServletRequest("GET", "/users/j%20doe");
+		chain = getHandler(handlerMapping, request);
+		assertThat(chain.getHandler()).isSameAs(userController);
+		assertThat(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE))
+				.isEqualTo(Collections.singletonMap("id", "j doe"));
+
+		request = new MockHttpServletRequest("GET", "/users/1/orders");
+		assertThat(handlerMapping.getHandler(request)).isNull();
+	}
+
+	@Test
+	public void patternParserMustBeSetBeforeRegistration() {
+		SimpleUrlHandlerMapping handlerMapping = new SimpleUrlHandlerMapping(
+				Collections.singletonMap("/welcome.html", new Object()));
+		handlerMapping.setApplicationContext(new StaticApplicationContext());
+		assertThatIllegalStateException().isThrownBy(() -> handlerMapping.setPatternParser(new PathPatternParser()));
+	}
+
 	private void checkMappings(String beanName) throws Exception {
 		MockServletContext sc = new MockServletContext("");
 		XmlWebApplicationContext wac = new XmlWebApplicationContext();
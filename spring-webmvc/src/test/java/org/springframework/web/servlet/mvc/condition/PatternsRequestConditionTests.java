@@ -24,6 +24,9 @@ import javax.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -224,4 +227,75 @@ public class PatternsRequestConditionTests {
 		assertThat(match1.compareTo(match2, request)).isEqualTo(1);
 	}
 
+	@Test
+	public void matchWithPathPatterns() {
+		PatternsRequestCondition condition = pathPatternsCondition("/**", "/foo/bar", "/foo/*", "/foo/{id}");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo/bar");
+		request.setContextPath("/app");
+		PatternsRequestCondition match = condition.getMatchingCondition(request);
+
+		assertThat(match).isNotNull();
+		assertThat(match.getPatterns()).containsExactly("/foo/bar", "/foo/{id}", "/foo/*", "/**");
+		assertThat(match.getPathPatterns()).extracting(PathPattern::getPatternString)
+				.containsExactly("/foo/bar", "/foo/{id}", "/foo/*", "/**");
+		assertThat(condition.getMatchingPatterns("/foo/bar")).containsExactlyElementsOf(match.getPatterns());
+	}
+
+	@Test
+	public void matchWithPathPatternsUsesParsedRequestPath() {
+		PatternsRequestCondition condition = pathPatternsCondition("/foo/{id}");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/bar");
+		ServletRequestPathUtils.parseAndCache(request);
+		request.setRequestURI("/other");
+
+		assertThat(condition.getMatchingCondition(request)).isNotNull();
+	}
+
+	@Test
+	public void matchWithPathPatternsAndServletPathPrefix() {
+		PatternsRequestCondition condition = pathPatternsCondition("/foo");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/main/foo");
+		request.setContextPath("/app");
+		request.setServletPath("/main");
+		request.setPathInfo("/foo");
+
+		assertThat(condition.getMatchingCondition(request)).isNotNull();
+	}
+
+	@Test
+	public void matchTrailingSlashWithPathPatterns() {
+		PatternsRequestCondition condition = pathPatternsCondition("/foo");
+		assertThat(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/"))).isNotNull();
+
+		PathPatternParser parser = new PathPatternParser();
+		parser.setMatchOptionalTrailingSeparator(false);
+		condition = new PatternsRequestCondition(new String[] {"/foo"}, parser);
+		assertThat(condition.getMatchingCondition(new MockHttpServletRequest("GET", "/foo/"))).isNull();
+	}
+
+	@Test
+	public void combineWithPathPatterns() {
+		PatternsRequestCondition c1 = pathPatternsCondition("/t1", "/t2");
+		PatternsRequestCondition c2 = pathPatternsCondition("/m1", "/{id}");
+		PatternsRequestCondition combined = c1.combine(c2);
+
+		assertThat(combined.getPatterns()).containsExactly("/t1/m1", "/t1/{id}", "/t2/m1", "/t2/{id}");
+		assertThat(combined.getPathPatterns()).hasSize(4);
+		assertThat(pathPatternsCondition().combine(c2)).isSameAs(c2);
+	}
+
+	@Test
+	public void compareWithPathPatterns() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/bar");
+		PatternsRequestCondition c1 = pathPatternsCondition("/foo/{id}").getMatchingCondition(request);
+		PatternsRequestCondition c2 = pathPatternsCondition("/foo/**").getMatchingCondition(request);
+
+		assertThat(c1.compareTo(c2, request)).isLessThan(0);
+		assertThat(c2.compareTo(c1, request)).isGreaterThan(0);
+	}
+
+	private PatternsRequestCondition pathPatternsCondition(String... patterns) {
+		return new PatternsRequestCondition(patterns, new PathPatternParser());
+	}
+
 }
@@ -46,10 +46,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.HandlerTypePredicate;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.condition.ConsumesRequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -230,6 +234,35 @@ public class RequestMappingHandlerMappingTests {
 		assertComposedAnnotationMapping(RequestMethod.PATCH);
 	}
 
+	@Test
+	public void getHandlerWithPathPatterns() throws Exception {
+		this.wac.registerSingleton("userController", UserController.class);
+		this.wac.refresh();
+
+		RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping();
+		mapping.setPatternParser(new PathPatternParser());
+		mapping.setApplicationContext(this.wac);
+		mapping.afterPropertiesSet();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/user/j%20doe;role=admin");
+		request.setContextPath("/app");
+		HandlerExecutionChain chain = mapping.getHandler(request);
+
+		assertThat(chain).isNotNull();
+		assertThat(((HandlerMethod) chain.getHandler()).getMethod().getName()).isEqualTo("getUser");
+		assertThat(request.getAttribute(HandlerMapping.LOOKUP_PATH)).isEqualTo("/user/j%20doe");
+		assertThat(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).isEqualTo("/user/{id}");
+		assertThat(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE))
+				.isEqualTo(Collections.singletonMap("id", "j doe"));
+		assertThat(request.getAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE))
+				.asString().isEqualTo("{id={role=[admin]}}");
+
+		assertThat(mapping.match(request, "/user/{id}")).isNotNull();
+		assertThat(mapping.match(request, "/user/{id}").extractUriTemplateVariables()).containsEntry("id", "j doe");
+		assertThat(mapping.match(request, "/other/{id}")).isNull();
+		assertThat(mapping.getHandler(new MockHttpServletRequest("GET", "/user/1/roles"))).isNull();
+	}
+
 	private RequestMappingInfo assertComposedAnnotationMapping(RequestMethod requestMethod) throws Exception {
 		String methodName = requestMethod.name().toLowerCase();
 		String path = "/" + methodName;